@@ -1,5 +1,6 @@
 package com.flightmanagement.controller;
 
+import com.flightmanagement.dto.CursorPage;
 import com.flightmanagement.entity.ApiResponse;
 import com.flightmanagement.entity.AuditLog;
 import com.flightmanagement.service.AuditLogService;
@@ -26,11 +27,18 @@ public class AuditLogController {
         this.auditLogService = auditLogService;
     }
     
-    @Operation(summary = "Get all audit logs with pagination")
+    @Operation(summary = "Get all audit logs with pagination",
+            description = "Offset pages by page and size, newest first. Pass cursor (empty for the first page) to page by keyset instead, following nextCursor; count=true adds the total.")
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<AuditLog>>> getAllAuditLogs(
+    public ResponseEntity<?> getAllAuditLogs(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean count) {
+        if (cursor != null) {
+            CursorPage<AuditLog> cursorPage = auditLogService.getAuditLogsBefore(cursor, size, count);
+            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK, "Audit logs retrieved successfully", cursorPage, null));
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<AuditLog> auditLogs = auditLogService.getAllAuditLogs(pageable);
         
@@ -1,8 +1,13 @@
 package com.flightmanagement.controller;
 
+import com.flightmanagement.dto.ConnectionDto;
+import com.flightmanagement.dto.CursorPage;
+import com.flightmanagement.dto.FareCalendarDto;
 import com.flightmanagement.dto.FlightRequest;
 import com.flightmanagement.dto.FlightDto;
 import com.flightmanagement.dto.FlightSearchCriteria;
+import com.flightmanagement.service.ConnectionSearchService;
+import com.flightmanagement.service.FareCalendarService;
 import com.flightmanagement.service.FlightService;
 import com.flightmanagement.entity.ApiResponse;
 import jakarta.validation.Valid;
@@ -17,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -27,16 +33,30 @@ public class FlightController {
 
     private final FlightService flightService;
 
-    public FlightController(FlightService flightService) {
+    private final ConnectionSearchService connectionSearchService;
+
+    private final FareCalendarService fareCalendarService;
+
+    public FlightController(FlightService flightService,
+                            ConnectionSearchService connectionSearchService,
+                            FareCalendarService fareCalendarService) {
         this.flightService = flightService;
+        this.connectionSearchService = connectionSearchService;
+        this.fareCalendarService = fareCalendarService;
     }
 
-    @Operation(summary = "Get all flights")
+    @Operation(summary = "Get all flights", description = "Offset pages by page and size. Pass cursor (empty for the first page) to page by keyset instead, following nextCursor; count=true adds the total.")
     @GetMapping
     public ResponseEntity<?> getAllFlights(
             @PageableDefault(page = 0, size = 10)
-            Pageable pageable
+            Pageable pageable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean count
     ) {
+        if (cursor != null) {
+            CursorPage<FlightDto> cursorPage = flightService.getAllFlightsAfter(cursor, pageable.getPageSize(), count);
+            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK, "Fetched all flights", cursorPage, null));
+        }
         Page<FlightDto> page = flightService.getAllFlightsPaged(pageable);
         ApiResponse<?> apiResponse = new ApiResponse<>(
                 HttpStatus.OK,
@@ -150,6 +170,46 @@ public class FlightController {
         }
     }
 
+    @Operation(summary = "Search direct and connecting itineraries")
+    @GetMapping("/search/connections")
+    public ResponseEntity<ApiResponse<List<ConnectionDto>>> searchConnections(
+            @RequestParam Integer departureAirportId,
+            @RequestParam Integer arrivalAirportId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departureDate,
+            @RequestParam Integer passengerCount,
+            @RequestParam(required = false) Integer ticketClassId,
+            @RequestParam(defaultValue = "1") int maxStops) {
+        FlightSearchCriteria criteria = new FlightSearchCriteria(departureAirportId, arrivalAirportId, departureDate,
+                passengerCount, ticketClassId);
+        List<ConnectionDto> connections = connectionSearchService.searchConnections(criteria, maxStops);
+        ApiResponse<List<ConnectionDto>> apiResponse = new ApiResponse<>(
+                HttpStatus.OK,
+                "Connection search completed",
+                connections,
+                null
+        );
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @Operation(summary = "Get the lowest available fare per day and ticket class on a route")
+    @GetMapping("/fare-calendar")
+    public ResponseEntity<ApiResponse<List<FareCalendarDto>>> getFareCalendar(
+            @RequestParam Integer departureAirportId,
+            @RequestParam Integer arrivalAirportId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "1") int passengerCount) {
+        List<FareCalendarDto> calendar = fareCalendarService.getFareCalendar(departureAirportId, arrivalAirportId,
+                startDate, endDate, passengerCount);
+        ApiResponse<List<FareCalendarDto>> apiResponse = new ApiResponse<>(
+                HttpStatus.OK,
+                "Fare calendar retrieved successfully",
+                calendar,
+                null
+        );
+        return ResponseEntity.ok(apiResponse);
+    }
+
     @Operation(summary = "Get flights by route")
     @GetMapping("/route")
     public ResponseEntity<ApiResponse<List<FlightDto>>> getFlightsByRoute(
@@ -36,6 +36,20 @@ public class MessageController {
         return ResponseEntity.ok(apiResponse);
     }
     
+    @Operation(summary = "Get messages since a sequence number",
+            description = "Messages of the chatbox numbered after seq, in order. Clients call it to fill a gap in the sequence numbers pushed over WebSocket.")
+    @GetMapping("/chatbox/{chatboxId}/since/{seq}")
+    public ResponseEntity<ApiResponse<List<MessageDto>>> getMessagesSince(@PathVariable Integer chatboxId, @PathVariable Integer seq) {
+        List<MessageDto> messages = messageService.getMessagesSince(chatboxId, seq);
+        ApiResponse<List<MessageDto>> apiResponse = new ApiResponse<>(
+                HttpStatus.OK,
+                "Messages retrieved successfully",
+                messages,
+                null
+        );
+        return ResponseEntity.ok(apiResponse);
+    }
+    
     @Operation(summary = "Create a message from an employee")
     @PostMapping("/employee")
     public ResponseEntity<ApiResponse<MessageDto>> createEmployeeMessage(@RequestBody Map<String, Object> requestBody) {
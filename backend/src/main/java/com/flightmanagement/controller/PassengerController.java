@@ -1,16 +1,25 @@
 package com.flightmanagement.controller;
 
+import com.flightmanagement.dto.CursorPage;
 import com.flightmanagement.dto.PassengerDto;
 import com.flightmanagement.entity.ApiResponse;
+import com.flightmanagement.enums.ExportFormat;
+import com.flightmanagement.service.ExportService;
 import com.flightmanagement.service.PassengerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,16 +30,29 @@ public class PassengerController {
 
     private final PassengerService passengerService;
 
-    public PassengerController(PassengerService passengerService) {
+    private final ExportService exportService;
+
+    private final long exportTimeoutMs;
+
+    public PassengerController(PassengerService passengerService, ExportService exportService,
+                               @Value("${app.export.timeout-ms:3600000}") long exportTimeoutMs) {
         this.passengerService = passengerService;
+        this.exportService = exportService;
+        this.exportTimeoutMs = exportTimeoutMs;
     }
 
-    @Operation(summary = "Get all passengers")
+    @Operation(summary = "Get all passengers", description = "Offset pages by page and size. Pass cursor (empty for the first page) to page by keyset instead, following nextCursor; count=true adds the total.")
     @GetMapping
     public ResponseEntity<?> getAllPassengers(
             @PageableDefault(page = 0, size = 10)
-            Pageable pageable
+            Pageable pageable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean count
     ) {
+        if (cursor != null) {
+            CursorPage<PassengerDto> cursorPage = passengerService.getAllPassengersAfter(cursor, pageable.getPageSize(), count);
+            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK, "Fetched all passengers", cursorPage, null));
+        }
         Page<PassengerDto> page = passengerService.getAllPassengersPaged(pageable);
         ApiResponse<?> apiResponse = new ApiResponse<>(
                 HttpStatus.OK,
@@ -41,6 +63,21 @@ public class PassengerController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    @Operation(summary = "Export all passengers", description = "Streams every active passenger as NDJSON (one object per line) or CSV, in id order.")
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public ResponseEntity<StreamingResponseBody> exportPassengers(@RequestParam(defaultValue = "ndjson") String format,
+                                                                  HttpServletRequest request) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        // The body streams asynchronously; give this request, not every async one, time to finish
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeoutMs);
+        StreamingResponseBody body = out -> exportService.exportPassengers(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"passengers." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @Operation(summary = "Get passenger by ID")
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<PassengerDto>> getPassengerById(@PathVariable Integer id) {
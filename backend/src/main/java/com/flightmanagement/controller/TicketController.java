@@ -2,16 +2,24 @@ package com.flightmanagement.controller;
 
 import com.flightmanagement.dto.*;
 import com.flightmanagement.entity.ApiResponse;
+import com.flightmanagement.enums.ExportFormat;
+import com.flightmanagement.service.BookingIdempotencyService;
+import com.flightmanagement.service.ExportService;
 import com.flightmanagement.service.TicketService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,16 +30,33 @@ public class TicketController {
 
     private final TicketService ticketService;
 
-    public TicketController(TicketService ticketService) {
+    private final BookingIdempotencyService bookingIdempotencyService;
+
+    private final ExportService exportService;
+
+    private final long exportTimeoutMs;
+
+    public TicketController(TicketService ticketService, BookingIdempotencyService bookingIdempotencyService,
+                            ExportService exportService,
+                            @Value("${app.export.timeout-ms:3600000}") long exportTimeoutMs) {
         this.ticketService = ticketService;
+        this.bookingIdempotencyService = bookingIdempotencyService;
+        this.exportService = exportService;
+        this.exportTimeoutMs = exportTimeoutMs;
     }
 
-    @Operation(summary = "Get all tickets")
+    @Operation(summary = "Get all tickets", description = "Offset pages by page and size. Pass cursor (empty for the first page) to page by keyset instead, following nextCursor; count=true adds the total.")
     @GetMapping
     public ResponseEntity<?> getAllTickets(
             @PageableDefault(page = 0, size = 10)
-            Pageable pageable
+            Pageable pageable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean count
     ) {
+        if (cursor != null) {
+            CursorPage<TicketDto> cursorPage = ticketService.getAllTicketsAfter(cursor, pageable.getPageSize(), count);
+            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK, "Fetched all tickets", cursorPage, null));
+        }
         Page<TicketDto> page = ticketService.getAllTicketsPaged(pageable);
         ApiResponse<?> apiResponse = new ApiResponse<>(
                 HttpStatus.OK,
@@ -42,6 +67,21 @@ public class TicketController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    @Operation(summary = "Export all tickets", description = "Streams every active ticket as NDJSON (one object per line) or CSV, in id order.")
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public ResponseEntity<StreamingResponseBody> exportTickets(@RequestParam(defaultValue = "ndjson") String format,
+                                                               HttpServletRequest request) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        // The body streams asynchronously; give this request, not every async one, time to finish
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeoutMs);
+        StreamingResponseBody body = out -> exportService.exportTickets(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @Operation(summary = "Get ticket by ID")
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<TicketDto>> getTicketById(@PathVariable Integer id) {
@@ -68,10 +108,12 @@ public class TicketController {
         return ResponseEntity.status(HttpStatus.CREATED).body(apiResponse);
     }
 
-    @Operation(summary = "Book tickets")
+    @Operation(summary = "Book tickets; retries sending the same Idempotency-Key get the original booking back")
     @PostMapping("/book")
-    public ResponseEntity<ApiResponse<List<TicketDto>>> bookTickets(@RequestBody BookingDto bookingDto) {
-        List<TicketDto> bookedTickets = ticketService.bookTickets(bookingDto);
+    public ResponseEntity<ApiResponse<List<TicketDto>>> bookTickets(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody BookingDto bookingDto) {
+        List<TicketDto> bookedTickets = bookingIdempotencyService.bookTickets(idempotencyKey, bookingDto);
         ApiResponse<List<TicketDto>> apiResponse = new ApiResponse<>(
                 HttpStatus.CREATED,
                 "Tickets booked successfully",
@@ -198,6 +240,22 @@ public class TicketController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    @Operation(summary = "Get the seat map of a flight ticket class, optionally checking seats or suggesting adjacent free seats")
+    @GetMapping("/seat-map")
+    public ResponseEntity<ApiResponse<SeatMapDto>> getSeatMap(@RequestParam Integer flightId,
+                                                              @RequestParam Integer ticketClassId,
+                                                              @RequestParam(required = false) List<String> seats,
+                                                              @RequestParam(required = false) Integer count) {
+        SeatMapDto seatMap = ticketService.getSeatMap(flightId, ticketClassId, seats, count);
+        ApiResponse<SeatMapDto> apiResponse = new ApiResponse<>(
+                HttpStatus.OK,
+                "Seat map retrieved successfully",
+                seatMap,
+                null
+        );
+        return ResponseEntity.ok(apiResponse);
+    }
+
     @Operation(summary = "Generate a confirmation code")
     @GetMapping("/confirmation-code")
     public ResponseEntity<ApiResponse<String>> generateConfirmationCode() {
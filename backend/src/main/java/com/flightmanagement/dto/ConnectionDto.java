@@ -0,0 +1,29 @@
+package com.flightmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionDto {
+
+    // Legs in travel order
+    private List<FlightDto> flights;
+
+    private LocalDateTime departureTime;
+
+    private LocalDateTime arrivalTime;
+
+    private Integer stops;
+
+    // Sum of the leg fares for the requested ticket class, or the cheapest class of each leg
+    private BigDecimal totalFare;
+}
@@ -0,0 +1,55 @@
+package com.flightmanagement.dto;
+
+import com.flightmanagement.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One keyset page. Unlike an offset Page it runs no COUNT(*) unless the total is asked for.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int MAX_SIZE = 1000;
+
+    private List<T> content;
+
+    // Pass back as cursor for the next page; null on the last page
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    // Only set when the count was requested
+    private Long totalElements;
+
+    /**
+     * Limit for the page query: one row more than the page, to tell whether another page follows.
+     */
+    public static Pageable limit(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_SIZE);
+        }
+        return PageRequest.ofSize(size + 1);
+    }
+
+    /**
+     * Builds the page from rows fetched with {@link #limit(int)}.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, PageCursor> cursorOf,
+                                          Function<List<E>, List<T>> mapper, Long totalElements) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(size - 1)).encode() : null;
+        return new CursorPage<>(mapper.apply(page), nextCursor, hasNext, totalElements);
+    }
+}
@@ -0,0 +1,25 @@
+package com.flightmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FareCalendarDto {
+
+    private LocalDate departureDate;
+
+    private Integer ticketClassId;
+
+    private BigDecimal lowestFare;
+
+    // Flight offering the lowest fare, the earliest one on a tie
+    private Integer flightId;
+}
@@ -19,6 +19,7 @@ public class MessageDto {
     private String employeeName;
     private String content;
     private LocalDateTime sendTime;
+    private Integer seq;  // Per-chatbox sequence number; a jump means messages were missed
     private Boolean isFromCustomer;  // Derived field: true if employeeId is null
     private LocalDateTime deletedAt;
 }
@@ -0,0 +1,55 @@
+package com.flightmanagement.dto;
+
+import com.flightmanagement.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: its sort key, if the listing has one besides the id,
+ * and its id as the tie-breaker. Clients get it as an opaque URL-safe string.
+ */
+public record PageCursor(String sortKey, int id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static PageCursor of(int id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDateTime sortKey, int id) {
+        return new PageCursor(sortKey.toString(), id);
+    }
+
+    /**
+     * Null for a blank cursor, which asks for the first page.
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = text.lastIndexOf(SEPARATOR);
+            String sortKey = separator < 0 ? null : text.substring(0, separator);
+            return new PageCursor(sortKey, Integer.parseInt(text.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String text = sortKey == null ? Integer.toString(id) : sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime sortKeyAsDateTime() {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new BadRequestException("Invalid cursor for this listing");
+        }
+    }
+}
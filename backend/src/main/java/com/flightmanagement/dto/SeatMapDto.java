@@ -0,0 +1,33 @@
+package com.flightmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMapDto {
+
+    private Integer flightId;
+
+    private Integer ticketClassId;
+
+    private Integer capacity;
+
+    private Integer occupiedCount;
+
+    private List<String> occupiedSeats;
+
+    private List<String> availableSeats;
+
+    // Set only when specific seats were asked about
+    private Boolean requestedSeatsAvailable;
+
+    // Set only when a number of adjacent seats was asked for
+    private List<String> suggestedSeats;
+}
@@ -0,0 +1,37 @@
+package com.flightmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "booking_request", indexes = @Index(name = "idx_booking_request_created", columnList = "created_at"))
+public class BookingRequest {
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "confirmation_code", length = 20)
+    private String confirmationCode; // null while the booking is in progress
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "reserved_code", length = 20)
+    private String reservedCode; // the code the current claim books under
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt; // null only on rows written before the column existed
+}
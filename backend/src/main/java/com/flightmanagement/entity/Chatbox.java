@@ -30,6 +30,12 @@ public class Chatbox {
     @JoinColumn(name = "customer_id", insertable = false, updatable = false)
     private Customer customer;
     
+    // Owned by the database: starts at the column default and is bumped with an UPDATE when a
+    // message is sent (see MessageRepository), so saving a loaded chatbox must not write it back
+    @Column(name = "last_message_seq", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer lastMessageSeq;
+    
     @OneToMany(mappedBy = "chatboxId", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Message> messages = new ArrayList<>();
     
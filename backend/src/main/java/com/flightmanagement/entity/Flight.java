@@ -8,12 +8,19 @@ import lombok.Setter;
 
 import java.time.LocalDateTime;
 
+/**
+ * Associations are lazy: FlightMapper takes names from the reference data registry, and
+ * FlightRepository.findWithAirportsById fetches the airports for callers outside a transaction.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "flight")
+@Table(name = "flight", indexes = {
+        @Index(name = "idx_flight_route_departure", columnList = "departure_airport_id, arrival_airport_id, departure_time, deletedAt"),
+        @Index(name = "idx_flight_departure_time", columnList = "departure_time")
+})
 public class Flight {
     
     @Id
@@ -21,15 +28,15 @@ public class Flight {
     @Column(name = "flight_id")
     private Integer flightId;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "plane_id", nullable = false)
     private Plane plane;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "departure_airport_id", nullable = false)
     private Airport departureAirport;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "arrival_airport_id", nullable = false)
     private Airport arrivalAirport;
     
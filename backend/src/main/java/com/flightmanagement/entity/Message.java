@@ -9,7 +9,8 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "message")
+@Table(name = "message", uniqueConstraints = @UniqueConstraint(name = "uq_message_chatbox_seq",
+        columnNames = {"chatbox_id", "seq"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,6 +34,10 @@ public class Message {
     @Column(name = "send_time", nullable = false)
     private LocalDateTime sendTime;
     
+    // Position within the chatbox, starting at 1; null for messages sent before it was added
+    @Column(name = "seq")
+    private Integer seq;
+    
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
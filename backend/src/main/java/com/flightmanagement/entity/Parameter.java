@@ -37,6 +37,10 @@ public class Parameter {
     
     @Column(name = "max_booking_hold_duration", nullable = false)
     private Integer maxBookingHoldDuration;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
     
     @Column(name = "deletedAt")
     private LocalDateTime deletedAt;
@@ -9,6 +9,9 @@ import lombok.Setter;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * Associations are lazy: TicketMapper only reads their ids, which the proxies hold without a query.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,19 +24,19 @@ public class Ticket {
     @Column(name = "ticket_id")
     private Integer ticketId;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "flight_id", nullable = false)
     private Flight flight;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ticket_class_id", nullable = false)
     private TicketClass ticketClass;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_customer_id")
     private Customer bookCustomer;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "passenger_id", nullable = false)
     private Passenger passenger;
     
@@ -46,9 +46,8 @@ public class ChatboxMapper implements BaseMapper<Chatbox, ChatboxDto> {
         Chatbox entity = new Chatbox();
         entity.setChatboxId(dto.getChatboxId());
         
-        // Lấy customer từ repository
-        var customer = customerRepository.findById(dto.getCustomerId())
-            .orElseThrow(() -> new RuntimeException("Customer not found with id: " + dto.getCustomerId()));
+        // Reference proxy: the customer_id column is written from customerId, no lookup needed
+        var customer = customerRepository.getReferenceById(dto.getCustomerId());
         
         // Đặt cả customer và customerId để đảm bảo consistency
         entity.setCustomer(customer);
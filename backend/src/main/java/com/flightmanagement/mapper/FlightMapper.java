@@ -2,16 +2,23 @@ package com.flightmanagement.mapper;
 
 import com.flightmanagement.dto.FlightRequest;
 import com.flightmanagement.dto.FlightDto;
-import com.flightmanagement.entity.Airport;
 import com.flightmanagement.entity.Flight;
-import com.flightmanagement.entity.Plane;
 import com.flightmanagement.repository.AirportRepository;
 import com.flightmanagement.repository.PlaneRepository;
+import com.flightmanagement.service.ReferenceDataRegistry;
+import com.flightmanagement.service.ReferenceDataRegistry.AirportRef;
+import com.flightmanagement.service.ReferenceDataRegistry.PlaneRef;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Plane and airports are set as reference proxies, so mapping a flight to an entity runs no
+ * queries. An unknown id surfaces as a foreign key violation when the flight is saved. Mapping to
+ * a DTO takes the plane code and airport names from the reference data registry, so only the
+ * ids of the lazy associations are read.
+ */
 @Component
 public class FlightMapper implements BaseMapper<Flight, FlightDto> {
     
@@ -19,9 +26,13 @@ public class FlightMapper implements BaseMapper<Flight, FlightDto> {
     
     private final AirportRepository airportRepository;
 
-    public FlightMapper(PlaneRepository planeRepository, AirportRepository airportRepository) {
+    private final ReferenceDataRegistry referenceDataRegistry;
+
+    public FlightMapper(PlaneRepository planeRepository, AirportRepository airportRepository,
+                        ReferenceDataRegistry referenceDataRegistry) {
         this.planeRepository = planeRepository;
         this.airportRepository = airportRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
     }
     
     @Override
@@ -36,24 +47,43 @@ public class FlightMapper implements BaseMapper<Flight, FlightDto> {
         
         if (entity.getPlane() != null) {
             dto.setPlaneId(entity.getPlane().getPlaneId());
-            dto.setPlaneCode(entity.getPlane().getPlaneCode());
         }
         
         if (entity.getDepartureAirport() != null) {
             dto.setDepartureAirportId(entity.getDepartureAirport().getAirportId());
-            dto.setDepartureAirportName(entity.getDepartureAirport().getAirportName());
-            dto.setDepartureCityName(entity.getDepartureAirport().getCityName());
         }
         
         if (entity.getArrivalAirport() != null) {
             dto.setArrivalAirportId(entity.getArrivalAirport().getAirportId());
-            dto.setArrivalAirportName(entity.getArrivalAirport().getAirportName());
-            dto.setArrivalCityName(entity.getArrivalAirport().getCityName());
         }
+
+        fillReferenceNames(dto);
         
         return dto;
     }
 
+    /**
+     * Sets the plane code and airport names from the reference data registry.
+     */
+    public void fillReferenceNames(FlightDto dto) {
+        PlaneRef plane = referenceDataRegistry.findPlane(dto.getPlaneId());
+        if (plane != null) {
+            dto.setPlaneCode(plane.planeCode());
+        }
+
+        AirportRef departureAirport = referenceDataRegistry.findAirport(dto.getDepartureAirportId());
+        if (departureAirport != null) {
+            dto.setDepartureAirportName(departureAirport.airportName());
+            dto.setDepartureCityName(departureAirport.cityName());
+        }
+
+        AirportRef arrivalAirport = referenceDataRegistry.findAirport(dto.getArrivalAirportId());
+        if (arrivalAirport != null) {
+            dto.setArrivalAirportName(arrivalAirport.airportName());
+            dto.setArrivalCityName(arrivalAirport.cityName());
+        }
+    }
+
     @Override
     public Flight toEntity(FlightDto dto) {
         if (dto == null) return null;
@@ -66,23 +96,17 @@ public class FlightMapper implements BaseMapper<Flight, FlightDto> {
         
         // Set plane from plane id
         if (dto.getPlaneId() != null) {
-            Plane plane = planeRepository.findById(dto.getPlaneId())
-                .orElseThrow(() -> new RuntimeException("Plane not found with id: " + dto.getPlaneId()));
-            entity.setPlane(plane);
+            entity.setPlane(planeRepository.getReferenceById(dto.getPlaneId()));
         }
         
         // Set departure airport from departure airport id
         if (dto.getDepartureAirportId() != null) {
-            Airport departureAirport = airportRepository.findById(dto.getDepartureAirportId())
-                .orElseThrow(() -> new RuntimeException("Departure Airport not found with id: " + dto.getDepartureAirportId()));
-            entity.setDepartureAirport(departureAirport);
+            entity.setDepartureAirport(airportRepository.getReferenceById(dto.getDepartureAirportId()));
         }
         
         // Set arrival airport from arrival airport id
         if (dto.getArrivalAirportId() != null) {
-            Airport arrivalAirport = airportRepository.findById(dto.getArrivalAirportId())
-                .orElseThrow(() -> new RuntimeException("Arrival Airport not found with id: " + dto.getArrivalAirportId()));
-            entity.setArrivalAirport(arrivalAirport);
+            entity.setArrivalAirport(airportRepository.getReferenceById(dto.getArrivalAirportId()));
         }
         
         return entity;
@@ -108,23 +132,17 @@ public class FlightMapper implements BaseMapper<Flight, FlightDto> {
 
         // Set plane from plane id
         if (request.getPlaneId() != null) {
-            Plane plane = planeRepository.findById(request.getPlaneId())
-                .orElseThrow(() -> new RuntimeException("Plane not found with id: " + request.getPlaneId()));
-            entity.setPlane(plane);
+            entity.setPlane(planeRepository.getReferenceById(request.getPlaneId()));
         }
 
         // Set departure airport from departure airport id
         if (request.getDepartureAirportId() != null) {
-            Airport departureAirport = airportRepository.findById(request.getDepartureAirportId())
-                .orElseThrow(() -> new RuntimeException("Departure Airport not found with id: " + request.getDepartureAirportId()));
-            entity.setDepartureAirport(departureAirport);
+            entity.setDepartureAirport(airportRepository.getReferenceById(request.getDepartureAirportId()));
         }
 
         // Set arrival airport from arrival airport id
         if (request.getArrivalAirportId() != null) {
-            Airport arrivalAirport = airportRepository.findById(request.getArrivalAirportId())
-                .orElseThrow(() -> new RuntimeException("Arrival Airport not found with id: " + request.getArrivalAirportId()));
-            entity.setArrivalAirport(arrivalAirport);
+            entity.setArrivalAirport(airportRepository.getReferenceById(request.getArrivalAirportId()));
         }
 
         return entity;
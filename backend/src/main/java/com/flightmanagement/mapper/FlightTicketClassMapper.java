@@ -2,6 +2,8 @@ package com.flightmanagement.mapper;
 
 import com.flightmanagement.dto.FlightTicketClassDto;
 import com.flightmanagement.entity.FlightTicketClass;
+import com.flightmanagement.service.ReferenceDataRegistry;
+import com.flightmanagement.service.ReferenceDataRegistry.TicketClassRef;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -9,6 +11,12 @@ import java.util.stream.Collectors;
 
 @Component
 public class FlightTicketClassMapper {
+
+    private final ReferenceDataRegistry referenceDataRegistry;
+
+    public FlightTicketClassMapper(ReferenceDataRegistry referenceDataRegistry) {
+        this.referenceDataRegistry = referenceDataRegistry;
+    }
     
     public FlightTicketClassDto toDto(FlightTicketClass entity) {
         if (entity == null) {
@@ -22,8 +30,12 @@ public class FlightTicketClassMapper {
         dto.setRemainingTicketQuantity(entity.getRemainingTicketQuantity());
         dto.setSpecifiedFare(entity.getSpecifiedFare());
         
-        // Include related entity information
-        if (entity.getTicketClass() != null) {
+        // Include related entity information, from the registry when it knows the class
+        TicketClassRef ticketClass = referenceDataRegistry.findTicketClass(entity.getTicketClassId());
+        if (ticketClass != null) {
+            dto.setTicketClassName(ticketClass.ticketClassName());
+            dto.setColor(ticketClass.color());
+        } else if (entity.getTicketClass() != null) {
             dto.setTicketClassName(entity.getTicketClass().getTicketClassName());
             dto.setColor(entity.getTicketClass().getColor());
         }
@@ -20,6 +20,7 @@ public class MessageMapper implements BaseMapper<Message, MessageDto> {
         dto.setEmployeeId(entity.getEmployeeId());
         dto.setContent(entity.getContent());
         dto.setSendTime(entity.getSendTime());
+        dto.setSeq(entity.getSeq());
         dto.setDeletedAt(entity.getDeletedAt());
         
         return dto;
@@ -35,6 +36,7 @@ public class MessageMapper implements BaseMapper<Message, MessageDto> {
         entity.setEmployeeId(dto.getEmployeeId());
         entity.setContent(dto.getContent());
         entity.setSendTime(dto.getSendTime());
+        entity.setSeq(dto.getSeq());
         entity.setDeletedAt(dto.getDeletedAt());
         
         return entity;
@@ -30,4 +30,15 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Integer> {
     List<AuditLog> findAllByOrderByChangedAtDesc();
     
     Page<AuditLog> findAllByOrderByChangedAtDesc(Pageable pageable);
+
+    // Keyset pages, newest first, seeking on idx_audit_log_changed_at
+    @Query("SELECT a FROM AuditLog a ORDER BY a.changedAt DESC, a.auditId DESC")
+    List<AuditLog> findLatest(Pageable limit);
+
+    @Query("SELECT a FROM AuditLog a " +
+           "WHERE a.changedAt < :changedAt OR (a.changedAt = :changedAt AND a.auditId < :auditId) " +
+           "ORDER BY a.changedAt DESC, a.auditId DESC")
+    List<AuditLog> findOlderThan(@Param("changedAt") LocalDateTime changedAt,
+                                 @Param("auditId") Integer auditId,
+                                 Pageable limit);
 }
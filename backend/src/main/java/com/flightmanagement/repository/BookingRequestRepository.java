@@ -0,0 +1,46 @@
+package com.flightmanagement.repository;
+
+import com.flightmanagement.entity.BookingRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface BookingRequestRepository extends JpaRepository<BookingRequest, String> {
+
+    // The primary key is the guard: returns 0 when another request already holds the key
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO booking_request " +
+            "(idempotency_key, request_hash, confirmation_code, created_at, reserved_code, claimed_at) " +
+            "VALUES (:idempotencyKey, :requestHash, NULL, :createdAt, :reservedCode, :createdAt)", nativeQuery = true)
+    int insertIfAbsent(@Param("idempotencyKey") String idempotencyKey,
+                       @Param("requestHash") String requestHash,
+                       @Param("reservedCode") String reservedCode,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    // Takes over a claim whose owner died before completing it; returns 0 when another request got there first
+    @Modifying
+    @Query("UPDATE BookingRequest b SET b.reservedCode = :reservedCode, b.claimedAt = :claimedAt " +
+            "WHERE b.idempotencyKey = :idempotencyKey AND b.confirmationCode IS NULL " +
+            "AND (b.claimedAt IS NULL OR b.claimedAt < :staleBefore)")
+    int reclaimStale(@Param("idempotencyKey") String idempotencyKey,
+                     @Param("reservedCode") String reservedCode,
+                     @Param("claimedAt") LocalDateTime claimedAt,
+                     @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE BookingRequest b SET b.confirmationCode = :confirmationCode WHERE b.idempotencyKey = :idempotencyKey")
+    int complete(@Param("idempotencyKey") String idempotencyKey, @Param("confirmationCode") String confirmationCode);
+
+    @Modifying
+    @Query("DELETE FROM BookingRequest b WHERE b.idempotencyKey = :idempotencyKey")
+    int release(@Param("idempotencyKey") String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM BookingRequest b WHERE b.createdAt < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore);
+}
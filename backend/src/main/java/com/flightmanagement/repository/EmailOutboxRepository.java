@@ -0,0 +1,29 @@
+package com.flightmanagement.repository;
+
+import com.flightmanagement.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Integer> {
+
+    @Query("SELECT e.outboxId FROM EmailOutbox e WHERE e.status = 0 AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<Integer> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Only one dispatcher wins a row: the claim succeeds when it still finds the row pending
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 1, e.lockedAt = :now WHERE e.outboxId = :outboxId AND e.status = 0")
+    int claim(@Param("outboxId") Integer outboxId, @Param("now") LocalDateTime now);
+
+    // Rows left in sending by a dispatcher that died mid-send go back to pending
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 0 WHERE e.status = 1 AND e.lockedAt < :lockedBefore")
+    int releaseStaleClaims(@Param("lockedBefore") LocalDateTime lockedBefore);
+}
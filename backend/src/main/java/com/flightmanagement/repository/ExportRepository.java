@@ -0,0 +1,56 @@
+package com.flightmanagement.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Full-table reads for exports, handed to the caller one row at a time. With a fetch size of
+ * Integer.MIN_VALUE the MySQL driver streams the result set instead of buffering all of it, so
+ * memory stays flat however many rows there are. The connection is held until the last row is
+ * read. Columns are aliased to the DTO field names and listed in the same order as the fields.
+ */
+@Repository
+public class ExportRepository {
+
+    public static final List<String> TICKET_FIELDS = List.of("ticketId", "flightId", "ticketClassId", "bookCustomerId",
+            "passengerId", "seatNumber", "ticketStatus", "paymentTime", "fare", "confirmationCode", "orderId");
+
+    public static final List<String> PASSENGER_FIELDS = List.of("passengerId", "passengerName", "email", "citizenId",
+            "phoneNumber");
+
+    private static final String ACTIVE_TICKETS_SQL = """
+            SELECT ticket_id AS ticketId, flight_id AS flightId, ticket_class_id AS ticketClassId,
+                   book_customer_id AS bookCustomerId, passenger_id AS passengerId, seat_number AS seatNumber,
+                   ticket_status AS ticketStatus, payment_time AS paymentTime, fare,
+                   confirmation_code AS confirmationCode, order_id AS orderId
+            FROM ticket
+            WHERE deleted_at IS NULL
+            ORDER BY ticket_id
+            """;
+
+    private static final String ACTIVE_PASSENGERS_SQL = """
+            SELECT passenger_id AS passengerId, passenger_name AS passengerName, email,
+                   citizen_id AS citizenId, phone_number AS phoneNumber
+            FROM passenger
+            WHERE deleted_at IS NULL
+            ORDER BY passenger_id
+            """;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public ExportRepository(JdbcTemplate jdbcTemplate) {
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public void streamActiveTickets(RowCallbackHandler handler) {
+        streamingJdbcTemplate.query(ACTIVE_TICKETS_SQL, handler);
+    }
+
+    public void streamActivePassengers(RowCallbackHandler handler) {
+        streamingJdbcTemplate.query(ACTIVE_PASSENGERS_SQL, handler);
+    }
+}
@@ -4,6 +4,7 @@ import com.flightmanagement.entity.Airport;
 import com.flightmanagement.entity.Flight;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,17 +22,48 @@ public interface FlightRepository extends JpaRepository<Flight, Integer> {
     List<Flight> findAllActive();
 
     Page<Flight> findByDeletedAtIsNull(Pageable pageable);
+
+    // Keyset pages in departure order, seeking on idx_flight_departure_time (which ends in the primary key)
+    @Query("SELECT f FROM Flight f WHERE f.deletedAt IS NULL ORDER BY f.departureTime, f.flightId")
+    List<Flight> findActiveFirst(Pageable limit);
+
+    @Query("SELECT f FROM Flight f WHERE f.deletedAt IS NULL " +
+           "AND (f.departureTime > :departureTime OR (f.departureTime = :departureTime AND f.flightId > :flightId)) " +
+           "ORDER BY f.departureTime, f.flightId")
+    List<Flight> findActiveAfter(@Param("departureTime") LocalDateTime departureTime,
+                                 @Param("flightId") Integer flightId,
+                                 Pageable limit);
+
+    long countByDeletedAtIsNull();
     
     @Query("SELECT f FROM Flight f WHERE f.flightId = ?1 AND f.deletedAt IS NULL")
     Optional<Flight> findActiveById(Integer id);
     
+    /**
+     * A flight with both airports fetched in the same select, for readers such as the email
+     * outbox that use the airport names without an open session.
+     */
+    @EntityGraph(attributePaths = {"departureAirport", "arrivalAirport"})
+    @Query("SELECT f FROM Flight f WHERE f.flightId = ?1")
+    Optional<Flight> findWithAirportsById(Integer id);
+    
     @Query("SELECT f FROM Flight f WHERE f.flightCode = ?1 AND f.deletedAt IS NULL")
     Optional<Flight> findByFlightCode(String flightCode);
+
+    @Query("SELECT f.departureTime FROM Flight f WHERE f.flightId = ?1")
+    Optional<LocalDateTime> findDepartureTimeById(Integer id);
     
-    @Query("SELECT f FROM Flight f WHERE f.departureAirport.airportId = :departureId AND f.arrivalAirport.airportId = :arrivalId AND DATE(f.departureTime) = DATE(:departureDate) AND f.deletedAt IS NULL")
-    List<Flight> findFlights(@Param("departureId") Integer departureAirportId, 
-                           @Param("arrivalId") Integer arrivalAirportId, 
-                           @Param("departureDate") LocalDateTime departureDate);
+    // Day filters are half-open departureTime ranges so idx_flight_route_departure can seek on them
+    @Query("SELECT f FROM Flight f WHERE f.departureAirport.airportId = :departureId AND f.arrivalAirport.airportId = :arrivalId AND f.departureTime >= :dayStart AND f.departureTime < :nextDay AND f.deletedAt IS NULL")
+    List<Flight> findFlightsDepartingBetween(@Param("departureId") Integer departureAirportId,
+                                             @Param("arrivalId") Integer arrivalAirportId,
+                                             @Param("dayStart") LocalDateTime dayStart,
+                                             @Param("nextDay") LocalDateTime nextDay);
+
+    default List<Flight> findFlights(Integer departureAirportId, Integer arrivalAirportId, LocalDateTime departureDate) {
+        LocalDateTime dayStart = departureDate.toLocalDate().atStartOfDay();
+        return findFlightsDepartingBetween(departureAirportId, arrivalAirportId, dayStart, dayStart.plusDays(1));
+    }
     
     @Query("SELECT f FROM Flight f WHERE f.departureTime >= :startDate AND f.departureTime <= :endDate AND f.deletedAt IS NULL")
     List<Flight> findByDepartureDateRange(@Param("startDate") LocalDateTime startDate, 
@@ -52,8 +84,12 @@ public interface FlightRepository extends JpaRepository<Flight, Integer> {
     @Query("SELECT DISTINCT f.arrivalAirport FROM Flight f WHERE f.deletedAt IS NULL")
     List<Airport> findAllArrivalAirports();
     
-    @Query("SELECT f FROM Flight f WHERE DATE(f.departureTime) = DATE(:departureDate) AND f.deletedAt IS NULL")
-    List<Flight> findByDepartureDate(@Param("departureDate") LocalDate departureDate);
+    @Query("SELECT f FROM Flight f WHERE f.departureTime >= :dayStart AND f.departureTime < :nextDay AND f.deletedAt IS NULL")
+    List<Flight> findByDepartureTimeFrom(@Param("dayStart") LocalDateTime dayStart, @Param("nextDay") LocalDateTime nextDay);
+
+    default List<Flight> findByDepartureDate(LocalDate departureDate) {
+        return findByDepartureTimeFrom(departureDate.atStartOfDay(), departureDate.plusDays(1).atStartOfDay());
+    }
     
     @Query("SELECT f FROM Flight f WHERE f.departureAirport.airportId = :departureAirportId AND f.arrivalAirport.airportId = :arrivalAirportId AND f.deletedAt IS NULL")
     List<Flight> findByDepartureAirportIdAndArrivalAirportId(
@@ -76,26 +112,59 @@ public interface FlightRepository extends JpaRepository<Flight, Integer> {
     @Query("SELECT DISTINCT f FROM Flight f " +
            "WHERE f.departureAirport.airportId = :departureAirportId " +
            "AND f.arrivalAirport.airportId = :arrivalAirportId " +
-           "AND DATE(f.departureTime) = DATE(:departureDate) " +
+           "AND f.departureTime >= :dayStart AND f.departureTime < :nextDay " +
            "AND f.deletedAt IS NULL " +
            "ORDER BY f.departureTime")
-    List<Flight> findFlightsByRoute(@Param("departureAirportId") Integer departureAirportId,
-                                   @Param("arrivalAirportId") Integer arrivalAirportId,
-                                   @Param("departureDate") LocalDateTime departureDate);
+    List<Flight> findFlightsByRouteBetween(@Param("departureAirportId") Integer departureAirportId,
+                                          @Param("arrivalAirportId") Integer arrivalAirportId,
+                                          @Param("dayStart") LocalDateTime dayStart,
+                                          @Param("nextDay") LocalDateTime nextDay);
+
+    default List<Flight> findFlightsByRoute(Integer departureAirportId, Integer arrivalAirportId, LocalDateTime departureDate) {
+        LocalDateTime dayStart = departureDate.toLocalDate().atStartOfDay();
+        return findFlightsByRouteBetween(departureAirportId, arrivalAirportId, dayStart, dayStart.plusDays(1));
+    }
 
     @Query("SELECT DISTINCT f FROM Flight f " +
            "JOIN FlightTicketClass ftc ON f.flightId = ftc.flightId " +
            "WHERE f.departureAirport.airportId = :departureAirportId " +
            "AND f.arrivalAirport.airportId = :arrivalAirportId " +
-           "AND DATE(f.departureTime) = DATE(:departureDate) " +
+           "AND f.departureTime >= :dayStart AND f.departureTime < :nextDay " +
            "AND ftc.ticketClassId = :ticketClassId " +
            "AND ftc.remainingTicketQuantity >= :passengerCount " +
            "AND f.deletedAt IS NULL " +
            "AND ftc.deletedAt IS NULL " +
            "ORDER BY f.departureTime")
-    List<Flight> findFlightsWithTicketClass(@Param("departureAirportId") Integer departureAirportId,
-                                           @Param("arrivalAirportId") Integer arrivalAirportId,
-                                           @Param("departureDate") LocalDateTime departureDate,
-                                           @Param("ticketClassId") Integer ticketClassId,
-                                           @Param("passengerCount") Integer passengerCount);
+    List<Flight> findFlightsWithTicketClassBetween(@Param("departureAirportId") Integer departureAirportId,
+                                                  @Param("arrivalAirportId") Integer arrivalAirportId,
+                                                  @Param("dayStart") LocalDateTime dayStart,
+                                                  @Param("nextDay") LocalDateTime nextDay,
+                                                  @Param("ticketClassId") Integer ticketClassId,
+                                                  @Param("passengerCount") Integer passengerCount);
+
+    default List<Flight> findFlightsWithTicketClass(Integer departureAirportId, Integer arrivalAirportId,
+                                                    LocalDateTime departureDate, Integer ticketClassId,
+                                                    Integer passengerCount) {
+        LocalDateTime dayStart = departureDate.toLocalDate().atStartOfDay();
+        return findFlightsWithTicketClassBetween(departureAirportId, arrivalAirportId, dayStart, dayStart.plusDays(1),
+                ticketClassId, passengerCount);
+    }
+
+    /**
+     * Flight id, departure time, ticket class id and fare for every flight on a route departing
+     * in [from, to), one row per active ticket class. Flights without ticket classes still
+     * return one row with a null class so callers see every flight in the window.
+     */
+    @Query(value = """
+            SELECT f.flight_id, f.departure_time, ftc.ticket_class_id, ftc.specified_fare
+            FROM flight f
+            LEFT JOIN flight_ticket_class ftc ON ftc.flight_id = f.flight_id AND ftc.deleted_at IS NULL
+            WHERE f.departure_airport_id = :departureAirportId AND f.arrival_airport_id = :arrivalAirportId
+              AND f.departure_time >= :from AND f.departure_time < :to
+              AND f.deleted_at IS NULL
+            """, nativeQuery = true)
+    List<Object[]> findRouteFaresBetween(@Param("departureAirportId") Integer departureAirportId,
+                                         @Param("arrivalAirportId") Integer arrivalAirportId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
 }
@@ -4,10 +4,12 @@ import com.flightmanagement.entity.FlightTicketClass;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,10 +33,61 @@ public interface FlightTicketClassRepository extends JpaRepository<FlightTicketC
     @Query("SELECT ftc FROM FlightTicketClass ftc WHERE ftc.remainingTicketQuantity > 0 AND ftc.deletedAt IS NULL")
     List<FlightTicketClass> findAvailable();
 
+    /**
+     * Flight id, ticket class id and fare of every active ticket class of the given flights.
+     */
+    @Query("SELECT ftc.flightId, ftc.ticketClassId, ftc.specifiedFare FROM FlightTicketClass ftc " +
+            "WHERE ftc.flightId IN :flightIds AND ftc.deletedAt IS NULL")
+    List<Object[]> findFaresByFlightIds(@Param("flightIds") Collection<Integer> flightIds);
+
     @Query(value = """
             SELECT (ticket_quantity - remaining_ticket_quantity)
             FROM flight_ticket_class
             WHERE flight_id = :flightId AND ticket_class_id = :ticketClassId
             """, nativeQuery = true)
     Integer calculateOccupiedSeatsByFlightIdAndTicketClassId(@Param("flightId") Integer flightId, @Param("ticketClassId") Integer ticketClassId);
+
+    /**
+     * Applies a net change to the remaining ticket count in a single UPDATE. Used by the
+     * in-memory seat inventory to write back batched reservations and releases.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE FlightTicketClass ftc SET ftc.remainingTicketQuantity = ftc.remainingTicketQuantity + :delta " +
+            "WHERE ftc.flightId = :flightId AND ftc.ticketClassId = :ticketClassId")
+    int applyRemainingTicketsDelta(@Param("flightId") Integer flightId,
+                                   @Param("ticketClassId") Integer ticketClassId,
+                                   @Param("delta") Integer delta);
+
+    /**
+     * Caps remaining tickets at ticket quantity minus active tickets. Repairs rows whose
+     * pending reservations were lost before they could be written back (e.g. after a crash);
+     * never hands back seats.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE flight_ticket_class ftc
+            SET ftc.remaining_ticket_quantity = LEAST(ftc.remaining_ticket_quantity, GREATEST(ftc.ticket_quantity - (
+                SELECT COUNT(*) FROM ticket t
+                WHERE t.flight_id = ftc.flight_id AND t.ticket_class_id = ftc.ticket_class_id AND t.deleted_at IS NULL
+            ), 0))
+            WHERE ftc.deleted_at IS NULL
+            """, nativeQuery = true)
+    int reconcileRemainingWithActiveTickets();
+
+    /**
+     * Gives the seats of the given active tickets back to their flight ticket classes,
+     * one grouped update for all of them. Run before the tickets are soft-deleted.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE flight_ticket_class ftc
+            JOIN (
+                SELECT t.flight_id, t.ticket_class_id, COUNT(*) AS released
+                FROM ticket t
+                WHERE t.ticket_id IN (:ticketIds) AND t.deleted_at IS NULL
+                GROUP BY t.flight_id, t.ticket_class_id
+            ) r ON r.flight_id = ftc.flight_id AND r.ticket_class_id = ftc.ticket_class_id
+            SET ftc.remaining_ticket_quantity = LEAST(ftc.ticket_quantity, ftc.remaining_ticket_quantity + r.released)
+            """, nativeQuery = true)
+    int restoreRemainingForTickets(@Param("ticketIds") Collection<Integer> ticketIds);
 }
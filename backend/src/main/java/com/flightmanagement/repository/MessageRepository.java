@@ -2,6 +2,7 @@ package com.flightmanagement.repository;
 
 import com.flightmanagement.entity.Message;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -21,6 +22,20 @@ public interface MessageRepository extends JpaRepository<Message, Integer> {
     @Query("SELECT m FROM Message m WHERE m.chatboxId = ?1 AND m.employeeId IS NULL AND m.deletedAt IS NULL ORDER BY m.sendTime DESC LIMIT 1")
     Optional<Message> findLatestCustomerMessageByChatboxId(Integer chatboxId);
     
+    @Query("SELECT m FROM Message m WHERE m.chatboxId = ?1 AND m.seq > ?2 AND m.deletedAt IS NULL ORDER BY m.seq ASC")
+    List<Message> findByChatboxIdAndSeqAfter(Integer chatboxId, Integer afterSeq);
+    
+    /**
+     * Takes the next sequence number of a chatbox. The row lock is held until the caller's
+     * transaction ends, so concurrent senders to one chatbox get consecutive numbers in turn.
+     */
+    @Modifying
+    @Query(value = "UPDATE chatbox SET last_message_seq = last_message_seq + 1 WHERE chatbox_id = ?1", nativeQuery = true)
+    int incrementLastMessageSeq(Integer chatboxId);
+    
+    @Query(value = "SELECT last_message_seq FROM chatbox WHERE chatbox_id = ?1", nativeQuery = true)
+    Integer findLastMessageSeq(Integer chatboxId);
+    
     @Query("SELECT DISTINCT m.employeeId FROM Message m WHERE m.chatboxId = ?1 AND m.employeeId IS NOT NULL AND m.deletedAt IS NULL")
     List<Integer> findDistinctEmployeeIdsByChatboxId(Integer chatboxId);
 }
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +19,12 @@ public interface PassengerRepository extends JpaRepository<Passenger, Integer> {
     List<Passenger> findAllActive();
 
     Page<Passenger> findByDeletedAtIsNull(Pageable pageable);
+
+    // Keyset page: seeks on the primary key instead of skipping an offset
+    @Query("SELECT p FROM Passenger p WHERE p.passengerId > :afterId AND p.deletedAt IS NULL ORDER BY p.passengerId")
+    List<Passenger> findActiveAfter(@Param("afterId") Integer afterId, Pageable limit);
+
+    long countByDeletedAtIsNull();
     
     @Query("SELECT p FROM Passenger p WHERE p.passengerId = :id AND p.deletedAt IS NULL")
     Optional<Passenger> findActiveById(@Param("id") Integer id);
@@ -25,6 +32,9 @@ public interface PassengerRepository extends JpaRepository<Passenger, Integer> {
     @Query("SELECT p FROM Passenger p WHERE p.citizenId = :citizenId AND p.deletedAt IS NULL")
     Optional<Passenger> findByCitizenId(@Param("citizenId") String citizenId);
     
+    @Query("SELECT p FROM Passenger p WHERE p.citizenId IN :citizenIds AND p.deletedAt IS NULL")
+    List<Passenger> findByCitizenIdIn(@Param("citizenIds") Collection<String> citizenIds);
+
     @Query("SELECT p FROM Passenger p WHERE p.email = :email AND p.deletedAt IS NULL")
     Optional<Passenger> findByEmail(@Param("email") String email);
     
@@ -0,0 +1,75 @@
+package com.flightmanagement.repository;
+
+import com.flightmanagement.dto.TicketDto;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC batch insert for booking tickets. Ticket ids are IDENTITY columns, which keeps
+ * Hibernate from batching inserts, so a booking's tickets go out as one batch here instead.
+ */
+@Repository
+public class TicketBatchRepository {
+
+    private static final String INSERT_TICKET_SQL = """
+            INSERT INTO ticket (flight_id, ticket_class_id, book_customer_id, passenger_id, seat_number,
+                                ticket_status, payment_time, fare, confirmation_code, order_id, deleted_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NULL)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TicketBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts all tickets in a single batch and sets the generated id on each one.
+     */
+    public void insertTickets(List<TicketDto> tickets) {
+        if (tickets.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TICKET_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (TicketDto ticket : tickets) {
+                    statement.setInt(1, ticket.getFlightId());
+                    statement.setInt(2, ticket.getTicketClassId());
+                    if (ticket.getBookCustomerId() != null) {
+                        statement.setInt(3, ticket.getBookCustomerId());
+                    } else {
+                        statement.setNull(3, Types.INTEGER);
+                    }
+                    statement.setInt(4, ticket.getPassengerId());
+                    statement.setString(5, ticket.getSeatNumber());
+                    statement.setByte(6, ticket.getTicketStatus() != null ? ticket.getTicketStatus() : 0);
+                    statement.setTimestamp(7, ticket.getPaymentTime() != null ? Timestamp.valueOf(ticket.getPaymentTime()) : null);
+                    statement.setBigDecimal(8, ticket.getFare());
+                    statement.setString(9, ticket.getConfirmationCode());
+                    statement.setString(10, ticket.getOrderId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    int index = 0;
+                    while (keys.next() && index < tickets.size()) {
+                        tickets.get(index++).setTicketId(keys.getInt(1));
+                    }
+                    if (index != tickets.size()) {
+                        throw new IllegalStateException("Expected " + tickets.size() + " generated ticket ids, got " + index);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
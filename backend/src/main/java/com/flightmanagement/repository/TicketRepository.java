@@ -4,11 +4,13 @@ import com.flightmanagement.entity.Ticket;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +22,12 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer> {
 
     Page<Ticket> findByDeletedAtIsNull(Pageable pageable);
 
+    // Keyset page: seeks on the primary key instead of skipping an offset
+    @Query("SELECT t FROM Ticket t WHERE t.ticketId > :afterId AND t.deletedAt IS NULL ORDER BY t.ticketId")
+    List<Ticket> findActiveAfter(@Param("afterId") Integer afterId, Pageable limit);
+
+    long countByDeletedAtIsNull();
+
     @Query("SELECT t FROM Ticket t WHERE t.ticketId = ?1 AND t.deletedAt IS NULL")
     Optional<Ticket> findActiveById(Integer id);
 
@@ -38,6 +46,9 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer> {
     @Query("SELECT t FROM Ticket t WHERE t.flight.flightId = ?1 AND t.seatNumber = ?2 AND t.deletedAt IS NULL")
     Optional<Ticket> findByFlightIdAndSeatNumber(Integer flightId, String seatNumber);
 
+    @Query("SELECT t.seatNumber FROM Ticket t WHERE t.flight.flightId = ?1 AND t.ticketClass.ticketClassId = ?2 AND t.deletedAt IS NULL")
+    List<String> findActiveSeatNumbers(Integer flightId, Integer ticketClassId);
+
     @Query("SELECT t FROM Ticket t WHERE t.confirmationCode = ?1 AND t.deletedAt IS NULL")
     List<Ticket> findByConfirmationCode(String confirmationCode);
 
@@ -45,4 +56,42 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer> {
             "AND t.flight.departureTime <= :cutoffTime " +
             "AND t.deletedAt IS NULL")
     List<Ticket> findExpiredUnpaidTickets(@Param("cutoffTime") LocalDateTime cutoffTime);
+
+    /**
+     * Locks the next chunk of expired unpaid tickets and returns
+     * [ticket_id, flight_id, ticket_class_id, seat_number] for each.
+     */
+    @Query(value = """
+            SELECT t.ticket_id, t.flight_id, t.ticket_class_id, t.seat_number
+            FROM ticket t
+            JOIN flight f ON f.flight_id = t.flight_id
+            WHERE t.ticket_status = 0 AND t.deleted_at IS NULL AND f.departure_time <= :cutoffTime
+            ORDER BY t.ticket_id
+            LIMIT :limit
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Object[]> lockExpiredUnpaidTickets(@Param("cutoffTime") LocalDateTime cutoffTime, @Param("limit") int limit);
+
+    /**
+     * Locks the unpaid active tickets of one booking; same row shape as lockExpiredUnpaidTickets.
+     */
+    @Query(value = """
+            SELECT t.ticket_id, t.flight_id, t.ticket_class_id, t.seat_number
+            FROM ticket t
+            WHERE t.confirmation_code = :confirmationCode AND t.ticket_status = 0 AND t.deleted_at IS NULL
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Object[]> lockUnpaidTicketsByConfirmationCode(@Param("confirmationCode") String confirmationCode);
+
+    /**
+     * [confirmation_code, earliest departure time] for every booking that still has unpaid tickets.
+     */
+    @Query("SELECT t.confirmationCode, MIN(t.flight.departureTime) FROM Ticket t " +
+            "WHERE t.ticketStatus = 0 AND t.deletedAt IS NULL GROUP BY t.confirmationCode")
+    List<Object[]> findUnpaidBookingDepartures();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.ticketStatus = 0, t.deletedAt = :deletedAt " +
+            "WHERE t.ticketId IN :ticketIds AND t.deletedAt IS NULL")
+    int softDeleteByIds(@Param("ticketIds") Collection<Integer> ticketIds, @Param("deletedAt") LocalDateTime deletedAt);
 }
@@ -1,5 +1,6 @@
 package com.flightmanagement.service;
 
+import com.flightmanagement.dto.CursorPage;
 import com.flightmanagement.entity.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,10 +12,14 @@ public interface AuditLogService {
     
     void saveAuditLog(String entityName, String entityId, String action, 
                      String fieldName, String oldValue, String newValue, String changedBy);
+
+    void saveAuditLogs(List<AuditLog> auditLogs);
     
     List<AuditLog> getAuditLogsByEntity(String entityName, String entityId);
     
     Page<AuditLog> getAllAuditLogs(Pageable pageable);
+
+    CursorPage<AuditLog> getAuditLogsBefore(String cursor, int size, boolean includeCount);
     
     List<AuditLog> getAuditLogsByDateRange(LocalDateTime startDate, LocalDateTime endDate);
 }
@@ -0,0 +1,12 @@
+package com.flightmanagement.service;
+
+public interface BookingHoldService {
+
+    /**
+     * Schedules the unpaid tickets of a booking to be released at its hold deadline:
+     * the flight's departure time minus the maximum booking hold duration.
+     */
+    void registerHold(String confirmationCode, Integer flightId);
+
+    int getPendingHoldCount();
+}
@@ -0,0 +1,16 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.BookingDto;
+import com.flightmanagement.dto.TicketDto;
+
+import java.util.List;
+
+public interface BookingIdempotencyService {
+
+    /**
+     * Books the tickets once per idempotency key. A retry with the same key returns the tickets of
+     * the original booking, and concurrent retries wait for the first one instead of booking again.
+     * Without a key the booking runs as usual.
+     */
+    List<TicketDto> bookTickets(String idempotencyKey, BookingDto bookingDto);
+}
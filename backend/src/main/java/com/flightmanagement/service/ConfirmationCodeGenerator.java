@@ -0,0 +1,103 @@
+package com.flightmanagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues booking confirmation codes of the form FMS-yyyyMMdd-NSSSSSS, unique without a database
+ * round trip. N is this instance's node id and SSSSSS a base-36 sequence for the day.
+ * The sequence never drops below the time of day scaled to the sequence space, so it keeps
+ * moving forward across restarts as long as an instance issues fewer than 24 codes per
+ * millisecond on average. Each instance needs its own node id (0-35).
+ */
+@Component
+public class ConfirmationCodeGenerator {
+
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private static final int SEQUENCE_LENGTH = 6;
+
+    // 36^6 sequences per day
+    private static final long SEQUENCE_SPACE = 2_176_782_336L;
+
+    // Largest rate that still fits a 25-hour day into the sequence space
+    private static final long SEQUENCES_PER_MILLI = 24;
+
+    private static final int PREFIX_LENGTH = "FMS-yyyyMMdd-".length();
+
+    private static final int CODE_LENGTH = PREFIX_LENGTH + 1 + SEQUENCE_LENGTH;
+
+    private final char nodeDigit;
+
+    private final Clock clock;
+
+    private final ZoneId zone;
+
+    // epochDay * SEQUENCE_SPACE + sequence of the last code issued
+    private final AtomicLong last = new AtomicLong();
+
+    private volatile Day today;
+
+    @Autowired
+    public ConfirmationCodeGenerator(@Value("${app.confirmation-code.node-id:0}") int nodeId) {
+        this(nodeId, Clock.systemDefaultZone());
+    }
+
+    ConfirmationCodeGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId >= DIGITS.length) {
+            throw new IllegalArgumentException("Confirmation code node id must be between 0 and " + (DIGITS.length - 1));
+        }
+        this.nodeDigit = DIGITS[nodeId];
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.today = day(LocalDate.now(clock));
+    }
+
+    public String nextCode() {
+        long now = clock.millis();
+        Day day = today;
+        if (now < day.startMillis || now >= day.endMillis) {
+            day = day(Instant.ofEpochMilli(now).atZone(zone).toLocalDate());
+            today = day;
+        }
+        long floor = day.epochDay * SEQUENCE_SPACE + (now - day.startMillis) * SEQUENCES_PER_MILLI;
+
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            next = Math.max(previous + 1, floor);
+        } while (!last.compareAndSet(previous, next));
+
+        // Only a clock set back or an exhausted day lands on another date
+        long epochDay = next / SEQUENCE_SPACE;
+        char[] prefix = epochDay == day.epochDay ? day.prefix : day(LocalDate.ofEpochDay(epochDay)).prefix;
+
+        char[] code = new char[CODE_LENGTH];
+        System.arraycopy(prefix, 0, code, 0, PREFIX_LENGTH);
+        code[PREFIX_LENGTH] = nodeDigit;
+        long sequence = next % SEQUENCE_SPACE;
+        for (int i = CODE_LENGTH - 1; i > PREFIX_LENGTH; i--) {
+            code[i] = DIGITS[(int) (sequence % 36)];
+            sequence /= 36;
+        }
+        return new String(code);
+    }
+
+    private Day day(LocalDate date) {
+        long startMillis = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long endMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        String prefix = String.format("FMS-%04d%02d%02d-", date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        return new Day(date.toEpochDay(), startMillis, endMillis, prefix.toCharArray());
+    }
+
+    private record Day(long epochDay, long startMillis, long endMillis, char[] prefix) {
+    }
+}
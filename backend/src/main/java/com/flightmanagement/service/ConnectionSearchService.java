@@ -0,0 +1,11 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.ConnectionDto;
+import com.flightmanagement.dto.FlightSearchCriteria;
+
+import java.util.List;
+
+public interface ConnectionSearchService {
+
+    List<ConnectionDto> searchConnections(FlightSearchCriteria criteria, int maxStops);
+}
@@ -0,0 +1,12 @@
+package com.flightmanagement.service;
+
+public interface EmailOutboxService {
+
+    /**
+     * Records a booking confirmation email for the confirmation code in the current transaction.
+     * It is sent after commit, off the request thread.
+     */
+    void enqueueBookingConfirmation(String confirmationCode);
+
+    void dispatchPending();
+}
@@ -3,6 +3,8 @@ package com.flightmanagement.service;
 import com.flightmanagement.dto.TicketDto;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public interface EmailService {
 
@@ -10,6 +12,8 @@ public interface EmailService {
 
     void sendBookingConfirmation(TicketDto ticketDto);
 
+    void sendBookingConfirmation(String confirmationCode, List<TicketDto> tickets);
+
     void sendCustomerWelcomeEmail(String to, String customerName);
 
     void sendEmployeeCredentialsEmail(String to, String employeeName, String accountName, String employeeTypeName, String tempPassword);
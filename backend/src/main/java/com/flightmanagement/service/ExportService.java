@@ -0,0 +1,13 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    void exportTickets(ExportFormat format, OutputStream out) throws IOException;
+
+    void exportPassengers(ExportFormat format, OutputStream out) throws IOException;
+}
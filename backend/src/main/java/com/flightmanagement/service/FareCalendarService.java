@@ -0,0 +1,16 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.FareCalendarDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface FareCalendarService {
+
+    List<FareCalendarDto> getFareCalendar(Integer departureAirportId, Integer arrivalAirportId,
+                                          LocalDate startDate, LocalDate endDate, int passengerCount);
+
+    void evictFlight(Integer flightId);
+
+    void evictRouteDay(Integer departureAirportId, Integer arrivalAirportId, LocalDate departureDate);
+}
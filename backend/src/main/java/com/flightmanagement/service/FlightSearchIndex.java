@@ -0,0 +1,235 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.FlightDto;
+import com.flightmanagement.mapper.FlightMapper;
+import com.flightmanagement.repository.FlightRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Active flights from today on held in memory by route and departure day, each day sorted by
+ * departure time, so a flight search is one hash lookup. Past days are dropped on a timer; searches
+ * for them go to the database. Departures are also kept per airport and day, which the
+ * connection search walks as adjacency lists. Loaded on startup and kept current by
+ * FlightServiceImpl after each flight create, update and delete commits, and relabeled when an
+ * airport or plane is renamed. Days are copy-on-write
+ * arrays: searches read without locking and writes, which are rare, are serialized. Returned
+ * flights are shared and must not be modified.
+ */
+@Component
+public class FlightSearchIndex {
+
+    private static final Comparator<FlightDto> BY_DEPARTURE =
+            Comparator.comparing(FlightDto::getDepartureTime).thenComparing(FlightDto::getFlightId);
+
+    private final FlightRepository flightRepository;
+
+    private final FlightMapper flightMapper;
+
+    private final Map<RouteDay, FlightDto[]> flightsByRouteDay = new ConcurrentHashMap<>();
+
+    private final Map<AirportDay, FlightDto[]> departuresByAirportDay = new ConcurrentHashMap<>();
+
+    private final Map<Integer, RouteDay> routeDayByFlightId = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public FlightSearchIndex(FlightRepository flightRepository, FlightMapper flightMapper) {
+        this.flightRepository = flightRepository;
+        this.flightMapper = flightMapper;
+    }
+
+    /**
+     * Until this has run, searches go to the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        try {
+            flightsByRouteDay.clear();
+            departuresByAirportDay.clear();
+            routeDayByFlightId.clear();
+            LocalDate today = LocalDate.now();
+            for (FlightDto flight : flightMapper.toDtoList(flightRepository.findAllActive())) {
+                if (!flight.getDepartureTime().toLocalDate().isBefore(today)) {
+                    put(flight);
+                }
+            }
+            ready = true;
+            System.out.println("Loaded " + routeDayByFlightId.size() + " flights into the search index");
+        } catch (RuntimeException e) {
+            System.err.println("Failed to load flight search index, searching the database instead: " + e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether searches for the day can be answered from the index.
+     */
+    public boolean covers(LocalDate day) {
+        return ready && !day.isBefore(LocalDate.now());
+    }
+
+    public List<FlightDto> search(Integer departureAirportId, Integer arrivalAirportId, LocalDateTime departureDate) {
+        FlightDto[] flights = flightsByRouteDay.get(
+                new RouteDay(departureAirportId, arrivalAirportId, departureDate.toLocalDate()));
+        return flights == null ? List.of() : Collections.unmodifiableList(Arrays.asList(flights));
+    }
+
+    /**
+     * Flights on a route departing between from and to inclusive, in departure order.
+     */
+    public List<FlightDto> searchBetween(Integer departureAirportId, Integer arrivalAirportId,
+                                         LocalDateTime from, LocalDateTime to) {
+        List<FlightDto> result = new ArrayList<>();
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+            collectBetween(flightsByRouteDay.get(new RouteDay(departureAirportId, arrivalAirportId, day)), from, to, result);
+        }
+        return result;
+    }
+
+    /**
+     * Flights leaving an airport between from and to inclusive, in departure order.
+     */
+    public List<FlightDto> departuresBetween(Integer departureAirportId, LocalDateTime from, LocalDateTime to) {
+        List<FlightDto> result = new ArrayList<>();
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+            collectBetween(departuresByAirportDay.get(new AirportDay(departureAirportId, day)), from, to, result);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a flight, or moves it when its route or departure day changed. A flight moved to a
+     * past day is only removed.
+     */
+    public synchronized void put(FlightDto flight) {
+        remove(flight.getFlightId());
+        RouteDay routeDay = new RouteDay(flight.getDepartureAirportId(), flight.getArrivalAirportId(),
+                flight.getDepartureTime().toLocalDate());
+        if (routeDay.day().isBefore(LocalDate.now())) {
+            return;
+        }
+        flightsByRouteDay.compute(routeDay, (key, flights) -> withFlight(flights, flight));
+        departuresByAirportDay.compute(routeDay.departureDay(), (key, flights) -> withFlight(flights, flight));
+        routeDayByFlightId.put(flight.getFlightId(), routeDay);
+    }
+
+    public synchronized void remove(Integer flightId) {
+        RouteDay routeDay = routeDayByFlightId.remove(flightId);
+        if (routeDay == null) {
+            return;
+        }
+        flightsByRouteDay.computeIfPresent(routeDay, (key, flights) -> withoutFlight(flights, flightId));
+        departuresByAirportDay.computeIfPresent(routeDay.departureDay(), (key, flights) -> withoutFlight(flights, flightId));
+    }
+
+    @Scheduled(fixedRateString = "${app.flight-search.purge-interval-ms:3600000}")
+    public void purgePastDays() {
+        purgeDaysBefore(LocalDate.now());
+    }
+
+    public synchronized void purgeDaysBefore(LocalDate day) {
+        List<RouteDay> past = flightsByRouteDay.keySet().stream()
+                .filter(routeDay -> routeDay.day().isBefore(day))
+                .toList();
+        for (RouteDay routeDay : past) {
+            FlightDto[] flights = flightsByRouteDay.remove(routeDay);
+            departuresByAirportDay.remove(routeDay.departureDay());
+            if (flights != null) {
+                for (FlightDto flight : flights) {
+                    routeDayByFlightId.remove(flight.getFlightId(), routeDay);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces every flight with a copy carrying the current names from the reference data
+     * registry. Order is unchanged, since names play no part in it.
+     */
+    public synchronized void refreshReferenceNames() {
+        Map<Integer, FlightDto> relabeled = new HashMap<>();
+        for (FlightDto[] flights : flightsByRouteDay.values()) {
+            for (FlightDto flight : flights) {
+                FlightDto copy = new FlightDto(flight.getFlightId(), flight.getFlightCode(), flight.getDepartureTime(),
+                        flight.getArrivalTime(), flight.getPlaneId(), flight.getDepartureAirportId(),
+                        flight.getArrivalAirportId(), flight.getPlaneCode(), flight.getDepartureAirportName(),
+                        flight.getDepartureCityName(), flight.getArrivalAirportName(), flight.getArrivalCityName());
+                flightMapper.fillReferenceNames(copy);
+                relabeled.put(copy.getFlightId(), copy);
+            }
+        }
+        flightsByRouteDay.replaceAll((key, flights) -> relabel(flights, relabeled));
+        departuresByAirportDay.replaceAll((key, flights) -> relabel(flights, relabeled));
+    }
+
+    public int size() {
+        return routeDayByFlightId.size();
+    }
+
+    private static FlightDto[] withFlight(FlightDto[] flights, FlightDto flight) {
+        FlightDto[] updated = flights == null ? new FlightDto[1] : Arrays.copyOf(flights, flights.length + 1);
+        updated[updated.length - 1] = flight;
+        Arrays.sort(updated, BY_DEPARTURE);
+        return updated;
+    }
+
+    private static FlightDto[] withoutFlight(FlightDto[] flights, Integer flightId) {
+        FlightDto[] updated = Arrays.stream(flights)
+                .filter(flight -> !flight.getFlightId().equals(flightId))
+                .toArray(FlightDto[]::new);
+        return updated.length == 0 ? null : updated;
+    }
+
+    private static FlightDto[] relabel(FlightDto[] flights, Map<Integer, FlightDto> relabeled) {
+        return Arrays.stream(flights)
+                .map(flight -> relabeled.getOrDefault(flight.getFlightId(), flight))
+                .toArray(FlightDto[]::new);
+    }
+
+    private static void collectBetween(FlightDto[] flights, LocalDateTime from, LocalDateTime to, List<FlightDto> result) {
+        if (flights == null) {
+            return;
+        }
+        // First flight departing at or after from
+        int low = 0;
+        int high = flights.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (flights[mid].getDepartureTime().isBefore(from)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < flights.length && !flights[i].getDepartureTime().isAfter(to); i++) {
+            result.add(flights[i]);
+        }
+    }
+
+    private record RouteDay(Integer departureAirportId, Integer arrivalAirportId, LocalDate day) {
+
+        AirportDay departureDay() {
+            return new AirportDay(departureAirportId, day);
+        }
+    }
+
+    private record AirportDay(Integer airportId, LocalDate day) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.flightmanagement.service;
 
+import com.flightmanagement.dto.CursorPage;
 import com.flightmanagement.dto.FlightRequest;
 import com.flightmanagement.dto.FlightDto;
 import com.flightmanagement.dto.FlightSearchCriteria;
@@ -15,6 +16,8 @@ public interface FlightService {
     List<FlightDto> getAllFlights();
 
     Page<FlightDto> getAllFlightsPaged(Pageable pageable);
+
+    CursorPage<FlightDto> getAllFlightsAfter(String cursor, int size, boolean includeCount);
     
     FlightDto getFlightById(Integer id);
 
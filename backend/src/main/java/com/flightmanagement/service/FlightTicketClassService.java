@@ -24,6 +24,10 @@ public interface FlightTicketClassService {
 
     void updateRemainingTickets(Integer flightId, Integer ticketClassId, Integer quantity);
 
+    void reserveTickets(Integer flightId, Integer ticketClassId, Integer quantity);
+
+    void releaseTickets(Integer flightId, Integer ticketClassId, Integer quantity);
+
     List<FlightTicketClassDto> getAvailableFlightTicketClasses();
 
     Integer calculateOccupiedSeatsByFlightIdAndTicketClassId(Integer flightId, Integer ticketClassId);
@@ -0,0 +1,10 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.MessageDto;
+
+/**
+ * Published by MessageServiceImpl once a new message has committed, so it can be pushed to the
+ * chatbox over WebSocket.
+ */
+public record MessageCreatedEvent(MessageDto message) {
+}
@@ -8,6 +8,11 @@ public interface MessageService {
     
     List<MessageDto> getMessagesByChatboxId(Integer chatboxId);
     
+    /**
+     * Messages of the chatbox numbered after afterSeq, in sequence order.
+     */
+    List<MessageDto> getMessagesSince(Integer chatboxId, Integer afterSeq);
+    
     MessageDto createEmployeeMessage(Integer chatboxId, Integer employeeId, String content);
     
     MessageDto createCustomerMessage(Integer chatboxId, String content);
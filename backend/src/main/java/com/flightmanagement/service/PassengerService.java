@@ -1,5 +1,6 @@
 package com.flightmanagement.service;
 
+import com.flightmanagement.dto.CursorPage;
 import com.flightmanagement.dto.PassengerDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,9 +10,11 @@ import java.util.List;
 public interface PassengerService {
     List<PassengerDto> getAllPassengers();
     Page<PassengerDto> getAllPassengersPaged(Pageable pageable);
+    CursorPage<PassengerDto> getAllPassengersAfter(String cursor, int size, boolean includeCount);
     PassengerDto getPassengerById(Integer id);
     PassengerDto getPassengerByCitizenId(String citizenId);
     PassengerDto createPassenger(PassengerDto passengerDto);
+    List<PassengerDto> getOrCreatePassengers(List<PassengerDto> passengerDtos);
     PassengerDto updatePassenger(Integer id, PassengerDto passengerDto);
     void deletePassenger(Integer id);
     PassengerDto getPassengersByEmail(String email);
@@ -0,0 +1,163 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.entity.Airport;
+import com.flightmanagement.entity.Plane;
+import com.flightmanagement.entity.TicketClass;
+import com.flightmanagement.repository.AirportRepository;
+import com.flightmanagement.repository.PlaneRepository;
+import com.flightmanagement.repository.TicketClassRepository;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Airports, planes and ticket classes held in memory as immutable records, so mappers can fill
+ * names without loading the associations. Each table is an immutable map keyed by id, replaced
+ * whole on every write: lookups read without locking and writes, which are rare, are serialized. Soft-deleted rows stay, since old flights and tickets still
+ * refer to them. Loaded when the context starts and kept current by AirportServiceImpl,
+ * PlaneServiceImpl and TicketClassServiceImpl after their writes commit. An id that is not loaded,
+ * such as a row inserted outside those services, is read through from the database once.
+ */
+@Component
+public class ReferenceDataRegistry {
+
+    public record AirportRef(int airportId, String airportName, String cityName, String countryName) {
+    }
+
+    public record PlaneRef(int planeId, String planeCode, String planeType, int seatQuantity) {
+    }
+
+    public record TicketClassRef(int ticketClassId, String ticketClassName, String color) {
+    }
+
+    private final AirportRepository airportRepository;
+
+    private final PlaneRepository planeRepository;
+
+    private final TicketClassRepository ticketClassRepository;
+
+    private volatile Map<Integer, AirportRef> airports = Map.of();
+
+    private volatile Map<Integer, PlaneRef> planes = Map.of();
+
+    private volatile Map<Integer, TicketClassRef> ticketClasses = Map.of();
+
+    public ReferenceDataRegistry(AirportRepository airportRepository, PlaneRepository planeRepository,
+                                 TicketClassRepository ticketClassRepository) {
+        this.airportRepository = airportRepository;
+        this.planeRepository = planeRepository;
+        this.ticketClassRepository = ticketClassRepository;
+    }
+
+    /**
+     * Runs before the command line runners and the flight search index load.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void load() {
+        try {
+            Map<Integer, AirportRef> loadedAirports = index(airportRepository.findAll(), Airport::getAirportId,
+                    ReferenceDataRegistry::toRef);
+            Map<Integer, PlaneRef> loadedPlanes = index(planeRepository.findAll(), Plane::getPlaneId,
+                    ReferenceDataRegistry::toRef);
+            Map<Integer, TicketClassRef> loadedTicketClasses = index(ticketClassRepository.findAll(),
+                    TicketClass::getTicketClassId, ReferenceDataRegistry::toRef);
+            airports = loadedAirports;
+            planes = loadedPlanes;
+            ticketClasses = loadedTicketClasses;
+            System.out.println("Loaded reference data: " + loadedAirports.size() + " airports, "
+                    + loadedPlanes.size() + " planes, " + loadedTicketClasses.size() + " ticket classes");
+        } catch (RuntimeException e) {
+            System.err.println("Failed to load reference data, mapping from associations instead: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Null only for a null id or one with no row.
+     */
+    public AirportRef findAirport(Integer airportId) {
+        AirportRef airport = lookup(airports, airportId);
+        if (airport == null && airportId != null) {
+            airport = airportRepository.findById(airportId).map(this::readThrough).orElse(null);
+        }
+        return airport;
+    }
+
+    public PlaneRef findPlane(Integer planeId) {
+        PlaneRef plane = lookup(planes, planeId);
+        if (plane == null && planeId != null) {
+            plane = planeRepository.findById(planeId).map(this::readThrough).orElse(null);
+        }
+        return plane;
+    }
+
+    public TicketClassRef findTicketClass(Integer ticketClassId) {
+        TicketClassRef ticketClass = lookup(ticketClasses, ticketClassId);
+        if (ticketClass == null && ticketClassId != null) {
+            ticketClass = ticketClassRepository.findById(ticketClassId).map(this::readThrough).orElse(null);
+        }
+        return ticketClass;
+    }
+
+    public synchronized void putAirport(Airport airport) {
+        airports = with(airports, airport.getAirportId(), toRef(airport));
+    }
+
+    public synchronized void putPlane(Plane plane) {
+        planes = with(planes, plane.getPlaneId(), toRef(plane));
+    }
+
+    public synchronized void putTicketClass(TicketClass ticketClass) {
+        ticketClasses = with(ticketClasses, ticketClass.getTicketClassId(), toRef(ticketClass));
+    }
+
+    private AirportRef readThrough(Airport airport) {
+        putAirport(airport);
+        return toRef(airport);
+    }
+
+    private PlaneRef readThrough(Plane plane) {
+        putPlane(plane);
+        return toRef(plane);
+    }
+
+    private TicketClassRef readThrough(TicketClass ticketClass) {
+        putTicketClass(ticketClass);
+        return toRef(ticketClass);
+    }
+
+    private static <T> T lookup(Map<Integer, T> table, Integer id) {
+        return id != null ? table.get(id) : null;
+    }
+
+    private static <E, T> Map<Integer, T> index(List<E> rows, ToIntFunction<E> id, Function<E, T> toRef) {
+        Map<Integer, T> table = new HashMap<>();
+        for (E row : rows) {
+            table.put(id.applyAsInt(row), toRef.apply(row));
+        }
+        return Map.copyOf(table);
+    }
+
+    private static <T> Map<Integer, T> with(Map<Integer, T> table, int id, T ref) {
+        Map<Integer, T> updated = new HashMap<>(table);
+        updated.put(id, ref);
+        return Map.copyOf(updated);
+    }
+
+    private static AirportRef toRef(Airport airport) {
+        return new AirportRef(airport.getAirportId(), airport.getAirportName(), airport.getCityName(), airport.getCountryName());
+    }
+
+    private static PlaneRef toRef(Plane plane) {
+        return new PlaneRef(plane.getPlaneId(), plane.getPlaneCode(), plane.getPlaneType(), plane.getSeatQuantity());
+    }
+
+    private static TicketClassRef toRef(TicketClass ticketClass) {
+        return new TicketClassRef(ticketClass.getTicketClassId(), ticketClass.getTicketClassName(), ticketClass.getColor());
+    }
+}
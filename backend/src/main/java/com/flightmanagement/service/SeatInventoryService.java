@@ -0,0 +1,20 @@
+package com.flightmanagement.service;
+
+import java.util.OptionalInt;
+
+public interface SeatInventoryService {
+
+    OptionalInt findRemaining(Integer flightId, Integer ticketClassId);
+
+    boolean isAvailable(Integer flightId, Integer ticketClassId, int quantity);
+
+    void reserve(Integer flightId, Integer ticketClassId, int quantity);
+
+    void release(Integer flightId, Integer ticketClassId, int quantity);
+
+    void refresh(Integer flightId, Integer ticketClassId);
+
+    void flush();
+
+    void reconcile();
+}
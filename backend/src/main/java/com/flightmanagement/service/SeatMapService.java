@@ -0,0 +1,23 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.SeatMapDto;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SeatMapService {
+
+    SeatMapDto getSeatMap(Integer flightId, Integer ticketClassId);
+
+    boolean areSeatsAvailable(Integer flightId, Integer ticketClassId, Collection<String> seatNumbers);
+
+    List<String> findAdjacentFreeSeats(Integer flightId, Integer ticketClassId, int count);
+
+    boolean occupySeats(Integer flightId, Integer ticketClassId, Collection<String> seatNumbers);
+
+    List<String> assignSeats(Integer flightId, Integer ticketClassId, int count);
+
+    void releaseSeats(Integer flightId, Integer ticketClassId, Collection<String> seatNumbers);
+
+    void evict(Integer flightId, Integer ticketClassId);
+}
@@ -3,4 +3,10 @@ package com.flightmanagement.service;
 public interface TicketCleanupService {
    
    void cleanupExpiredUnpaidTickets();
+
+   /**
+    * Cancels the still unpaid tickets of one booking and gives their seats back.
+    * Returns the number of tickets canceled.
+    */
+   int expireBooking(String confirmationCode);
 }
@@ -1,6 +1,8 @@
 package com.flightmanagement.service;
 
 import com.flightmanagement.dto.BookingDto;
+import com.flightmanagement.dto.CursorPage;
+import com.flightmanagement.dto.SeatMapDto;
 import com.flightmanagement.dto.TicketDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -12,6 +14,8 @@ public interface TicketService {
     List<TicketDto> getAllTickets();
 
     Page<TicketDto> getAllTicketsPaged(Pageable pageable);
+
+    CursorPage<TicketDto> getAllTicketsAfter(String cursor, int size, boolean includeCount);
     
     TicketDto getTicketById(Integer id);
     
@@ -30,6 +34,8 @@ public interface TicketService {
     List<TicketDto> getTicketsByStatus(Byte ticketStatus);
     
     List<TicketDto> bookTickets(BookingDto bookingDto);
+
+    List<TicketDto> bookTickets(BookingDto bookingDto, String confirmationCode);
     
     TicketDto payTicket(Integer ticketId, String orderId);
     
@@ -37,6 +43,8 @@ public interface TicketService {
     
     boolean isSeatAvailable(Integer flightId, String seatNumber);
 
+    SeatMapDto getSeatMap(Integer flightId, Integer ticketClassId, List<String> seatNumbers, Integer count);
+
     String generateConfirmationCode();
 
     List<TicketDto> getTicketsOnConfirmationCode(String code);
@@ -6,6 +6,11 @@ import com.flightmanagement.mapper.AirportMapper;
 import com.flightmanagement.repository.AirportRepository;
 import com.flightmanagement.service.AirportService;
 import com.flightmanagement.service.AuditLogService;
+import com.flightmanagement.service.FlightSearchIndex;
+import com.flightmanagement.service.ReferenceDataRegistry;
+import com.flightmanagement.util.AfterCommit;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -22,13 +27,21 @@ public class AirportServiceImpl implements AirportService {
 
     private final AuditLogService auditLogService;
 
-    public AirportServiceImpl(AirportRepository airportRepository, AirportMapper airportMapper, AuditLogService auditLogService) {
+    private final ReferenceDataRegistry referenceDataRegistry;
+
+    private final FlightSearchIndex flightSearchIndex;
+
+    public AirportServiceImpl(AirportRepository airportRepository, AirportMapper airportMapper, AuditLogService auditLogService,
+                              ReferenceDataRegistry referenceDataRegistry, FlightSearchIndex flightSearchIndex) {
         this.airportRepository = airportRepository;
         this.airportMapper = airportMapper;
         this.auditLogService = auditLogService;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.flightSearchIndex = flightSearchIndex;
     }
     
     @Override
+    @Cacheable(cacheNames = "airports", key = "'all'")
     public List<AirportDto> getAllAirports() {
         List<Airport> airports = airportRepository.findAllActive();
         return airportMapper.toDtoList(airports);
@@ -41,6 +54,7 @@ public class AirportServiceImpl implements AirportService {
     }
 
     @Override
+    @Cacheable(cacheNames = "airports", key = "#id")
     public AirportDto getAirportById(Integer id) {
         Airport airport = airportRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("Airport not found with id: " + id));
@@ -48,15 +62,18 @@ public class AirportServiceImpl implements AirportService {
     }
     
     @Override
+    @CacheEvict(cacheNames = "airports", allEntries = true)
     public AirportDto createAirport(AirportDto airportDto) {
         Airport airport = airportMapper.toEntity(airportDto);
         airport.setDeletedAt(null);
         Airport savedAirport = airportRepository.save(airport);
         auditLogService.saveAuditLog("Airport", savedAirport.getAirportId().toString(), "CREATE", "airport", null, savedAirport.getAirportName() + " (" + savedAirport.getCityName() + ")", "system");
+        AfterCommit.run(() -> referenceDataRegistry.putAirport(savedAirport));
         return airportMapper.toDto(savedAirport);
     }
     
     @Override
+    @CacheEvict(cacheNames = {"airports", "flights"}, allEntries = true)
     public AirportDto updateAirport(Integer id, AirportDto airportDto) {
         Airport existingAirport = airportRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("Airport not found with id: " + id));
@@ -83,11 +100,18 @@ public class AirportServiceImpl implements AirportService {
         if (!oldCountryName.equals(airportDto.getCountryName())) {
             auditLogService.saveAuditLog("Airport", id.toString(), "UPDATE", "countryName", oldCountryName, airportDto.getCountryName(), "system");
         }
+
+        // Flights in the search index carry the airport names
+        AfterCommit.run(() -> {
+            referenceDataRegistry.putAirport(updatedAirport);
+            flightSearchIndex.refreshReferenceNames();
+        });
         
         return airportMapper.toDto(updatedAirport);
     }
     
     @Override
+    @CacheEvict(cacheNames = {"airports", "flights"}, allEntries = true)
     public void deleteAirport(Integer id) {
         Airport airport = airportRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("Airport not found with id: " + id));
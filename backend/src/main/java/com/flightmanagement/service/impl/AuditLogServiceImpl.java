@@ -1,5 +1,7 @@
 package com.flightmanagement.service.impl;
 
+import com.flightmanagement.dto.CursorPage;
+import com.flightmanagement.dto.PageCursor;
 import com.flightmanagement.entity.AuditLog;
 import com.flightmanagement.repository.AuditLogRepository;
 import com.flightmanagement.service.AuditLogService;
@@ -37,6 +39,18 @@ public class AuditLogServiceImpl implements AuditLogService {
         
         auditLogRepository.save(auditLog);
     }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void saveAuditLogs(List<AuditLog> auditLogs) {
+        LocalDateTime now = LocalDateTime.now();
+        for (AuditLog auditLog : auditLogs) {
+            if (auditLog.getChangedAt() == null) {
+                auditLog.setChangedAt(now);
+            }
+        }
+        auditLogRepository.saveAll(auditLogs);
+    }
     
     @Override
     public List<AuditLog> getAuditLogsByEntity(String entityName, String entityId) {
@@ -47,6 +61,16 @@ public class AuditLogServiceImpl implements AuditLogService {
     public Page<AuditLog> getAllAuditLogs(Pageable pageable) {
         return auditLogRepository.findAllByOrderByChangedAtDesc(pageable);
     }
+
+    @Override
+    public CursorPage<AuditLog> getAuditLogsBefore(String cursor, int size, boolean includeCount) {
+        PageCursor before = PageCursor.decode(cursor);
+        List<AuditLog> auditLogs = before == null
+                ? auditLogRepository.findLatest(CursorPage.limit(size))
+                : auditLogRepository.findOlderThan(before.sortKeyAsDateTime(), before.id(), CursorPage.limit(size));
+        return CursorPage.of(auditLogs, size, auditLog -> PageCursor.of(auditLog.getChangedAt(), auditLog.getAuditId()),
+                rows -> rows, includeCount ? auditLogRepository.count() : null);
+    }
     
     @Override
     public List<AuditLog> getAuditLogsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
@@ -0,0 +1,157 @@
+package com.flightmanagement.service.impl;
+
+import com.flightmanagement.repository.FlightRepository;
+import com.flightmanagement.repository.TicketRepository;
+import com.flightmanagement.service.BookingHoldService;
+import com.flightmanagement.service.ParameterService;
+import com.flightmanagement.service.TicketCleanupService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Releases unpaid bookings at their exact hold deadline.
+ * Holds sit in a DelayQueue keyed by confirmation code, filled at booking time and from the
+ * unpaid tickets on startup; one timer thread takes each hold when it falls due and expires
+ * the booking. Paid tickets are skipped at that point, so payments need no bookkeeping here.
+ */
+@Service
+public class BookingHoldServiceImpl implements BookingHoldService {
+
+    private final TicketRepository ticketRepository;
+
+    private final FlightRepository flightRepository;
+
+    private final ParameterService parameterService;
+
+    private final TicketCleanupService ticketCleanupService;
+
+    private final DelayQueue<Hold> queue = new DelayQueue<>();
+
+    // Latest hold per booking; a queued hold that is no longer in here has been superseded
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+
+    private volatile Thread timer;
+
+    public BookingHoldServiceImpl(TicketRepository ticketRepository,
+                                  FlightRepository flightRepository,
+                                  ParameterService parameterService,
+                                  TicketCleanupService ticketCleanupService) {
+        this.ticketRepository = ticketRepository;
+        this.flightRepository = flightRepository;
+        this.parameterService = parameterService;
+        this.ticketCleanupService = ticketCleanupService;
+    }
+
+    @Override
+    public void registerHold(String confirmationCode, Integer flightId) {
+        if (confirmationCode == null || flightId == null) {
+            return;
+        }
+        flightRepository.findDepartureTimeById(flightId).ifPresent(departureTime ->
+                schedule(confirmationCode, departureTime.minusHours(maxBookingHoldHours())));
+    }
+
+    @Override
+    public int getPendingHoldCount() {
+        return holds.size();
+    }
+
+    /**
+     * Loads a hold for every booking with unpaid tickets, then starts the timer thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            int holdHours = maxBookingHoldHours();
+            for (Object[] row : ticketRepository.findUnpaidBookingDepartures()) {
+                schedule((String) row[0], ((LocalDateTime) row[1]).minusHours(holdHours));
+            }
+            System.out.println("Loaded " + holds.size() + " booking holds");
+        } catch (RuntimeException e) {
+            // The periodic sweep still expires these bookings
+            System.err.println("Failed to load booking holds: " + e.getMessage());
+        }
+
+        Thread thread = new Thread(this::runTimer, "booking-hold-timer");
+        thread.setDaemon(true);
+        timer = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = timer;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Takes the next hold that has fallen due and expires it; returns false when interrupted.
+     */
+    private boolean expireNext() {
+        Hold hold;
+        try {
+            hold = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (!holds.remove(hold.confirmationCode(), hold)) {
+            return true;
+        }
+        try {
+            int canceled = ticketCleanupService.expireBooking(hold.confirmationCode());
+            if (canceled > 0) {
+                System.out.println("Hold expired for booking " + hold.confirmationCode() +
+                        ", canceled " + canceled + " unpaid tickets");
+            }
+        } catch (RuntimeException e) {
+            // Left for the periodic sweep
+            System.err.println("Failed to expire hold for booking " + hold.confirmationCode() + ": " + e.getMessage());
+        }
+        return true;
+    }
+
+    private void runTimer() {
+        boolean running = true;
+        while (running) {
+            running = expireNext();
+        }
+    }
+
+    private void schedule(String confirmationCode, LocalDateTime deadline) {
+        long delayNanos = Duration.between(LocalDateTime.now(), deadline).toNanos();
+        Hold hold = new Hold(confirmationCode, System.nanoTime() + delayNanos);
+        holds.put(confirmationCode, hold);
+        queue.put(hold);
+    }
+
+    private int maxBookingHoldHours() {
+        Integer hours = parameterService.getLatestParameter().getMaxBookingHoldDuration();
+        return hours != null ? hours : 0;
+    }
+
+    private record Hold(String confirmationCode, long deadlineNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineNanos, ((Hold) other).deadlineNanos);
+        }
+    }
+}
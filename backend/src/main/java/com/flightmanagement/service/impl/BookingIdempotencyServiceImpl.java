@@ -0,0 +1,280 @@
+package com.flightmanagement.service.impl;
+
+import com.flightmanagement.dto.BookingDto;
+import com.flightmanagement.dto.PassengerDto;
+import com.flightmanagement.dto.TicketDto;
+import com.flightmanagement.entity.BookingRequest;
+import com.flightmanagement.exception.BadRequestException;
+import com.flightmanagement.exception.ConflictException;
+import com.flightmanagement.repository.BookingRequestRepository;
+import com.flightmanagement.service.BookingIdempotencyService;
+import com.flightmanagement.service.TicketService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Deduplicates booking retries by their Idempotency-Key.
+ * Recent keys live in a bounded in-memory store holding the result of the booking, so a replay or
+ * a concurrent duplicate on this instance waits on the same execution. The booking_request table
+ * is the guard across instances and restarts: a key is claimed with an insert on its primary key
+ * before booking, and completed with the confirmation code afterwards. The claim records the code
+ * the booking will use, so when its owner dies before completing it a later retry can tell whether
+ * the tickets were booked and otherwise take the claim over.
+ */
+@Service
+public class BookingIdempotencyServiceImpl implements BookingIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final TicketService ticketService;
+
+    private final BookingRequestRepository bookingRequestRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxEntries;
+
+    private final Duration ttl;
+
+    private final Duration staleClaimAge;
+
+    // Insertion order, so the oldest keys are dropped first when the store is full
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    public BookingIdempotencyServiceImpl(TicketService ticketService,
+                                         BookingRequestRepository bookingRequestRepository,
+                                         TransactionTemplate transactionTemplate,
+                                         @Value("${app.booking.idempotency.max-entries:10000}") int maxEntries,
+                                         @Value("${app.booking.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                                         @Value("${app.booking.idempotency.stale-claim-seconds:120}") long staleClaimSeconds) {
+        this.ticketService = ticketService;
+        this.bookingRequestRepository = bookingRequestRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.staleClaimAge = Duration.ofSeconds(staleClaimSeconds);
+    }
+
+    @Override
+    public List<TicketDto> bookTickets(String idempotencyKey, BookingDto bookingDto) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ticketService.bookTickets(bookingDto);
+        }
+        String key = idempotencyKey.trim();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = requestHash(bookingDto);
+
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            long now = System.nanoTime();
+            entry = entries.get(key);
+            if (entry == null || entry.isExpired(now)) {
+                entries.remove(key);
+                entry = new Entry(requestHash, now + ttl.toNanos());
+                entries.put(key, entry);
+                evictOverflow();
+                owner = true;
+            }
+        }
+
+        if (!entry.requestHash.equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different booking request");
+        }
+        if (owner) {
+            execute(key, bookingDto, entry);
+        }
+        return await(entry);
+    }
+
+    /**
+     * Drops expired keys from memory and from the booking_request table.
+     */
+    @Scheduled(fixedRateString = "${app.booking.idempotency.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.isExpired(now) && entry.result.isDone());
+        }
+        try {
+            LocalDateTime createdBefore = LocalDateTime.now().minus(ttl);
+            Integer deleted = transactionTemplate.execute(status ->
+                    bookingRequestRepository.deleteCreatedBefore(createdBefore));
+            if (deleted != null && deleted > 0) {
+                System.out.println("Evicted " + deleted + " expired booking idempotency keys");
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to evict booking idempotency keys: " + e.getMessage());
+        }
+    }
+
+    public int getEntryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void execute(String key, BookingDto bookingDto, Entry entry) {
+        try {
+            entry.result.complete(bookOrReplay(key, entry.requestHash, bookingDto));
+        } catch (RuntimeException e) {
+            // A failed booking is not remembered, so the client can retry it with the same key
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.result.completeExceptionally(e);
+        }
+    }
+
+    private List<TicketDto> bookOrReplay(String key, String requestHash, BookingDto bookingDto) {
+        String reservedCode = ticketService.generateConfirmationCode();
+        Integer claimed = transactionTemplate.execute(status ->
+                bookingRequestRepository.insertIfAbsent(key, requestHash, reservedCode, LocalDateTime.now()));
+        if (claimed == null || claimed == 0) {
+            List<TicketDto> replayed = replayOrReclaim(key, requestHash, reservedCode);
+            if (replayed != null) {
+                return replayed;
+            }
+        }
+
+        List<TicketDto> bookedTickets;
+        try {
+            bookedTickets = ticketService.bookTickets(bookingDto, reservedCode);
+        } catch (RuntimeException e) {
+            try {
+                transactionTemplate.execute(status -> bookingRequestRepository.release(key));
+            } catch (Exception releaseError) {
+                System.err.println("Failed to release booking idempotency key " + key + ": " + releaseError.getMessage());
+            }
+            throw e;
+        }
+
+        String confirmationCode = bookedTickets.isEmpty() ? null : bookedTickets.get(0).getConfirmationCode();
+        try {
+            transactionTemplate.execute(status -> bookingRequestRepository.complete(key, confirmationCode));
+        } catch (Exception e) {
+            // The booking stands; replays on this instance are still answered from memory
+            System.err.println("Failed to record booking for idempotency key " + key + ": " + e.getMessage());
+        }
+        return bookedTickets;
+    }
+
+    /**
+     * The key was claimed by an earlier request, possibly on another instance or before a restart.
+     * Returns the tickets that request booked, or null once its stale claim has been taken over
+     * under reservedCode and the caller should book.
+     */
+    private List<TicketDto> replayOrReclaim(String key, String requestHash, String reservedCode) {
+        BookingRequest bookingRequest = bookingRequestRepository.findById(key)
+                .orElseThrow(() -> new ConflictException("A booking with this Idempotency-Key just failed, please retry"));
+        if (!bookingRequest.getRequestHash().equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different booking request");
+        }
+        if (bookingRequest.getConfirmationCode() != null) {
+            return ticketService.getTicketsOnConfirmationCode(bookingRequest.getConfirmationCode());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(staleClaimAge);
+        if (bookingRequest.getClaimedAt() != null && !bookingRequest.getClaimedAt().isBefore(staleBefore)) {
+            throw new ConflictException("A booking with this Idempotency-Key is still in progress");
+        }
+
+        // The owner died before completing the claim; its tickets are written in one transaction,
+        // so either all of them exist under the code it reserved or none do
+        String abandonedCode = bookingRequest.getReservedCode();
+        if (abandonedCode != null) {
+            List<TicketDto> bookedTickets = ticketService.getTicketsOnConfirmationCode(abandonedCode);
+            if (!bookedTickets.isEmpty()) {
+                transactionTemplate.execute(status -> bookingRequestRepository.complete(key, abandonedCode));
+                return bookedTickets;
+            }
+        }
+        Integer reclaimed = transactionTemplate.execute(status ->
+                bookingRequestRepository.reclaimStale(key, reservedCode, now, staleBefore));
+        if (reclaimed == null || reclaimed == 0) {
+            throw new ConflictException("A booking with this Idempotency-Key is still in progress");
+        }
+        System.out.println("Took over stale booking idempotency key " + key);
+        return null;
+    }
+
+    private List<TicketDto> await(Entry entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Fingerprint of the booking request, so a key reused for a different booking is rejected.
+     */
+    private static String requestHash(BookingDto bookingDto) {
+        StringBuilder request = new StringBuilder()
+                .append(bookingDto.getFlightId()).append('|')
+                .append(bookingDto.getTicketClassId()).append('|')
+                .append(bookingDto.getCustomerId()).append('|')
+                .append(bookingDto.getSeatNumbers());
+        if (bookingDto.getPassengers() != null) {
+            for (PassengerDto passenger : bookingDto.getPassengers()) {
+                request.append('|').append(passenger.getCitizenId())
+                        .append(',').append(passenger.getPassengerName())
+                        .append(',').append(passenger.getEmail())
+                        .append(',').append(passenger.getPhoneNumber());
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final String requestHash;
+
+        private final long expiresAtNanos;
+
+        private final CompletableFuture<List<TicketDto>> result = new CompletableFuture<>();
+
+        private Entry(String requestHash, long expiresAtNanos) {
+            this.requestHash = requestHash;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
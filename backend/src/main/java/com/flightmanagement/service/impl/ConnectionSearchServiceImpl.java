@@ -0,0 +1,248 @@
+package com.flightmanagement.service.impl;
+
+import com.flightmanagement.dto.ConnectionDto;
+import com.flightmanagement.dto.FlightDto;
+import com.flightmanagement.dto.FlightSearchCriteria;
+import com.flightmanagement.dto.ParameterDto;
+import com.flightmanagement.exception.BadRequestException;
+import com.flightmanagement.exception.ServiceUnavailableException;
+import com.flightmanagement.repository.FlightTicketClassRepository;
+import com.flightmanagement.service.ConnectionSearchService;
+import com.flightmanagement.service.FlightSearchIndex;
+import com.flightmanagement.service.ParameterService;
+import com.flightmanagement.service.SeatInventoryService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds itineraries of up to two stops between two airports on a day. Each flight is a node of
+ * a time-expanded graph whose edges are the departures from its arrival airport inside the
+ * layover window from the parameters; those departures come from the per airport and day lists
+ * of FlightSearchIndex, and the last leg is looked up on its route directly, so only itineraries
+ * that reach the destination are expanded. Results are the Pareto set over departure time (later
+ * is better), arrival time, number of legs and total fare, ordered by arrival.
+ */
+@Service
+public class ConnectionSearchServiceImpl implements ConnectionSearchService {
+
+    public static final int MAX_STOPS = 2;
+
+    // The index loads once at startup; clients are told to come back after this many seconds
+    private static final long INDEX_LOADING_RETRY_AFTER_SECONDS = 5;
+
+    private static final Comparator<Candidate> BY_ARRIVAL = Comparator.comparing(Candidate::arrivalTime)
+            .thenComparing(Candidate::totalFare)
+            .thenComparingInt(Candidate::legCount)
+            .thenComparing(Candidate::departureTime, Comparator.reverseOrder());
+
+    private final FlightSearchIndex flightSearchIndex;
+
+    private final FlightTicketClassRepository flightTicketClassRepository;
+
+    private final ParameterService parameterService;
+
+    private final SeatInventoryService seatInventoryService;
+
+    public ConnectionSearchServiceImpl(FlightSearchIndex flightSearchIndex,
+                                       FlightTicketClassRepository flightTicketClassRepository,
+                                       ParameterService parameterService,
+                                       SeatInventoryService seatInventoryService) {
+        this.flightSearchIndex = flightSearchIndex;
+        this.flightTicketClassRepository = flightTicketClassRepository;
+        this.parameterService = parameterService;
+        this.seatInventoryService = seatInventoryService;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ConnectionDto> searchConnections(FlightSearchCriteria criteria, int maxStops) {
+        if (maxStops < 0 || maxStops > MAX_STOPS) {
+            throw new BadRequestException("maxStops must be between 0 and " + MAX_STOPS);
+        }
+        if (criteria.getDepartureAirportId().equals(criteria.getArrivalAirportId())) {
+            throw new BadRequestException("Departure and arrival airports must be different");
+        }
+        if (!flightSearchIndex.isReady()) {
+            throw new ServiceUnavailableException("Connection search is unavailable until the flight search index has loaded",
+                    INDEX_LOADING_RETRY_AFTER_SECONDS);
+        }
+
+        ParameterDto parameters = parameterService.getLatestParameter();
+        Search search = new Search(criteria, maxStops, parameters.getMinLayoverDuration(), parameters.getMaxLayoverDuration());
+        LocalDateTime dayStart = criteria.getDepartureDate().toLocalDate().atStartOfDay();
+        for (FlightDto flight : flightSearchIndex.departuresBetween(criteria.getDepartureAirportId(),
+                dayStart, dayStart.plusDays(1).minusNanos(1))) {
+            search.visit(flight);
+        }
+
+        return paretoSet(priced(search.itineraries, criteria.getTicketClassId(), criteria.getPassengerCount()));
+    }
+
+    /**
+     * Attaches total fares, dropping itineraries with a leg that has no fare to sell. Without a
+     * ticket class each leg is priced at its cheapest class that still has seats for every
+     * passenger; a requested class was already checked for seats during the search.
+     */
+    private List<Candidate> priced(List<List<FlightDto>> itineraries, Integer ticketClassId, Integer passengerCount) {
+        if (itineraries.isEmpty()) {
+            return List.of();
+        }
+        Set<Integer> flightIds = new HashSet<>();
+        for (List<FlightDto> itinerary : itineraries) {
+            for (FlightDto flight : itinerary) {
+                flightIds.add(flight.getFlightId());
+            }
+        }
+
+        boolean anyClass = ticketClassId == null || ticketClassId <= 0;
+        Map<Integer, BigDecimal> fareByFlightId = new HashMap<>();
+        for (Object[] row : flightTicketClassRepository.findFaresByFlightIds(flightIds)) {
+            Integer flightId = (Integer) row[0];
+            Integer rowTicketClassId = (Integer) row[1];
+            BigDecimal fare = (BigDecimal) row[2];
+            if (fare == null) {
+                continue;
+            }
+            boolean sellable = anyClass
+                    ? seatInventoryService.isAvailable(flightId, rowTicketClassId, passengerCount)
+                    : ticketClassId.equals(rowTicketClassId);
+            if (sellable) {
+                fareByFlightId.merge(flightId, fare, BigDecimal::min);
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (List<FlightDto> itinerary : itineraries) {
+            BigDecimal totalFare = BigDecimal.ZERO;
+            for (FlightDto flight : itinerary) {
+                BigDecimal fare = fareByFlightId.get(flight.getFlightId());
+                if (fare == null) {
+                    totalFare = null;
+                    break;
+                }
+                totalFare = totalFare.add(fare);
+            }
+            if (totalFare != null) {
+                candidates.add(new Candidate(itinerary, totalFare));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * In arrival order every dominating candidate comes first, so one pass against the
+     * candidates kept so far is enough.
+     */
+    private List<ConnectionDto> paretoSet(List<Candidate> candidates) {
+        List<Candidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(BY_ARRIVAL);
+        List<Candidate> kept = new ArrayList<>();
+        for (Candidate candidate : sorted) {
+            if (kept.stream().noneMatch(other -> other.dominates(candidate))) {
+                kept.add(candidate);
+            }
+        }
+        return kept.stream()
+                .map(candidate -> new ConnectionDto(candidate.flights(), candidate.departureTime(),
+                        candidate.arrivalTime(), candidate.legCount() - 1, candidate.totalFare()))
+                .toList();
+    }
+
+    /**
+     * Depth-first walk from one first leg, with the airports already visited kept out so no
+     * itinerary goes around in a circle.
+     */
+    private class Search {
+
+        private final Integer destinationId;
+        private final Integer ticketClassId;
+        private final Integer passengerCount;
+        private final int maxStops;
+        private final long minLayoverMinutes;
+        private final long maxLayoverMinutes;
+        private final Map<Integer, Boolean> availableByFlightId = new HashMap<>();
+        private final List<FlightDto> path = new ArrayList<>();
+        private final Set<Integer> visitedAirportIds = new HashSet<>();
+        private final List<List<FlightDto>> itineraries = new ArrayList<>();
+
+        private Search(FlightSearchCriteria criteria, int maxStops, Integer minLayoverMinutes, Integer maxLayoverMinutes) {
+            this.destinationId = criteria.getArrivalAirportId();
+            this.ticketClassId = criteria.getTicketClassId();
+            this.passengerCount = criteria.getPassengerCount();
+            this.maxStops = maxStops;
+            this.minLayoverMinutes = minLayoverMinutes != null ? minLayoverMinutes : 0;
+            this.maxLayoverMinutes = maxLayoverMinutes != null ? maxLayoverMinutes : 0;
+            visitedAirportIds.add(criteria.getDepartureAirportId());
+        }
+
+        private void visit(FlightDto flight) {
+            if (!isAvailable(flight)) {
+                return;
+            }
+            Integer airportId = flight.getArrivalAirportId();
+            if (airportId.equals(destinationId)) {
+                path.add(flight);
+                itineraries.add(List.copyOf(path));
+                path.remove(path.size() - 1);
+                return;
+            }
+            int stopsLeft = maxStops - path.size();
+            if (stopsLeft == 0 || !visitedAirportIds.add(airportId)) {
+                return;
+            }
+            path.add(flight);
+
+            LocalDateTime earliest = flight.getArrivalTime().plusMinutes(minLayoverMinutes);
+            LocalDateTime latest = flight.getArrivalTime().plusMinutes(maxLayoverMinutes);
+            List<FlightDto> connections = stopsLeft == 1
+                    ? flightSearchIndex.searchBetween(airportId, destinationId, earliest, latest)
+                    : flightSearchIndex.departuresBetween(airportId, earliest, latest);
+            for (FlightDto connection : connections) {
+                visit(connection);
+            }
+
+            path.remove(path.size() - 1);
+            visitedAirportIds.remove(airportId);
+        }
+
+        private boolean isAvailable(FlightDto flight) {
+            if (ticketClassId == null || ticketClassId <= 0) {
+                return true;
+            }
+            return availableByFlightId.computeIfAbsent(flight.getFlightId(),
+                    flightId -> seatInventoryService.isAvailable(flightId, ticketClassId, passengerCount));
+        }
+    }
+
+    private record Candidate(List<FlightDto> flights, BigDecimal totalFare) {
+
+        LocalDateTime departureTime() {
+            return flights.get(0).getDepartureTime();
+        }
+
+        LocalDateTime arrivalTime() {
+            return flights.get(flights.size() - 1).getArrivalTime();
+        }
+
+        int legCount() {
+            return flights.size();
+        }
+
+        boolean dominates(Candidate other) {
+            return !departureTime().isBefore(other.departureTime())
+                    && !arrivalTime().isAfter(other.arrivalTime())
+                    && legCount() <= other.legCount()
+                    && totalFare.compareTo(other.totalFare) <= 0;
+        }
+    }
+}
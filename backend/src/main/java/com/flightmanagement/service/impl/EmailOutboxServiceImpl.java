@@ -0,0 +1,183 @@
+package com.flightmanagement.service.impl;
+
+import com.flightmanagement.dto.TicketDto;
+import com.flightmanagement.entity.EmailOutbox;
+import com.flightmanagement.mapper.TicketMapper;
+import com.flightmanagement.repository.EmailOutboxRepository;
+import com.flightmanagement.repository.TicketRepository;
+import com.flightmanagement.service.EmailOutboxService;
+import com.flightmanagement.service.EmailService;
+import com.flightmanagement.util.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transactional outbox for booking confirmation emails.
+ * A row is written with the booking and sent after commit by a small pool of sender threads;
+ * failed sends are retried with exponential backoff by the scheduled poll.
+ */
+@Service
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private static final int QUEUED_SENDS_PER_THREAD = 50;
+
+    private static final long MAX_BACKOFF_MS = 3_600_000L;
+
+    // A claim older than this belongs to a sender that died mid-send
+    private static final long STALE_CLAIM_MINUTES = 10;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    private final TicketRepository ticketRepository;
+
+    private final TicketMapper ticketMapper;
+
+    private final EmailService emailService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxAttempts;
+
+    private final long backoffMs;
+
+    private final ThreadPoolExecutor senders;
+
+    public EmailOutboxServiceImpl(EmailOutboxRepository emailOutboxRepository,
+                                  TicketRepository ticketRepository,
+                                  TicketMapper ticketMapper,
+                                  EmailService emailService,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.email.outbox.concurrency:2}") int concurrency,
+                                  @Value("${app.email.outbox.max-attempts:5}") int maxAttempts,
+                                  @Value("${app.email.outbox.backoff-ms:30000}") long backoffMs) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.ticketRepository = ticketRepository;
+        this.ticketMapper = ticketMapper;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(concurrency * QUEUED_SENDS_PER_THREAD),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void enqueueBookingConfirmation(String confirmationCode) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox outbox = new EmailOutbox();
+        outbox.setConfirmationCode(confirmationCode);
+        outbox.setStatus(EmailOutbox.STATUS_PENDING);
+        outbox.setAttempts(0);
+        outbox.setNextAttemptAt(now);
+        outbox.setCreatedAt(now);
+        Integer outboxId = emailOutboxRepository.save(outbox).getOutboxId();
+
+        AfterCommit.run(() -> submit(outboxId));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:5000}")
+    public void dispatchPending() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxRepository.releaseStaleClaims(now.minusMinutes(STALE_CLAIM_MINUTES)));
+
+        int capacity = senders.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        for (Integer outboxId : emailOutboxRepository.findDueIds(now, PageRequest.of(0, capacity))) {
+            if (!submit(outboxId)) {
+                break;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+
+    private boolean submit(Integer outboxId) {
+        try {
+            senders.execute(() -> deliver(outboxId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Queue is full; the row stays pending and the next poll picks it up
+            return false;
+        }
+    }
+
+    private void deliver(Integer outboxId) {
+        Integer claimed = transactionTemplate.execute(status ->
+                emailOutboxRepository.claim(outboxId, LocalDateTime.now()));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        EmailOutbox outbox = emailOutboxRepository.findById(outboxId).orElse(null);
+        if (outbox == null) {
+            return;
+        }
+
+        try {
+            List<TicketDto> tickets = transactionTemplate.execute(status ->
+                    ticketMapper.toDtoList(ticketRepository.findByConfirmationCode(outbox.getConfirmationCode())));
+            if (tickets == null || tickets.isEmpty()) {
+                // Booking was canceled before the email went out; nothing left to confirm
+                outbox.setStatus(EmailOutbox.STATUS_FAILED);
+                outbox.setLastError("No active tickets for confirmation code");
+            } else {
+                emailService.sendBookingConfirmation(outbox.getConfirmationCode(), tickets);
+                outbox.setStatus(EmailOutbox.STATUS_SENT);
+                outbox.setSentAt(LocalDateTime.now());
+                outbox.setLastError(null);
+            }
+        } catch (RuntimeException e) {
+            int attempts = outbox.getAttempts() + 1;
+            outbox.setAttempts(attempts);
+            outbox.setLastError(truncate(e.getMessage()));
+            if (attempts >= maxAttempts) {
+                outbox.setStatus(EmailOutbox.STATUS_FAILED);
+                System.err.println("Giving up on booking confirmation email for " + outbox.getConfirmationCode() +
+                        " after " + attempts + " attempts: " + e.getMessage());
+            } else {
+                outbox.setStatus(EmailOutbox.STATUS_PENDING);
+                outbox.setNextAttemptAt(LocalDateTime.now().plusNanos(backoff(attempts) * 1_000_000L));
+            }
+        }
+
+        outbox.setLockedAt(null);
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.save(outbox));
+    }
+
+    // backoff, 2x backoff, 4x backoff, ... capped at an hour
+    private long backoff(int attempts) {
+        return Math.min(backoffMs << Math.min(attempts - 1, 20), MAX_BACKOFF_MS);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
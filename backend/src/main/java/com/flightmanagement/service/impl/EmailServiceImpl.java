@@ -16,7 +16,9 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class EmailServiceImpl implements EmailService {
@@ -564,66 +566,76 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public void sendBookingConfirmation(TicketDto ticketDto) {
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-
             Passenger passenger = passengerRepository.findById(ticketDto.getPassengerId())
                     .orElseThrow(() -> new RuntimeException("Passenger not found with ID: " + ticketDto.getPassengerId()));
 
-            Flight flight = flightRepository.findById(ticketDto.getFlightId())
+            Flight flight = flightRepository.findWithAirportsById(ticketDto.getFlightId())
                     .orElseThrow(() -> new RuntimeException("Flight not found with code: " + ticketDto.getFlightId()));
 
-            String to = passenger.getEmail();
-            helper.setTo(to);
-            helper.setSubject("🎫 Xác nhận đặt vé cho hành khách " + passenger.getPassengerName());
-
-            String currentTime = Instant.now().atZone(ZoneOffset.UTC).format(EMAIL_DATETIME_FORMAT);
-            String paymentStatus = ticketDto.getOrderId() == null ? "⏱️ Chờ thanh toán" : "✅ Đã thanh toán";
+            if (passenger.getEmail() == null || passenger.getEmail().isBlank()) {
+                System.out.println("No email address for passenger " + passenger.getPassengerId() +
+                        ", skipping booking confirmation for " + ticketDto.getConfirmationCode());
+                return;
+            }
 
-            // TEXT body
-            String plainTextContent = String.format("""
-                            ✈️ FLIGHT MANAGEMENT - XÁC NHẬN ĐẶT VÉ
-                            
-                            Chào %s,
-                            
-                            🎫 Vé của bạn đã được đặt thành công!
-                            
-                            -----------------------
-                            THÔNG TIN HÀNH KHÁCH:
-                            -----------------------
-                            Tên: %s
-                            Số ghế: %s
-                            Giá vé: %s VND
-                            
-                            Trạng thái: %s
-                            Ngày đặt: %s UTC
-                            
-                            Cảm ơn bạn đã sử dụng Flight Management!
-                            """,
-                    passenger.getPassengerName(),
+            sendBookingEmail(
+                    new String[]{passenger.getEmail()},
+                    "🎫 Xác nhận đặt vé cho hành khách " + passenger.getPassengerName(),
                     passenger.getPassengerName(),
-                    ticketDto.getSeatNumber(),
-                    ticketDto.getFare(),
-                    paymentStatus,
-                    currentTime);
+                    ticketDto.getConfirmationCode(),
+                    flight,
+                    List.of(new TicketRow(passenger.getPassengerName(), ticketDto.getSeatNumber(), ticketDto.getFare())),
+                    ticketDto.getOrderId() == null);
 
-            // HTML body
-            String htmlContent = generateSinglePassengerHtml(
-                    passenger.getPassengerName(),
-                    ticketDto.getConfirmationCode(),   // hoặc ticketDto.getOrderId() tuỳ bạn lưu
-                    flight.getFlightCode(),
-                    flight.getDepartureAirport().getCityName(),
-                    flight.getArrivalAirport().getCityName(),
-                    flight.getDepartureTime().atZone(ZoneOffset.UTC).format(EMAIL_DATETIME_FORMAT),
-                    ticketDto.getFare(),
-                    paymentStatus,
-                    currentTime
-            );
+        } catch (Exception e) {
+            throw new RuntimeException("Gửi email xác nhận đặt vé thất bại", e);
+        }
+    }
 
-            helper.setText(plainTextContent, htmlContent);
-            mailSender.send(mimeMessage);
+    /**
+     * Send one booking confirmation email per confirmation code, addressed to every passenger on it
+     */
+    @Override
+    public void sendBookingConfirmation(String confirmationCode, List<TicketDto> tickets) {
+        if (tickets.isEmpty()) {
+            throw new RuntimeException("No tickets found for confirmation code: " + confirmationCode);
+        }
+        try {
+            Map<Integer, Passenger> passengers = new HashMap<>();
+            for (Passenger passenger : passengerRepository.findAllById(
+                    tickets.stream().map(TicketDto::getPassengerId).distinct().toList())) {
+                passengers.put(passenger.getPassengerId(), passenger);
+            }
+
+            Flight flight = flightRepository.findWithAirportsById(tickets.get(0).getFlightId())
+                    .orElseThrow(() -> new RuntimeException("Flight not found with code: " + tickets.get(0).getFlightId()));
+
+            String[] recipients = passengers.values().stream()
+                    .map(Passenger::getEmail)
+                    .filter(email -> email != null && !email.isBlank())
+                    .distinct()
+                    .toArray(String[]::new);
+            if (recipients.length == 0) {
+                System.out.println("No passenger email addresses, skipping booking confirmation for " + confirmationCode);
+                return;
+            }
+
+            List<TicketRow> rows = tickets.stream()
+                    .map(ticketDto -> {
+                        Passenger passenger = passengers.get(ticketDto.getPassengerId());
+                        return new TicketRow(passenger != null ? passenger.getPassengerName() : "",
+                                ticketDto.getSeatNumber(), ticketDto.getFare());
+                    })
+                    .toList();
+
+            sendBookingEmail(
+                    recipients,
+                    "🎫 Xác nhận đặt vé - " + confirmationCode,
+                    null,
+                    confirmationCode,
+                    flight,
+                    rows,
+                    tickets.get(0).getOrderId() == null);
 
         } catch (Exception e) {
             throw new RuntimeException("Gửi email xác nhận đặt vé thất bại", e);
@@ -631,22 +643,118 @@ public class EmailServiceImpl implements EmailService {
     }
 
     /**
-     * Generate HTML content for multi-passenger booking confirmation
+     * One ticket of a booking confirmation: who flies, in which seat, at what fare
      */
-    private String generateSinglePassengerHtml(
-            String customerName,
+    private record TicketRow(String passengerName, String seatNumber, BigDecimal fare) {
+    }
+
+    /**
+     * Send a booking confirmation listing the given tickets; greetingName is null when the email
+     * goes to several passengers
+     */
+    private void sendBookingEmail(String[] to, String subject, String greetingName, String confirmationCode,
+                                  Flight flight, List<TicketRow> rows, boolean unpaid) throws Exception {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject);
+
+        String currentTime = Instant.now().atZone(ZoneOffset.UTC).format(EMAIL_DATETIME_FORMAT);
+        String paymentStatus = unpaid ? "⏱️ Chờ thanh toán" : "✅ Đã thanh toán";
+        String departureTime = flight.getDepartureTime().atZone(ZoneOffset.UTC).format(EMAIL_DATETIME_FORMAT);
+        String departureCity = flight.getDepartureAirport().getCityName();
+        String arrivalCity = flight.getArrivalAirport().getCityName();
+
+        BigDecimal totalFare = BigDecimal.ZERO;
+        StringBuilder passengerLines = new StringBuilder();
+        StringBuilder passengerRows = new StringBuilder();
+        for (TicketRow row : rows) {
+            totalFare = totalFare.add(row.fare() != null ? row.fare() : BigDecimal.ZERO);
+            passengerLines.append(String.format("- %s | Số ghế: %s | Giá vé: %s VND%n",
+                    row.passengerName(), row.seatNumber(), row.fare()));
+            passengerRows.append(String.format("""
+                    <tr>
+                        <td style="padding: 12px; border-bottom: 1px solid #dee2e6;">%s</td>
+                        <td style="padding: 12px; border-bottom: 1px solid #dee2e6; font-family: monospace;">%s</td>
+                        <td style="padding: 12px; border-bottom: 1px solid #dee2e6; text-align: right;">%s VND</td>
+                    </tr>
+                    """, row.passengerName(), row.seatNumber(), row.fare()));
+        }
+
+        // TEXT body
+        String plainTextContent = String.format("""
+                        ✈️ FLIGHT MANAGEMENT - XÁC NHẬN ĐẶT VÉ
+
+                        %s🎫 Đặt vé thành công!
+
+                        Mã xác nhận: %s
+                        Chuyến bay: %s (%s → %s)
+                        Khởi hành: %s
+
+                        -----------------------
+                        THÔNG TIN HÀNH KHÁCH:
+                        -----------------------
+                        %s
+                        Tổng tiền: %s VND
+                        Trạng thái: %s
+                        Ngày đặt: %s UTC
+
+                        Cảm ơn bạn đã sử dụng Flight Management!
+                        """,
+                greetingName != null ? "Chào " + greetingName + ",\n\n" : "",
+                confirmationCode,
+                flight.getFlightCode(),
+                departureCity,
+                arrivalCity,
+                departureTime,
+                passengerLines,
+                totalFare,
+                paymentStatus,
+                currentTime);
+
+        // HTML body
+        String htmlContent = generateBookingHtml(
+                greetingName,
+                confirmationCode,
+                flight.getFlightCode(),
+                departureCity,
+                arrivalCity,
+                departureTime,
+                passengerRows.toString(),
+                totalFare,
+                paymentStatus,
+                currentTime
+        );
+
+        helper.setText(plainTextContent, htmlContent);
+        mailSender.send(mimeMessage);
+    }
+
+    /**
+     * Generate HTML content for a booking confirmation listing every passenger
+     */
+    private String generateBookingHtml(
+            String greetingName,
             String confirmationCode,
             String flightCode,
             String departureCity,
             String arrivalCity,
             String departureTime,
-            BigDecimal fare,
+            String passengerRows,
+            BigDecimal totalFare,
             String paymentStatus,
             String currentTime
     ) {
 
         String statusColor = paymentStatus.contains("Chờ") ? "#ffc107" : "#28a745";
         String statusTextColor = paymentStatus.contains("Chờ") ? "black" : "white";
+        String greeting = greetingName == null ? "" : String.format("""
+                        <p style="color: #155724; margin: 0;">
+                             Kính chào %s, vé của bạn đã được đặt thành công
+                        </p>
+                """, greetingName);
 
         return String.format("""
             <!DOCTYPE html>
@@ -673,9 +781,7 @@ public class EmailServiceImpl implements EmailService {
                     <div style="padding: 30px; text-align: center; background-color: #d4edda; border-bottom: 1px solid #c3e6cb;">
                         <div style="font-size: 48px; margin-bottom: 15px;">🎫</div>
                         <h2 style="color: #155724; margin: 0 0 15px 0;">Đặt vé thành công!</h2>
-                        <p style="color: #155724; margin: 0;">
-                             Kính chào %s, vé của bạn đã được đặt thành công
-                        </p>
+            %s
                         <div style="margin: 15px 0;">
                             <span style="background-color: %s; color: %s; padding: 10px 20px; border-radius: 25px; font-weight: bold; font-size: 14px;">
                                 %s
@@ -689,7 +795,7 @@ public class EmailServiceImpl implements EmailService {
                              🎫 Thông tin đặt vé
                         </h3>
 
-                        <table style="width: 100%%; border-collapse: collapse; margin-bottom: 30px; border: 1px solid #dee2e6; border-radius: 8px; overflow: hidden;">
+                        <table style="width: 100%%; border-collapse: collapse; margin-bottom: 30px; border: 1px solid #dee2e6;">
                             <tr style="background-color: #f8f9fa;">
                                 <td style="padding: 15px; border-bottom: 1px solid #dee2e6; font-weight: bold;">Mã xác nhận:</td>
                                 <td style="padding: 15px; border-bottom: 1px solid #dee2e6; font-family: monospace; font-size: 16px; font-weight: bold; color: #007bff;">%s</td>
@@ -703,12 +809,25 @@ public class EmailServiceImpl implements EmailService {
                                 <td style="padding: 15px; border-bottom: 1px solid #dee2e6;">%s → %s</td>
                             </tr>
                             <tr>
-                                <td style="padding: 15px; border-bottom: 1px solid #dee2e6; font-weight: bold;">Khởi hành:</td>
-                                <td style="padding: 15px; border-bottom: 1px solid #dee2e6;">%s</td>
+                                <td style="padding: 15px; font-weight: bold;">Khởi hành:</td>
+                                <td style="padding: 15px;">%s</td>
                             </tr>
+                        </table>
+
+                        <h3 style="color: #007bff; margin-bottom: 20px; font-size: 18px; border-bottom: 2px solid #007bff; padding-bottom: 10px;">
+                             👥 Hành khách
+                        </h3>
+
+                        <table style="width: 100%%; border-collapse: collapse; border: 1px solid #dee2e6;">
+                            <tr style="background-color: #f8f9fa; font-weight: bold;">
+                                <td style="padding: 12px; border-bottom: 1px solid #dee2e6;">Hành khách</td>
+                                <td style="padding: 12px; border-bottom: 1px solid #dee2e6;">Số ghế</td>
+                                <td style="padding: 12px; border-bottom: 1px solid #dee2e6; text-align: right;">Giá vé</td>
+                            </tr>
+                            %s
                             <tr style="background-color: #d4edda;">
-                                <td style="padding: 15px; font-weight: bold; font-size: 16px;">Giá vé:</td>
-                                <td style="padding: 15px; font-size: 18px; font-weight: bold; color: #28a745;">%s VND</td>
+                                <td colspan="2" style="padding: 15px; font-weight: bold; font-size: 16px;">Tổng tiền:</td>
+                                <td style="padding: 15px; font-size: 18px; font-weight: bold; color: #28a745; text-align: right;">%s VND</td>
                             </tr>
                         </table>
                     </div>
@@ -730,11 +849,11 @@ public class EmailServiceImpl implements EmailService {
             """,
                 confirmationCode,
                 currentTime,
-                customerName,
+                greeting,
                 statusColor, statusTextColor, paymentStatus,
                 confirmationCode, flightCode, departureCity, arrivalCity, departureTime,
-                fare
+                passengerRows,
+                totalFare
         );
     }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package com.flightmanagement.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.flightmanagement.enums.ExportFormat;
+import com.flightmanagement.repository.ExportRepository;
+import com.flightmanagement.service.ExportService;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes each streamed row straight to the output, as one JSON object per line or one CSV
+ * record, so nothing is held per row once it is written. The output is flushed every
+ * FLUSH_EVERY rows, which the container sends as a chunk. The output stream is left open for
+ * the caller.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    static final int FLUSH_EVERY = 1000;
+
+    private final ExportRepository exportRepository;
+
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    public ExportServiceImpl(ExportRepository exportRepository) {
+        this.exportRepository = exportRepository;
+    }
+
+    @Override
+    public void exportTickets(ExportFormat format, OutputStream out) throws IOException {
+        export(format, out, ExportRepository.TICKET_FIELDS, exportRepository::streamActiveTickets);
+    }
+
+    @Override
+    public void exportPassengers(ExportFormat format, OutputStream out) throws IOException {
+        export(format, out, ExportRepository.PASSENGER_FIELDS, exportRepository::streamActivePassengers);
+    }
+
+    private void export(ExportFormat format, OutputStream out, List<String> fields,
+                        Consumer<RowCallbackHandler> query) throws IOException {
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out, fields) : new NdjsonRowWriter(out, fields);
+        try {
+            query.accept(new RowCallbackHandler() {
+                private long rows;
+
+                @Override
+                public void processRow(ResultSet resultSet) throws SQLException {
+                    try {
+                        writer.write(resultSet);
+                        if (++rows % FLUSH_EVERY == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        // Usually the client went away; stop reading rows
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+
+    // DATETIME columns come back as Timestamp, whose toString is not ISO-8601
+    private static String text(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+
+    private interface RowWriter {
+
+        void write(ResultSet resultSet) throws SQLException, IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private final List<String> fields;
+
+        NdjsonRowWriter(OutputStream out, List<String> fields) throws IOException {
+            this.generator = jsonFactory.createGenerator(out);
+            // Rows are separated by the newline written after each one, not the default space
+            this.generator.setRootValueSeparator(null);
+            this.fields = fields;
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < fields.size(); i++) {
+                Object value = resultSet.getObject(i + 1);
+                generator.writeFieldName(fields.get(i));
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else {
+                    generator.writeString(text(value));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // Flushes without closing the target
+            generator.close();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private final int columns;
+
+        CsvRowWriter(OutputStream out, List<String> fields) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.columns = fields.size();
+            writer.write(String.join(",", fields));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 0; i < columns; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = resultSet.getObject(i + 1);
+                if (value != null) {
+                    writeField(text(value));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: quote fields holding a separator, quote or line break, doubling the quotes
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
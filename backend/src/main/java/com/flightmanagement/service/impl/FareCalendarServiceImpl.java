@@ -0,0 +1,174 @@
+package com.flightmanagement.service.impl;
+
+import com.flightmanagement.dto.FareCalendarDto;
+import com.flightmanagement.exception.BadRequestException;
+import com.flightmanagement.repository.FlightRepository;
+import com.flightmanagement.service.FareCalendarService;
+import com.flightmanagement.service.SeatInventoryService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lowest fare per day and ticket class on a route. The fare rows of each route and day are
+ * cached after one query covering every uncached day of the window, and evicted by
+ * FlightServiceImpl and FlightTicketClassServiceImpl when a flight or fare changes. Availability
+ * is not cached: it is checked against the in-memory seat inventory on every call, so bookings
+ * never invalidate the calendar.
+ */
+@Service
+public class FareCalendarServiceImpl implements FareCalendarService {
+
+    public static final int MAX_DAYS = 31;
+
+    private final FlightRepository flightRepository;
+
+    private final SeatInventoryService seatInventoryService;
+
+    private final Map<RouteDay, List<FareRow>> faresByRouteDay = new ConcurrentHashMap<>();
+
+    private final Map<Integer, RouteDay> routeDayByFlightId = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so a load that raced with one is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public FareCalendarServiceImpl(FlightRepository flightRepository, SeatInventoryService seatInventoryService) {
+        this.flightRepository = flightRepository;
+        this.seatInventoryService = seatInventoryService;
+    }
+
+    @Override
+    public List<FareCalendarDto> getFareCalendar(Integer departureAirportId, Integer arrivalAirportId,
+                                                 LocalDate startDate, LocalDate endDate, int passengerCount) {
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_DAYS) {
+            throw new BadRequestException("Fare calendar covers at most " + MAX_DAYS + " days");
+        }
+        if (passengerCount < 1) {
+            throw new BadRequestException("passengerCount must be at least 1");
+        }
+
+        Map<LocalDate, List<FareRow>> faresByDay = new HashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            List<FareRow> fares = faresByRouteDay.get(new RouteDay(departureAirportId, arrivalAirportId, day));
+            if (fares != null) {
+                faresByDay.put(day, fares);
+            } else {
+                firstMissing = firstMissing == null ? day : firstMissing;
+                lastMissing = day;
+            }
+        }
+        if (firstMissing != null) {
+            faresByDay.putAll(load(departureAirportId, arrivalAirportId, firstMissing, lastMissing));
+        }
+
+        List<FareCalendarDto> calendar = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            Map<Integer, FareRow> lowestByClass = new TreeMap<>();
+            for (FareRow fare : faresByDay.getOrDefault(day, List.of())) {
+                if (fare.ticketClassId() == null || fare.fare() == null
+                        || !seatInventoryService.isAvailable(fare.flightId(), fare.ticketClassId(), passengerCount)) {
+                    continue;
+                }
+                lowestByClass.merge(fare.ticketClassId(), fare, (current, candidate) -> candidate.isLowerThan(current) ? candidate : current);
+            }
+            for (FareRow fare : lowestByClass.values()) {
+                calendar.add(new FareCalendarDto(day, fare.ticketClassId(), fare.fare(), fare.flightId()));
+            }
+        }
+        return calendar;
+    }
+
+    /**
+     * Runs immediately; callers inside a transaction call it after commit.
+     */
+    @Override
+    public synchronized void evictFlight(Integer flightId) {
+        evictions.incrementAndGet();
+        RouteDay routeDay = routeDayByFlightId.remove(flightId);
+        if (routeDay != null) {
+            evict(routeDay);
+        }
+    }
+
+    /**
+     * Runs immediately; callers inside a transaction call it after commit.
+     */
+    @Override
+    public synchronized void evictRouteDay(Integer departureAirportId, Integer arrivalAirportId, LocalDate departureDate) {
+        evictions.incrementAndGet();
+        evict(new RouteDay(departureAirportId, arrivalAirportId, departureDate));
+    }
+
+    @Scheduled(fixedRateString = "${app.fare-calendar.purge-interval-ms:3600000}")
+    public synchronized void purgePastDays() {
+        LocalDate today = LocalDate.now();
+        List<RouteDay> past = faresByRouteDay.keySet().stream()
+                .filter(routeDay -> routeDay.day().isBefore(today))
+                .toList();
+        past.forEach(this::evict);
+    }
+
+    private Map<LocalDate, List<FareRow>> load(Integer departureAirportId, Integer arrivalAirportId,
+                                               LocalDate firstDay, LocalDate lastDay) {
+        long generation = evictions.get();
+        Map<LocalDate, List<FareRow>> faresByDay = new HashMap<>();
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            faresByDay.put(day, new ArrayList<>());
+        }
+        for (Object[] row : flightRepository.findRouteFaresBetween(departureAirportId, arrivalAirportId,
+                firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay())) {
+            // Native queries return DATETIME columns as java.sql.Timestamp
+            LocalDateTime departureTime = ((Timestamp) row[1]).toLocalDateTime();
+            faresByDay.get(departureTime.toLocalDate())
+                    .add(new FareRow((Integer) row[0], departureTime, (Integer) row[2], (BigDecimal) row[3]));
+        }
+
+        Map<LocalDate, List<FareRow>> loaded = new HashMap<>();
+        faresByDay.forEach((day, fares) -> loaded.put(day, List.copyOf(fares)));
+        synchronized (this) {
+            if (evictions.get() == generation) {
+                loaded.forEach((day, fares) -> {
+                    RouteDay routeDay = new RouteDay(departureAirportId, arrivalAirportId, day);
+                    faresByRouteDay.put(routeDay, fares);
+                    fares.forEach(fare -> routeDayByFlightId.put(fare.flightId(), routeDay));
+                });
+            }
+        }
+        return loaded;
+    }
+
+    private void evict(RouteDay routeDay) {
+        List<FareRow> fares = faresByRouteDay.remove(routeDay);
+        if (fares != null) {
+            fares.forEach(fare -> routeDayByFlightId.remove(fare.flightId(), routeDay));
+        }
+    }
+
+    private record RouteDay(Integer departureAirportId, Integer arrivalAirportId, LocalDate day) {
+    }
+
+    private record FareRow(Integer flightId, LocalDateTime departureTime, Integer ticketClassId, BigDecimal fare) {
+
+        boolean isLowerThan(FareRow other) {
+            int byFare = fare.compareTo(other.fare);
+            return byFare < 0 || (byFare == 0 && departureTime.isBefore(other.departureTime));
+        }
+    }
+}
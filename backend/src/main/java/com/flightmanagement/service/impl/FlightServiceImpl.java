@@ -5,14 +5,23 @@ import com.flightmanagement.entity.Flight;
 import com.flightmanagement.mapper.FlightMapper;
 import com.flightmanagement.repository.FlightRepository;
 import com.flightmanagement.service.AuditLogService;
+import com.flightmanagement.service.FareCalendarService;
+import com.flightmanagement.service.FlightSearchIndex;
 import com.flightmanagement.service.FlightService;
 import com.flightmanagement.service.FlightTicketClassService;
 import com.flightmanagement.service.ParameterService;
+import com.flightmanagement.service.SeatInventoryService;
+import com.flightmanagement.util.AfterCommit;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -33,16 +42,28 @@ public class FlightServiceImpl implements FlightService {
 
     private final AuditLogService auditLogService;
 
+    private final SeatInventoryService seatInventoryService;
+
+    private final FlightSearchIndex flightSearchIndex;
+
+    private final FareCalendarService fareCalendarService;
+
     public FlightServiceImpl(FlightRepository flightRepository,
                              FlightMapper flightMapper,
                              ParameterService parameterService,
                              FlightTicketClassService flightTicketClassService,
-                             AuditLogService auditLogService) {
+                             AuditLogService auditLogService,
+                             SeatInventoryService seatInventoryService,
+                             FlightSearchIndex flightSearchIndex,
+                             FareCalendarService fareCalendarService) {
         this.flightRepository = flightRepository;
         this.flightMapper = flightMapper;
         this.parameterService = parameterService;
         this.flightTicketClassService = flightTicketClassService;
         this.auditLogService = auditLogService;
+        this.seatInventoryService = seatInventoryService;
+        this.flightSearchIndex = flightSearchIndex;
+        this.fareCalendarService = fareCalendarService;
     }
     
     @Override
@@ -56,8 +77,19 @@ public class FlightServiceImpl implements FlightService {
         Page<Flight> page = flightRepository.findByDeletedAtIsNull(pageable);
         return page.map(flightMapper::toDto);
     }
+
+    @Override
+    public CursorPage<FlightDto> getAllFlightsAfter(String cursor, int size, boolean includeCount) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<Flight> flights = after == null
+                ? flightRepository.findActiveFirst(CursorPage.limit(size))
+                : flightRepository.findActiveAfter(after.sortKeyAsDateTime(), after.id(), CursorPage.limit(size));
+        return CursorPage.of(flights, size, flight -> PageCursor.of(flight.getDepartureTime(), flight.getFlightId()),
+                flightMapper::toDtoList, includeCount ? flightRepository.countByDeletedAtIsNull() : null);
+    }
     
     @Override
+    @Cacheable(cacheNames = "flights", key = "#id")
     public FlightDto getFlightById(Integer id) {
         Flight flight = flightRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("Flight not found with id: " + id));
@@ -70,15 +102,32 @@ public class FlightServiceImpl implements FlightService {
 
         Flight flight = flightMapper.toEntityFromCreateRequest(request);
         flight.setDeletedAt(null);
-        Flight savedFlight = flightRepository.save(flight);
+        Flight savedFlight;
+        try {
+            savedFlight = flightRepository.save(flight);
+        } catch (DataIntegrityViolationException e) {
+            // Plane and airports are unchecked references until the insert; other violations
+            // (a duplicate flight code that raced past validation) keep their own error
+            if (!isForeignKeyViolation(e)) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Plane or airport not found for flight: " + request.getFlightCode());
+        }
         
         // Audit log for CREATE
         auditLogService.saveAuditLog("Flight", savedFlight.getFlightId().toString(), "CREATE", "flight", null, savedFlight.getFlightCode(), "system");
         
-        return flightMapper.toDto(savedFlight);
+        FlightDto savedFlightDto = flightMapper.toDto(savedFlight);
+        AfterCommit.run(() -> {
+            flightSearchIndex.put(savedFlightDto);
+            fareCalendarService.evictRouteDay(savedFlightDto.getDepartureAirportId(),
+                    savedFlightDto.getArrivalAirportId(), savedFlightDto.getDepartureTime().toLocalDate());
+        });
+        return savedFlightDto;
     }
     
     @Override
+    @CacheEvict(cacheNames = "flights", allEntries = true)
     public FlightDto updateFlight(Integer id, FlightRequest updateRequest) {
         Flight existingFlight = flightRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("Flight not found with id: " + id));
@@ -106,10 +155,18 @@ public class FlightServiceImpl implements FlightService {
             auditLogService.saveAuditLog("Flight", id.toString(), "UPDATE", "arrivalTime", oldArrivalTime.toString(), updatedFlight.getArrivalTime().toString(), "system");
         }
         
-        return flightMapper.toDto(updatedFlight);
+        FlightDto updatedFlightDto = flightMapper.toDto(updatedFlight);
+        AfterCommit.run(() -> {
+            flightSearchIndex.put(updatedFlightDto);
+            fareCalendarService.evictFlight(id);
+            fareCalendarService.evictRouteDay(updatedFlightDto.getDepartureAirportId(),
+                    updatedFlightDto.getArrivalAirportId(), updatedFlightDto.getDepartureTime().toLocalDate());
+        });
+        return updatedFlightDto;
     }
     
     @Override
+    @CacheEvict(cacheNames = "flights", allEntries = true)
     public void deleteFlight(Integer id) {
         Flight flight = flightRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("Flight not found with id: " + id));
@@ -122,36 +179,59 @@ public class FlightServiceImpl implements FlightService {
         
         // Audit log for DELETE
         auditLogService.saveAuditLog("Flight", id.toString(), "DELETE", "flight", flightDescription, null, "system");
+        AfterCommit.run(() -> {
+            flightSearchIndex.remove(id);
+            fareCalendarService.evictFlight(id);
+        });
     }
     
     @Override
+    @Cacheable(cacheNames = "flights", key = "'code:' + #flightCode")
     public FlightDto getFlightByCode(String flightCode) {
         Flight flight = flightRepository.findByFlightCode(flightCode)
             .orElseThrow(() -> new RuntimeException("Flight not found with code: " + flightCode));
         return flightMapper.toDto(flight);
     }
     
+    /**
+     * Answered from the in-memory search index once it is loaded, for days from today on; runs
+     * without a transaction so the index path never takes a database connection.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<FlightDto> searchFlights(FlightSearchCriteria criteria) {
+        if (flightSearchIndex.covers(criteria.getDepartureDate().toLocalDate())) {
+            List<FlightDto> flights = flightSearchIndex.search(
+                criteria.getDepartureAirportId(),
+                criteria.getArrivalAirportId(),
+                criteria.getDepartureDate()
+            );
+            if (criteria.getTicketClassId() != null && criteria.getTicketClassId() > 0) {
+                flights = flights.stream()
+                    .filter(flight -> seatInventoryService.isAvailable(
+                        flight.getFlightId(),
+                        criteria.getTicketClassId(),
+                        criteria.getPassengerCount()))
+                    .toList();
+            }
+            return flights;
+        }
+
         try {
-            List<Flight> flights;
+            List<Flight> flights = flightRepository.findFlightsByRoute(
+                criteria.getDepartureAirportId(),
+                criteria.getArrivalAirportId(),
+                criteria.getDepartureDate()
+            );
             
             if (criteria.getTicketClassId() != null && criteria.getTicketClassId() > 0) {
-                // Search flights with specific ticket class availability
-                flights = flightRepository.findFlightsWithTicketClass(
-                    criteria.getDepartureAirportId(),
-                    criteria.getArrivalAirportId(),
-                    criteria.getDepartureDate(),
-                    criteria.getTicketClassId(),
-                    criteria.getPassengerCount()
-                );
-            } else {
-                // Search all flights on route regardless of ticket class
-                flights = flightRepository.findFlightsByRoute(
-                    criteria.getDepartureAirportId(),
-                    criteria.getArrivalAirportId(),
-                    criteria.getDepartureDate()
-                );
+                // Filter by ticket class availability from the in-memory seat inventory
+                flights = flights.stream()
+                    .filter(flight -> seatInventoryService.isAvailable(
+                        flight.getFlightId(),
+                        criteria.getTicketClassId(),
+                        criteria.getPassengerCount()))
+                    .toList();
             }
             
             return flightMapper.toDtoList(flights);
@@ -183,7 +263,19 @@ public class FlightServiceImpl implements FlightService {
             throw new RuntimeException("Error searching flights by date: " + e.getMessage());
         }
     }
-    
+
+    // MySQL reports a missing referenced row as error 1452; standard SQL states use 23503 / 23506
+    private static boolean isForeignKeyViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && (sqlException.getErrorCode() == 1452
+                    || "23503".equals(sqlException.getSQLState()) || "23506".equals(sqlException.getSQLState()))) {
+                return true;
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains("foreign key constraint");
+    }
+
     private void validateFlightData(FlightRequest request) {
         if (flightRepository.existsByFlightCode(request.getFlightCode())) {
             throw new IllegalArgumentException("Flight code already exists: " + request.getFlightCode());
@@ -9,7 +9,11 @@ import com.flightmanagement.repository.FlightTicketClassRepository;
 import com.flightmanagement.repository.FlightRepository;
 import com.flightmanagement.repository.TicketClassRepository;
 import com.flightmanagement.service.AuditLogService;
+import com.flightmanagement.service.FareCalendarService;
 import com.flightmanagement.service.FlightTicketClassService;
+import com.flightmanagement.service.SeatInventoryService;
+import com.flightmanagement.service.SeatMapService;
+import com.flightmanagement.util.AfterCommit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -31,16 +35,28 @@ public class FlightTicketClassServiceImpl implements FlightTicketClassService {
 
     private final AuditLogService auditLogService;
 
+    private final SeatInventoryService seatInventoryService;
+
+    private final SeatMapService seatMapService;
+
+    private final FareCalendarService fareCalendarService;
+
     public FlightTicketClassServiceImpl(FlightTicketClassRepository flightTicketClassRepository,
                                         FlightTicketClassMapper flightTicketClassMapper,
                                         FlightRepository flightRepository,
                                         TicketClassRepository ticketClassRepository,
-                                        AuditLogService auditLogService) {
+                                        AuditLogService auditLogService,
+                                        SeatInventoryService seatInventoryService,
+                                        SeatMapService seatMapService,
+                                        FareCalendarService fareCalendarService) {
         this.flightTicketClassRepository = flightTicketClassRepository;
         this.flightTicketClassMapper = flightTicketClassMapper;
         this.flightRepository = flightRepository;
         this.ticketClassRepository = ticketClassRepository;
         this.auditLogService = auditLogService;
+        this.seatInventoryService = seatInventoryService;
+        this.seatMapService = seatMapService;
+        this.fareCalendarService = fareCalendarService;
     }
 
     @Override
@@ -59,13 +75,15 @@ public class FlightTicketClassServiceImpl implements FlightTicketClassService {
     public FlightTicketClassDto getFlightTicketClassById(Integer flightId, Integer ticketClassId) {
         FlightTicketClass flightTicketClass = flightTicketClassRepository.findByFlightIdAndTicketClassId(flightId, ticketClassId)
                 .orElseThrow(() -> new RuntimeException("FlightTicketClass not found for flight: " + flightId + " and class: " + ticketClassId));
-        return flightTicketClassMapper.toDto(flightTicketClass);
+        return withLiveRemaining(flightTicketClassMapper.toDto(flightTicketClass));
     }
 
     @Override
     public List<FlightTicketClassDto> getFlightTicketClassesByFlightId(Integer flightId) {
         List<FlightTicketClass> flightTicketClasses = flightTicketClassRepository.findByFlightId(flightId);
-        return flightTicketClassMapper.toDtoList(flightTicketClasses);
+        List<FlightTicketClassDto> dtos = flightTicketClassMapper.toDtoList(flightTicketClasses);
+        dtos.forEach(this::withLiveRemaining);
+        return dtos;
     }
 
     @Override
@@ -107,6 +125,9 @@ public class FlightTicketClassServiceImpl implements FlightTicketClassService {
         // Audit log for CREATE
         String entityId = savedEntity.getFlightId() + "-" + savedEntity.getTicketClassId();
         auditLogService.saveAuditLog("FlightTicketClass", entityId, "CREATE", "flightTicketClass", null, "FlightTicketClass", "system");
+        seatInventoryService.refresh(savedEntity.getFlightId(), savedEntity.getTicketClassId());
+        Integer savedFlightId = savedEntity.getFlightId();
+        AfterCommit.run(() -> fareCalendarService.evictFlight(savedFlightId));
         
         return flightTicketClassMapper.toDto(savedEntity);
     }
@@ -137,12 +158,16 @@ public class FlightTicketClassServiceImpl implements FlightTicketClassService {
         String newTicketQuantity = updatedFlightTicketClass.getTicketQuantity() != null ? updatedFlightTicketClass.getTicketQuantity().toString() : null;
         if ((oldTicketQuantity == null && newTicketQuantity != null) || (oldTicketQuantity != null && !oldTicketQuantity.equals(newTicketQuantity))) {
             auditLogService.saveAuditLog("FlightTicketClass", entityId, "UPDATE", "ticketQuantity", oldTicketQuantity, newTicketQuantity, "system");
+            // Capacity changed; the seat map is rebuilt on next use
+            seatMapService.evict(flightId, ticketClassId);
         }
         
         String newRemainingTicketQuantity = updatedFlightTicketClass.getRemainingTicketQuantity() != null ? updatedFlightTicketClass.getRemainingTicketQuantity().toString() : null;
         if ((oldRemainingTicketQuantity == null && newRemainingTicketQuantity != null) || (oldRemainingTicketQuantity != null && !oldRemainingTicketQuantity.equals(newRemainingTicketQuantity))) {
             auditLogService.saveAuditLog("FlightTicketClass", entityId, "UPDATE", "remainingTicketQuantity", oldRemainingTicketQuantity, newRemainingTicketQuantity, "system");
         }
+        seatInventoryService.refresh(flightId, ticketClassId);
+        AfterCommit.run(() -> fareCalendarService.evictFlight(flightId));
         
         return flightTicketClassMapper.toDto(updatedFlightTicketClass);
     }
@@ -160,6 +185,9 @@ public class FlightTicketClassServiceImpl implements FlightTicketClassService {
         
         // Audit log for DELETE
         auditLogService.saveAuditLog("FlightTicketClass", entityId, "DELETE", "flightTicketClass", "FlightTicketClass", null, "system");
+        seatInventoryService.refresh(flightId, ticketClassId);
+        seatMapService.evict(flightId, ticketClassId);
+        AfterCommit.run(() -> fareCalendarService.evictFlight(flightId));
     }
 
     @Override
@@ -175,6 +203,18 @@ public class FlightTicketClassServiceImpl implements FlightTicketClassService {
 
         flightTicketClass.setRemainingTicketQuantity(newRemainingQuantity);
         flightTicketClassRepository.save(flightTicketClass);
+        seatInventoryService.refresh(flightId, ticketClassId);
+    }
+
+    @Override
+    public void reserveTickets(Integer flightId, Integer ticketClassId, Integer quantity) {
+        // Claimed against the in-memory counter; the change is written back to the row in batches
+        seatInventoryService.reserve(flightId, ticketClassId, quantity);
+    }
+
+    @Override
+    public void releaseTickets(Integer flightId, Integer ticketClassId, Integer quantity) {
+        seatInventoryService.release(flightId, ticketClassId, quantity);
     }
 
     @Override
@@ -193,4 +233,13 @@ public class FlightTicketClassServiceImpl implements FlightTicketClassService {
         }
         return occupiedSeats;
     }
-}
\ No newline at end of file
+
+    // The row lags behind the in-memory inventory until the next write-back
+    private FlightTicketClassDto withLiveRemaining(FlightTicketClassDto dto) {
+        if (dto != null) {
+            seatInventoryService.findRemaining(dto.getFlightId(), dto.getTicketClassId())
+                    .ifPresent(dto::setRemainingTicketQuantity);
+        }
+        return dto;
+    }
+}
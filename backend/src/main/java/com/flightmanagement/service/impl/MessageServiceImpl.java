@@ -1,17 +1,30 @@
 package com.flightmanagement.service.impl;
 
 import com.flightmanagement.dto.MessageDto;
+import com.flightmanagement.entity.Account;
 import com.flightmanagement.entity.Message;
+import com.flightmanagement.exception.ResourceNotFoundException;
 import com.flightmanagement.mapper.MessageMapper;
 import com.flightmanagement.repository.MessageRepository;
 import com.flightmanagement.repository.AccountRepository;
+import com.flightmanagement.service.MessageCreatedEvent;
 import com.flightmanagement.service.MessageService;
+import com.flightmanagement.util.AfterCommit;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+/**
+ * Each new message takes the next sequence number of its chatbox and, once committed, is
+ * published as a MessageCreatedEvent so the full message is pushed to the chatbox. Clients that
+ * see a gap in the numbers fetch just the missing part with getMessagesSince.
+ */
 @Service
 public class MessageServiceImpl implements MessageService {
     
@@ -21,29 +34,47 @@ public class MessageServiceImpl implements MessageService {
     
     private final AccountRepository accountRepository;
 
-    public MessageServiceImpl(MessageRepository messageRepository, MessageMapper messageMapper, AccountRepository accountRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MessageServiceImpl(MessageRepository messageRepository, MessageMapper messageMapper, AccountRepository accountRepository,
+                              ApplicationEventPublisher eventPublisher) {
         this.messageRepository = messageRepository;
         this.messageMapper = messageMapper;
         this.accountRepository = accountRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Override
     public List<MessageDto> getMessagesByChatboxId(Integer chatboxId) {
-        List<Message> messages = messageRepository.findByChatboxIdOrderBySendTimeAsc(chatboxId);
+        return enrichMessagesWithEmployeeInfo(messageRepository.findByChatboxIdOrderBySendTimeAsc(chatboxId));
+    }
+
+    @Override
+    public List<MessageDto> getMessagesSince(Integer chatboxId, Integer afterSeq) {
+        return enrichMessagesWithEmployeeInfo(messageRepository.findByChatboxIdAndSeqAfter(chatboxId, afterSeq));
+    }
+
+    // Employee names are loaded in one query for the whole list
+    private List<MessageDto> enrichMessagesWithEmployeeInfo(List<Message> messages) {
+        List<Integer> employeeIds = messages.stream()
+                .map(Message::getEmployeeId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Integer, String> employeeNames = employeeIds.isEmpty() ? Map.of()
+                : accountRepository.findAllById(employeeIds).stream()
+                        .collect(Collectors.toMap(Account::getAccountId, Account::getAccountName, (first, second) -> first));
         return messages.stream()
-                .map(this::enrichMessageWithEmployeeInfo)
+                .map(message -> enrichMessageWithEmployeeInfo(message, employeeNames))
                 .collect(Collectors.toList());
     }
     
-    private MessageDto enrichMessageWithEmployeeInfo(Message message) {
+    private MessageDto enrichMessageWithEmployeeInfo(Message message, Map<Integer, String> employeeNames) {
         MessageDto dto = messageMapper.toDto(message);
         
         // Set employee name if message is from employee
         if (message.getEmployeeId() != null) {
-            String employeeName = accountRepository.findById(message.getEmployeeId())
-                    .map(account -> account.getAccountName())
-                    .orElse("Employee");
-            dto.setEmployeeName(employeeName);
+            dto.setEmployeeName(employeeNames.getOrDefault(message.getEmployeeId(), "Employee"));
         }
         
         // Set isFromCustomer flag
@@ -53,26 +84,32 @@ public class MessageServiceImpl implements MessageService {
     }
     
     @Override
+    @Transactional
     public MessageDto createEmployeeMessage(Integer chatboxId, Integer employeeId, String content) {
-        Message message = new Message();
-        message.setChatboxId(chatboxId);
-        message.setEmployeeId(employeeId);
-        message.setContent(content);
-        message.setSendTime(LocalDateTime.now());
-        
-        Message savedMessage = messageRepository.save(message);
-        return enrichMessageWithEmployeeInfo(savedMessage);
+        return createMessage(chatboxId, employeeId, content);
     }
     
     @Override
+    @Transactional
     public MessageDto createCustomerMessage(Integer chatboxId, String content) {
+        // null employeeId indicates customer message
+        return createMessage(chatboxId, null, content);
+    }
+
+    private MessageDto createMessage(Integer chatboxId, Integer employeeId, String content) {
+        if (messageRepository.incrementLastMessageSeq(chatboxId) == 0) {
+            throw new ResourceNotFoundException("Chatbox not found with id: " + chatboxId);
+        }
         Message message = new Message();
         message.setChatboxId(chatboxId);
-        message.setEmployeeId(null); // null indicates customer message
+        message.setEmployeeId(employeeId);
         message.setContent(content);
         message.setSendTime(LocalDateTime.now());
+        message.setSeq(messageRepository.findLastMessageSeq(chatboxId));
         
         Message savedMessage = messageRepository.save(message);
-        return enrichMessageWithEmployeeInfo(savedMessage);
+        MessageDto dto = enrichMessagesWithEmployeeInfo(List.of(savedMessage)).get(0);
+        AfterCommit.run(() -> eventPublisher.publishEvent(new MessageCreatedEvent(dto)));
+        return dto;
     }
 }
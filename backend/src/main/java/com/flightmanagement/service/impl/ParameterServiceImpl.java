@@ -2,12 +2,22 @@ package com.flightmanagement.service.impl;
 
 import com.flightmanagement.dto.ParameterDto;
 import com.flightmanagement.entity.Parameter;
+import com.flightmanagement.exception.ConflictException;
 import com.flightmanagement.mapper.ParameterMapper;
 import com.flightmanagement.repository.ParameterRepository;
 import com.flightmanagement.service.ParameterService;
 import com.flightmanagement.service.AuditLogService;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * System parameters are read on validation hot paths, so they are served from an immutable
+ * snapshot published through a volatile field: readers get a copy of one whole version without
+ * a query. An update is a single-row write guarded by the row's version and the new snapshot is
+ * published only after it commits. Other instances pick up changes on the refresh timer.
+ */
 @Service
 public class ParameterServiceImpl implements ParameterService {
     
@@ -17,32 +27,55 @@ public class ParameterServiceImpl implements ParameterService {
 
     private final AuditLogService auditLogService;
 
-    public ParameterServiceImpl(ParameterRepository parameterRepository, ParameterMapper parameterMapper, AuditLogService auditLogService) {
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile ParameterSnapshot snapshot;
+
+    public ParameterServiceImpl(ParameterRepository parameterRepository, ParameterMapper parameterMapper,
+                                AuditLogService auditLogService, TransactionTemplate transactionTemplate) {
         this.parameterRepository = parameterRepository;
         this.parameterMapper = parameterMapper;
         this.auditLogService = auditLogService;
+        this.transactionTemplate = transactionTemplate;
     }
     
     @Override
     public ParameterDto getLatestParameter() {
-        Parameter parameter = parameterRepository.findLatestParameter()
-            .orElseThrow(() -> new RuntimeException("No parameters found"));
-        return parameterMapper.toDto(parameter);
+        ParameterSnapshot current = snapshot;
+        if (current == null) {
+            current = refresh();
+        }
+        return current.toDto();
     }
     
     @Override
-    public ParameterDto updateParameters(ParameterDto parameterDto) {
-        // Get old values for audit
-        ParameterDto oldParams = getLatestParameter();
-        
-        // Delete all existing parameters first
-        deleteAllExistingParameters();
-        
-        // Create new parameter record
-        Parameter parameter = parameterMapper.toEntity(parameterDto);
-        parameter.setId(null); // Ensure new record is created
-        parameter.setDeletedAt(null);
-        Parameter savedParameter = parameterRepository.save(parameter);
+    public synchronized ParameterDto updateParameters(ParameterDto parameterDto) {
+        ParameterSnapshot old = snapshot != null ? snapshot : refresh();
+        ParameterDto oldParams = old.toDto();
+
+        Parameter savedParameter;
+        try {
+            savedParameter = transactionTemplate.execute(status -> {
+                Parameter parameter = parameterRepository.findById(oldParams.getId())
+                    .orElseThrow(() -> new RuntimeException("No parameters found"));
+                if (!parameter.getVersion().equals(old.version())) {
+                    throw new ConflictException("Parameters were changed by another instance, reload and retry");
+                }
+                parameter.setMaxMediumAirport(parameterDto.getMaxMediumAirport());
+                parameter.setMinFlightDuration(parameterDto.getMinFlightDuration());
+                parameter.setMinLayoverDuration(parameterDto.getMinLayoverDuration());
+                parameter.setMaxLayoverDuration(parameterDto.getMaxLayoverDuration());
+                parameter.setMinBookingInAdvanceDuration(parameterDto.getMinBookingInAdvanceDuration());
+                parameter.setMaxBookingHoldDuration(parameterDto.getMaxBookingHoldDuration());
+                // UPDATE ... WHERE id = ? AND version = ?, flushed on commit
+                return parameterRepository.save(parameter);
+            });
+        } catch (ConflictException | ObjectOptimisticLockingFailureException e) {
+            snapshot = null;
+            throw e instanceof ConflictException conflict ? conflict
+                : new ConflictException("Parameters were changed by another instance, reload and retry");
+        }
+        snapshot = new ParameterSnapshot(savedParameter.getVersion(), parameterMapper.toDto(savedParameter));
         
         // Audit log all changes
         if (!oldParams.getMaxMediumAirport().equals(parameterDto.getMaxMediumAirport())) {
@@ -64,76 +97,103 @@ public class ParameterServiceImpl implements ParameterService {
             auditLogService.saveAuditLog("Parameter", savedParameter.getId().toString(), "UPDATE", "maxBookingHoldDuration", oldParams.getMaxBookingHoldDuration().toString(), parameterDto.getMaxBookingHoldDuration().toString(), "system");
         }
         
-        return parameterMapper.toDto(savedParameter);
+        return snapshot.toDto();
     }
     
     @Override
-    public void updateMaxMediumAirports(int maxMediumAirports) {
-        // Delete all existing parameters and create new one
+    public synchronized void updateMaxMediumAirports(int maxMediumAirports) {
         ParameterDto currentParams = getLatestParameter();
         currentParams.setMaxMediumAirport(maxMediumAirports);
         updateParameters(currentParams);
     }
     
     @Override
-    public void updateMinFlightDuration(int minFlightDuration) {
-        // Delete all existing parameters and create new one
+    public synchronized void updateMinFlightDuration(int minFlightDuration) {
         ParameterDto currentParams = getLatestParameter();
         currentParams.setMinFlightDuration(minFlightDuration);
         updateParameters(currentParams);
     }
     
     @Override
-    public void updateMaxLayoverDuration(int maxLayoverDuration) {
-        // Delete all existing parameters and create new one
+    public synchronized void updateMaxLayoverDuration(int maxLayoverDuration) {
         ParameterDto currentParams = getLatestParameter();
         currentParams.setMaxLayoverDuration(maxLayoverDuration);
         updateParameters(currentParams);
     }
     
     @Override
-    public void updateMinLayoverDuration(int minLayoverDuration) {
-        // Delete all existing parameters and create new one
+    public synchronized void updateMinLayoverDuration(int minLayoverDuration) {
         ParameterDto currentParams = getLatestParameter();
         currentParams.setMinLayoverDuration(minLayoverDuration);
         updateParameters(currentParams);
     }
     
     @Override
-    public void updateMinBookingInAdvanceDuration(int minBookingInAdvanceDuration) {
-        // Delete all existing parameters and create new one
+    public synchronized void updateMinBookingInAdvanceDuration(int minBookingInAdvanceDuration) {
         ParameterDto currentParams = getLatestParameter();
         currentParams.setMinBookingInAdvanceDuration(minBookingInAdvanceDuration);
         updateParameters(currentParams);
     }
     
     @Override
-    public void updateMaxBookingHoldDuration(int maxBookingHoldDuration) {
-        // Delete all existing parameters and create new one
+    public synchronized void updateMaxBookingHoldDuration(int maxBookingHoldDuration) {
         ParameterDto currentParams = getLatestParameter();
         currentParams.setMaxBookingHoldDuration(maxBookingHoldDuration);
         updateParameters(currentParams);
     }
     
     @Override
-    public void initializeDefaultParameters() {
-        // Delete all existing parameters first
-        deleteAllExistingParameters();
-        
-        // Create new default parameter record
-        Parameter parameter = new Parameter();
-        parameter.setMaxMediumAirport(2);
-        parameter.setMinFlightDuration(30);
-        parameter.setMinLayoverDuration(30);
-        parameter.setMaxLayoverDuration(720);
-        parameter.setMinBookingInAdvanceDuration(1);
-        parameter.setMaxBookingHoldDuration(24);
+    public synchronized void initializeDefaultParameters() {
+        ParameterDto defaults = new ParameterDto(null, 2, 30, 30, 720, 1, 24);
+        if (parameterRepository.findLatestParameter().isPresent()) {
+            snapshot = null;
+            updateParameters(defaults);
+            return;
+        }
+
+        Parameter parameter = parameterMapper.toEntity(defaults);
         parameter.setDeletedAt(null);
-        parameterRepository.save(parameter);
+        Parameter savedParameter = parameterRepository.save(parameter);
+        snapshot = new ParameterSnapshot(savedParameter.getVersion(), parameterMapper.toDto(savedParameter));
     }
-    
-    private void deleteAllExistingParameters() {
-        // Hard delete all existing parameter records
-        parameterRepository.deleteAll();
+
+    @Scheduled(fixedDelayString = "${app.parameters.refresh-interval-ms:30000}")
+    public void refreshSnapshot() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to refresh parameters: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the latest row into the snapshot, also picking up updates made by other instances.
+     */
+    private synchronized ParameterSnapshot refresh() {
+        Parameter parameter = parameterRepository.findLatestParameter()
+            .orElseThrow(() -> new RuntimeException("No parameters found"));
+        ParameterSnapshot current = snapshot;
+        if (current == null || !current.version().equals(parameter.getVersion())
+                || !current.values().getId().equals(parameter.getId())) {
+            current = new ParameterSnapshot(parameter.getVersion(), parameterMapper.toDto(parameter));
+            snapshot = current;
+        }
+        return current;
+    }
+
+    // Never handed out; every reader gets its own copy of the values
+    private record ParameterSnapshot(Long version, ParameterDto values) {
+
+        ParameterDto toDto() {
+            return new ParameterDto(
+                values.getId(),
+                values.getMaxMediumAirport(),
+                values.getMinFlightDuration(),
+                values.getMinLayoverDuration(),
+                values.getMaxLayoverDuration(),
+                values.getMinBookingInAdvanceDuration(),
+                values.getMaxBookingHoldDuration()
+            );
+        }
     }
 }
@@ -1,6 +1,9 @@
 package com.flightmanagement.service.impl;
 
+import com.flightmanagement.dto.CursorPage;
+import com.flightmanagement.dto.PageCursor;
 import com.flightmanagement.dto.PassengerDto;
+import com.flightmanagement.entity.AuditLog;
 import com.flightmanagement.entity.Passenger;
 import com.flightmanagement.mapper.PassengerMapper;
 import com.flightmanagement.repository.PassengerRepository;
@@ -11,7 +14,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -40,6 +46,14 @@ public class PassengerServiceImpl implements PassengerService {
         Page<Passenger> page = passengerRepository.findByDeletedAtIsNull(pageable);
         return page.map(passengerMapper::toDto);
     }
+
+    @Override
+    public CursorPage<PassengerDto> getAllPassengersAfter(String cursor, int size, boolean includeCount) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<Passenger> passengers = passengerRepository.findActiveAfter(after == null ? 0 : after.id(), CursorPage.limit(size));
+        return CursorPage.of(passengers, size, passenger -> PageCursor.of(passenger.getPassengerId()),
+                passengerMapper::toDtoList, includeCount ? passengerRepository.countByDeletedAtIsNull() : null);
+    }
     
     @Override
     public PassengerDto getPassengerById(Integer id) {
@@ -77,6 +91,55 @@ public class PassengerServiceImpl implements PassengerService {
         return passengerMapper.toDto(savedPassenger);
     }
     
+    /**
+     * Resolves a booking's passengers with one IN query and inserts the missing ones together.
+     * Returns the passengers in request order; a citizen ID listed twice maps to one passenger.
+     */
+    @Override
+    public List<PassengerDto> getOrCreatePassengers(List<PassengerDto> passengerDtos) {
+        Map<String, Passenger> byCitizenId = new LinkedHashMap<>();
+        for (Passenger passenger : passengerRepository.findByCitizenIdIn(
+                passengerDtos.stream().map(PassengerDto::getCitizenId).distinct().toList())) {
+            byCitizenId.put(passenger.getCitizenId(), passenger);
+        }
+
+        List<Passenger> newPassengers = new ArrayList<>();
+        for (PassengerDto passengerDto : passengerDtos) {
+            if (!byCitizenId.containsKey(passengerDto.getCitizenId())) {
+                Passenger passenger = new Passenger();
+                passenger.setPassengerName(passengerDto.getPassengerName());
+                passenger.setEmail(passengerDto.getEmail());
+                passenger.setCitizenId(passengerDto.getCitizenId());
+                passenger.setPhoneNumber(passengerDto.getPhoneNumber());
+                passenger.setDeletedAt(null);
+                byCitizenId.put(passengerDto.getCitizenId(), passenger);
+                newPassengers.add(passenger);
+            }
+        }
+
+        if (!newPassengers.isEmpty()) {
+            passengerRepository.saveAll(newPassengers);
+
+            // Audit log for CREATE
+            List<AuditLog> auditLogs = new ArrayList<>();
+            for (Passenger passenger : newPassengers) {
+                AuditLog auditLog = new AuditLog();
+                auditLog.setEntityName("Passenger");
+                auditLog.setEntityId(passenger.getPassengerId().toString());
+                auditLog.setAction("CREATE");
+                auditLog.setFieldName("passenger");
+                auditLog.setNewValue(passenger.getPassengerName());
+                auditLog.setChangedBy("system");
+                auditLogs.add(auditLog);
+            }
+            auditLogService.saveAuditLogs(auditLogs);
+        }
+
+        return passengerDtos.stream()
+            .map(passengerDto -> passengerMapper.toDto(byCitizenId.get(passengerDto.getCitizenId())))
+            .toList();
+    }
+    
     @Override
     public PassengerDto updatePassenger(Integer id, PassengerDto passengerDto) {
         Passenger existingPassenger = passengerRepository.findActiveById(id)
@@ -6,6 +6,11 @@ import com.flightmanagement.mapper.PlaneMapper;
 import com.flightmanagement.repository.PlaneRepository;
 import com.flightmanagement.service.PlaneService;
 import com.flightmanagement.service.AuditLogService;
+import com.flightmanagement.service.FlightSearchIndex;
+import com.flightmanagement.service.ReferenceDataRegistry;
+import com.flightmanagement.util.AfterCommit;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -22,13 +27,21 @@ public class PlaneServiceImpl implements PlaneService {
 
     private final AuditLogService auditLogService;
 
-    public PlaneServiceImpl(PlaneRepository planeRepository, PlaneMapper planeMapper, AuditLogService auditLogService) {
+    private final ReferenceDataRegistry referenceDataRegistry;
+
+    private final FlightSearchIndex flightSearchIndex;
+
+    public PlaneServiceImpl(PlaneRepository planeRepository, PlaneMapper planeMapper, AuditLogService auditLogService,
+                            ReferenceDataRegistry referenceDataRegistry, FlightSearchIndex flightSearchIndex) {
         this.planeRepository = planeRepository;
         this.planeMapper = planeMapper;
         this.auditLogService = auditLogService;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.flightSearchIndex = flightSearchIndex;
     }
     
     @Override
+    @Cacheable(cacheNames = "planes", key = "'all'")
     public List<PlaneDto> getAllPlanes() {
         List<Plane> planes = planeRepository.findAllActive();
         return planeMapper.toDtoList(planes);
@@ -41,6 +54,7 @@ public class PlaneServiceImpl implements PlaneService {
     }
     
     @Override
+    @Cacheable(cacheNames = "planes", key = "#id")
     public PlaneDto getPlaneById(Integer id) {
         Plane plane = planeRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("Plane not found with id: " + id));
@@ -48,15 +62,18 @@ public class PlaneServiceImpl implements PlaneService {
     }
     
     @Override
+    @CacheEvict(cacheNames = "planes", allEntries = true)
     public PlaneDto createPlane(PlaneDto planeDto) {
         Plane plane = planeMapper.toEntity(planeDto);
         plane.setDeletedAt(null);
         Plane savedPlane = planeRepository.save(plane);
         auditLogService.saveAuditLog("Plane", savedPlane.getPlaneId().toString(), "CREATE", "plane", null, savedPlane.getPlaneCode() + " (" + savedPlane.getPlaneType() + ")", "system");
+        AfterCommit.run(() -> referenceDataRegistry.putPlane(savedPlane));
         return planeMapper.toDto(savedPlane);
     }
     
     @Override
+    @CacheEvict(cacheNames = {"planes", "flights"}, allEntries = true)
     public PlaneDto updatePlane(Integer id, PlaneDto planeDto) {
         Plane existingPlane = planeRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("Plane not found with id: " + id));
@@ -83,11 +100,18 @@ public class PlaneServiceImpl implements PlaneService {
         if (!oldSeatQuantity.equals(planeDto.getSeatQuantity())) {
             auditLogService.saveAuditLog("Plane", id.toString(), "UPDATE", "seatQuantity", oldSeatQuantity.toString(), planeDto.getSeatQuantity().toString(), "system");
         }
+
+        // Flights in the search index carry the plane code
+        AfterCommit.run(() -> {
+            referenceDataRegistry.putPlane(updatedPlane);
+            flightSearchIndex.refreshReferenceNames();
+        });
         
         return planeMapper.toDto(updatedPlane);
     }
     
     @Override
+    @CacheEvict(cacheNames = {"planes", "flights"}, allEntries = true)
     public void deletePlane(Integer id) {
         Plane plane = planeRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("Plane not found with id: " + id));
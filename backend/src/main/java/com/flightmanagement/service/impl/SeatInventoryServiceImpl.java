@@ -0,0 +1,268 @@
+package com.flightmanagement.service.impl;
+
+import com.flightmanagement.entity.FlightTicketClass;
+import com.flightmanagement.repository.FlightTicketClassRepository;
+import com.flightmanagement.service.SeatInventoryService;
+import com.flightmanagement.util.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process seat inventory keyed by (flightId, ticketClassId).
+ * Reservations and releases are applied to in-memory counters and written back to
+ * flight_ticket_class as batched deltas, so the booking and search hot paths never
+ * touch the database for availability.
+ */
+@Service
+public class SeatInventoryServiceImpl implements SeatInventoryService {
+
+    private final FlightTicketClassRepository flightTicketClassRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, InventoryCounter> counters = new ConcurrentHashMap<>();
+
+    // Serializes write-back against reloads so a delta is never in flight while a row is re-read
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public SeatInventoryServiceImpl(FlightTicketClassRepository flightTicketClassRepository,
+                                    TransactionTemplate transactionTemplate) {
+        this.flightTicketClassRepository = flightTicketClassRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public OptionalInt findRemaining(Integer flightId, Integer ticketClassId) {
+        InventoryCounter counter = getCounter(flightId, ticketClassId);
+        return counter != null ? OptionalInt.of(counter.remaining()) : OptionalInt.empty();
+    }
+
+    @Override
+    public boolean isAvailable(Integer flightId, Integer ticketClassId, int quantity) {
+        return findRemaining(flightId, ticketClassId).orElse(0) >= quantity;
+    }
+
+    @Override
+    public void reserve(Integer flightId, Integer ticketClassId, int quantity) {
+        InventoryCounter counter = getCounter(flightId, ticketClassId);
+        if (counter == null) {
+            throw new RuntimeException("FlightTicketClass not found for flight: " + flightId + " and class: " + ticketClassId);
+        }
+        if (!counter.tryReserve(quantity)) {
+            throw new RuntimeException("Not enough tickets available. Requested: " + quantity +
+                    " for flight: " + flightId + " and class: " + ticketClassId);
+        }
+    }
+
+    @Override
+    public void release(Integer flightId, Integer ticketClassId, int quantity) {
+        InventoryCounter counter = getCounter(flightId, ticketClassId);
+        int released = counter != null ? counter.release(quantity) : 0;
+        if (released < quantity) {
+            System.err.println("Could only release " + released + " of " + quantity + " tickets for flight: " +
+                    flightId + " and class: " + ticketClassId);
+        }
+    }
+
+    /**
+     * Re-reads one row after it was changed outside the inventory (admin update, delete).
+     * Inside a transaction the reload is deferred until after commit.
+     */
+    @Override
+    public void refresh(Integer flightId, Integer ticketClassId) {
+        AfterCommit.run(() -> reload(flightId, ticketClassId));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.inventory.flush-interval-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            writeBackPendingDeltas();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Repairs the table against active tickets and rebuilds every counter from it.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        flushLock.lock();
+        try {
+            writeBackPendingDeltas();
+            Integer repaired = transactionTemplate.execute(status ->
+                    flightTicketClassRepository.reconcileRemainingWithActiveTickets());
+            List<FlightTicketClass> rows = flightTicketClassRepository.findAllActive();
+            counters.keySet().retainAll(rows.stream().map(row -> key(row.getFlightId(), row.getTicketClassId())).toList());
+            for (FlightTicketClass row : rows) {
+                counters.compute(key(row.getFlightId(), row.getTicketClassId()), (k, counter) -> {
+                    if (counter == null) {
+                        return new InventoryCounter(row);
+                    }
+                    counter.reset(row.getRemainingTicketQuantity(), row.getTicketQuantity());
+                    return counter;
+                });
+            }
+            System.out.println("Seat inventory loaded " + rows.size() + " flight ticket classes, repaired " + repaired);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void reload(Integer flightId, Integer ticketClassId) {
+        flushLock.lock();
+        try {
+            writeBackPendingDeltas();
+            Optional<FlightTicketClass> row = flightTicketClassRepository.findByFlightIdAndTicketClassId(flightId, ticketClassId);
+            if (row.isEmpty()) {
+                counters.remove(key(flightId, ticketClassId));
+                return;
+            }
+            counters.compute(key(flightId, ticketClassId), (k, counter) -> {
+                if (counter == null) {
+                    return new InventoryCounter(row.get());
+                }
+                counter.reset(row.get().getRemainingTicketQuantity(), row.get().getTicketQuantity());
+                return counter;
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Caller must hold flushLock
+    private void writeBackPendingDeltas() {
+        List<InventoryCounter> dirty = new ArrayList<>();
+        List<Integer> deltas = new ArrayList<>();
+        for (InventoryCounter counter : counters.values()) {
+            int delta = counter.takePendingDelta();
+            if (delta != 0) {
+                dirty.add(counter);
+                deltas.add(delta);
+            }
+        }
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < dirty.size(); i++) {
+                    InventoryCounter counter = dirty.get(i);
+                    flightTicketClassRepository.applyRemainingTicketsDelta(
+                            counter.flightId, counter.ticketClassId, deltas.get(i));
+                }
+            });
+        } catch (RuntimeException e) {
+            // Keep the deltas so the next flush retries them
+            for (int i = 0; i < dirty.size(); i++) {
+                dirty.get(i).restorePendingDelta(deltas.get(i));
+            }
+            System.err.println("Failed to write back seat inventory: " + e.getMessage());
+        }
+    }
+
+    private InventoryCounter getCounter(Integer flightId, Integer ticketClassId) {
+        if (flightId == null || ticketClassId == null) {
+            return null;
+        }
+        long key = key(flightId, ticketClassId);
+        InventoryCounter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        // Rows created after startup are loaded on first use. The query runs outside the map so it
+        // never blocks other keys in the same bin; when two threads load the same row the first
+        // counter put wins and both use it
+        InventoryCounter loaded = flightTicketClassRepository.findByFlightIdAndTicketClassId(flightId, ticketClassId)
+                .map(InventoryCounter::new)
+                .orElse(null);
+        if (loaded == null) {
+            return null;
+        }
+        InventoryCounter existing = counters.putIfAbsent(key, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static long key(Integer flightId, Integer ticketClassId) {
+        return ((long) flightId << 32) | (ticketClassId & 0xFFFFFFFFL);
+    }
+
+    private static final class InventoryCounter {
+
+        private final int flightId;
+
+        private final int ticketClassId;
+
+        private int ticketQuantity;
+
+        private int remaining;
+
+        // Net change not yet written to flight_ticket_class
+        private int pendingDelta;
+
+        private InventoryCounter(FlightTicketClass row) {
+            this.flightId = row.getFlightId();
+            this.ticketClassId = row.getTicketClassId();
+            this.ticketQuantity = row.getTicketQuantity() != null ? row.getTicketQuantity() : 0;
+            this.remaining = row.getRemainingTicketQuantity() != null ? row.getRemainingTicketQuantity() : 0;
+        }
+
+        private synchronized int remaining() {
+            return remaining;
+        }
+
+        private synchronized boolean tryReserve(int quantity) {
+            if (quantity <= 0 || remaining < quantity) {
+                return false;
+            }
+            remaining -= quantity;
+            pendingDelta -= quantity;
+            return true;
+        }
+
+        private synchronized int release(int quantity) {
+            int released = Math.max(0, Math.min(quantity, ticketQuantity - remaining));
+            remaining += released;
+            pendingDelta += released;
+            return released;
+        }
+
+        private synchronized int takePendingDelta() {
+            int delta = pendingDelta;
+            pendingDelta = 0;
+            return delta;
+        }
+
+        private synchronized void restorePendingDelta(int delta) {
+            pendingDelta += delta;
+        }
+
+        private synchronized void reset(Integer dbRemaining, Integer dbTicketQuantity) {
+            ticketQuantity = dbTicketQuantity != null ? dbTicketQuantity : 0;
+            int base = dbRemaining != null ? dbRemaining : 0;
+            // Reservations made since the last write-back are not in the row yet
+            remaining = Math.max(0, Math.min(ticketQuantity, base + pendingDelta));
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.flightmanagement.service.impl;
+
+import com.flightmanagement.dto.SeatMapDto;
+import com.flightmanagement.entity.FlightTicketClass;
+import com.flightmanagement.exception.ResourceNotFoundException;
+import com.flightmanagement.repository.FlightTicketClassRepository;
+import com.flightmanagement.repository.TicketRepository;
+import com.flightmanagement.service.SeatMapService;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Per flight and ticket class seat maps held as bitmaps of occupied seats.
+ * A map is built from ticket rows on first use and then kept up to date as tickets are
+ * booked, canceled and cleaned up, so seat checks never go to the database.
+ */
+@Service
+public class SeatMapServiceImpl implements SeatMapService {
+
+    // Class letter plus seat number, e.g. E01 or A12; anything else is tracked by exact label
+    private static final Pattern NUMBERED_SEAT = Pattern.compile("^[A-Z]?(\\d{1,4})$");
+
+    private final FlightTicketClassRepository flightTicketClassRepository;
+
+    private final TicketRepository ticketRepository;
+
+    private final Map<Long, SeatMap> seatMaps = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so a map built from rows read before one is not kept
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SeatMapServiceImpl(FlightTicketClassRepository flightTicketClassRepository,
+                              TicketRepository ticketRepository) {
+        this.flightTicketClassRepository = flightTicketClassRepository;
+        this.ticketRepository = ticketRepository;
+    }
+
+    @Override
+    public SeatMapDto getSeatMap(Integer flightId, Integer ticketClassId) {
+        SeatMap seatMap = getSeatMapOrThrow(flightId, ticketClassId);
+        return seatMap.toDto(flightId, ticketClassId);
+    }
+
+    @Override
+    public boolean areSeatsAvailable(Integer flightId, Integer ticketClassId, Collection<String> seatNumbers) {
+        SeatMap seatMap = loadSeatMap(flightId, ticketClassId);
+        return seatMap != null && seatMap.areFree(seatNumbers);
+    }
+
+    @Override
+    public List<String> findAdjacentFreeSeats(Integer flightId, Integer ticketClassId, int count) {
+        SeatMap seatMap = getSeatMapOrThrow(flightId, ticketClassId);
+        return seatMap.findAdjacent(count);
+    }
+
+    @Override
+    public boolean occupySeats(Integer flightId, Integer ticketClassId, Collection<String> seatNumbers) {
+        SeatMap seatMap = loadSeatMap(flightId, ticketClassId);
+        return seatMap != null && seatMap.occupyAll(seatNumbers);
+    }
+
+    @Override
+    public List<String> assignSeats(Integer flightId, Integer ticketClassId, int count) {
+        SeatMap seatMap = getSeatMapOrThrow(flightId, ticketClassId);
+        List<String> seats = seatMap.assign(count);
+        if (seats == null) {
+            throw new RuntimeException("Not enough free seats. Requested: " + count +
+                    " for flight: " + flightId + " and class: " + ticketClassId);
+        }
+        return seats;
+    }
+
+    @Override
+    public void releaseSeats(Integer flightId, Integer ticketClassId, Collection<String> seatNumbers) {
+        if (flightId == null || ticketClassId == null) {
+            return;
+        }
+        // Only touch maps that are already built; an unbuilt map is read fresh from the tickets
+        SeatMap seatMap = seatMaps.get(key(flightId, ticketClassId));
+        if (seatMap != null) {
+            seatMap.release(seatNumbers);
+        }
+    }
+
+    @Override
+    public synchronized void evict(Integer flightId, Integer ticketClassId) {
+        if (flightId != null && ticketClassId != null) {
+            evictions.incrementAndGet();
+            seatMaps.remove(key(flightId, ticketClassId));
+        }
+    }
+
+    private SeatMap getSeatMapOrThrow(Integer flightId, Integer ticketClassId) {
+        SeatMap seatMap = loadSeatMap(flightId, ticketClassId);
+        if (seatMap == null) {
+            throw new ResourceNotFoundException("FlightTicketClass not found for flight: " + flightId + " and class: " + ticketClassId);
+        }
+        return seatMap;
+    }
+
+    private SeatMap loadSeatMap(Integer flightId, Integer ticketClassId) {
+        if (flightId == null || ticketClassId == null) {
+            return null;
+        }
+        long key = key(flightId, ticketClassId);
+        SeatMap seatMap = seatMaps.get(key);
+        if (seatMap != null) {
+            return seatMap;
+        }
+        // Built outside the map so the queries never block other keys in the same bin; when two
+        // threads build the same map the first one put wins and both use it
+        long generation = evictions.get();
+        FlightTicketClass flightTicketClass = flightTicketClassRepository
+                .findByFlightIdAndTicketClassId(flightId, ticketClassId)
+                .orElse(null);
+        if (flightTicketClass == null) {
+            return null;
+        }
+        String className = flightTicketClass.getTicketClass() != null
+                ? flightTicketClass.getTicketClass().getTicketClassName()
+                : null;
+        int capacity = flightTicketClass.getTicketQuantity() != null ? flightTicketClass.getTicketQuantity() : 0;
+        SeatMap loaded = new SeatMap(seatPrefix(className), capacity);
+        loaded.markOccupied(ticketRepository.findActiveSeatNumbers(flightId, ticketClassId));
+        synchronized (this) {
+            if (evictions.get() != generation) {
+                return loaded;
+            }
+            SeatMap existing = seatMaps.putIfAbsent(key, loaded);
+            return existing != null ? existing : loaded;
+        }
+    }
+
+    private static String seatPrefix(String className) {
+        if ("Economy".equals(className)) {
+            return "E";
+        }
+        return "Business".equals(className) ? "B" : "F";
+    }
+
+    private static long key(Integer flightId, Integer ticketClassId) {
+        return ((long) flightId << 32) | (ticketClassId & 0xFFFFFFFFL);
+    }
+
+    private static final class SeatMap {
+
+        private final String prefix;
+
+        private final int capacity;
+
+        private final BitSet occupied;
+
+        // Occupied seats whose labels do not map onto the numbered range (legacy data)
+        private final Set<String> otherSeats = new HashSet<>();
+
+        private SeatMap(String prefix, int capacity) {
+            this.prefix = prefix;
+            this.capacity = capacity;
+            this.occupied = new BitSet(capacity);
+        }
+
+        private synchronized boolean areFree(Collection<String> seatNumbers) {
+            Set<String> requested = new HashSet<>();
+            for (String seatNumber : seatNumbers) {
+                String seat = normalize(seatNumber);
+                // E01 and A1 name the same seat, so duplicates are detected on the seat index
+                int index = seat != null ? index(seat) : -1;
+                if (seat == null || !requested.add(index >= 0 ? "#" + index : seat) || isTaken(seat)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // All or nothing: no seat is marked unless every requested seat is free
+        private synchronized boolean occupyAll(Collection<String> seatNumbers) {
+            if (!areFree(seatNumbers)) {
+                return false;
+            }
+            for (String seatNumber : seatNumbers) {
+                mark(normalize(seatNumber), true);
+            }
+            return true;
+        }
+
+        private synchronized void markOccupied(Collection<String> seatNumbers) {
+            for (String seatNumber : seatNumbers) {
+                String seat = normalize(seatNumber);
+                if (seat != null) {
+                    mark(seat, true);
+                }
+            }
+        }
+
+        private synchronized void release(Collection<String> seatNumbers) {
+            for (String seatNumber : seatNumbers) {
+                String seat = normalize(seatNumber);
+                if (seat != null) {
+                    mark(seat, false);
+                }
+            }
+        }
+
+        private synchronized List<String> findAdjacent(int count) {
+            int start = findAdjacentStart(count);
+            return start >= 0 ? labels(start, count) : List.of();
+        }
+
+        // Prefers a contiguous block and falls back to the lowest free seats
+        private synchronized List<String> assign(int count) {
+            if (count <= 0 || capacity - occupied.cardinality() < count) {
+                return null;
+            }
+            int start = findAdjacentStart(count);
+            if (start >= 0) {
+                occupied.set(start, start + count);
+                return labels(start, count);
+            }
+            List<String> seats = new ArrayList<>(count);
+            for (int index = occupied.nextClearBit(0); seats.size() < count; index = occupied.nextClearBit(index + 1)) {
+                occupied.set(index);
+                seats.add(label(index));
+            }
+            return seats;
+        }
+
+        private synchronized SeatMapDto toDto(Integer flightId, Integer ticketClassId) {
+            List<String> occupiedSeats = new ArrayList<>(occupied.cardinality() + otherSeats.size());
+            List<String> availableSeats = new ArrayList<>(capacity - occupied.cardinality());
+            for (int index = 0; index < capacity; index++) {
+                (occupied.get(index) ? occupiedSeats : availableSeats).add(label(index));
+            }
+            occupiedSeats.addAll(new TreeSet<>(otherSeats));
+
+            SeatMapDto dto = new SeatMapDto();
+            dto.setFlightId(flightId);
+            dto.setTicketClassId(ticketClassId);
+            dto.setCapacity(capacity);
+            dto.setOccupiedCount(occupiedSeats.size());
+            dto.setOccupiedSeats(occupiedSeats);
+            dto.setAvailableSeats(availableSeats);
+            return dto;
+        }
+
+        private int findAdjacentStart(int count) {
+            if (count <= 0) {
+                return -1;
+            }
+            int from = occupied.nextClearBit(0);
+            while (from + count <= capacity) {
+                int to = occupied.nextSetBit(from);
+                if (to < 0 || to > capacity) {
+                    to = capacity;
+                }
+                if (to - from >= count) {
+                    return from;
+                }
+                from = occupied.nextClearBit(to);
+            }
+            return -1;
+        }
+
+        private boolean isTaken(String seat) {
+            int index = index(seat);
+            return index >= 0 ? occupied.get(index) : otherSeats.contains(seat);
+        }
+
+        private void mark(String seat, boolean taken) {
+            int index = index(seat);
+            if (index >= 0) {
+                occupied.set(index, taken);
+            } else if (taken) {
+                otherSeats.add(seat);
+            } else {
+                otherSeats.remove(seat);
+            }
+        }
+
+        private int index(String seat) {
+            Matcher matcher = NUMBERED_SEAT.matcher(seat);
+            if (!matcher.matches()) {
+                return -1;
+            }
+            int index = Integer.parseInt(matcher.group(1)) - 1;
+            return index >= 0 && index < capacity ? index : -1;
+        }
+
+        private List<String> labels(int start, int count) {
+            List<String> seats = new ArrayList<>(count);
+            for (int index = start; index < start + count; index++) {
+                seats.add(label(index));
+            }
+            return seats;
+        }
+
+        private String label(int index) {
+            return prefix + String.format("%02d", index + 1);
+        }
+
+        private static String normalize(String seatNumber) {
+            if (seatNumber == null || seatNumber.isBlank()) {
+                return null;
+            }
+            return seatNumber.trim().toUpperCase();
+        }
+    }
+}
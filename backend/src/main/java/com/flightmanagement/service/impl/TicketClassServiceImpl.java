@@ -5,7 +5,11 @@ import com.flightmanagement.entity.TicketClass;
 import com.flightmanagement.mapper.TicketClassMapper;
 import com.flightmanagement.repository.TicketClassRepository;
 import com.flightmanagement.service.AuditLogService;
+import com.flightmanagement.service.ReferenceDataRegistry;
 import com.flightmanagement.service.TicketClassService;
+import com.flightmanagement.util.AfterCommit;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -22,13 +26,18 @@ public class TicketClassServiceImpl implements TicketClassService {
 
     private final AuditLogService auditLogService;
 
-    public TicketClassServiceImpl(TicketClassRepository ticketClassRepository, TicketClassMapper ticketClassMapper, AuditLogService auditLogService) {
+    private final ReferenceDataRegistry referenceDataRegistry;
+
+    public TicketClassServiceImpl(TicketClassRepository ticketClassRepository, TicketClassMapper ticketClassMapper, AuditLogService auditLogService,
+                                  ReferenceDataRegistry referenceDataRegistry) {
         this.ticketClassRepository = ticketClassRepository;
         this.ticketClassMapper = ticketClassMapper;
         this.auditLogService = auditLogService;
+        this.referenceDataRegistry = referenceDataRegistry;
     }
     
     @Override
+    @Cacheable(cacheNames = "ticket-classes", key = "'all'")
     public List<TicketClassDto> getAllTicketClasses() {
         List<TicketClass> ticketClasses = ticketClassRepository.findAllActive();
         return ticketClassMapper.toDtoList(ticketClasses);
@@ -41,6 +50,7 @@ public class TicketClassServiceImpl implements TicketClassService {
     }
     
     @Override
+    @Cacheable(cacheNames = "ticket-classes", key = "#id")
     public TicketClassDto getTicketClassById(Integer id) {
         TicketClass ticketClass = ticketClassRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("TicketClass not found with id: " + id));
@@ -48,6 +58,7 @@ public class TicketClassServiceImpl implements TicketClassService {
     }
     
     @Override
+    @CacheEvict(cacheNames = "ticket-classes", allEntries = true)
     public TicketClassDto createTicketClass(TicketClassDto ticketClassDto) {
         TicketClass ticketClass = ticketClassMapper.toEntity(ticketClassDto);
         ticketClass.setDeletedAt(null);
@@ -55,11 +66,13 @@ public class TicketClassServiceImpl implements TicketClassService {
         
         // Audit log for CREATE
         auditLogService.saveAuditLog("TicketClass", savedTicketClass.getTicketClassId().toString(), "CREATE", "ticketClass", null, savedTicketClass.getTicketClassName(), "system");
+        AfterCommit.run(() -> referenceDataRegistry.putTicketClass(savedTicketClass));
         
         return ticketClassMapper.toDto(savedTicketClass);
     }
     
     @Override
+    @CacheEvict(cacheNames = "ticket-classes", allEntries = true)
     public TicketClassDto updateTicketClass(Integer id, TicketClassDto ticketClassDto) {
         TicketClass existingTicketClass = ticketClassRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("TicketClass not found with id: " + id));
@@ -80,11 +93,13 @@ public class TicketClassServiceImpl implements TicketClassService {
         if ((oldColor == null && updatedTicketClass.getColor() != null) || (oldColor != null && !oldColor.equals(updatedTicketClass.getColor()))) {
             auditLogService.saveAuditLog("TicketClass", id.toString(), "UPDATE", "color", oldColor, updatedTicketClass.getColor(), "system");
         }
+        AfterCommit.run(() -> referenceDataRegistry.putTicketClass(updatedTicketClass));
         
         return ticketClassMapper.toDto(updatedTicketClass);
     }
     
     @Override
+    @CacheEvict(cacheNames = "ticket-classes", allEntries = true)
     public void deleteTicketClass(Integer id) {
         TicketClass ticketClass = ticketClassRepository.findActiveById(id)
             .orElseThrow(() -> new RuntimeException("TicketClass not found with id: " + id));
@@ -105,4 +120,4 @@ public class TicketClassServiceImpl implements TicketClassService {
             .orElseThrow(() -> new RuntimeException("TicketClass not found with name: " + ticketClassName));
         return ticketClassMapper.toDto(ticketClass);
     }
-}
\ No newline at end of file
+}
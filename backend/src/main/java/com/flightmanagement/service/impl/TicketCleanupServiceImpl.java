@@ -1,72 +1,158 @@
 package com.flightmanagement.service.impl;
 
 import com.flightmanagement.dto.ParameterDto;
-import com.flightmanagement.entity.Ticket;
+import com.flightmanagement.repository.FlightTicketClassRepository;
 import com.flightmanagement.repository.TicketRepository;
-import com.flightmanagement.service.FlightTicketClassService;
 import com.flightmanagement.service.ParameterService;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import com.flightmanagement.service.SeatInventoryService;
+import com.flightmanagement.service.SeatMapService;
+import com.flightmanagement.service.TicketCleanupService;
+import com.flightmanagement.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Cancels unpaid tickets whose flights depart within the booking hold duration.
+ * Holds are normally released one booking at a time at their deadline by the booking hold timer;
+ * the periodic sweep here is the safety net. It works set-based in chunks: each chunk locks a
+ * bounded batch of tickets, gives their seats back with one grouped update, soft-deletes them
+ * with one bulk update and commits.
+ */
 @Service
-@ConditionalOnProperty(name = "spring.task.scheduling.enabled", havingValue = "true", matchIfMissing = true)
-@Transactional
-public class TicketCleanupServiceImpl {
+public class TicketCleanupServiceImpl implements TicketCleanupService {
 
 	private final TicketRepository ticketRepository;
 
+	private final FlightTicketClassRepository flightTicketClassRepository;
+
 	private final ParameterService parameterService;
 
-	private final FlightTicketClassService flightTicketClassService;
+	private final SeatInventoryService seatInventoryService;
+
+	private final SeatMapService seatMapService;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final int chunkSize;
+
+	private final Counter expiredTickets;
+
+	private final Counter chunks;
 
-	public TicketCleanupServiceImpl(TicketRepository ticketRepository, ParameterService parameterService,
-			FlightTicketClassService flightTicketClassService) {
+	private final Timer runDuration;
+
+	public TicketCleanupServiceImpl(TicketRepository ticketRepository,
+			FlightTicketClassRepository flightTicketClassRepository,
+			ParameterService parameterService,
+			SeatInventoryService seatInventoryService,
+			SeatMapService seatMapService,
+			TransactionTemplate transactionTemplate,
+			MeterRegistry meterRegistry,
+			@Value("${app.ticket-cleanup.chunk-size:500}") int chunkSize) {
 		this.ticketRepository = ticketRepository;
+		this.flightTicketClassRepository = flightTicketClassRepository;
 		this.parameterService = parameterService;
-		this.flightTicketClassService = flightTicketClassService;
+		this.seatInventoryService = seatInventoryService;
+		this.seatMapService = seatMapService;
+		this.transactionTemplate = transactionTemplate;
+		this.chunkSize = chunkSize;
+		this.expiredTickets = Counter.builder("ticket.cleanup.expired")
+				.description("Unpaid tickets canceled by the expiry cleanup")
+				.register(meterRegistry);
+		this.chunks = Counter.builder("ticket.cleanup.chunks")
+				.description("Chunks committed by the expiry cleanup")
+				.register(meterRegistry);
+		this.runDuration = Timer.builder("ticket.cleanup.duration")
+				.description("Duration of one expiry cleanup run")
+				.register(meterRegistry);
 	}
 
-   // Run every 1 minutes
-   @Scheduled(fixedRate = 60000) // 1 minute in milliseconds
-   public void cleanupExpiredUnpaidTickets() {
-      try {
-         // Get the maximum booking hold duration from parameters
-         ParameterDto parameters = parameterService.getLatestParameter();
-         int maxBookingHoldDuration = parameters.getMaxBookingHoldDuration();
+	// Safety net for holds the timer missed (e.g. hold duration changed since booking)
+	@Override
+	@Scheduled(fixedRateString = "${app.ticket-cleanup.sweep-interval-ms:300000}")
+	public void cleanupExpiredUnpaidTickets() {
+		long start = System.nanoTime();
+		int canceled = 0;
+		int committedChunks = 0;
+		try {
+			// Get the maximum booking hold duration from parameters
+			ParameterDto parameters = parameterService.getLatestParameter();
+			int maxBookingHoldDuration = parameters.getMaxBookingHoldDuration();
 
 			// Calculate cutoff time (current time + hold duration hours before flight)
 			LocalDateTime cutoffTime = LocalDateTime.now().plusHours(maxBookingHoldDuration);
 
-			// Find unpaid tickets for flights departing within the cutoff time
-			List<Ticket> expiredTickets = ticketRepository.findExpiredUnpaidTickets(cutoffTime);
-
-			System.out.println("Found " + expiredTickets.size() + " expired unpaid tickets to cleanup");
-
-			for (Ticket ticket : expiredTickets) {
-				// Cancel the ticket (soft delete)
-				ticket.setTicketStatus((byte) 0); // 0: canceled
-				ticket.setDeletedAt(LocalDateTime.now());
-				ticketRepository.save(ticket);
-
-				// Return the seat to available inventory
-				flightTicketClassService.updateRemainingTickets(
-						ticket.getFlight().getFlightId(),
-						ticket.getTicketClass().getTicketClassId(),
-						-1 // Add back 1 seat (negative quantity to increase remaining)
-				);
-
-				System.out.println("Canceled expired unpaid ticket ID: " + ticket.getTicketId() +
-						" for flight: " + ticket.getFlight().getFlightCode());
-			}
+			// Each chunk is its own short transaction; a full chunk means there may be more
+			int processed;
+			do {
+				Integer result = transactionTemplate.execute(status ->
+						cancelLockedTickets(ticketRepository.lockExpiredUnpaidTickets(cutoffTime, chunkSize)));
+				processed = result != null ? result : 0;
+				if (processed > 0) {
+					canceled += processed;
+					committedChunks++;
+					expiredTickets.increment(processed);
+					chunks.increment();
+				}
+			} while (processed == chunkSize);
 
 		} catch (Exception e) {
 			System.err.println("Error during ticket cleanup: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			long elapsed = System.nanoTime() - start;
+			runDuration.record(elapsed, TimeUnit.NANOSECONDS);
+			System.out.println("Ticket cleanup canceled " + canceled + " expired unpaid tickets in " +
+					committedChunks + " chunk(s), " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
 		}
 	}
-}
\ No newline at end of file
+
+	@Override
+	public int expireBooking(String confirmationCode) {
+		Integer canceled = transactionTemplate.execute(status ->
+				cancelLockedTickets(ticketRepository.lockUnpaidTicketsByConfirmationCode(confirmationCode)));
+		if (canceled != null && canceled > 0) {
+			expiredTickets.increment(canceled);
+		}
+		return canceled != null ? canceled : 0;
+	}
+
+	// rows: [ticket_id, flight_id, ticket_class_id, seat_number], locked by the caller's query
+	private int cancelLockedTickets(List<Object[]> rows) {
+		if (rows.isEmpty()) {
+			return 0;
+		}
+
+		List<Integer> ticketIds = new ArrayList<>(rows.size());
+		Map<List<Integer>, List<String>> seatsByClass = new LinkedHashMap<>();
+		for (Object[] row : rows) {
+			ticketIds.add(((Number) row[0]).intValue());
+			List<Integer> flightTicketClass = List.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+			seatsByClass.computeIfAbsent(flightTicketClass, k -> new ArrayList<>()).add((String) row[3]);
+		}
+
+		// Return the seats to available inventory before the tickets stop counting as active
+		flightTicketClassRepository.restoreRemainingForTickets(ticketIds);
+		int canceled = ticketRepository.softDeleteByIds(ticketIds, LocalDateTime.now());
+
+		// In-memory inventory and seat maps follow once the chunk is committed
+		seatsByClass.keySet().forEach(flightTicketClass ->
+				seatInventoryService.refresh(flightTicketClass.get(0), flightTicketClass.get(1)));
+		AfterCommit.run(() -> seatsByClass.forEach((flightTicketClass, seatNumbers) ->
+				seatMapService.releaseSeats(flightTicketClass.get(0), flightTicketClass.get(1), seatNumbers)));
+
+		return canceled;
+	}
+}
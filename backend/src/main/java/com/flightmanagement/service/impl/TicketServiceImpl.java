@@ -2,15 +2,18 @@ package com.flightmanagement.service.impl;
 
 import com.flightmanagement.dto.*;
 import com.flightmanagement.entity.*;
+import com.flightmanagement.exception.ConflictException;
 import com.flightmanagement.exception.ResourceNotFoundException;
 import com.flightmanagement.mapper.TicketMapper;
 import com.flightmanagement.repository.*;
 import com.flightmanagement.service.*;
 import com.flightmanagement.service.AuditLogService;
+import com.flightmanagement.util.AfterCommit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -36,12 +39,22 @@ public class TicketServiceImpl implements TicketService {
 
     private final PassengerRepository passengerRepository;
 
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
 
     private final AccountRepository accountRepository;
 
     private final AuditLogService auditLogService;
 
+    private final TransactionTemplate transactionTemplate;
+
+    private final SeatMapService seatMapService;
+
+    private final TicketBatchRepository ticketBatchRepository;
+
+    private final BookingHoldService bookingHoldService;
+
+    private final ConfirmationCodeGenerator confirmationCodeGenerator;
+
     public TicketServiceImpl(TicketRepository ticketRepository,
             TicketMapper ticketMapper,
             FlightTicketClassService flightTicketClassService,
@@ -50,9 +63,14 @@ public class TicketServiceImpl implements TicketService {
             TicketClassRepository ticketClassRepository,
             CustomerRepository customerRepository,
             PassengerRepository passengerRepository,
-            EmailService emailService,
+            EmailOutboxService emailOutboxService,
             AccountRepository accountRepository,
-            AuditLogService auditLogService) {
+            AuditLogService auditLogService,
+            TransactionTemplate transactionTemplate,
+            SeatMapService seatMapService,
+            TicketBatchRepository ticketBatchRepository,
+            BookingHoldService bookingHoldService,
+            ConfirmationCodeGenerator confirmationCodeGenerator) {
         this.ticketRepository = ticketRepository;
         this.ticketMapper = ticketMapper;
         this.flightTicketClassService = flightTicketClassService;
@@ -61,9 +79,14 @@ public class TicketServiceImpl implements TicketService {
         this.ticketClassRepository = ticketClassRepository;
         this.customerRepository = customerRepository;
         this.passengerRepository = passengerRepository;
-        this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
         this.accountRepository = accountRepository;
         this.auditLogService = auditLogService;
+        this.transactionTemplate = transactionTemplate;
+        this.seatMapService = seatMapService;
+        this.ticketBatchRepository = ticketBatchRepository;
+        this.bookingHoldService = bookingHoldService;
+        this.confirmationCodeGenerator = confirmationCodeGenerator;
     }
 
     @Override
@@ -78,6 +101,14 @@ public class TicketServiceImpl implements TicketService {
         return page.map(ticketMapper::toDto);
     }
 
+    @Override
+    public CursorPage<TicketDto> getAllTicketsAfter(String cursor, int size, boolean includeCount) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<Ticket> tickets = ticketRepository.findActiveAfter(after == null ? 0 : after.id(), CursorPage.limit(size));
+        return CursorPage.of(tickets, size, ticket -> PageCursor.of(ticket.getTicketId()), ticketMapper::toDtoList,
+                includeCount ? ticketRepository.countByDeletedAtIsNull() : null);
+    }
+
     @Override
     public TicketDto getTicketById(Integer id) {
         Ticket ticket = ticketRepository.findActiveById(id)
@@ -126,6 +157,12 @@ public class TicketServiceImpl implements TicketService {
         }
 
         Ticket savedTicket = ticketRepository.save(ticket);
+
+        // Marked once the ticket is committed
+        if (ticketDto.getFlightId() != null && ticketDto.getTicketClassId() != null && ticketDto.getSeatNumber() != null) {
+            AfterCommit.run(() -> seatMapService.occupySeats(ticketDto.getFlightId(), ticketDto.getTicketClassId(),
+                    List.of(ticketDto.getSeatNumber())));
+        }
         
         // Audit log for CREATE
         String ticketDescription = "Ticket " + savedTicket.getConfirmationCode();
@@ -133,16 +170,9 @@ public class TicketServiceImpl implements TicketService {
 
         return ticketMapper.toDto(savedTicket);
     }
-    /**
-     * Send multi-passenger booking confirmation email
-     */
-    private void sendPassengersBookingConfirmation(List<TicketDto> tickets) {
-        for (TicketDto ticketDto : tickets) {
-            emailService.sendBookingConfirmation(ticketDto);
-        }
-    }
 
     @Override
+    @Transactional
     public TicketDto updateTicket(Integer id, TicketDto ticketDto) {
         Ticket existingTicket = ticketRepository.findActiveById(id)
                 .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + id));
@@ -154,6 +184,12 @@ public class TicketServiceImpl implements TicketService {
         String oldTicketStatus = existingTicket.getTicketStatus() != null ? existingTicket.getTicketStatus().toString() : null;
         String oldFare = existingTicket.getFare() != null ? existingTicket.getFare().toString() : null;
         String oldPaymentTime = existingTicket.getPaymentTime() != null ? existingTicket.getPaymentTime().toString() : null;
+
+        String newSeatNumber = ticketDto.getSeatNumber();
+        boolean seatChanged = (oldSeatNumber == null && newSeatNumber != null) || (oldSeatNumber != null && !oldSeatNumber.equals(newSeatNumber));
+        if (seatChanged) {
+            moveSeat(existingTicket, oldSeatNumber, newSeatNumber);
+        }
         
         existingTicket.setSeatNumber(ticketDto.getSeatNumber());
         existingTicket.setTicketStatus(ticketDto.getTicketStatus());
@@ -163,8 +199,7 @@ public class TicketServiceImpl implements TicketService {
         Ticket updatedTicket = ticketRepository.save(existingTicket);
         
         // Audit log for changed fields
-        String newSeatNumber = updatedTicket.getSeatNumber();
-        if ((oldSeatNumber == null && newSeatNumber != null) || (oldSeatNumber != null && !oldSeatNumber.equals(newSeatNumber))) {
+        if (seatChanged) {
             auditLogService.saveAuditLog("Ticket", id.toString(), "UPDATE", "seatNumber", oldSeatNumber, newSeatNumber, "system");
         }
         
@@ -196,6 +231,7 @@ public class TicketServiceImpl implements TicketService {
 
         ticket.setDeletedAt(LocalDateTime.now());
         ticketRepository.save(ticket);
+        releaseSeat(ticket);
         
         // Audit log for DELETE
         auditLogService.saveAuditLog("Ticket", id.toString(), "DELETE", "ticket", ticketDescription, null, "system");
@@ -242,81 +278,136 @@ public class TicketServiceImpl implements TicketService {
         return ticketMapper.toDtoList(tickets);
     }
 
+    /**
+     * Seats are claimed up front against the in-memory seat inventory and seat map, outside the
+     * transaction that writes passengers and tickets; the inventory writes the claim back to
+     * flight_ticket_class in a later batch. If ticket creation fails both claims are released.
+     */
     @Override
-    @Transactional
     public List<TicketDto> bookTickets(BookingDto bookingDto) {
-        validateBookingRequest(bookingDto);
+        return bookTickets(bookingDto, null);
+    }
 
-        List<TicketDto> bookedTickets = new ArrayList<>();
+    /**
+     * Books under the given confirmation code, or a newly generated one when it is null.
+     */
+    @Override
+    public List<TicketDto> bookTickets(BookingDto bookingDto, String confirmationCode) {
+        validateBookingRequest(bookingDto);
 
         // Log booking attempt for debugging
         System.out.println("Booking attempt - Flight: " + bookingDto.getFlightId() +
                 ", Class: " + bookingDto.getTicketClassId() +
                 ", Passengers: " + bookingDto.getPassengers().size());
 
-        // Check availability first
         FlightTicketClassDto flightTicketClass = flightTicketClassService.getFlightTicketClassById(
                 bookingDto.getFlightId(), bookingDto.getTicketClassId());
 
-        System.out.println("Available seats: " + flightTicketClass.getRemainingTicketQuantity());
+        // Claim seats first; fails fast when another booking got there before us
+        flightTicketClassService.reserveTickets(
+                bookingDto.getFlightId(),
+                bookingDto.getTicketClassId(),
+                bookingDto.getPassengers().size());
 
-        if (flightTicketClass.getRemainingTicketQuantity() < bookingDto.getPassengers().size()) {
-            throw new RuntimeException("Not enough tickets available. Requested: " +
-                    bookingDto.getPassengers().size() +
-                    ", Available: " + flightTicketClass.getRemainingTicketQuantity());
+        List<String> seatNumbers = null;
+        List<TicketDto> bookedTickets;
+        try {
+            seatNumbers = claimSeats(bookingDto);
+            List<String> claimedSeats = seatNumbers;
+            String bookingCode = confirmationCode != null ? confirmationCode : generateConfirmationCode();
+            bookedTickets = transactionTemplate.execute(status ->
+                    createBookedTickets(bookingDto, flightTicketClass, claimedSeats, bookingCode));
+        } catch (RuntimeException e) {
+            if (seatNumbers != null) {
+                seatMapService.releaseSeats(bookingDto.getFlightId(), bookingDto.getTicketClassId(), seatNumbers);
+            }
+            flightTicketClassService.releaseTickets(
+                    bookingDto.getFlightId(),
+                    bookingDto.getTicketClassId(),
+                    bookingDto.getPassengers().size());
+            throw e;
         }
 
-        String confirmationCode = generateConfirmationCode();
+        System.out.println("Booking successful - Created " + bookedTickets.size() + " tickets");
 
-        // Create tickets for each passenger
-        for (int i = 0; i < bookingDto.getPassengers().size(); i++) {
-            PassengerDto passengerDto = bookingDto.getPassengers().get(i);
-            String seatNumber = (bookingDto.getSeatNumbers() != null && i < bookingDto.getSeatNumbers().size())
-                    ? bookingDto.getSeatNumbers().get(i)
-                    : generateSeatNumber(flightTicketClass.getTicketClassName(), i);
+        // Release the seats at the hold deadline if the booking is still unpaid by then
+        if (!bookedTickets.isEmpty()) {
+            try {
+                bookingHoldService.registerHold(bookedTickets.get(0).getConfirmationCode(), bookingDto.getFlightId());
+            } catch (Exception e) {
+                System.err.println("Failed to register booking hold: " + e.getMessage());
+            }
+        }
 
-            // Ensure passenger exists or create new one
-            PassengerDto existingPassenger = getOrCreatePassenger(passengerDto);
+        return bookedTickets;
+    }
 
-            // Create ticket
+    /**
+     * Marks the requested seats taken in the seat map, or picks adjacent free seats when the
+     * request has none. Both are all-or-nothing.
+     */
+    private List<String> claimSeats(BookingDto bookingDto) {
+        if (bookingDto.getSeatNumbers() != null && !bookingDto.getSeatNumbers().isEmpty()) {
+            if (!seatMapService.occupySeats(bookingDto.getFlightId(), bookingDto.getTicketClassId(), bookingDto.getSeatNumbers())) {
+                throw new IllegalArgumentException("One or more selected seats are already taken");
+            }
+            return bookingDto.getSeatNumbers();
+        }
+        return seatMapService.assignSeats(
+                bookingDto.getFlightId(),
+                bookingDto.getTicketClassId(),
+                bookingDto.getPassengers().size());
+    }
+
+    private List<TicketDto> createBookedTickets(BookingDto bookingDto, FlightTicketClassDto flightTicketClass,
+                                                List<String> seatNumbers, String confirmationCode) {
+        List<TicketDto> bookedTickets = new ArrayList<>();
+
+        // Flight and ticket class were checked with the inventory claim; only the customer is resolved here.
+        // For guest bookings (customer ID 0 or null), or an unknown customer, bookingCustomer remains null
+        Integer bookCustomerId = bookingDto.getCustomerId();
+        if (bookCustomerId != null && (bookCustomerId == 0 || !customerRepository.existsById(bookCustomerId))) {
+            bookCustomerId = null;
+        }
+
+        // Ensure passengers exist or create new ones, in one lookup
+        List<PassengerDto> passengers = passengerService.getOrCreatePassengers(bookingDto.getPassengers());
+
+        // Create tickets for each passenger
+        for (int i = 0; i < passengers.size(); i++) {
             TicketDto ticketDto = new TicketDto();
 
             ticketDto.setFlightId(bookingDto.getFlightId());
             ticketDto.setTicketClassId(bookingDto.getTicketClassId());
-            ticketDto.setBookCustomerId(bookingDto.getCustomerId()); // can be null for guest
-            ticketDto.setPassengerId(existingPassenger.getPassengerId());
-            ticketDto.setSeatNumber(seatNumber);
+            ticketDto.setBookCustomerId(bookCustomerId);
+            ticketDto.setPassengerId(passengers.get(i).getPassengerId());
+            ticketDto.setSeatNumber(seatNumbers.get(i));
             ticketDto.setFare(flightTicketClass.getSpecifiedFare());
             ticketDto.setTicketStatus((byte) 0); // 0: unpaid (default)
             ticketDto.setConfirmationCode(confirmationCode);
-
-            TicketDto createdTicket = createTicket(ticketDto);
-            bookedTickets.add(createdTicket);
+            bookedTickets.add(ticketDto);
         }
 
-        // Update remaining ticket quantity
-        flightTicketClassService.updateRemainingTickets(
-                bookingDto.getFlightId(),
-                bookingDto.getTicketClassId(),
-                bookingDto.getPassengers().size());
-
-        System.out.println("Booking successful - Created " + bookedTickets.size() + " tickets");
+        ticketBatchRepository.insertTickets(bookedTickets);
 
-        // Send consolidated booking confirmation email for multiple passengers
-        if (!bookedTickets.isEmpty()) {
-            try {
-                sendPassengersBookingConfirmation(bookedTickets);
-            } catch (Exception e) {
-                System.err.println("Failed to send multi-passenger booking confirmation email: " + e.getMessage());
-            }
+        // Audit log for CREATE
+        List<AuditLog> auditLogs = new ArrayList<>();
+        for (TicketDto ticketDto : bookedTickets) {
+            AuditLog auditLog = new AuditLog();
+            auditLog.setEntityName("Ticket");
+            auditLog.setEntityId(ticketDto.getTicketId().toString());
+            auditLog.setAction("CREATE");
+            auditLog.setFieldName("ticket");
+            auditLog.setNewValue("Ticket " + confirmationCode);
+            auditLog.setChangedBy("system");
+            auditLogs.add(auditLog);
         }
+        auditLogService.saveAuditLogs(auditLogs);
 
-        return bookedTickets;
-    }
+        // Confirmation email goes out from the outbox once this transaction commits
+        emailOutboxService.enqueueBookingConfirmation(confirmationCode);
 
-    private String generateSeatNumber(String className, int index) {
-        String prefix = className.equals("Economy") ? "E" : className.equals("Business") ? "B" : "F";
-        return prefix + String.format("%02d", index + 1);
+        return bookedTickets;
     }
 
     private void validateBookingRequest(BookingDto bookingDto) {
@@ -330,11 +421,10 @@ public class TicketServiceImpl implements TicketService {
                 throw new IllegalArgumentException("Number of seat numbers must match number of passengers");
             }
 
-            // Check seat availability only for provided seat numbers
-            for (String seatNumber : bookingDto.getSeatNumbers()) {
-                if (!isSeatAvailable(bookingDto.getFlightId(), seatNumber)) {
-                    throw new IllegalArgumentException("Seat " + seatNumber + " is already taken");
-                }
+            // Check seat availability only for provided seat numbers, answered from the seat map
+            if (!seatMapService.areSeatsAvailable(bookingDto.getFlightId(), bookingDto.getTicketClassId(),
+                    bookingDto.getSeatNumbers())) {
+                throw new IllegalArgumentException("One or more selected seats are already taken");
             }
         }
 
@@ -356,32 +446,9 @@ public class TicketServiceImpl implements TicketService {
         }
     }
 
-    private PassengerDto getOrCreatePassenger(PassengerDto passengerDto) {
-        // Try to find existing passenger
-        PassengerDto existingPassenger = passengerService.getPassengerByCitizenId(passengerDto.getCitizenId());
-        
-        // If not found, create new passenger
-        if (existingPassenger == null) {
-            return passengerService.createPassenger(passengerDto);
-        }
-        
-        return existingPassenger;
-    }
-
     @Override
     public String generateConfirmationCode() {
-        LocalDateTime today = LocalDateTime.now();
-        String dateStr = String.format("%04d%02d%02d", today.getYear(), today.getMonthValue(), today.getDayOfMonth());
-
-        // Generate random 4-character suffix
-        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        StringBuilder suffix = new StringBuilder();
-        for (int i = 0; i < 4; i++) {
-            int idx = (int) (Math.random() * chars.length());
-            suffix.append(chars.charAt(idx));
-        }
-
-        return "FMS-" + dateStr + "-" + suffix;
+        return confirmationCodeGenerator.nextCode();
     }
 
     @Override
@@ -413,6 +480,48 @@ public class TicketServiceImpl implements TicketService {
 
         ticket.setDeletedAt(LocalDateTime.now()); // 3: canceled
         ticketRepository.save(ticket);
+        releaseSeat(ticket);
+    }
+
+    private void releaseSeat(Ticket ticket) {
+        if (ticket.getFlight() != null && ticket.getTicketClass() != null && ticket.getSeatNumber() != null) {
+            seatMapService.releaseSeats(ticket.getFlight().getFlightId(), ticket.getTicketClass().getTicketClassId(),
+                    List.of(ticket.getSeatNumber()));
+        }
+    }
+
+    /**
+     * Claims the new seat before the update is written, so a taken seat fails the update with a
+     * conflict; the claim is handed back if the update rolls back. The old seat is only freed
+     * once the update is committed.
+     */
+    private void moveSeat(Ticket ticket, String oldSeatNumber, String newSeatNumber) {
+        if (ticket.getFlight() == null || ticket.getTicketClass() == null) {
+            return;
+        }
+        Integer flightId = ticket.getFlight().getFlightId();
+        Integer ticketClassId = ticket.getTicketClass().getTicketClassId();
+        if (newSeatNumber != null) {
+            if (!seatMapService.occupySeats(flightId, ticketClassId, List.of(newSeatNumber))) {
+                throw new ConflictException("Seat " + newSeatNumber + " is not available");
+            }
+            AfterCommit.onRollback(() -> seatMapService.releaseSeats(flightId, ticketClassId, List.of(newSeatNumber)));
+        }
+        if (oldSeatNumber != null) {
+            AfterCommit.run(() -> seatMapService.releaseSeats(flightId, ticketClassId, List.of(oldSeatNumber)));
+        }
+    }
+
+    @Override
+    public SeatMapDto getSeatMap(Integer flightId, Integer ticketClassId, List<String> seatNumbers, Integer count) {
+        SeatMapDto seatMap = seatMapService.getSeatMap(flightId, ticketClassId);
+        if (seatNumbers != null && !seatNumbers.isEmpty()) {
+            seatMap.setRequestedSeatsAvailable(seatMapService.areSeatsAvailable(flightId, ticketClassId, seatNumbers));
+        }
+        if (count != null && count > 0) {
+            seatMap.setSuggestedSeats(seatMapService.findAdjacentFreeSeats(flightId, ticketClassId, count));
+        }
+        return seatMap;
     }
 
     @Override
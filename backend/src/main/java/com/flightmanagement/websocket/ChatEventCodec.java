@@ -0,0 +1,43 @@
+package com.flightmanagement.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.web.socket.TextMessage;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binds inbound frames straight to ChatFrame and encodes outbound events to UTF-8 once, so a
+ * broadcast shares one TextMessage, and its bytes, across all recipients. The reader and writer
+ * are built once and are thread-safe.
+ */
+public class ChatEventCodec {
+
+    private static final byte[] EMPTY_EVENT = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectReader frameReader;
+
+    private final ObjectWriter eventWriter;
+
+    public ChatEventCodec(ObjectMapper objectMapper) {
+        this.frameReader = objectMapper.readerFor(ChatFrame.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.eventWriter = objectMapper.writer();
+    }
+
+    public ChatFrame read(String payload) throws JsonProcessingException {
+        return frameReader.readValue(payload);
+    }
+
+    public TextMessage encode(Object event) {
+        try {
+            return new TextMessage(eventWriter.writeValueAsBytes(event));
+        } catch (JsonProcessingException e) {
+            System.err.println("Error encoding chat event: " + e.getMessage());
+            return new TextMessage(EMPTY_EVENT);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.flightmanagement.websocket;
+
+/**
+ * An inbound chat frame. Fields a frame type does not use are null; content is only read from
+ * new_message.
+ */
+public record ChatFrame(String type, String chatboxId, String userId, String userType, String userName,
+                        String content) {
+}
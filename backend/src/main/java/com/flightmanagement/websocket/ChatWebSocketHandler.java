@@ -1,28 +1,136 @@
 package com.flightmanagement.websocket;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightmanagement.dto.MessageDto;
+import com.flightmanagement.service.MessageCreatedEvent;
+import com.flightmanagement.service.MessageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Relays typing indicators and new messages between the sessions in a chatbox. A new_message
+ * frame with content is saved through MessageService, and every committed message is pushed in
+ * full to its chatbox. Sessions are indexed by chatbox in rooms, kept current on join, close and
+ * transport error, so a broadcast only visits the members of that chatbox rather than every open
+ * connection.
+ * <p>
+ * Broadcasts are handed to a small pool of sender threads rather than written on the inbound
+ * thread. Each session is wrapped in a ConcurrentWebSocketSessionDecorator, so sends to one
+ * session are serialized and a send that finds the session busy is buffered instead of waiting.
+ * A client whose buffer outgrows the size limit, or whose current send runs past the time limit,
+ * is disconnected rather than holding up the rest of its room.
+ * <p>
+ * Typing indicators are coalesced per chatbox and user. Repeated typing_start frames only keep
+ * the user's state alive, and only a change to what the room was last told is broadcast. A stop
+ * goes out right away; a start goes out at most once per debounce window, and one held back by
+ * the window is sent by the periodic typing flush if the user is still typing. The flush also
+ * sends a typing_stop for typing that went idle (a client that disconnected without one), and
+ * repeats a stop that followed its start closely enough to overtake it on another sender thread.
+ */
 @Component
 public class ChatWebSocketHandler implements WebSocketHandler {
     
-    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
-    private final Map<String, Set<String>> typingUsers = new ConcurrentHashMap<>();
+    private static final int QUEUED_SENDS_PER_THREAD = 1000;
+
+    private final Map<String, ConcurrentWebSocketSessionDecorator> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<WebSocketSession>> rooms = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Typist>> typingUsers = new ConcurrentHashMap<>();
     private final Map<String, String> sessionToChatbox = new ConcurrentHashMap<>();
     private final Map<String, String> sessionToUser = new ConcurrentHashMap<>();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MessageService messageService;
+
+    private final ChatEventCodec codec;
+
+    private final int sendTimeLimitMs;
+
+    private final int bufferSizeLimit;
+
+    private final long typingDebounceMs;
+
+    private final long typingIdleTimeoutMs;
+
+    private final ThreadPoolExecutor senders;
+
+    private final Counter slowConsumersClosed;
+
+    private final Counter droppedSends;
+
+    public ChatWebSocketHandler(MessageService messageService,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.chat.send-threads:4}") int sendThreads,
+                                @Value("${app.chat.send-time-limit-ms:5000}") int sendTimeLimitMs,
+                                @Value("${app.chat.buffer-size-limit:524288}") int bufferSizeLimit,
+                                @Value("${app.chat.typing.debounce-ms:1000}") long typingDebounceMs,
+                                @Value("${app.chat.typing.idle-timeout-ms:6000}") long typingIdleTimeoutMs) {
+        this.messageService = messageService;
+        this.codec = new ChatEventCodec(objectMapper);
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.typingDebounceMs = typingDebounceMs;
+        this.typingIdleTimeoutMs = typingIdleTimeoutMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(sendThreads * QUEUED_SENDS_PER_THREAD),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chat-sender-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("chat.websocket.sessions", sessions, Map::size)
+                .description("Open chat WebSocket sessions")
+                .register(meterRegistry);
+        Gauge.builder("chat.websocket.send.queue", senders, executor -> executor.getQueue().size())
+                .description("Broadcast sends waiting for a sender thread")
+                .register(meterRegistry);
+        Gauge.builder("chat.websocket.buffered.bytes", sessions, ChatWebSocketHandler::bufferedBytes)
+                .description("Bytes buffered for chat sessions that are busy sending")
+                .register(meterRegistry);
+        this.slowConsumersClosed = Counter.builder("chat.websocket.dropped")
+                .tag("reason", "slow_consumer")
+                .description("Chat sessions closed for exceeding the send time or buffer size limit")
+                .register(meterRegistry);
+        this.droppedSends = Counter.builder("chat.websocket.dropped")
+                .tag("reason", "queue_full")
+                .description("Broadcast sends dropped because the sender queue was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         String sessionId = session.getId();
-        sessions.put(sessionId, session);
+        sessions.put(sessionId, new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, bufferSizeLimit,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE));
         System.out.println("WebSocket connection established: " + sessionId);
     }
 
@@ -31,21 +139,20 @@ public class ChatWebSocketHandler implements WebSocketHandler {
         String sessionId = session.getId();
         
         try {
-            JsonNode data = objectMapper.readTree(message.getPayload().toString());
-            String type = data.get("type").asText();
+            ChatFrame frame = codec.read(message.getPayload().toString());
             
-            switch (type) {
+            switch (frame.type()) {
                 case "join_chat":
-                    handleJoinChat(sessionId, data);
+                    handleJoinChat(session, frame);
                     break;
                 case "typing_start":
-                    handleTypingStart(sessionId, data);
+                    handleTypingStart(sessionId, frame);
                     break;
                 case "typing_stop":
-                    handleTypingStop(sessionId, data);
+                    handleTypingStop(sessionId, frame);
                     break;
                 case "new_message":
-                    handleNewMessage(sessionId, data);
+                    handleNewMessage(sessionId, frame);
                     break;
             }
         } catch (Exception e) {
@@ -57,6 +164,11 @@ public class ChatWebSocketHandler implements WebSocketHandler {
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
         System.err.println("WebSocket transport error: " + exception.getMessage());
+        // The session may not be closed yet; stop broadcasting to it now
+        String chatboxId = sessionToChatbox.get(session.getId());
+        if (chatboxId != null) {
+            leaveRoom(chatboxId, session.getId());
+        }
     }
 
     @Override
@@ -67,10 +179,13 @@ public class ChatWebSocketHandler implements WebSocketHandler {
         
         // Clean up typing status when user disconnects
         if (chatboxId != null && userId != null) {
-            handleTypingStop(sessionId, createTypingData(chatboxId, userId));
+            handleTypingStop(sessionId, createTypingFrame(chatboxId, userId));
         }
         
         // Remove session
+        if (chatboxId != null) {
+            leaveRoom(chatboxId, sessionId);
+        }
         sessions.remove(sessionId);
         sessionToChatbox.remove(sessionId);
         sessionToUser.remove(sessionId);
@@ -83,125 +198,252 @@ public class ChatWebSocketHandler implements WebSocketHandler {
         return false;
     }
 
-    private void handleJoinChat(String sessionId, JsonNode data) {
-        String chatboxId = data.get("chatboxId").asText();
-        String userId = data.get("userId").asText();
-        String userType = data.get("userType").asText(); // "employee" or "customer"
+    private void handleJoinChat(WebSocketSession session, ChatFrame frame) {
+        String sessionId = session.getId();
+        String chatboxId = frame.chatboxId();
+        String userId = frame.userId();
+        String userType = frame.userType(); // "employee" or "customer"
         
-        sessionToChatbox.put(sessionId, chatboxId);
+        String previousChatboxId = sessionToChatbox.put(sessionId, chatboxId);
+        if (previousChatboxId != null && !previousChatboxId.equals(chatboxId)) {
+            leaveRoom(previousChatboxId, sessionId);
+        }
+        joinRoom(chatboxId, sessionId);
         sessionToUser.put(sessionId, userId + ":" + userType);
         
         System.out.println("User " + userId + " (" + userType + ") joined chat " + chatboxId);
     }
 
-    private void handleTypingStart(String sessionId, JsonNode data) {
-        String chatboxId = data.get("chatboxId").asText();
-        String userId = data.get("userId").asText();
-        String userType = data.get("userType").asText();
-        String userName = data.get("userName").asText();
-        
-        String userKey = userId + ":" + userType;
-        
-        typingUsers.computeIfAbsent(chatboxId, k -> ConcurrentHashMap.newKeySet()).add(userKey);
-        
-        // Broadcast typing status to other users in the same chat (except sender)
-        broadcastToChat(chatboxId, createTypingEvent("typing_start", userId, userType, userName), sessionId);
-        
-        System.out.println("User " + userName + " (" + userType + ") started typing in chat " + chatboxId);
+    private void handleTypingStart(String sessionId, ChatFrame frame) {
+        updateTyping(sessionId, frame, true);
     }
 
-    private void handleTypingStop(String sessionId, JsonNode data) {
-        String chatboxId = data.get("chatboxId").asText();
-        String userId = data.get("userId").asText();
-        String userType = data.get("userType").asText();
-        String userName = data.get("userName").asText();
-        
-        String userKey = userId + ":" + userType;
-        
-        Set<String> typing = typingUsers.get(chatboxId);
-        if (typing != null) {
-            typing.remove(userKey);
-            if (typing.isEmpty()) {
-                typingUsers.remove(chatboxId);
+    private void handleTypingStop(String sessionId, ChatFrame frame) {
+        updateTyping(sessionId, frame, false);
+    }
+
+    /**
+     * Records the user's typing state and broadcasts it if the room was last told otherwise: a
+     * stop right away, a start only once the user's debounce window has passed.
+     */
+    private void updateTyping(String sessionId, ChatFrame frame, boolean typing) {
+        String chatboxId = frame.chatboxId();
+        String userKey = frame.userId() + ":" + frame.userType();
+        long now = System.currentTimeMillis();
+        boolean[] announce = new boolean[1];
+
+        typingUsers.compute(chatboxId, (key, room) -> {
+            Typist typist = room != null ? room.get(userKey) : null;
+            if (typist == null) {
+                if (!typing) {
+                    return room;
+                }
+                if (room == null) {
+                    room = new LinkedHashMap<>();
+                }
+                typist = new Typist(frame.userId(), frame.userType());
+                room.put(userKey, typist);
+            }
+            typist.typing = typing;
+            typist.userName = frame.userName();
+            typist.lastSeenMs = now;
+            if (typist.announced != typing && (!typing || now - typist.lastEmittedMs >= typingDebounceMs)) {
+                typist.repeatStop = !typing && now - typist.lastEmittedMs < typingDebounceMs;
+                typist.announced = typing;
+                typist.lastEmittedMs = now;
+                announce[0] = true;
             }
+            return room;
+        });
+
+        if (announce[0]) {
+            String type = typing ? "typing_start" : "typing_stop";
+            // Broadcast typing status to other users in the same chat (except sender)
+            broadcastToChat(chatboxId, codec.encode(new TypingEvent(type, frame.userId(), frame.userType(),
+                    frame.userName(), now)), sessionId);
         }
-        
-        // Broadcast typing stop to other users in the same chat (except sender)
-        broadcastToChat(chatboxId, createTypingEvent("typing_stop", userId, userType, userName), sessionId);
-        
-        System.out.println("User " + userName + " (" + userType + ") stopped typing in chat " + chatboxId);
     }
 
-    private void handleNewMessage(String sessionId, JsonNode data) {
-        String chatboxId = data.get("chatboxId").asText();
-        String userId = data.get("userId").asText();
-        String userType = data.get("userType").asText();
-        
-        // Stop typing when user sends message
-        handleTypingStop(sessionId, data);
-        
-        // Broadcast new message event to other users in the same chat
-        broadcastToChat(chatboxId, createMessageEvent("new_message", chatboxId), sessionId);
-    }
-
-    private void broadcastToChat(String chatboxId, String message, String excludeSessionId) {
-        sessions.entrySet().stream()
-            .filter(entry -> !entry.getKey().equals(excludeSessionId))
-            .filter(entry -> chatboxId.equals(sessionToChatbox.get(entry.getKey())))
-            .forEach(entry -> {
-                try {
-                    entry.getValue().sendMessage(new TextMessage(message));
-                } catch (IOException e) {
-                    System.err.println("Error broadcasting message: " + e.getMessage());
+    @Scheduled(fixedRateString = "${app.chat.typing.flush-interval-ms:2000}")
+    public void flushTyping() {
+        flushTyping(System.currentTimeMillis());
+    }
+
+    /**
+     * Sends the typing changes each chatbox has not been told about: starts held back by the
+     * debounce window, stops repeated in case they overtook their start, and stops for typing
+     * that went idle, which is then forgotten.
+     */
+    void flushTyping(long now) {
+        for (String chatboxId : typingUsers.keySet()) {
+            List<TypingEvent> events = new ArrayList<>();
+
+            typingUsers.computeIfPresent(chatboxId, (key, room) -> {
+                Iterator<Typist> typists = room.values().iterator();
+                while (typists.hasNext()) {
+                    Typist typist = typists.next();
+                    if (now - typist.lastSeenMs > typingIdleTimeoutMs) {
+                        if (typist.announced) {
+                            events.add(typist.event("typing_stop", now));
+                        }
+                        typists.remove();
+                    } else if (typist.typing && !typist.announced) {
+                        typist.announced = true;
+                        typist.lastEmittedMs = now;
+                        events.add(typist.event("typing_start", now));
+                    } else if (!typist.typing && typist.repeatStop) {
+                        typist.repeatStop = false;
+                        events.add(typist.event("typing_stop", now));
+                    }
                 }
+                return room.isEmpty() ? null : room;
             });
+
+            for (TypingEvent event : events) {
+                broadcastToChat(chatboxId, codec.encode(event), null);
+            }
+        }
     }
 
-    private String createTypingEvent(String type, String userId, String userType, String userName) {
-        try {
-            Map<String, Object> event = Map.of(
-                "type", type,
-                "userId", userId,
-                "userType", userType,
-                "userName", userName,
-                "timestamp", System.currentTimeMillis()
-            );
-            return objectMapper.writeValueAsString(event);
-        } catch (Exception e) {
-            System.err.println("Error creating typing event: " + e.getMessage());
-            return "{}";
+    private void handleNewMessage(String sessionId, ChatFrame frame) {
+        // Stop typing when user sends message
+        handleTypingStop(sessionId, frame);
+        
+        // Without content the message was posted over REST, which pushes it already
+        if (frame.content() == null || frame.content().isBlank()) {
+            return;
+        }
+        // Only save into the chatbox, and as the user, this session joined with
+        if (!frame.chatboxId().equals(sessionToChatbox.get(sessionId))
+                || !(frame.userId() + ":" + frame.userType()).equals(sessionToUser.get(sessionId))) {
+            System.err.println("Rejected new_message from session " + sessionId + " for chat " + frame.chatboxId()
+                    + " it has not joined as user " + frame.userId());
+            return;
+        }
+        Integer chatboxId = Integer.valueOf(frame.chatboxId());
+        if ("employee".equals(frame.userType())) {
+            messageService.createEmployeeMessage(chatboxId, Integer.valueOf(frame.userId()), frame.content());
+        } else {
+            messageService.createCustomerMessage(chatboxId, frame.content());
         }
     }
 
-    private String createMessageEvent(String type, String chatboxId) {
-        try {
-            Map<String, Object> event = Map.of(
-                "type", type,
-                "chatboxId", chatboxId,
-                "timestamp", System.currentTimeMillis()
-            );
-            return objectMapper.writeValueAsString(event);
-        } catch (Exception e) {
-            System.err.println("Error creating message event: " + e.getMessage());
-            return "{}";
+    /**
+     * Pushes a committed message, sent over WebSocket or REST, to everyone in its chatbox.
+     */
+    @EventListener
+    public void onMessageCreated(MessageCreatedEvent event) {
+        MessageDto message = event.message();
+        String chatboxId = String.valueOf(message.getChatboxId());
+        broadcastToChat(chatboxId, codec.encode(new MessageEvent("new_message", chatboxId, message,
+                System.currentTimeMillis())), null);
+    }
+
+    // compute keeps a join from adding to a room that a concurrent leave is dropping as empty
+    private void joinRoom(String chatboxId, String sessionId) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session == null) {
+            return;
         }
+        rooms.compute(chatboxId, (key, members) -> {
+            Set<WebSocketSession> room = members != null ? members : ConcurrentHashMap.newKeySet();
+            room.add(session);
+            return room;
+        });
     }
 
-    private JsonNode createTypingData(String chatboxId, String userInfo) {
+    private void leaveRoom(String chatboxId, String sessionId) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        rooms.computeIfPresent(chatboxId, (key, members) -> {
+            members.remove(session);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    // The message is encoded once and shared by every recipient
+    private void broadcastToChat(String chatboxId, TextMessage textMessage, String excludeSessionId) {
+        Set<WebSocketSession> room = rooms.get(chatboxId);
+        if (room == null) {
+            return;
+        }
+        for (WebSocketSession member : room) {
+            if (member.getId().equals(excludeSessionId)) {
+                continue;
+            }
+            try {
+                senders.execute(() -> send(member, textMessage));
+            } catch (RejectedExecutionException e) {
+                // Typing and new-message notices are hints; the client catches up on its next fetch
+                droppedSends.increment();
+            }
+        }
+    }
+
+    private void send(WebSocketSession member, TextMessage message) {
+        if (!member.isOpen()) {
+            return;
+        }
         try {
-            String[] parts = userInfo.split(":");
-            String userId = parts[0];
-            String userType = parts.length > 1 ? parts[1] : "unknown";
-            
-            Map<String, Object> data = Map.of(
-                "chatboxId", chatboxId,
-                "userId", userId,
-                "userType", userType,
-                "userName", "User"
-            );
-            return objectMapper.valueToTree(data);
-        } catch (Exception e) {
-            return objectMapper.createObjectNode();
+            member.sendMessage(message);
+        } catch (SessionLimitExceededException e) {
+            slowConsumersClosed.increment();
+            System.err.println("Closing slow WebSocket session " + member.getId() + ": " + e.getMessage());
+            try {
+                member.close(e.getStatus());
+            } catch (IOException closeException) {
+                System.err.println("Error closing WebSocket session: " + closeException.getMessage());
+            }
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Error broadcasting message: " + e.getMessage());
+        }
+    }
+
+    private static double bufferedBytes(Map<String, ConcurrentWebSocketSessionDecorator> sessions) {
+        long bytes = 0;
+        for (ConcurrentWebSocketSessionDecorator session : sessions.values()) {
+            bytes += session.getBufferSize();
         }
+        return bytes;
+    }
+
+    // Guarded by the typingUsers bin lock: only touched inside compute on its chatbox
+    private static final class Typist {
+
+        private final String userId;
+
+        private final String userType;
+
+        private String userName;
+
+        private boolean typing;
+
+        // What the room was last told
+        private boolean announced;
+
+        private long lastSeenMs;
+
+        private long lastEmittedMs = Long.MIN_VALUE / 2;
+
+        // The stop followed its start within the debounce window
+        private boolean repeatStop;
+
+        private Typist(String userId, String userType) {
+            this.userId = userId;
+            this.userType = userType;
+        }
+
+        private TypingEvent event(String type, long now) {
+            return new TypingEvent(type, userId, userType, userName, now);
+        }
+    }
+
+    private ChatFrame createTypingFrame(String chatboxId, String userInfo) {
+        String[] parts = userInfo.split(":");
+        String userId = parts[0];
+        String userType = parts.length > 1 ? parts[1] : "unknown";
+        return new ChatFrame("typing_stop", chatboxId, userId, userType, "User", null);
     }
 }
@@ -0,0 +1,10 @@
+package com.flightmanagement.websocket;
+
+import com.flightmanagement.dto.MessageDto;
+
+/**
+ * Sent to every member of a chatbox, the sender included, when a message is posted. It carries
+ * the whole message with its sequence number, so clients only fetch when they see a gap.
+ */
+public record MessageEvent(String type, String chatboxId, MessageDto message, long timestamp) {
+}
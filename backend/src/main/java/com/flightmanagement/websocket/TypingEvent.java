@@ -0,0 +1,7 @@
+package com.flightmanagement.websocket;
+
+/**
+ * Sent to the other members of a chatbox when someone starts or stops typing.
+ */
+public record TypingEvent(String type, String userId, String userType, String userName, long timestamp) {
+}
@@ -0,0 +1,81 @@
+package com.flightmanagement.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightmanagement.websocket.ChatEventCodec;
+import com.flightmanagement.websocket.ChatFrame;
+import com.flightmanagement.websocket.TypingEvent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles one typing_start frame and fans the resulting event out to 100 recipients, comparing
+ * ChatEventCodec against the previous readTree / Map.of / per-recipient TextMessage path. A
+ * recipient is modelled as the container taking the frame's bytes. Run it with main() after
+ * test-compile; the GC profiler reports allocation per broadcast next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatBroadcastBenchmark {
+
+    private static final String TYPING_START = "{\"type\":\"typing_start\",\"chatboxId\":\"42\",\"userId\":\"7\","
+            + "\"userType\":\"customer\",\"userName\":\"Nguyen Van A\"}";
+
+    @Param("100")
+    private int recipients;
+
+    private ObjectMapper objectMapper;
+
+    private ChatEventCodec codec;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        codec = new ChatEventCodec(objectMapper);
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) throws Exception {
+        JsonNode data = objectMapper.readTree(TYPING_START);
+        String event = objectMapper.writeValueAsString(Map.of(
+                "type", data.get("type").asText(),
+                "userId", data.get("userId").asText(),
+                "userType", data.get("userType").asText(),
+                "userName", data.get("userName").asText(),
+                "timestamp", System.currentTimeMillis()));
+        for (int i = 0; i < recipients; i++) {
+            blackhole.consume(new TextMessage(event).asBytes());
+        }
+    }
+
+    @Benchmark
+    public void codec(Blackhole blackhole) throws Exception {
+        ChatFrame frame = codec.read(TYPING_START);
+        TextMessage message = codec.encode(new TypingEvent(frame.type(), frame.userId(), frame.userType(),
+                frame.userName(), System.currentTimeMillis()));
+        for (int i = 0; i < recipients; i++) {
+            blackhole.consume(message.asBytes());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ChatBroadcastBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.flightmanagement.benchmark;
+
+import com.flightmanagement.service.ConfirmationCodeGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the confirmation code generator against the previous Math.random based
+ * implementation, on one thread and under contention from four. Run it with main() after
+ * test-compile; the GC profiler reports allocation per code next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfirmationCodeBenchmark {
+
+    private ConfirmationCodeGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new ConfirmationCodeGenerator(0);
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacyConfirmationCode();
+    }
+
+    @Benchmark
+    public String generator() {
+        return generator.nextCode();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String legacyContended() {
+        return legacyConfirmationCode();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generatorContended() {
+        return generator.nextCode();
+    }
+
+    /**
+     * TicketServiceImpl.generateConfirmationCode before the generator replaced it.
+     */
+    private static String legacyConfirmationCode() {
+        LocalDateTime today = LocalDateTime.now();
+        String dateStr = String.format("%04d%02d%02d", today.getYear(), today.getMonthValue(), today.getDayOfMonth());
+
+        // Generate random 4-character suffix
+        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+        StringBuilder suffix = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            int idx = (int) (Math.random() * chars.length());
+            suffix.append(chars.charAt(idx));
+        }
+
+        return "FMS-" + dateStr + "-" + suffix;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ConfirmationCodeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
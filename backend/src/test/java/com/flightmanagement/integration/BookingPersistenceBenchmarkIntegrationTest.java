@@ -0,0 +1,267 @@
+package com.flightmanagement.integration;
+
+import com.flightmanagement.dto.BookingDto;
+import com.flightmanagement.dto.PassengerDto;
+import com.flightmanagement.dto.TicketDto;
+import com.flightmanagement.entity.Airport;
+import com.flightmanagement.entity.Flight;
+import com.flightmanagement.entity.FlightTicketClass;
+import com.flightmanagement.entity.Plane;
+import com.flightmanagement.entity.TicketClass;
+import com.flightmanagement.repository.*;
+import com.flightmanagement.service.EmailService;
+import com.flightmanagement.service.PassengerService;
+import com.flightmanagement.service.SeatInventoryService;
+import com.flightmanagement.service.SeatMapService;
+import com.flightmanagement.service.TicketService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares JDBC statements and latency of the old per-passenger booking loop against the batched
+ * booking pipeline for 1, 5 and 9 passengers. Statements are counted on a DataSource proxy.
+ * Tagged "benchmark" so it can be run on its own with -Dgroups=benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BookingPersistenceBenchmarkIntegrationTest {
+
+    private static final int CAPACITY = 500;
+    private static final int ROUNDS = 20;
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? countingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private TicketService ticketService;
+    @Autowired
+    private PassengerService passengerService;
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+    @Autowired
+    private SeatMapService seatMapService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private FlightTicketClassRepository flightTicketClassRepository;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private AirportRepository airportRepository;
+    @Autowired
+    private PlaneRepository planeRepository;
+    @Autowired
+    private TicketClassRepository ticketClassRepository;
+
+    private Airport departureAirport;
+    private Airport arrivalAirport;
+    private Plane plane;
+    private TicketClass ticketClass;
+    private Flight flight;
+    private String citizenPrefix;
+    private int citizenSequence;
+    private int seatSequence;
+
+    @BeforeAll
+    void setupFlight() {
+        departureAirport = new Airport();
+        departureAirport.setAirportName("Benchmark Departure Airport");
+        departureAirport.setCityName("Ho Chi Minh City");
+        departureAirport.setCountryName("Vietnam");
+        departureAirport = airportRepository.save(departureAirport);
+
+        arrivalAirport = new Airport();
+        arrivalAirport.setAirportName("Benchmark Arrival Airport");
+        arrivalAirport.setCityName("Hanoi");
+        arrivalAirport.setCountryName("Vietnam");
+        arrivalAirport = airportRepository.save(arrivalAirport);
+
+        plane = new Plane();
+        plane.setPlaneCode("VN-BM" + System.currentTimeMillis() % 100000);
+        plane.setPlaneType("Boeing 787");
+        plane.setSeatQuantity(CAPACITY);
+        plane = planeRepository.save(plane);
+
+        ticketClass = new TicketClass();
+        ticketClass.setTicketClassName("Economy");
+        ticketClass.setColor("Blue");
+        ticketClass = ticketClassRepository.save(ticketClass);
+
+        flight = new Flight();
+        flight.setFlightCode("BM" + System.currentTimeMillis() % 100000);
+        flight.setPlane(plane);
+        flight.setDepartureAirport(departureAirport);
+        flight.setArrivalAirport(arrivalAirport);
+        flight.setDepartureTime(LocalDateTime.now().plusDays(30));
+        flight.setArrivalTime(LocalDateTime.now().plusDays(30).plusHours(2));
+        flight = flightRepository.save(flight);
+
+        FlightTicketClass flightTicketClass = new FlightTicketClass();
+        flightTicketClass.setFlightId(flight.getFlightId());
+        flightTicketClass.setTicketClassId(ticketClass.getTicketClassId());
+        flightTicketClass.setTicketQuantity(CAPACITY);
+        flightTicketClass.setRemainingTicketQuantity(CAPACITY);
+        flightTicketClass.setSpecifiedFare(new BigDecimal("150.00"));
+        flightTicketClassRepository.save(flightTicketClass);
+
+        citizenPrefix = "BM" + System.currentTimeMillis() % 1000000;
+    }
+
+    @AfterEach
+    void cleanupTickets() {
+        seatInventoryService.flush();
+        jdbcTemplate.update("DELETE FROM ticket WHERE flight_id = ?", flight.getFlightId());
+        jdbcTemplate.update("DELETE FROM passenger WHERE citizen_id LIKE ?", citizenPrefix + "%");
+        jdbcTemplate.update("UPDATE flight_ticket_class SET remaining_ticket_quantity = ticket_quantity WHERE flight_id = ?",
+                flight.getFlightId());
+        seatInventoryService.refresh(flight.getFlightId(), ticketClass.getTicketClassId());
+        seatMapService.evict(flight.getFlightId(), ticketClass.getTicketClassId());
+    }
+
+    @AfterAll
+    void cleanupFlight() {
+        flightTicketClassRepository.findByFlightIdAndTicketClassId(flight.getFlightId(), ticketClass.getTicketClassId())
+                .ifPresent(flightTicketClassRepository::delete);
+        flightRepository.delete(flight);
+        ticketClassRepository.delete(ticketClass);
+        planeRepository.delete(plane);
+        airportRepository.delete(departureAirport);
+        airportRepository.delete(arrivalAirport);
+    }
+
+    @Test
+    @DisplayName("BM-BOOK-01: Batched booking issues fewer statements than the per-passenger loop")
+    void batchedBooking_fewerStatementsThanLoop() {
+        for (int passengers : new int[]{1, 5, 9}) {
+            Measurement loop = measure(ROUNDS, () -> bookWithLoop(passengers));
+            Measurement batched = measure(ROUNDS, () -> ticketService.bookTickets(booking(passengers)));
+
+            System.out.printf("Booking %d passenger(s): loop %d statements / %.2f ms, batched %d statements / %.2f ms%n",
+                    passengers, loop.statements(), loop.millis(), batched.statements(), batched.millis());
+
+            assertThat(batched.statements()).isLessThanOrEqualTo(loop.statements());
+            if (passengers > 1) {
+                assertThat(batched.statements()).isLessThan(loop.statements());
+            }
+        }
+    }
+
+    /**
+     * The booking path before batching: one passenger lookup and one ticket insert per passenger.
+     */
+    private void bookWithLoop(int passengers) {
+        String confirmationCode = "BM-" + System.nanoTime();
+        for (PassengerDto passengerDto : booking(passengers).getPassengers()) {
+            PassengerDto passenger = passengerService.getPassengerByCitizenId(passengerDto.getCitizenId());
+            if (passenger == null) {
+                passenger = passengerService.createPassenger(passengerDto);
+            }
+
+            TicketDto ticketDto = new TicketDto();
+            ticketDto.setFlightId(flight.getFlightId());
+            ticketDto.setTicketClassId(ticketClass.getTicketClassId());
+            ticketDto.setPassengerId(passenger.getPassengerId());
+            // Outside the numbered range so the loop does not use up the batched path's seats
+            ticketDto.setSeatNumber("L-" + (seatSequence++));
+            ticketDto.setFare(new BigDecimal("150.00"));
+            ticketDto.setConfirmationCode(confirmationCode);
+            ticketService.createTicket(ticketDto);
+        }
+    }
+
+    private BookingDto booking(int passengers) {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setFlightId(flight.getFlightId());
+        bookingDto.setTicketClassId(ticketClass.getTicketClassId());
+        List<PassengerDto> passengerDtos = new ArrayList<>();
+        for (int i = 0; i < passengers; i++) {
+            PassengerDto passengerDto = new PassengerDto();
+            passengerDto.setPassengerName("Benchmark Passenger " + i);
+            passengerDto.setEmail("benchmark" + i + "@example.com");
+            passengerDto.setCitizenId(citizenPrefix + (citizenSequence++));
+            passengerDto.setPhoneNumber("0900000000");
+            passengerDtos.add(passengerDto);
+        }
+        bookingDto.setPassengers(passengerDtos);
+        return bookingDto;
+    }
+
+    private Measurement measure(int rounds, Runnable booking) {
+        // Warm up caches and connections before counting
+        booking.run();
+        STATEMENTS.set(0);
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            booking.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Measurement(STATEMENTS.get() / rounds, elapsed / 1_000_000.0 / rounds);
+    }
+
+    private record Measurement(int statements, double millis) {
+    }
+
+    private static DataSource countingDataSource(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection connection ? countingConnection(connection) : result;
+                });
+    }
+
+    private static Connection countingConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("prepareStatement") || name.equals("createStatement") || name.equals("prepareCall")) {
+                        STATEMENTS.incrementAndGet();
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
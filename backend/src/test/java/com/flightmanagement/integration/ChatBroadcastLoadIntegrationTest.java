@@ -0,0 +1,149 @@
+package com.flightmanagement.integration;
+
+import org.junit.jupiter.api.*;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Opens 10,000 local WebSocket clients on /ws/chat (the raw WebSocket endpoint SockJS exposes),
+ * joined to chatboxes of ROOM_SIZE members, and measures how long a typing indicator takes to
+ * reach every other member of its chatbox. The debounce window is off and each round flips the
+ * sender between typing_start and typing_stop, so every round is a state change that is
+ * broadcast. With the room index the latency depends on the room size, not on the number of open
+ * connections. Needs a file descriptor limit of about twice the client count; -Dchat.load.clients
+ * lowers it. Tagged "benchmark" so it can be run on its own with -Dgroups=benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.tomcat.max-connections=20000", "server.tomcat.accept-count=1000",
+                "app.chat.typing.debounce-ms=0"})
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ChatBroadcastLoadIntegrationTest {
+
+    private static final int CLIENTS = Integer.getInteger("chat.load.clients", 10_000);
+    private static final int ROOM_SIZE = 10;
+    private static final int CONNECT_BATCH = 500;
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 2_000;
+
+    @LocalServerPort
+    private int port;
+
+    private final StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+    private final List<WebSocketSession> clients = new ArrayList<>();
+    private AtomicReferenceArray<CountDownLatch> roomLatches;
+    private boolean[] senderTyping;
+
+    @BeforeAll
+    void connectClients() throws Exception {
+        int rooms = CLIENTS / ROOM_SIZE;
+        roomLatches = new AtomicReferenceArray<>(rooms);
+        senderTyping = new boolean[rooms];
+        URI uri = URI.create("ws://localhost:" + port + "/ws/chat/websocket");
+
+        for (int start = 0; start < rooms * ROOM_SIZE; start += CONNECT_BATCH) {
+            List<CompletableFuture<WebSocketSession>> batch = new ArrayList<>();
+            for (int i = start; i < Math.min(start + CONNECT_BATCH, rooms * ROOM_SIZE); i++) {
+                batch.add(webSocketClient.execute(new RoomClient(i / ROOM_SIZE), null, uri));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                WebSocketSession session = batch.get(i).get(30, TimeUnit.SECONDS);
+                int client = start + i;
+                session.sendMessage(new TextMessage("{\"type\":\"join_chat\",\"chatboxId\":\"load-" + client / ROOM_SIZE
+                        + "\",\"userId\":\"" + client + "\",\"userType\":\"customer\"}"));
+                clients.add(session);
+            }
+        }
+        System.out.printf("Connected %d WebSocket clients in %d chatboxes%n", clients.size(), rooms);
+
+        // Joins are not acknowledged; wait until a broadcast reaches every room
+        for (int room = 0; room < rooms; room++) {
+            assertThat(broadcast(room, 10_000)).as("room %d joined", room).isGreaterThanOrEqualTo(0);
+        }
+    }
+
+    @AfterAll
+    void closeClients() {
+        for (WebSocketSession client : clients) {
+            try {
+                client.close();
+            } catch (Exception e) {
+                System.err.println("Error closing load test client: " + e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("BM-CHAT-01: Typing indicator among 10,000 connections - Reaches the chatbox members at a low p99")
+    void typingBroadcast_latencyIndependentOfConnections() throws Exception {
+        int rooms = roomLatches.length();
+        for (int i = 0; i < WARMUP; i++) {
+            broadcast(i % rooms, 5_000);
+        }
+        long[] nanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            nanos[i] = broadcast((i * 7919) % rooms, 5_000);
+            assertThat(nanos[i]).as("broadcast %d delivered", i).isGreaterThanOrEqualTo(0);
+        }
+        Arrays.sort(nanos);
+        double p50 = nanos[ROUNDS / 2] / 1_000_000.0;
+        double p99 = nanos[ROUNDS * 99 / 100] / 1_000_000.0;
+
+        System.out.printf("Typing broadcast to %d members among %d connections: p50 %.3f ms / p99 %.3f ms%n",
+                ROOM_SIZE - 1, clients.size(), p50, p99);
+        assertThat(p99).isLessThan(50.0);
+    }
+
+    /**
+     * Flips the first member of a room between typing_start and typing_stop and returns the
+     * nanoseconds until all other members got it, or -1 if they did not within the timeout.
+     */
+    private long broadcast(int room, long timeoutMs) throws Exception {
+        CountDownLatch delivered = new CountDownLatch(ROOM_SIZE - 1);
+        roomLatches.set(room, delivered);
+        WebSocketSession sender = clients.get(room * ROOM_SIZE);
+        long start = System.nanoTime();
+        senderTyping[room] = !senderTyping[room];
+        String type = senderTyping[room] ? "typing_start" : "typing_stop";
+        sender.sendMessage(new TextMessage("{\"type\":\"" + type + "\",\"chatboxId\":\"load-" + room
+                + "\",\"userId\":\"" + room * ROOM_SIZE + "\",\"userType\":\"customer\",\"userName\":\"Load\"}"));
+        boolean received = delivered.await(timeoutMs, TimeUnit.MILLISECONDS);
+        return received ? System.nanoTime() - start : -1;
+    }
+
+    private class RoomClient extends TextWebSocketHandler {
+
+        private final int room;
+
+        RoomClient(int room) {
+            this.room = room;
+        }
+
+        @Override
+        protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+            CountDownLatch latch = roomLatches.get(room);
+            String payload = message.getPayload();
+            if (latch != null && (payload.startsWith("{\"type\":\"typing_start\"")
+                    || payload.startsWith("{\"type\":\"typing_stop\""))) {
+                latch.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.flightmanagement.integration;
+
+import com.flightmanagement.dto.FareCalendarDto;
+import com.flightmanagement.entity.Airport;
+import com.flightmanagement.entity.Flight;
+import com.flightmanagement.entity.FlightTicketClass;
+import com.flightmanagement.entity.Plane;
+import com.flightmanagement.entity.TicketClass;
+import com.flightmanagement.repository.*;
+import com.flightmanagement.service.FareCalendarService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the fare calendar against the real route fare query, so the row types the native query
+ * returns are the ones the service reads.
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FareCalendarIntegrationTest {
+
+    @Autowired
+    private FareCalendarService fareCalendarService;
+    @Autowired
+    private FlightTicketClassRepository flightTicketClassRepository;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private AirportRepository airportRepository;
+    @Autowired
+    private PlaneRepository planeRepository;
+    @Autowired
+    private TicketClassRepository ticketClassRepository;
+
+    private final LocalDate day = LocalDate.now().plusDays(30);
+
+    private Airport departureAirport;
+    private Airport arrivalAirport;
+    private Plane plane;
+    private TicketClass ticketClass;
+    private final List<Flight> flights = new ArrayList<>();
+
+    @BeforeEach
+    void setupRoute() {
+        departureAirport = new Airport();
+        departureAirport.setAirportName("Fare Calendar Departure Airport");
+        departureAirport.setCityName("Ho Chi Minh City");
+        departureAirport.setCountryName("Vietnam");
+        departureAirport = airportRepository.save(departureAirport);
+
+        arrivalAirport = new Airport();
+        arrivalAirport.setAirportName("Fare Calendar Arrival Airport");
+        arrivalAirport.setCityName("Hanoi");
+        arrivalAirport.setCountryName("Vietnam");
+        arrivalAirport = airportRepository.save(arrivalAirport);
+
+        plane = new Plane();
+        plane.setPlaneCode("VN-FC" + System.currentTimeMillis() % 100000);
+        plane.setPlaneType("Airbus A321");
+        plane.setSeatQuantity(100);
+        plane = planeRepository.save(plane);
+
+        ticketClass = new TicketClass();
+        ticketClass.setTicketClassName("Economy");
+        ticketClass.setColor("Blue");
+        ticketClass = ticketClassRepository.save(ticketClass);
+
+        addFlight(day.atTime(8, 0), "150.00");
+        addFlight(day.atTime(14, 0), "95.00");
+    }
+
+    @AfterEach
+    void cleanupRoute() {
+        for (Flight flight : flights) {
+            flightTicketClassRepository.findByFlightIdAndTicketClassId(flight.getFlightId(), ticketClass.getTicketClassId())
+                    .ifPresent(flightTicketClassRepository::delete);
+            flightRepository.delete(flight);
+        }
+        flights.clear();
+        ticketClassRepository.delete(ticketClass);
+        planeRepository.delete(plane);
+        airportRepository.delete(departureAirport);
+        airportRepository.delete(arrivalAirport);
+    }
+
+    @Test
+    @DisplayName("IT-FARE-01: Fare calendar reads the route fare query - Lowest fare of the day and its flight")
+    void getFareCalendar_ReadsRouteFareQuery() {
+        List<FareCalendarDto> calendar = fareCalendarService.getFareCalendar(
+                departureAirport.getAirportId(), arrivalAirport.getAirportId(), day.minusDays(1), day.plusDays(1), 1);
+
+        assertThat(calendar).hasSize(1);
+        FareCalendarDto entry = calendar.get(0);
+        assertThat(entry.getDepartureDate()).isEqualTo(day);
+        assertThat(entry.getTicketClassId()).isEqualTo(ticketClass.getTicketClassId());
+        assertThat(entry.getLowestFare()).isEqualByComparingTo("95.00");
+        assertThat(entry.getFlightId()).isEqualTo(flights.get(1).getFlightId());
+    }
+
+    private void addFlight(LocalDateTime departureTime, String fare) {
+        Flight flight = new Flight();
+        flight.setFlightCode("FC" + System.nanoTime() % 100000);
+        flight.setPlane(plane);
+        flight.setDepartureAirport(departureAirport);
+        flight.setArrivalAirport(arrivalAirport);
+        flight.setDepartureTime(departureTime);
+        flight.setArrivalTime(departureTime.plusHours(2));
+        flight = flightRepository.save(flight);
+        flights.add(flight);
+
+        FlightTicketClass flightTicketClass = new FlightTicketClass();
+        flightTicketClass.setFlightId(flight.getFlightId());
+        flightTicketClass.setTicketClassId(ticketClass.getTicketClassId());
+        flightTicketClass.setTicketQuantity(50);
+        flightTicketClass.setRemainingTicketQuantity(50);
+        flightTicketClass.setSpecifiedFare(new BigDecimal(fare));
+        flightTicketClassRepository.save(flightTicketClass);
+    }
+}
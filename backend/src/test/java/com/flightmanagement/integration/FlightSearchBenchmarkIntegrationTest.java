@@ -0,0 +1,143 @@
+package com.flightmanagement.integration;
+
+import com.flightmanagement.dto.FlightDto;
+import com.flightmanagement.dto.FlightSearchCriteria;
+import com.flightmanagement.entity.Airport;
+import com.flightmanagement.entity.Flight;
+import com.flightmanagement.entity.Plane;
+import com.flightmanagement.mapper.FlightMapper;
+import com.flightmanagement.repository.AirportRepository;
+import com.flightmanagement.repository.FlightRepository;
+import com.flightmanagement.repository.PlaneRepository;
+import com.flightmanagement.service.FlightSearchIndex;
+import com.flightmanagement.service.FlightService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares p50 and p99 latency of a route and day search answered by FlightSearchIndex against
+ * the repository query and mapping it replaced. Tagged "benchmark" so it can be run on its own
+ * with -Dgroups=benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FlightSearchBenchmarkIntegrationTest {
+
+    private static final int FLIGHTS_PER_DAY = 40;
+    private static final int WARMUP = 500;
+    private static final int ROUNDS = 5_000;
+
+    @Autowired
+    private FlightService flightService;
+    @Autowired
+    private FlightSearchIndex flightSearchIndex;
+    @Autowired
+    private FlightMapper flightMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private AirportRepository airportRepository;
+    @Autowired
+    private PlaneRepository planeRepository;
+
+    private Airport departureAirport;
+    private Airport arrivalAirport;
+    private Plane plane;
+    private final List<Flight> flights = new ArrayList<>();
+    private LocalDateTime departureDate;
+
+    @BeforeAll
+    void setupFlights() {
+        departureAirport = new Airport();
+        departureAirport.setAirportName("Search Benchmark Departure Airport");
+        departureAirport.setCityName("Ho Chi Minh City");
+        departureAirport.setCountryName("Vietnam");
+        departureAirport = airportRepository.save(departureAirport);
+
+        arrivalAirport = new Airport();
+        arrivalAirport.setAirportName("Search Benchmark Arrival Airport");
+        arrivalAirport.setCityName("Hanoi");
+        arrivalAirport.setCountryName("Vietnam");
+        arrivalAirport = airportRepository.save(arrivalAirport);
+
+        plane = new Plane();
+        plane.setPlaneCode("VN-SB" + System.currentTimeMillis() % 100000);
+        plane.setPlaneType("Airbus A321");
+        plane.setSeatQuantity(200);
+        plane = planeRepository.save(plane);
+
+        departureDate = LocalDateTime.now().plusDays(45).toLocalDate().atStartOfDay();
+        for (int i = 0; i < FLIGHTS_PER_DAY; i++) {
+            Flight flight = new Flight();
+            flight.setFlightCode("SB" + System.currentTimeMillis() % 100000 + "-" + i);
+            flight.setPlane(plane);
+            flight.setDepartureAirport(departureAirport);
+            flight.setArrivalAirport(arrivalAirport);
+            flight.setDepartureTime(departureDate.plusMinutes(30L * i));
+            flight.setArrivalTime(departureDate.plusMinutes(30L * i + 120));
+            flights.add(flightRepository.save(flight));
+        }
+        flightSearchIndex.load();
+    }
+
+    @AfterAll
+    void cleanupFlights() {
+        flightRepository.deleteAll(flights);
+        flightSearchIndex.load();
+        planeRepository.delete(plane);
+        airportRepository.delete(departureAirport);
+        airportRepository.delete(arrivalAirport);
+    }
+
+    @Test
+    @DisplayName("BM-SEARCH-01: Indexed search answers faster than the database query at p50 and p99")
+    void indexedSearch_fasterThanDatabase() {
+        FlightSearchCriteria criteria = new FlightSearchCriteria(departureAirport.getAirportId(),
+                arrivalAirport.getAirportId(), departureDate, 1, 0);
+
+        Latency database = measure(() -> transactionTemplate.execute(status -> flightMapper.toDtoList(
+                flightRepository.findFlightsByRoute(departureAirport.getAirportId(), arrivalAirport.getAirportId(),
+                        departureDate))));
+        Latency indexed = measure(() -> flightService.searchFlights(criteria));
+
+        System.out.printf("Route/day search of %d flights: database p50 %.3f ms / p99 %.3f ms, index p50 %.3f ms / p99 %.3f ms%n",
+                FLIGHTS_PER_DAY, database.p50(), database.p99(), indexed.p50(), indexed.p99());
+
+        assertThat(flightService.searchFlights(criteria)).hasSize(FLIGHTS_PER_DAY);
+        assertThat(indexed.p99()).isLessThan(1.0);
+        assertThat(indexed.p50()).isLessThan(database.p50());
+        assertThat(indexed.p99()).isLessThan(database.p99());
+    }
+
+    private Latency measure(Supplier<List<FlightDto>> search) {
+        for (int i = 0; i < WARMUP; i++) {
+            search.get();
+        }
+        long[] nanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            search.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new Latency(nanos[ROUNDS / 2] / 1_000_000.0, nanos[ROUNDS * 99 / 100] / 1_000_000.0);
+    }
+
+    private record Latency(double p50, double p99) {
+    }
+}
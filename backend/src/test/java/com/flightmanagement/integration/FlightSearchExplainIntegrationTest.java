@@ -0,0 +1,202 @@
+package com.flightmanagement.integration;
+
+import org.junit.jupiter.api.*;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the EXPLAIN plans of the flight search queries against the schema in database/ddl.sql,
+ * on a MySQL container seeded with 1M flights over 20 airports and one year. The queries mirror
+ * the SQL Hibernate generates for FlightRepository. Tagged "benchmark" like the other
+ * data-heavy tests; needs Docker.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FlightSearchExplainIntegrationTest {
+
+    private static final int FLIGHTS = 1_000_000;
+    private static final int AIRPORTS = 20;
+
+    private static final String ROUTE_DAY_SEARCH = """
+            SELECT f.* FROM flight f
+            WHERE f.departure_airport_id = 3 AND f.arrival_airport_id = 7
+              AND f.departure_time >= '2025-06-15 00:00:00' AND f.departure_time < '2025-06-16 00:00:00'
+              AND f.deleted_at IS NULL
+            ORDER BY f.departure_time
+            """;
+
+    // The predicate the route search used before, kept to show what the range buys
+    private static final String ROUTE_DAY_SEARCH_WITH_DATE_FUNCTION = """
+            SELECT f.* FROM flight f
+            WHERE f.departure_airport_id = 3 AND f.arrival_airport_id = 7
+              AND DATE(f.departure_time) = DATE('2025-06-15 00:00:00')
+              AND f.deleted_at IS NULL
+            ORDER BY f.departure_time
+            """;
+
+    private static final String ROUTE_DAY_SEARCH_WITH_TICKET_CLASS = """
+            SELECT DISTINCT f.* FROM flight f
+            JOIN flight_ticket_class ftc ON f.flight_id = ftc.flight_id
+            WHERE f.departure_airport_id = 3 AND f.arrival_airport_id = 7
+              AND f.departure_time >= '2025-06-15 00:00:00' AND f.departure_time < '2025-06-16 00:00:00'
+              AND ftc.ticket_class_id = 1 AND ftc.remaining_ticket_quantity >= 2
+              AND f.deleted_at IS NULL AND ftc.deleted_at IS NULL
+            ORDER BY f.departure_time
+            """;
+
+    private static final String DAY_SEARCH = """
+            SELECT f.* FROM flight f
+            WHERE f.departure_time >= '2025-06-15 00:00:00' AND f.departure_time < '2025-06-16 00:00:00'
+              AND f.deleted_at IS NULL
+            """;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root")
+            .withPassword("test");
+
+    private Connection connection;
+
+    @BeforeAll
+    void createSchemaAndSeed() throws Exception {
+        connection = DriverManager.getConnection(MYSQL.getJdbcUrl(), "root", "test");
+        try (Statement statement = connection.createStatement()) {
+            for (String ddl : ddlStatements()) {
+                statement.execute(ddl);
+            }
+            statement.execute("SET SESSION cte_max_recursion_depth = " + FLIGHTS);
+
+            statement.execute("""
+                    INSERT INTO airport (airport_name, city_name, country_name)
+                    WITH RECURSIVE seq AS (SELECT 1 AS n UNION ALL SELECT n + 1 FROM seq WHERE n < %d)
+                    SELECT CONCAT('Airport ', n), CONCAT('City ', n), 'Vietnam' FROM seq
+                    """.formatted(AIRPORTS));
+            statement.execute("INSERT INTO plane (plane_code, plane_type, seat_quantity) VALUES ('VN-EX1', 'Airbus A321', 200)");
+            statement.execute("INSERT INTO ticket_class (ticket_class_name, color) VALUES ('Economy', 'Blue'), ('Business', 'Gold')");
+
+            // Every ordered airport pair, one flight per minute spread over 2025
+            statement.execute("""
+                    INSERT INTO flight (plane_id, departure_airport_id, arrival_airport_id, flight_code,
+                                        departure_time, arrival_time, deleted_at)
+                    WITH RECURSIVE seq AS (SELECT 0 AS n UNION ALL SELECT n + 1 FROM seq WHERE n < %d)
+                    SELECT 1,
+                           n MOD %d + 1,
+                           (n MOD %d + 1 + (n DIV %d) MOD %d) MOD %d + 1,
+                           CONCAT('EX', n),
+                           TIMESTAMP('2025-01-01') + INTERVAL (n MOD 525600) MINUTE,
+                           TIMESTAMP('2025-01-01') + INTERVAL (n MOD 525600 + 90) MINUTE,
+                           IF(n MOD 50 = 0, TIMESTAMP('2025-01-01'), NULL)
+                    FROM seq
+                    """.formatted(FLIGHTS - 1, AIRPORTS, AIRPORTS, AIRPORTS, AIRPORTS - 1, AIRPORTS));
+            statement.execute("""
+                    INSERT INTO flight_ticket_class (flight_id, ticket_class_id, ticket_quantity,
+                                                     remaining_ticket_quantity, specified_fare, deleted_at)
+                    SELECT flight_id, 1, 150, flight_id MOD 150, 120.00, NULL FROM flight
+                    """);
+            statement.execute("ANALYZE TABLE flight, flight_ticket_class");
+        }
+    }
+
+    @AfterAll
+    void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    @DisplayName("EXPLAIN-01: Route and day search seeks a range on the route index")
+    void routeDaySearch_rangeOnRouteIndex() throws SQLException {
+        ExplainRow flight = explain(ROUTE_DAY_SEARCH).get(0);
+
+        assertThat(flight.type()).isEqualTo("range");
+        assertThat(flight.key()).isEqualTo("idx_flight_route_departure");
+        assertThat(flight.rows()).isLessThan(100);
+        assertThat(flight.extra()).doesNotContain("Using filesort");
+    }
+
+    @Test
+    @DisplayName("EXPLAIN-02: DATE() on the column reads the whole route instead of one day")
+    void dateFunction_readsWholeRoute() throws SQLException {
+        ExplainRow withRange = explain(ROUTE_DAY_SEARCH).get(0);
+        ExplainRow withDateFunction = explain(ROUTE_DAY_SEARCH_WITH_DATE_FUNCTION).get(0);
+
+        System.out.printf("Route/day search rows examined: range %d, DATE() %d%n", withRange.rows(), withDateFunction.rows());
+        assertThat(withDateFunction.rows()).isGreaterThan(withRange.rows() * 10);
+    }
+
+    @Test
+    @DisplayName("EXPLAIN-03: Ticket class join looks up flight_ticket_class by primary key per flight")
+    void ticketClassSearch_primaryKeyLookup() throws SQLException {
+        List<ExplainRow> plan = explain(ROUTE_DAY_SEARCH_WITH_TICKET_CLASS);
+
+        ExplainRow flight = plan.stream().filter(row -> row.table().equals("f")).findFirst().orElseThrow();
+        ExplainRow flightTicketClass = plan.stream().filter(row -> row.table().equals("ftc")).findFirst().orElseThrow();
+
+        assertThat(flight.key()).isEqualTo("idx_flight_route_departure");
+        assertThat(flightTicketClass.type()).isEqualTo("eq_ref");
+        assertThat(flightTicketClass.key()).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    @DisplayName("EXPLAIN-04: Day search without a route seeks a range on departure_time")
+    void daySearch_rangeOnDepartureTime() throws SQLException {
+        ExplainRow flight = explain(DAY_SEARCH).get(0);
+
+        assertThat(flight.type()).isEqualTo("range");
+        assertThat(flight.key()).isEqualTo("idx_flight_departure_time");
+        assertThat(flight.rows()).isLessThan(FLIGHTS / 100);
+    }
+
+    private List<ExplainRow> explain(String query) throws SQLException {
+        List<ExplainRow> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + query)) {
+            while (resultSet.next()) {
+                rows.add(new ExplainRow(
+                        resultSet.getString("table"),
+                        resultSet.getString("type"),
+                        resultSet.getString("key"),
+                        resultSet.getLong("rows"),
+                        String.valueOf(resultSet.getString("Extra"))));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The statements of database/ddl.sql, which creates and selects fms_db.
+     */
+    private static List<String> ddlStatements() throws Exception {
+        Path ddl = Path.of("..", "database", "ddl.sql");
+        StringBuilder script = new StringBuilder();
+        for (String line : Files.readAllLines(ddl)) {
+            int comment = line.indexOf("--");
+            script.append(comment >= 0 ? line.substring(0, comment) : line).append('\n');
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : script.toString().split(";")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+
+    private record ExplainRow(String table, String type, String key, long rows, String extra) {
+    }
+}
@@ -0,0 +1,186 @@
+package com.flightmanagement.integration;
+
+import com.flightmanagement.entity.Airport;
+import com.flightmanagement.entity.Flight;
+import com.flightmanagement.entity.FlightTicketClass;
+import com.flightmanagement.entity.Plane;
+import com.flightmanagement.entity.TicketClass;
+import com.flightmanagement.repository.*;
+import com.flightmanagement.service.FlightTicketClassService;
+import com.flightmanagement.service.SeatInventoryService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires hundreds of parallel seat claims at a single flight_ticket_class row.
+ * Not @Transactional: claims must run on separate threads and the write-back must commit
+ * for the row to be checked.
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FlightTicketClassInventoryConcurrencyIntegrationTest {
+
+    private static final int CAPACITY = 50;
+    private static final int PARALLEL_BOOKINGS = 300;
+
+    @Autowired
+    private FlightTicketClassService flightTicketClassService;
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+    @Autowired
+    private FlightTicketClassRepository flightTicketClassRepository;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private AirportRepository airportRepository;
+    @Autowired
+    private PlaneRepository planeRepository;
+    @Autowired
+    private TicketClassRepository ticketClassRepository;
+
+    private Airport departureAirport;
+    private Airport arrivalAirport;
+    private Plane plane;
+    private TicketClass ticketClass;
+    private Flight flight;
+
+    @BeforeEach
+    void setupInventory() {
+        departureAirport = new Airport();
+        departureAirport.setAirportName("Concurrency Departure Airport");
+        departureAirport.setCityName("Ho Chi Minh City");
+        departureAirport.setCountryName("Vietnam");
+        departureAirport = airportRepository.save(departureAirport);
+
+        arrivalAirport = new Airport();
+        arrivalAirport.setAirportName("Concurrency Arrival Airport");
+        arrivalAirport.setCityName("Hanoi");
+        arrivalAirport.setCountryName("Vietnam");
+        arrivalAirport = airportRepository.save(arrivalAirport);
+
+        plane = new Plane();
+        plane.setPlaneCode("VN-CC" + System.currentTimeMillis() % 100000);
+        plane.setPlaneType("Airbus A321");
+        plane.setSeatQuantity(CAPACITY);
+        plane = planeRepository.save(plane);
+
+        ticketClass = new TicketClass();
+        ticketClass.setTicketClassName("Economy");
+        ticketClass.setColor("Blue");
+        ticketClass = ticketClassRepository.save(ticketClass);
+
+        flight = new Flight();
+        flight.setFlightCode("CC" + System.currentTimeMillis() % 100000);
+        flight.setPlane(plane);
+        flight.setDepartureAirport(departureAirport);
+        flight.setArrivalAirport(arrivalAirport);
+        flight.setDepartureTime(LocalDateTime.now().plusDays(30));
+        flight.setArrivalTime(LocalDateTime.now().plusDays(30).plusHours(2));
+        flight = flightRepository.save(flight);
+
+        FlightTicketClass flightTicketClass = new FlightTicketClass();
+        flightTicketClass.setFlightId(flight.getFlightId());
+        flightTicketClass.setTicketClassId(ticketClass.getTicketClassId());
+        flightTicketClass.setTicketQuantity(CAPACITY);
+        flightTicketClass.setRemainingTicketQuantity(CAPACITY);
+        flightTicketClass.setSpecifiedFare(new BigDecimal("150.00"));
+        flightTicketClassRepository.save(flightTicketClass);
+    }
+
+    @AfterEach
+    void cleanupInventory() {
+        seatInventoryService.flush();
+        flightTicketClassRepository.findByFlightIdAndTicketClassId(flight.getFlightId(), ticketClass.getTicketClassId())
+                .ifPresent(flightTicketClassRepository::delete);
+        flightRepository.delete(flight);
+        ticketClassRepository.delete(ticketClass);
+        planeRepository.delete(plane);
+        airportRepository.delete(departureAirport);
+        airportRepository.delete(arrivalAirport);
+    }
+
+    @Test
+    @DisplayName("IT-INV-01: Parallel claims never oversell a flight ticket class")
+    void parallelClaims_neverOversell() throws Exception {
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runInParallel(PARALLEL_BOOKINGS, () -> {
+            try {
+                flightTicketClassService.reserveTickets(flight.getFlightId(), ticketClass.getTicketClassId(), 1);
+                claimed.incrementAndGet();
+            } catch (RuntimeException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(claimed.get()).isEqualTo(CAPACITY);
+        assertThat(rejected.get()).isEqualTo(PARALLEL_BOOKINGS - CAPACITY);
+        assertThat(remainingTickets()).isZero();
+    }
+
+    @Test
+    @DisplayName("IT-INV-02: Parallel multi-seat claims and releases keep inventory within bounds")
+    void parallelClaimsAndReleases_keepInventoryConsistent() throws Exception {
+        AtomicInteger seatsHeld = new AtomicInteger();
+
+        runInParallel(PARALLEL_BOOKINGS, () -> {
+            int seats = ThreadLocalRandom.current().nextInt(1, 4);
+            try {
+                flightTicketClassService.reserveTickets(flight.getFlightId(), ticketClass.getTicketClassId(), seats);
+            } catch (RuntimeException e) {
+                return;
+            }
+            if (ThreadLocalRandom.current().nextBoolean()) {
+                flightTicketClassService.releaseTickets(flight.getFlightId(), ticketClass.getTicketClassId(), seats);
+            } else {
+                seatsHeld.addAndGet(seats);
+            }
+        });
+
+        assertThat(seatsHeld.get()).isLessThanOrEqualTo(CAPACITY);
+        assertThat(remainingTickets()).isEqualTo(CAPACITY - seatsHeld.get());
+    }
+
+    private int remainingTickets() {
+        // Write pending reservations back so the row reflects the in-memory inventory
+        seatInventoryService.flush();
+        return flightTicketClassRepository
+                .findByFlightIdAndTicketClassId(flight.getFlightId(), ticketClass.getTicketClassId())
+                .orElseThrow()
+                .getRemainingTicketQuantity();
+    }
+
+    private void runInParallel(int tasks, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < tasks; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.flightmanagement.integration;
+
+import com.flightmanagement.dto.AirportDto;
+import com.flightmanagement.dto.ParameterDto;
+import com.flightmanagement.repository.AirportRepository;
+import com.flightmanagement.repository.ParameterRepository;
+import com.flightmanagement.service.AirportService;
+import com.flightmanagement.service.ParameterService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that reference data lookups are answered from the Caffeine caches and that writes evict
+ * them, and that system parameters are read from the in-memory snapshot.
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReferenceDataCacheIntegrationTest {
+
+    @Autowired
+    private AirportService airportService;
+    @Autowired
+    private ParameterService parameterService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoSpyBean
+    private AirportRepository airportRepository;
+    @MockitoSpyBean
+    private ParameterRepository parameterRepository;
+
+    private AirportDto airport;
+
+    @BeforeAll
+    void createAirport() {
+        AirportDto airportDto = new AirportDto();
+        airportDto.setAirportName("Cache Test Airport");
+        airportDto.setCityName("Da Nang");
+        airportDto.setCountryName("Vietnam");
+        airport = airportService.createAirport(airportDto);
+    }
+
+    @AfterAll
+    void deleteAirport() {
+        airportService.deleteAirport(airport.getAirportId());
+    }
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        clearInvocations(airportRepository);
+        clearInvocations(parameterRepository);
+    }
+
+    @Test
+    @DisplayName("CACHE-01: Airport looked up twice - Second lookup does not query")
+    void airportById_cachedAfterFirstLookup() {
+        airportService.getAirportById(airport.getAirportId());
+        AirportDto cached = airportService.getAirportById(airport.getAirportId());
+
+        assertThat(cached.getAirportName()).isEqualTo("Cache Test Airport");
+        assertThat(airportCache().get(airport.getAirportId(), AirportDto.class))
+                .extracting(AirportDto::getAirportName).isEqualTo("Cache Test Airport");
+        verify(airportRepository, times(1)).findActiveById(airport.getAirportId());
+    }
+
+    @Test
+    @DisplayName("CACHE-02: Airport updated - Next lookup queries again and sees the change")
+    void airportUpdate_evictsCache() {
+        airportService.getAirportById(airport.getAirportId());
+
+        AirportDto update = new AirportDto();
+        update.setAirportName("Cache Test Airport Renamed");
+        update.setCityName("Da Nang");
+        update.setCountryName("Vietnam");
+        airportService.updateAirport(airport.getAirportId(), update);
+        assertThat(airportCache().get(airport.getAirportId(), AirportDto.class)).isNull();
+        clearInvocations(airportRepository);
+
+        AirportDto reloaded = airportService.getAirportById(airport.getAirportId());
+
+        assertThat(reloaded.getAirportName()).isEqualTo("Cache Test Airport Renamed");
+        verify(airportRepository, times(1)).findActiveById(airport.getAirportId());
+    }
+
+    @Test
+    @DisplayName("CACHE-03: Parameters read repeatedly - Served from the snapshot without querying")
+    void latestParameter_servedFromSnapshot() {
+        ParameterDto first = parameterService.getLatestParameter();
+        for (int i = 0; i < 9; i++) {
+            assertThat(parameterService.getLatestParameter().getMaxLayoverDuration()).isEqualTo(first.getMaxLayoverDuration());
+        }
+
+        verify(parameterRepository, atMost(1)).findLatestParameter();
+    }
+
+    private Cache airportCache() {
+        return cacheManager.getCache("airports");
+    }
+}
@@ -0,0 +1,175 @@
+package com.flightmanagement.integration;
+
+import com.flightmanagement.dto.FlightDto;
+import com.flightmanagement.dto.TicketDto;
+import com.flightmanagement.entity.Airport;
+import com.flightmanagement.entity.Flight;
+import com.flightmanagement.entity.Plane;
+import com.flightmanagement.entity.TicketClass;
+import com.flightmanagement.repository.AirportRepository;
+import com.flightmanagement.repository.FlightRepository;
+import com.flightmanagement.repository.PlaneRepository;
+import com.flightmanagement.repository.TicketClassRepository;
+import com.flightmanagement.service.FlightService;
+import com.flightmanagement.service.ReferenceDataRegistry;
+import com.flightmanagement.service.TicketService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements Hibernate prepares when listing tickets and flights, with 1,000 tickets
+ * each on its own passenger. With lazy associations the listing is one select however many
+ * flights, classes and passengers the tickets point at. Tagged "benchmark" so it can be run on
+ * its own with -Dgroups=benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TicketFetchPlanIntegrationTest {
+
+    private static final int TICKETS = 1000;
+
+    @Autowired
+    private TicketService ticketService;
+    @Autowired
+    private FlightService flightService;
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private FlightRepository flightRepository;
+    @Autowired
+    private AirportRepository airportRepository;
+    @Autowired
+    private PlaneRepository planeRepository;
+    @Autowired
+    private TicketClassRepository ticketClassRepository;
+
+    private Airport departureAirport;
+    private Airport arrivalAirport;
+    private Plane plane;
+    private TicketClass ticketClass;
+    private Flight flight;
+    private String citizenPrefix;
+    private Statistics statistics;
+
+    @BeforeAll
+    void setupTickets() {
+        departureAirport = new Airport();
+        departureAirport.setAirportName("Fetch Plan Departure Airport");
+        departureAirport.setCityName("Ho Chi Minh City");
+        departureAirport.setCountryName("Vietnam");
+        departureAirport = airportRepository.save(departureAirport);
+
+        arrivalAirport = new Airport();
+        arrivalAirport.setAirportName("Fetch Plan Arrival Airport");
+        arrivalAirport.setCityName("Hanoi");
+        arrivalAirport.setCountryName("Vietnam");
+        arrivalAirport = airportRepository.save(arrivalAirport);
+
+        plane = new Plane();
+        plane.setPlaneCode("VN-FP" + System.currentTimeMillis() % 100000);
+        plane.setPlaneType("Airbus A350");
+        plane.setSeatQuantity(TICKETS);
+        plane = planeRepository.save(plane);
+
+        ticketClass = new TicketClass();
+        ticketClass.setTicketClassName("Economy");
+        ticketClass.setColor("Blue");
+        ticketClass = ticketClassRepository.save(ticketClass);
+
+        flight = new Flight();
+        flight.setFlightCode("FP" + System.currentTimeMillis() % 100000);
+        flight.setPlane(plane);
+        flight.setDepartureAirport(departureAirport);
+        flight.setArrivalAirport(arrivalAirport);
+        flight.setDepartureTime(LocalDateTime.now().plusDays(30));
+        flight.setArrivalTime(LocalDateTime.now().plusDays(30).plusHours(2));
+        flight = flightRepository.save(flight);
+
+        citizenPrefix = "FP" + System.nanoTime() % 1_000_000_000L + "-";
+        List<Object[]> passengers = new ArrayList<>();
+        for (int i = 0; i < TICKETS; i++) {
+            passengers.add(new Object[]{"Fetch Plan Passenger " + i, "fetchplan" + i + "@example.com", citizenPrefix + i, "0900000000"});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO passenger (passenger_name, email, citizen_id, phone_number) VALUES (?, ?, ?, ?)", passengers);
+
+        List<Integer> passengerIds = jdbcTemplate.queryForList(
+                "SELECT passenger_id FROM passenger WHERE citizen_id LIKE ? ORDER BY passenger_id", Integer.class, citizenPrefix + "%");
+        List<Object[]> tickets = new ArrayList<>();
+        for (int i = 0; i < passengerIds.size(); i++) {
+            tickets.add(new Object[]{flight.getFlightId(), ticketClass.getTicketClassId(), passengerIds.get(i),
+                    "S" + i, new BigDecimal("100.00"), "FMS-FETCHPLAN-" + i / 9});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO ticket (flight_id, ticket_class_id, passenger_id, seat_number, fare, confirmation_code) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", tickets);
+
+        // The rows above were saved through the repositories, so load them as on startup
+        referenceDataRegistry.load();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    void cleanupTickets() {
+        jdbcTemplate.update("DELETE FROM ticket WHERE flight_id = ?", flight.getFlightId());
+        jdbcTemplate.update("DELETE FROM passenger WHERE citizen_id LIKE ?", citizenPrefix + "%");
+        flightRepository.delete(flight);
+        ticketClassRepository.delete(ticketClass);
+        planeRepository.delete(plane);
+        airportRepository.delete(departureAirport);
+        airportRepository.delete(arrivalAirport);
+    }
+
+    @BeforeEach
+    void clearStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("BM-FETCH-01: 1,000 tickets listed - One select, no secondary selects for associations")
+    void allTickets_singleStatement() {
+        List<TicketDto> tickets = ticketService.getAllTickets();
+
+        System.out.printf("Listed %d tickets with %d statements%n", tickets.size(), statistics.getPrepareStatementCount());
+        assertThat(tickets).filteredOn(ticket -> flight.getFlightId().equals(ticket.getFlightId())).hasSize(TICKETS);
+        assertThat(tickets).allSatisfy(ticket -> assertThat(ticket.getPassengerId()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("BM-FETCH-02: Tickets of one flight - Flight check plus one select")
+    void ticketsByFlight_twoStatements() {
+        List<TicketDto> tickets = ticketService.getTicketsByFlightId(flight.getFlightId());
+
+        assertThat(tickets).hasSize(TICKETS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("BM-FETCH-03: Flight looked up - Names come from the registry, no airport or plane select")
+    void flightById_namesWithoutAssociationSelects() {
+        FlightDto flightDto = flightService.getFlightById(flight.getFlightId());
+
+        assertThat(flightDto.getDepartureCityName()).isEqualTo("Ho Chi Minh City");
+        assertThat(flightDto.getPlaneCode()).isEqualTo(plane.getPlaneCode());
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1);
+    }
+}
@@ -45,6 +45,12 @@ public class AirportServiceTest {
     @Mock
     private AirportMapper airportMapper;
 
+    @Mock
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Mock
+    private FlightSearchIndex flightSearchIndex;
+
     @InjectMocks
     private AirportServiceImpl airportService;
 
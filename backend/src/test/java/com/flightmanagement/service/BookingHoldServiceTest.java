@@ -0,0 +1,140 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.ParameterDto;
+import com.flightmanagement.repository.FlightRepository;
+import com.flightmanagement.repository.TicketRepository;
+import com.flightmanagement.service.impl.BookingHoldServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("BookingHoldService Tests")
+class BookingHoldServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private ParameterService parameterService;
+
+    @Mock
+    private TicketCleanupService ticketCleanupService;
+
+    @InjectMocks
+    private BookingHoldServiceImpl bookingHoldService;
+
+    @BeforeEach
+    void setUp() {
+        ParameterDto parameters = new ParameterDto();
+        parameters.setMaxBookingHoldDuration(24);
+        when(parameterService.getLatestParameter()).thenReturn(parameters);
+        when(ticketRepository.findUnpaidBookingDepartures()).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingHoldService.stop();
+    }
+
+    @Test
+    @DisplayName("TC1: Holds loaded on startup - Past deadlines expire, future ones wait")
+    void start_LoadsHoldsFromUnpaidTickets() {
+        // Arrange
+        when(ticketRepository.findUnpaidBookingDepartures()).thenReturn(List.of(
+                new Object[]{"FMS-DUE", LocalDateTime.now().plusHours(2)},
+                new Object[]{"FMS-LATER", LocalDateTime.now().plusDays(10)}));
+
+        // Act
+        bookingHoldService.start();
+
+        // Assert
+        verify(ticketCleanupService, timeout(2000)).expireBooking("FMS-DUE");
+        verify(ticketCleanupService, after(200).never()).expireBooking("FMS-LATER");
+        assertEquals(1, bookingHoldService.getPendingHoldCount());
+    }
+
+    @Test
+    @DisplayName("TC2: Hold registered at booking - Released at departure minus hold duration")
+    void registerHold_ReleasedAtDeadline() {
+        // Arrange: deadline is 300 ms from now
+        when(flightRepository.findDepartureTimeById(1))
+                .thenReturn(Optional.of(LocalDateTime.now().plusHours(24).plusNanos(300_000_000L)));
+        bookingHoldService.start();
+
+        // Act
+        bookingHoldService.registerHold("FMS-HOLD", 1);
+
+        // Assert
+        assertEquals(1, bookingHoldService.getPendingHoldCount());
+        verify(ticketCleanupService, after(100).never()).expireBooking(anyString());
+        verify(ticketCleanupService, timeout(2000)).expireBooking("FMS-HOLD");
+        assertEquals(0, bookingHoldService.getPendingHoldCount());
+    }
+
+    @Test
+    @DisplayName("TC3: Booking re-registered - Only the latest hold fires")
+    void registerHold_Superseded_FiresOnce() {
+        // Arrange
+        when(flightRepository.findDepartureTimeById(1)).thenReturn(Optional.of(LocalDateTime.now().plusHours(1)));
+        when(flightRepository.findDepartureTimeById(2)).thenReturn(Optional.of(LocalDateTime.now().plusDays(10)));
+        bookingHoldService.registerHold("FMS-MOVED", 1);
+        bookingHoldService.registerHold("FMS-MOVED", 2);
+
+        // Act
+        bookingHoldService.start();
+
+        // Assert
+        verify(ticketCleanupService, after(300).never()).expireBooking("FMS-MOVED");
+        assertEquals(1, bookingHoldService.getPendingHoldCount());
+    }
+
+    @Test
+    @DisplayName("TC4: Expiry fails - Timer keeps running for later holds")
+    void expireBooking_Failure_TimerKeepsRunning() {
+        // Arrange
+        when(ticketCleanupService.expireBooking("FMS-FAIL")).thenThrow(new RuntimeException("Database error"));
+        when(ticketRepository.findUnpaidBookingDepartures()).thenReturn(List.of(
+                new Object[]{"FMS-FAIL", LocalDateTime.now()},
+                new Object[]{"FMS-NEXT", LocalDateTime.now().plusHours(1)}));
+
+        // Act
+        bookingHoldService.start();
+
+        // Assert
+        verify(ticketCleanupService, timeout(2000)).expireBooking("FMS-FAIL");
+        verify(ticketCleanupService, timeout(2000)).expireBooking("FMS-NEXT");
+    }
+
+    @Test
+    @DisplayName("TC5: Unknown flight - No hold registered")
+    void registerHold_UnknownFlight_Ignored() {
+        // Arrange
+        when(flightRepository.findDepartureTimeById(99)).thenReturn(Optional.empty());
+
+        // Act
+        bookingHoldService.registerHold("FMS-NONE", 99);
+
+        // Assert
+        assertEquals(0, bookingHoldService.getPendingHoldCount());
+    }
+}
@@ -0,0 +1,307 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.BookingDto;
+import com.flightmanagement.dto.PassengerDto;
+import com.flightmanagement.dto.TicketDto;
+import com.flightmanagement.entity.BookingRequest;
+import com.flightmanagement.exception.BadRequestException;
+import com.flightmanagement.exception.ConflictException;
+import com.flightmanagement.repository.BookingRequestRepository;
+import com.flightmanagement.service.impl.BookingIdempotencyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("BookingIdempotencyService Tests")
+class BookingIdempotencyServiceTest {
+
+    private static final String KEY = "6f1c2a4e-retry-key";
+
+    @Mock
+    private TicketService ticketService;
+
+    @Mock
+    private BookingRequestRepository bookingRequestRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BookingIdempotencyServiceImpl bookingIdempotencyService;
+
+    private BookingDto bookingDto;
+
+    private List<TicketDto> bookedTickets;
+
+    @BeforeEach
+    void setUp() {
+        bookingIdempotencyService = new BookingIdempotencyServiceImpl(ticketService, bookingRequestRepository,
+                transactionTemplate, 100, 60, 120);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(bookingRequestRepository.insertIfAbsent(anyString(), anyString(), anyString(), any())).thenReturn(1);
+
+        bookingDto = booking("123456789");
+
+        TicketDto ticketDto = new TicketDto();
+        ticketDto.setTicketId(1);
+        ticketDto.setConfirmationCode("FMS-20251207-TEST");
+        bookedTickets = List.of(ticketDto);
+        when(ticketService.bookTickets(any(BookingDto.class))).thenReturn(bookedTickets);
+        when(ticketService.bookTickets(any(BookingDto.class), anyString())).thenReturn(bookedTickets);
+        when(ticketService.generateConfirmationCode()).thenReturn("FMS-20251207-NEW");
+    }
+
+    @Test
+    @DisplayName("TC1: No Idempotency-Key - Books as usual without touching the key store")
+    void bookTickets_NoKey_DelegatesDirectly() {
+        // Act
+        List<TicketDto> result = bookingIdempotencyService.bookTickets(null, bookingDto);
+
+        // Assert
+        assertSame(bookedTickets, result);
+        verify(ticketService).bookTickets(bookingDto);
+        verifyNoInteractions(bookingRequestRepository);
+        assertEquals(0, bookingIdempotencyService.getEntryCount());
+    }
+
+    @Test
+    @DisplayName("TC2: Retry with the same key - Returns the original tickets without booking again")
+    void bookTickets_Replay_ReturnsOriginalTickets() {
+        // Act
+        List<TicketDto> first = bookingIdempotencyService.bookTickets(KEY, bookingDto);
+        List<TicketDto> retry = bookingIdempotencyService.bookTickets(KEY, booking("123456789"));
+
+        // Assert
+        assertSame(first, retry);
+        verify(ticketService, times(1)).bookTickets(any(BookingDto.class), anyString());
+        verify(bookingRequestRepository, times(1)).insertIfAbsent(eq(KEY), anyString(), anyString(), any());
+        verify(bookingRequestRepository).complete(KEY, "FMS-20251207-TEST");
+    }
+
+    @Test
+    @DisplayName("TC3: Concurrent duplicates - Coalesce onto one booking")
+    void bookTickets_ConcurrentDuplicates_BookOnce() throws Exception {
+        // Arrange
+        CountDownLatch bookingStarted = new CountDownLatch(1);
+        CountDownLatch releaseBooking = new CountDownLatch(1);
+        when(ticketService.bookTickets(any(BookingDto.class), anyString())).thenAnswer(invocation -> {
+            bookingStarted.countDown();
+            assertTrue(releaseBooking.await(5, TimeUnit.SECONDS));
+            return bookedTickets;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            Future<List<TicketDto>> first = executor.submit(() -> bookingIdempotencyService.bookTickets(KEY, bookingDto));
+            assertTrue(bookingStarted.await(5, TimeUnit.SECONDS));
+            List<Future<List<TicketDto>>> duplicates = List.of(
+                    executor.submit(() -> bookingIdempotencyService.bookTickets(KEY, bookingDto)),
+                    executor.submit(() -> bookingIdempotencyService.bookTickets(KEY, bookingDto)),
+                    executor.submit(() -> bookingIdempotencyService.bookTickets(KEY, bookingDto)));
+            releaseBooking.countDown();
+
+            // Assert
+            assertSame(bookedTickets, first.get(5, TimeUnit.SECONDS));
+            for (Future<List<TicketDto>> duplicate : duplicates) {
+                assertSame(bookedTickets, duplicate.get(5, TimeUnit.SECONDS));
+            }
+            verify(ticketService, times(1)).bookTickets(any(BookingDto.class), anyString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("TC4: Key reused for a different booking - Rejected")
+    void bookTickets_KeyReusedForDifferentRequest_ThrowsBadRequest() {
+        // Arrange
+        bookingIdempotencyService.bookTickets(KEY, bookingDto);
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> bookingIdempotencyService.bookTickets(KEY, booking("987654321")));
+        assertTrue(exception.getMessage().contains("different booking request"));
+        verify(ticketService, times(1)).bookTickets(any(BookingDto.class), anyString());
+    }
+
+    @Test
+    @DisplayName("TC5: Key already completed on another instance - Replays the booking from the database")
+    void bookTickets_KeyCompletedElsewhere_ReplaysFromDatabase() {
+        // Arrange
+        when(bookingRequestRepository.insertIfAbsent(eq(KEY), anyString(), anyString(), any())).thenReturn(0);
+        bookingIdempotencyService.bookTickets("probe", bookingDto);
+        String requestHash = capturedRequestHash("probe");
+        when(bookingRequestRepository.findById(KEY)).thenReturn(Optional.of(
+                new BookingRequest(KEY, requestHash, "FMS-20251207-TEST", LocalDateTime.now(), "FMS-20251207-TEST", LocalDateTime.now())));
+        when(ticketService.getTicketsOnConfirmationCode("FMS-20251207-TEST")).thenReturn(bookedTickets);
+
+        // Act
+        List<TicketDto> result = bookingIdempotencyService.bookTickets(KEY, bookingDto);
+
+        // Assert
+        assertSame(bookedTickets, result);
+        verify(ticketService, times(1)).bookTickets(any(BookingDto.class), anyString()); // only the probe
+    }
+
+    @Test
+    @DisplayName("TC6: Key still in progress on another instance - Conflict")
+    void bookTickets_KeyInProgressElsewhere_ThrowsConflict() {
+        // Arrange
+        bookingIdempotencyService.bookTickets("probe", bookingDto);
+        String requestHash = capturedRequestHash("probe");
+        when(bookingRequestRepository.insertIfAbsent(eq(KEY), anyString(), anyString(), any())).thenReturn(0);
+        when(bookingRequestRepository.findById(KEY)).thenReturn(Optional.of(
+                new BookingRequest(KEY, requestHash, null, LocalDateTime.now(), "FMS-20251207-OLD", LocalDateTime.now())));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> bookingIdempotencyService.bookTickets(KEY, bookingDto));
+        assertEquals(1, bookingIdempotencyService.getEntryCount()); // only the probe is remembered
+    }
+
+    @Test
+    @DisplayName("TC7: Booking fails - Key is released so the retry books again")
+    void bookTickets_BookingFails_RetryBooksAgain() {
+        // Arrange
+        when(ticketService.bookTickets(any(BookingDto.class), anyString()))
+                .thenThrow(new IllegalArgumentException("One or more selected seats are already taken"))
+                .thenReturn(bookedTickets);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookingIdempotencyService.bookTickets(KEY, bookingDto));
+        verify(bookingRequestRepository).release(KEY);
+
+        assertSame(bookedTickets, bookingIdempotencyService.bookTickets(KEY, bookingDto));
+        verify(ticketService, times(2)).bookTickets(any(BookingDto.class), anyString());
+    }
+
+    @Test
+    @DisplayName("TC8: Store is full - Oldest keys are evicted")
+    void bookTickets_StoreFull_EvictsOldest() {
+        // Arrange
+        bookingIdempotencyService = new BookingIdempotencyServiceImpl(ticketService, bookingRequestRepository,
+                transactionTemplate, 2, 60, 120);
+
+        // Act
+        bookingIdempotencyService.bookTickets("key-1", bookingDto);
+        bookingIdempotencyService.bookTickets("key-2", bookingDto);
+        bookingIdempotencyService.bookTickets("key-3", bookingDto);
+
+        // Assert
+        assertEquals(2, bookingIdempotencyService.getEntryCount());
+    }
+
+    @Test
+    @DisplayName("TC9: Key longer than the column - Rejected")
+    void bookTickets_KeyTooLong_ThrowsBadRequest() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> bookingIdempotencyService.bookTickets("k".repeat(65), bookingDto));
+        verify(ticketService, never()).bookTickets(any(BookingDto.class), anyString());
+    }
+
+    @Test
+    @DisplayName("TC10: Stale claim whose tickets were booked - Completes the key and replays the booking")
+    void bookTickets_StaleClaimBooked_ReplaysAbandonedBooking() {
+        // Arrange
+        bookingIdempotencyService.bookTickets("probe", bookingDto);
+        String requestHash = capturedRequestHash("probe");
+        when(bookingRequestRepository.insertIfAbsent(eq(KEY), anyString(), anyString(), any())).thenReturn(0);
+        when(bookingRequestRepository.findById(KEY)).thenReturn(Optional.of(new BookingRequest(KEY, requestHash, null,
+                LocalDateTime.now().minusMinutes(10), "FMS-20251207-OLD", LocalDateTime.now().minusMinutes(10))));
+        when(ticketService.getTicketsOnConfirmationCode("FMS-20251207-OLD")).thenReturn(bookedTickets);
+
+        // Act
+        List<TicketDto> result = bookingIdempotencyService.bookTickets(KEY, bookingDto);
+
+        // Assert
+        assertSame(bookedTickets, result);
+        verify(bookingRequestRepository).complete(KEY, "FMS-20251207-OLD");
+        verify(bookingRequestRepository, never()).reclaimStale(anyString(), anyString(), any(), any());
+        verify(ticketService, times(1)).bookTickets(any(BookingDto.class), anyString()); // only the probe
+    }
+
+    @Test
+    @DisplayName("TC11: Stale claim that booked nothing - Taken over and booked under a new code")
+    void bookTickets_StaleClaimNotBooked_ReclaimsAndBooks() {
+        // Arrange
+        bookingIdempotencyService.bookTickets("probe", bookingDto);
+        String requestHash = capturedRequestHash("probe");
+        when(bookingRequestRepository.insertIfAbsent(eq(KEY), anyString(), anyString(), any())).thenReturn(0);
+        when(bookingRequestRepository.findById(KEY)).thenReturn(Optional.of(new BookingRequest(KEY, requestHash, null,
+                LocalDateTime.now().minusMinutes(10), "FMS-20251207-OLD", LocalDateTime.now().minusMinutes(10))));
+        when(ticketService.getTicketsOnConfirmationCode("FMS-20251207-OLD")).thenReturn(List.of());
+        when(bookingRequestRepository.reclaimStale(eq(KEY), eq("FMS-20251207-NEW"), any(), any())).thenReturn(1);
+
+        // Act
+        List<TicketDto> result = bookingIdempotencyService.bookTickets(KEY, bookingDto);
+
+        // Assert
+        assertSame(bookedTickets, result);
+        verify(ticketService, times(2)).bookTickets(any(BookingDto.class), eq("FMS-20251207-NEW"));
+        verify(bookingRequestRepository).complete(KEY, "FMS-20251207-TEST");
+    }
+
+    @Test
+    @DisplayName("TC12: Stale claim taken over by another retry first - Conflict")
+    void bookTickets_StaleClaimReclaimedElsewhere_ThrowsConflict() {
+        // Arrange
+        bookingIdempotencyService.bookTickets("probe", bookingDto);
+        String requestHash = capturedRequestHash("probe");
+        when(bookingRequestRepository.insertIfAbsent(eq(KEY), anyString(), anyString(), any())).thenReturn(0);
+        when(bookingRequestRepository.findById(KEY)).thenReturn(Optional.of(new BookingRequest(KEY, requestHash, null,
+                LocalDateTime.now().minusMinutes(10), "FMS-20251207-OLD", LocalDateTime.now().minusMinutes(10))));
+        when(ticketService.getTicketsOnConfirmationCode("FMS-20251207-OLD")).thenReturn(List.of());
+        when(bookingRequestRepository.reclaimStale(eq(KEY), anyString(), any(), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> bookingIdempotencyService.bookTickets(KEY, bookingDto));
+        verify(ticketService, times(1)).bookTickets(any(BookingDto.class), anyString()); // only the probe
+    }
+
+    private String capturedRequestHash(String key) {
+        List<String> hashes = mockingDetails(bookingRequestRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("insertIfAbsent"))
+                .filter(invocation -> key.equals(invocation.getArgument(0)))
+                .map(invocation -> invocation.<String>getArgument(1))
+                .toList();
+        return hashes.get(0);
+    }
+
+    private static BookingDto booking(String citizenId) {
+        PassengerDto passenger = new PassengerDto();
+        passenger.setPassengerName("John Doe");
+        passenger.setEmail("john@example.com");
+        passenger.setCitizenId(citizenId);
+        passenger.setPhoneNumber("0123456789");
+
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setFlightId(1);
+        bookingDto.setTicketClassId(1);
+        bookingDto.setCustomerId(1);
+        bookingDto.setPassengers(List.of(passenger));
+        return bookingDto;
+    }
+}
@@ -0,0 +1,165 @@
+package com.flightmanagement.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConfirmationCodeGenerator Tests")
+class ConfirmationCodeGeneratorTest {
+
+    private static final ZoneId ZONE = ZoneOffset.ofHours(7);
+
+    @Test
+    @DisplayName("TC1: Code format - Date of issue, node id and a 6-character sequence in 20 characters")
+    void nextCode_Format() {
+        // Arrange
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(11, clockAt(LocalDateTime.of(2025, 12, 7, 10, 0)));
+
+        // Act
+        String code = generator.nextCode();
+
+        // Assert
+        assertEquals(20, code.length());
+        assertTrue(code.matches("FMS-20251207-B[0-9A-Z]{6}"), code);
+    }
+
+    @Test
+    @DisplayName("TC2: Many threads at the same instant - Every code is unique")
+    void nextCode_Contention_AllUnique() throws Exception {
+        // Arrange
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(0, clockAt(LocalDateTime.of(2025, 12, 7, 10, 0)));
+        int threads = 8;
+        int codesPerThread = 20_000;
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            // Act
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < codesPerThread; i++) {
+                        codes.add(generator.nextCode());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+
+            // Assert
+            assertEquals(threads * codesPerThread, codes.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("TC3: Restart later the same day - New codes do not repeat earlier ones")
+    void nextCode_RestartSameDay_NoRepeats() {
+        // Arrange
+        ConfirmationCodeGenerator beforeRestart = new ConfirmationCodeGenerator(0, clockAt(LocalDateTime.of(2025, 12, 7, 10, 0)));
+        Set<String> issued = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            issued.add(beforeRestart.nextCode());
+        }
+
+        // Act
+        ConfirmationCodeGenerator afterRestart = new ConfirmationCodeGenerator(0, clockAt(LocalDateTime.of(2025, 12, 7, 10, 1)));
+
+        // Assert
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(issued.contains(afterRestart.nextCode()));
+        }
+    }
+
+    @Test
+    @DisplayName("TC4: Midnight passes - Codes switch to the new date")
+    void nextCode_DayRollover_UsesNewDate() {
+        // Arrange
+        MutableClock clock = new MutableClock(LocalDateTime.of(2025, 12, 7, 23, 59, 59));
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(0, clock);
+
+        // Act
+        String lateCode = generator.nextCode();
+        clock.set(LocalDateTime.of(2025, 12, 8, 0, 0));
+        String nextDayCode = generator.nextCode();
+
+        // Assert
+        assertTrue(lateCode.startsWith("FMS-20251207-"));
+        assertTrue(nextDayCode.startsWith("FMS-20251208-"));
+        assertEquals("FMS-20251208-0000000", nextDayCode);
+    }
+
+    @Test
+    @DisplayName("TC5: Two nodes at the same instant - Codes differ by node id")
+    void nextCode_TwoNodes_Differ() {
+        // Arrange
+        Clock clock = clockAt(LocalDateTime.of(2025, 12, 7, 10, 0));
+        ConfirmationCodeGenerator node0 = new ConfirmationCodeGenerator(0, clock);
+        ConfirmationCodeGenerator node1 = new ConfirmationCodeGenerator(1, clock);
+
+        // Act & Assert
+        assertNotEquals(node0.nextCode(), node1.nextCode());
+    }
+
+    @Test
+    @DisplayName("TC6: Node id out of range - Rejected")
+    void constructor_InvalidNodeId_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ConfirmationCodeGenerator(36));
+        assertThrows(IllegalArgumentException.class, () -> new ConfirmationCodeGenerator(-1));
+    }
+
+    private static Clock clockAt(LocalDateTime dateTime) {
+        return Clock.fixed(dateTime.atZone(ZONE).toInstant(), ZONE);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(LocalDateTime dateTime) {
+            set(dateTime);
+        }
+
+        private void set(LocalDateTime dateTime) {
+            instant = dateTime.atZone(ZONE).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.ConnectionDto;
+import com.flightmanagement.dto.FlightDto;
+import com.flightmanagement.dto.FlightSearchCriteria;
+import com.flightmanagement.dto.ParameterDto;
+import com.flightmanagement.exception.BadRequestException;
+import com.flightmanagement.exception.ServiceUnavailableException;
+import com.flightmanagement.mapper.FlightMapper;
+import com.flightmanagement.repository.FlightRepository;
+import com.flightmanagement.repository.FlightTicketClassRepository;
+import com.flightmanagement.service.impl.ConnectionSearchServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ConnectionSearchService Tests")
+class ConnectionSearchServiceTest {
+
+    private static final LocalDateTime DAY = LocalDate.now().plusDays(30).atStartOfDay();
+
+    // Airports
+    private static final int SGN = 1;
+    private static final int HAN = 2;
+    private static final int DAD = 3;
+    private static final int HPH = 4;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private FlightMapper flightMapper;
+
+    @Mock
+    private FlightTicketClassRepository flightTicketClassRepository;
+
+    @Mock
+    private ParameterService parameterService;
+
+    @Mock
+    private SeatInventoryService seatInventoryService;
+
+    private FlightSearchIndex flightSearchIndex;
+
+    private ConnectionSearchServiceImpl connectionSearchService;
+
+    private final List<Object[]> fares = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        flightSearchIndex = new FlightSearchIndex(flightRepository, flightMapper);
+        when(flightRepository.findAllActive()).thenReturn(List.of());
+        when(flightMapper.toDtoList(anyList())).thenReturn(List.of());
+        flightSearchIndex.load();
+
+        connectionSearchService = new ConnectionSearchServiceImpl(flightSearchIndex, flightTicketClassRepository,
+                parameterService, seatInventoryService);
+
+        // Layovers of 30 minutes to 4 hours
+        when(parameterService.getLatestParameter()).thenReturn(new ParameterDto(1, 2, 30, 30, 240, 1, 24));
+        when(flightTicketClassRepository.findFaresByFlightIds(anyCollection())).thenReturn(fares);
+        when(seatInventoryService.isAvailable(anyInt(), anyInt(), anyInt())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("TC1: Direct flight only - Returned as a zero-stop itinerary with its fare")
+    void searchConnections_DirectFlight() {
+        // Arrange
+        addFlight(1, SGN, HAN, 8, 0, 10, 0, "100.00");
+
+        // Act
+        List<ConnectionDto> result = connectionSearchService.searchConnections(criteria(null), 1);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(0, result.get(0).getStops());
+        assertEquals(new BigDecimal("100.00"), result.get(0).getTotalFare());
+    }
+
+    @Test
+    @DisplayName("TC2: Connection inside the layover window - Returned with both legs in order")
+    void searchConnections_OneStop() {
+        // Arrange
+        addFlight(1, SGN, DAD, 8, 0, 9, 0, "50.00");
+        addFlight(2, DAD, HAN, 10, 0, 11, 0, "40.00");
+
+        // Act
+        List<ConnectionDto> result = connectionSearchService.searchConnections(criteria(null), 1);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(List.of(1, 2), flightIds(result.get(0)));
+        assertEquals(1, result.get(0).getStops());
+        assertEquals(new BigDecimal("90.00"), result.get(0).getTotalFare());
+        assertEquals(DAY.plusHours(8), result.get(0).getDepartureTime());
+        assertEquals(DAY.plusHours(11), result.get(0).getArrivalTime());
+    }
+
+    @Test
+    @DisplayName("TC3: Layover shorter than the minimum or longer than the maximum - Not connected")
+    void searchConnections_LayoverOutsideBounds() {
+        // Arrange
+        addFlight(1, SGN, DAD, 8, 0, 9, 0, "50.00");
+        addFlight(2, DAD, HAN, 9, 15, 10, 15, "40.00");
+        addFlight(3, DAD, HAN, 13, 30, 14, 30, "40.00");
+
+        // Act
+        List<ConnectionDto> result = connectionSearchService.searchConnections(criteria(null), 1);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    @DisplayName("TC4: Two stops - Found only when maxStops allows it")
+    void searchConnections_TwoStops() {
+        // Arrange
+        addFlight(1, SGN, DAD, 6, 0, 7, 0, "30.00");
+        addFlight(2, DAD, HPH, 8, 0, 9, 0, "30.00");
+        addFlight(3, HPH, HAN, 10, 0, 10, 45, "30.00");
+
+        // Act
+        List<ConnectionDto> oneStop = connectionSearchService.searchConnections(criteria(null), 1);
+        List<ConnectionDto> twoStops = connectionSearchService.searchConnections(criteria(null), 2);
+
+        // Assert
+        assertTrue(oneStop.isEmpty());
+        assertEquals(1, twoStops.size());
+        assertEquals(List.of(1, 2, 3), flightIds(twoStops.get(0)));
+        assertEquals(2, twoStops.get(0).getStops());
+    }
+
+    @Test
+    @DisplayName("TC5: Connection slower and dearer than a direct flight leaving later - Dropped")
+    void searchConnections_DominatedConnection_Dropped() {
+        // Arrange
+        addFlight(1, SGN, HAN, 9, 0, 11, 0, "100.00");
+        addFlight(2, SGN, DAD, 8, 0, 9, 0, "80.00");
+        addFlight(3, DAD, HAN, 10, 0, 12, 0, "80.00");
+
+        // Act
+        List<ConnectionDto> result = connectionSearchService.searchConnections(criteria(null), 1);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(List.of(1), flightIds(result.get(0)));
+    }
+
+    @Test
+    @DisplayName("TC6: Cheaper connection arriving later - Kept next to the direct flight, ordered by arrival")
+    void searchConnections_CheaperConnection_Kept() {
+        // Arrange
+        addFlight(1, SGN, HAN, 9, 0, 11, 0, "200.00");
+        addFlight(2, SGN, DAD, 8, 0, 9, 0, "60.00");
+        addFlight(3, DAD, HAN, 10, 0, 12, 0, "60.00");
+
+        // Act
+        List<ConnectionDto> result = connectionSearchService.searchConnections(criteria(null), 1);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(List.of(1), flightIds(result.get(0)));
+        assertEquals(List.of(2, 3), flightIds(result.get(1)));
+    }
+
+    @Test
+    @DisplayName("TC7: Leg without enough seats in the ticket class - Itinerary skipped")
+    void searchConnections_UnavailableLeg_Skipped() {
+        // Arrange
+        addFlight(1, SGN, DAD, 8, 0, 9, 0, "50.00");
+        addFlight(2, DAD, HAN, 10, 0, 11, 0, "40.00");
+        when(seatInventoryService.isAvailable(2, 1, 2)).thenReturn(false);
+
+        // Act
+        List<ConnectionDto> result = connectionSearchService.searchConnections(criteria(1), 1);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    @DisplayName("TC8: Itinerary returning through the origin - Not offered")
+    void searchConnections_ThroughOrigin_Skipped() {
+        // Arrange
+        addFlight(1, SGN, DAD, 6, 0, 7, 0, "30.00");
+        addFlight(2, DAD, SGN, 8, 0, 9, 0, "30.00");
+        addFlight(3, SGN, HAN, 10, 0, 12, 0, "30.00");
+
+        // Act
+        List<ConnectionDto> result = connectionSearchService.searchConnections(criteria(null), 2);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(List.of(3), flightIds(result.get(0)));
+    }
+
+    @Test
+    @DisplayName("TC9: maxStops out of range - Throws BadRequestException")
+    void searchConnections_InvalidMaxStops_Throws() {
+        assertThrows(BadRequestException.class, () -> connectionSearchService.searchConnections(criteria(null), 3));
+        assertThrows(BadRequestException.class, () -> connectionSearchService.searchConnections(criteria(null), -1));
+    }
+
+    @Test
+    @DisplayName("TC10: Flight search index still loading - Throws ServiceUnavailableException with a retry delay")
+    void searchConnections_IndexNotReady_Throws() {
+        // Arrange
+        connectionSearchService = new ConnectionSearchServiceImpl(new FlightSearchIndex(flightRepository, flightMapper),
+                flightTicketClassRepository, parameterService, seatInventoryService);
+
+        // Act & Assert
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> connectionSearchService.searchConnections(criteria(null), 1));
+        assertTrue(ex.getRetryAfterSeconds() > 0);
+    }
+
+    @Test
+    @DisplayName("TC11: No ticket class and the cheapest class sold out - Leg priced at the cheapest class with seats")
+    void searchConnections_AnyClass_SkipsSoldOutClass() {
+        // Arrange
+        addFlight(1, SGN, DAD, 8, 0, 9, 0, "50.00");
+        addFlight(2, DAD, HAN, 10, 0, 11, 0, "40.00");
+        fares.add(new Object[]{2, 2, new BigDecimal("90.00")});
+        when(seatInventoryService.isAvailable(2, 1, 2)).thenReturn(false);
+
+        // Act
+        List<ConnectionDto> result = connectionSearchService.searchConnections(criteria(null), 1);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(new BigDecimal("140.00"), result.get(0).getTotalFare());
+    }
+
+    @Test
+    @DisplayName("TC12: No ticket class and every class of a leg sold out - Itinerary skipped")
+    void searchConnections_AnyClass_SoldOutLeg_Skipped() {
+        // Arrange
+        addFlight(1, SGN, DAD, 8, 0, 9, 0, "50.00");
+        addFlight(2, DAD, HAN, 10, 0, 11, 0, "40.00");
+        when(seatInventoryService.isAvailable(2, 1, 2)).thenReturn(false);
+
+        // Act
+        List<ConnectionDto> result = connectionSearchService.searchConnections(criteria(null), 1);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    private FlightSearchCriteria criteria(Integer ticketClassId) {
+        return new FlightSearchCriteria(SGN, HAN, DAY, 2, ticketClassId);
+    }
+
+    private void addFlight(int flightId, int departureAirportId, int arrivalAirportId,
+                           int departureHour, int departureMinute, int arrivalHour, int arrivalMinute, String fare) {
+        FlightDto flight = new FlightDto();
+        flight.setFlightId(flightId);
+        flight.setFlightCode("VN" + flightId);
+        flight.setDepartureAirportId(departureAirportId);
+        flight.setArrivalAirportId(arrivalAirportId);
+        flight.setDepartureTime(DAY.plusHours(departureHour).plusMinutes(departureMinute));
+        flight.setArrivalTime(DAY.plusHours(arrivalHour).plusMinutes(arrivalMinute));
+        flightSearchIndex.put(flight);
+        fares.add(new Object[]{flightId, 1, new BigDecimal(fare)});
+    }
+
+    private static List<Integer> flightIds(ConnectionDto connection) {
+        return connection.getFlights().stream().map(FlightDto::getFlightId).toList();
+    }
+}
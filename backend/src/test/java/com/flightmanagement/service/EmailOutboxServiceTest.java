@@ -0,0 +1,283 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.TicketDto;
+import com.flightmanagement.entity.Airport;
+import com.flightmanagement.entity.EmailOutbox;
+import com.flightmanagement.entity.Flight;
+import com.flightmanagement.entity.Passenger;
+import com.flightmanagement.entity.Ticket;
+import com.flightmanagement.mapper.TicketMapper;
+import com.flightmanagement.repository.EmailOutboxRepository;
+import com.flightmanagement.repository.FlightRepository;
+import com.flightmanagement.repository.PassengerRepository;
+import com.flightmanagement.repository.TicketRepository;
+import com.flightmanagement.service.impl.EmailOutboxServiceImpl;
+import com.flightmanagement.service.impl.EmailServiceImpl;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("EmailOutboxService Tests")
+class EmailOutboxServiceTest {
+
+    private static final String CONFIRMATION_CODE = "FMS-20251207-TEST";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private TicketMapper ticketMapper;
+
+    @Mock
+    private PassengerRepository passengerRepository;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private EmailOutboxServiceImpl emailOutboxService;
+
+    private EmailOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        // Run transactional callbacks inline
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        outbox = new EmailOutbox();
+        outbox.setOutboxId(1);
+        outbox.setConfirmationCode(CONFIRMATION_CODE);
+        outbox.setStatus(EmailOutbox.STATUS_PENDING);
+        outbox.setAttempts(0);
+        outbox.setNextAttemptAt(LocalDateTime.now());
+        outbox.setCreatedAt(LocalDateTime.now());
+
+        when(emailOutboxRepository.findDueIds(any(), any())).thenReturn(List.of(1));
+        when(emailOutboxRepository.claim(eq(1), any())).thenReturn(1);
+        when(emailOutboxRepository.findById(1)).thenReturn(Optional.of(outbox));
+        when(emailOutboxRepository.save(any(EmailOutbox.class))).thenAnswer(invocation -> {
+            EmailOutbox saved = invocation.getArgument(0);
+            if (saved.getOutboxId() == null) {
+                saved.setOutboxId(1);
+            }
+            return saved;
+        });
+
+        List<Ticket> tickets = List.of(new Ticket(), new Ticket());
+        when(ticketRepository.findByConfirmationCode(CONFIRMATION_CODE)).thenReturn(tickets);
+        when(ticketMapper.toDtoList(tickets)).thenReturn(List.of(ticket(1, "E01"), ticket(2, "E02")));
+
+        when(passengerRepository.findAllById(any())).thenReturn(List.of(
+                passenger(1, "John Doe", "john@example.com"),
+                passenger(2, "Jane Smith", "jane@example.com")));
+        when(flightRepository.findWithAirportsById(1)).thenReturn(Optional.of(flight()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (emailOutboxService != null) {
+            emailOutboxService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("TC1: Due booking - One email for the confirmation code, sent to every passenger")
+    void dispatchPending_SendsOneConsolidatedEmail() throws Exception {
+        // Arrange
+        emailOutboxService = outboxService(smtpEmailService(), 3);
+
+        // Act
+        emailOutboxService.dispatchPending();
+
+        // Assert
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1)); // one SMTP transaction for both passengers
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length); // one delivery per recipient
+        assertEquals(received[0].getMessageID(), received[1].getMessageID());
+        assertEquals(2, received[0].getAllRecipients().length);
+        assertTrue(received[0].getSubject().contains(CONFIRMATION_CODE));
+
+        verify(emailOutboxRepository, timeout(5000)).save(argThat(saved ->
+                saved.getStatus() == EmailOutbox.STATUS_SENT && saved.getSentAt() != null));
+    }
+
+    @Test
+    @DisplayName("TC2: SMTP failure - Row goes back to pending with a backoff")
+    void dispatchPending_SendFails_SchedulesRetry() {
+        // Arrange
+        EmailService failingEmailService = mock(EmailService.class);
+        doThrow(new RuntimeException("SMTP unavailable"))
+                .when(failingEmailService).sendBookingConfirmation(anyString(), anyList());
+        emailOutboxService = outboxService(failingEmailService, 3);
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        emailOutboxService.dispatchPending();
+
+        // Assert
+        verify(emailOutboxRepository, timeout(5000)).save(argThat(saved -> saved.getAttempts() == 1));
+        assertEquals(EmailOutbox.STATUS_PENDING, (byte) outbox.getStatus());
+        assertTrue(outbox.getNextAttemptAt().isAfter(before.plusNanos(900_000_000L)));
+        assertEquals("SMTP unavailable", outbox.getLastError());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    @DisplayName("TC3: Last attempt fails - Row is marked failed")
+    void dispatchPending_MaxAttemptsReached_MarksFailed() {
+        // Arrange
+        outbox.setAttempts(2);
+        EmailService failingEmailService = mock(EmailService.class);
+        doThrow(new RuntimeException("SMTP unavailable"))
+                .when(failingEmailService).sendBookingConfirmation(anyString(), anyList());
+        emailOutboxService = outboxService(failingEmailService, 3);
+
+        // Act
+        emailOutboxService.dispatchPending();
+
+        // Assert
+        verify(emailOutboxRepository, timeout(5000)).save(argThat(saved ->
+                saved.getStatus() == EmailOutbox.STATUS_FAILED && saved.getAttempts() == 3));
+    }
+
+    @Test
+    @DisplayName("TC4: Row claimed by another dispatcher - Nothing is sent")
+    void dispatchPending_ClaimLost_DoesNotSend() {
+        // Arrange
+        EmailService emailService = mock(EmailService.class);
+        when(emailOutboxRepository.claim(eq(1), any())).thenReturn(0);
+        emailOutboxService = outboxService(emailService, 3);
+
+        // Act
+        emailOutboxService.dispatchPending();
+
+        // Assert
+        verify(emailOutboxRepository, timeout(5000)).claim(eq(1), any());
+        verify(emailService, after(200).never()).sendBookingConfirmation(anyString(), anyList());
+        verify(emailOutboxRepository, never()).save(any(EmailOutbox.class));
+    }
+
+    @Test
+    @DisplayName("TC5: Enqueue outside a transaction - Saves a pending row and sends it")
+    void enqueueBookingConfirmation_SavesPendingRowAndSends() {
+        // Arrange
+        EmailService emailService = mock(EmailService.class);
+        emailOutboxService = outboxService(emailService, 3);
+
+        // Act
+        emailOutboxService.enqueueBookingConfirmation(CONFIRMATION_CODE);
+
+        // Assert
+        verify(emailOutboxRepository).save(argThat(saved -> CONFIRMATION_CODE.equals(saved.getConfirmationCode())
+                && saved.getAttempts() == 0 && saved.getStatus() == EmailOutbox.STATUS_PENDING));
+        verify(emailService, timeout(5000)).sendBookingConfirmation(eq(CONFIRMATION_CODE), argThat(tickets -> tickets.size() == 2));
+    }
+
+    @Test
+    @DisplayName("TC6: Passenger without an email address - Left off the recipients, the others still get the email")
+    void dispatchPending_SkipsBlankPassengerEmails() throws Exception {
+        // Arrange
+        when(passengerRepository.findAllById(any())).thenReturn(List.of(
+                passenger(1, "John Doe", "john@example.com"),
+                passenger(2, "Jane Smith", " ")));
+        emailOutboxService = outboxService(smtpEmailService(), 3);
+
+        // Act
+        emailOutboxService.dispatchPending();
+
+        // Assert
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals(1, received[0].getAllRecipients().length);
+        assertEquals("john@example.com", received[0].getAllRecipients()[0].toString());
+    }
+
+    private EmailOutboxServiceImpl outboxService(EmailService emailService, int maxAttempts) {
+        return new EmailOutboxServiceImpl(emailOutboxRepository, ticketRepository, ticketMapper, emailService,
+                transactionTemplate, 2, maxAttempts, 1000);
+    }
+
+    private EmailService smtpEmailService() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        EmailServiceImpl emailService = new EmailServiceImpl(mailSender, passengerRepository, flightRepository);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "support@flightmanagement.test");
+        return emailService;
+    }
+
+    private static TicketDto ticket(Integer passengerId, String seatNumber) {
+        TicketDto ticketDto = new TicketDto();
+        ticketDto.setFlightId(1);
+        ticketDto.setTicketClassId(1);
+        ticketDto.setPassengerId(passengerId);
+        ticketDto.setSeatNumber(seatNumber);
+        ticketDto.setFare(new BigDecimal("500.00"));
+        ticketDto.setConfirmationCode(CONFIRMATION_CODE);
+        return ticketDto;
+    }
+
+    private static Passenger passenger(Integer passengerId, String name, String email) {
+        Passenger passenger = new Passenger();
+        passenger.setPassengerId(passengerId);
+        passenger.setPassengerName(name);
+        passenger.setEmail(email);
+        return passenger;
+    }
+
+    private static Flight flight() {
+        Airport departure = new Airport();
+        departure.setCityName("Ho Chi Minh City");
+        Airport arrival = new Airport();
+        arrival.setCityName("Hanoi");
+
+        Flight flight = new Flight();
+        flight.setFlightId(1);
+        flight.setFlightCode("VN123");
+        flight.setDepartureAirport(departure);
+        flight.setArrivalAirport(arrival);
+        flight.setDepartureTime(LocalDateTime.now().plusDays(7));
+        return flight;
+    }
+}
@@ -0,0 +1,187 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.enums.ExportFormat;
+import com.flightmanagement.repository.ExportRepository;
+import com.flightmanagement.service.impl.ExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ExportService Tests")
+class ExportServiceTest {
+
+    @Mock
+    private ExportRepository exportRepository;
+
+    private ExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportServiceImpl(exportRepository);
+    }
+
+    @Test
+    @DisplayName("TC1: Tickets exported as NDJSON - One object per line, numbers, nulls and ISO times kept")
+    void exportTickets_Ndjson_OneObjectPerLine() throws Exception {
+        // Arrange
+        LocalDateTime paidAt = LocalDateTime.of(2025, 5, 1, 9, 30);
+        streamTickets(2, i -> new Object[]{i + 1, 10, 1, i == 0 ? null : 7, 100 + i, "1A", 1,
+                Timestamp.valueOf(paidAt), new BigDecimal("1500000.00"), "FMS-A" + i, null});
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exportService.exportTickets(ExportFormat.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"ticketId\":1,\"flightId\":10,\"ticketClassId\":1,\"bookCustomerId\":null,\"passengerId\":100,"
+                + "\"seatNumber\":\"1A\",\"ticketStatus\":1,\"paymentTime\":\"2025-05-01T09:30\",\"fare\":1500000.00,"
+                + "\"confirmationCode\":\"FMS-A0\",\"orderId\":null}", lines[0]);
+        assertTrue(lines[1].startsWith("{\"ticketId\":2,"));
+    }
+
+    @Test
+    @DisplayName("TC2: Passengers exported as CSV - Header first, fields with commas or quotes are quoted")
+    void exportPassengers_Csv_HeaderAndEscaping() throws Exception {
+        // Arrange
+        List<Object[]> rows = List.of(
+                new Object[]{1, "Nguyen Van A", "a@example.com", "079201000001", "0901234567"},
+                new Object[]{2, "Tran, \"Bob\"", null, "079201000002", "0907654321"});
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(0);
+            for (Object[] row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(exportRepository).streamActivePassengers(any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exportService.exportPassengers(ExportFormat.CSV, out);
+
+        // Assert
+        assertEquals("passengerId,passengerName,email,citizenId,phoneNumber\r\n"
+                + "1,Nguyen Van A,a@example.com,079201000001,0901234567\r\n"
+                + "2,\"Tran, \"\"Bob\"\"\",,079201000002,0907654321\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("TC3: No active rows - CSV has only the header, NDJSON is empty")
+    void export_NoRows_HeaderOnly() throws Exception {
+        // Arrange
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        // Act
+        exportService.exportPassengers(ExportFormat.CSV, csv);
+        exportService.exportPassengers(ExportFormat.NDJSON, ndjson);
+
+        // Assert
+        assertEquals("passengerId,passengerName,email,citizenId,phoneNumber\r\n", csv.toString(StandardCharsets.UTF_8));
+        assertEquals(0, ndjson.size());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("BM-EXPORT-01: 5,000,000 tickets exported - Heap stays flat while streaming")
+    void exportTickets_FiveMillionRows_BoundedHeap() throws Exception {
+        // Arrange
+        int rows = 5_000_000;
+        Runtime runtime = Runtime.getRuntime();
+        long[] heap = new long[2];
+        Timestamp paidAt = Timestamp.valueOf(LocalDateTime.of(2025, 5, 1, 9, 30));
+        BigDecimal fare = new BigDecimal("1500000.00");
+        streamTickets(rows, i -> {
+            if (i == 1000 || i == rows - 1000) {
+                System.gc();
+                heap[i == 1000 ? 0 : 1] = runtime.totalMemory() - runtime.freeMemory();
+            }
+            return new Object[]{i + 1, i % 500 + 1, i % 4 + 1, null, i + 1, "S" + i % 300, 1, paidAt, fare,
+                    "FMS-" + i, "ORD-" + i / 3};
+        });
+        CountingOutputStream out = new CountingOutputStream();
+
+        // Act
+        long start = System.nanoTime();
+        exportService.exportTickets(ExportFormat.NDJSON, out);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        long growthMb = (heap[1] - heap[0]) / (1024 * 1024);
+        System.out.printf("Exported %d tickets (%d MB) in %d ms, heap growth %d MB%n",
+                rows, out.bytes / (1024 * 1024), elapsedMs, growthMb);
+        assertEquals(rows, out.lines);
+        assertTrue(growthMb < 64, "Heap grew by " + growthMb + " MB while streaming");
+    }
+
+    private void streamTickets(int rows, IntFunction<Object[]> row) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(0);
+            for (int i = 0; i < rows; i++) {
+                handler.processRow(resultSet(row.apply(i)));
+            }
+            return null;
+        }).when(exportRepository).streamActiveTickets(any());
+    }
+
+    // A one-row ResultSet answering getObject(column); a Mockito mock would record every call
+    private static ResultSet resultSet(Object[] values) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getObject") && args.length == 1 && args[0] instanceof Integer column) {
+                        return values[column - 1];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
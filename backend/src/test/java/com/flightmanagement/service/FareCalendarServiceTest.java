@@ -0,0 +1,153 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.FareCalendarDto;
+import com.flightmanagement.exception.BadRequestException;
+import com.flightmanagement.repository.FlightRepository;
+import com.flightmanagement.service.impl.FareCalendarServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("FareCalendarService Tests")
+class FareCalendarServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 12, 7);
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private SeatInventoryService seatInventoryService;
+
+    @InjectMocks
+    private FareCalendarServiceImpl fareCalendarService;
+
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(flightRepository.findRouteFaresBetween(eq(1), eq(2), any(), any())).thenReturn(rows);
+        when(seatInventoryService.isAvailable(anyInt(), anyInt(), anyInt())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("TC1: Several flights a day - Lowest fare per day and ticket class, days in order")
+    void getFareCalendar_LowestFarePerDayAndClass() {
+        // Arrange
+        row(1, DAY, 8, 1, "120.00");
+        row(2, DAY, 14, 1, "90.00");
+        row(2, DAY, 14, 2, "300.00");
+        row(3, DAY.plusDays(2), 9, 1, "110.00");
+
+        // Act
+        List<FareCalendarDto> result = fareCalendarService.getFareCalendar(1, 2, DAY, DAY.plusDays(2), 1);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertCalendarEntry(result.get(0), DAY, 1, "90.00", 2);
+        assertCalendarEntry(result.get(1), DAY, 2, "300.00", 2);
+        assertCalendarEntry(result.get(2), DAY.plusDays(2), 1, "110.00", 3);
+    }
+
+    @Test
+    @DisplayName("TC2: Cheapest flight lacks seats for the party - Next cheapest available fare is used")
+    void getFareCalendar_SkipsUnavailableFlights() {
+        // Arrange
+        row(1, DAY, 8, 1, "120.00");
+        row(2, DAY, 14, 1, "90.00");
+        when(seatInventoryService.isAvailable(2, 1, 3)).thenReturn(false);
+
+        // Act
+        List<FareCalendarDto> result = fareCalendarService.getFareCalendar(1, 2, DAY, DAY, 3);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertCalendarEntry(result.get(0), DAY, 1, "120.00", 1);
+    }
+
+    @Test
+    @DisplayName("TC3: Same window asked twice - Second call is served from the cache with live availability")
+    void getFareCalendar_SecondCall_Cached() {
+        // Arrange
+        row(1, DAY, 8, 1, "120.00");
+        fareCalendarService.getFareCalendar(1, 2, DAY.minusDays(3), DAY.plusDays(3), 1);
+        when(seatInventoryService.isAvailable(1, 1, 1)).thenReturn(false);
+
+        // Act
+        List<FareCalendarDto> result = fareCalendarService.getFareCalendar(1, 2, DAY.minusDays(1), DAY.plusDays(1), 1);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(flightRepository, times(1)).findRouteFaresBetween(anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("TC4: Window partly cached - Only the uncached days are queried, in one query")
+    void getFareCalendar_PartlyCached_QueriesMissingDays() {
+        // Arrange
+        fareCalendarService.getFareCalendar(1, 2, DAY, DAY.plusDays(2), 1);
+
+        // Act
+        fareCalendarService.getFareCalendar(1, 2, DAY, DAY.plusDays(5), 1);
+
+        // Assert
+        verify(flightRepository).findRouteFaresBetween(1, 2, DAY.atStartOfDay(), DAY.plusDays(3).atStartOfDay());
+        verify(flightRepository).findRouteFaresBetween(1, 2, DAY.plusDays(3).atStartOfDay(), DAY.plusDays(6).atStartOfDay());
+    }
+
+    @Test
+    @DisplayName("TC5: Fare of a cached flight changed - Its day is queried again")
+    void evictFlight_ReloadsItsDay() {
+        // Arrange
+        row(1, DAY, 8, 1, "120.00");
+        fareCalendarService.getFareCalendar(1, 2, DAY, DAY.plusDays(1), 1);
+        rows.clear();
+        row(1, DAY, 8, 1, "80.00");
+
+        // Act
+        fareCalendarService.evictFlight(1);
+        List<FareCalendarDto> result = fareCalendarService.getFareCalendar(1, 2, DAY, DAY.plusDays(1), 1);
+
+        // Assert
+        assertCalendarEntry(result.get(0), DAY, 1, "80.00", 1);
+        verify(flightRepository).findRouteFaresBetween(1, 2, DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    @DisplayName("TC6: Window longer than 31 days or reversed - Throws BadRequestException")
+    void getFareCalendar_InvalidWindow_Throws() {
+        assertThrows(BadRequestException.class, () -> fareCalendarService.getFareCalendar(1, 2, DAY, DAY.plusDays(31), 1));
+        assertThrows(BadRequestException.class, () -> fareCalendarService.getFareCalendar(1, 2, DAY, DAY.minusDays(1), 1));
+        verify(flightRepository, never()).findRouteFaresBetween(anyInt(), anyInt(), any(), any());
+    }
+
+    private void row(Integer flightId, LocalDate day, int hour, Integer ticketClassId, String fare) {
+        rows.add(new Object[]{flightId, Timestamp.valueOf(day.atTime(hour, 0)), ticketClassId, new BigDecimal(fare)});
+    }
+
+    private static void assertCalendarEntry(FareCalendarDto entry, LocalDate day, Integer ticketClassId,
+                                            String fare, Integer flightId) {
+        assertEquals(day, entry.getDepartureDate());
+        assertEquals(ticketClassId, entry.getTicketClassId());
+        assertEquals(new BigDecimal(fare), entry.getLowestFare());
+        assertEquals(flightId, entry.getFlightId());
+    }
+}
@@ -0,0 +1,206 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.FlightDto;
+import com.flightmanagement.entity.Flight;
+import com.flightmanagement.mapper.FlightMapper;
+import com.flightmanagement.repository.FlightRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("FlightSearchIndex Tests")
+class FlightSearchIndexTest {
+
+    private static final LocalDateTime DAY = LocalDate.now().plusDays(30).atStartOfDay();
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private FlightMapper flightMapper;
+
+    private FlightSearchIndex flightSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        flightSearchIndex = new FlightSearchIndex(flightRepository, flightMapper);
+
+        List<Flight> flights = List.of(new Flight(), new Flight(), new Flight());
+        when(flightRepository.findAllActive()).thenReturn(flights);
+        when(flightMapper.toDtoList(flights)).thenReturn(List.of(
+                flight(1, 1, 2, DAY.plusHours(18)),
+                flight(2, 1, 2, DAY.plusHours(7)),
+                flight(3, 2, 1, DAY.plusHours(9))));
+    }
+
+    @Test
+    @DisplayName("TC1: Loaded on startup - Route and day lookup returns flights by departure time")
+    void load_SearchByRouteAndDay_SortedByDeparture() {
+        // Act
+        flightSearchIndex.load();
+        List<FlightDto> result = flightSearchIndex.search(1, 2, DAY.plusHours(12));
+
+        // Assert
+        assertTrue(flightSearchIndex.isReady());
+        assertEquals(List.of(2, 1), result.stream().map(FlightDto::getFlightId).toList());
+        assertEquals(List.of(3), flightSearchIndex.search(2, 1, DAY).stream().map(FlightDto::getFlightId).toList());
+        assertTrue(flightSearchIndex.search(1, 2, DAY.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("TC2: Flight moved to another day - Leaves the old day and joins the new one")
+    void put_ChangedDepartureDay_MovesFlight() {
+        // Arrange
+        flightSearchIndex.load();
+
+        // Act
+        flightSearchIndex.put(flight(2, 1, 2, DAY.plusDays(1).plusHours(7)));
+
+        // Assert
+        assertEquals(List.of(1), flightSearchIndex.search(1, 2, DAY).stream().map(FlightDto::getFlightId).toList());
+        assertEquals(List.of(2), flightSearchIndex.search(1, 2, DAY.plusDays(1)).stream().map(FlightDto::getFlightId).toList());
+        assertEquals(3, flightSearchIndex.size());
+    }
+
+    @Test
+    @DisplayName("TC3: Flight deleted - No longer found")
+    void remove_DeletedFlight_NotFound() {
+        // Arrange
+        flightSearchIndex.load();
+
+        // Act
+        flightSearchIndex.remove(3);
+
+        // Assert
+        assertTrue(flightSearchIndex.search(2, 1, DAY).isEmpty());
+        assertEquals(2, flightSearchIndex.size());
+    }
+
+    @Test
+    @DisplayName("TC4: Loading fails - Index stays off so searches use the database")
+    void load_RepositoryFails_NotReady() {
+        // Arrange
+        when(flightRepository.findAllActive()).thenThrow(new RuntimeException("Connection refused"));
+
+        // Act
+        flightSearchIndex.load();
+
+        // Assert
+        assertFalse(flightSearchIndex.isReady());
+    }
+
+    @Test
+    @DisplayName("TC5: Search result - Cannot be modified by the caller")
+    void search_Result_IsUnmodifiable() {
+        // Arrange
+        flightSearchIndex.load();
+        List<FlightDto> result = flightSearchIndex.search(1, 2, DAY);
+
+        // Act & Assert
+        assertThrows(UnsupportedOperationException.class, () -> result.set(0, new FlightDto()));
+    }
+
+    @Test
+    @DisplayName("TC6: Departures in a window past midnight - Both days in departure order, bounds inclusive")
+    void departuresBetween_AcrossMidnight() {
+        // Arrange
+        flightSearchIndex.load();
+        flightSearchIndex.put(flight(4, 1, 3, DAY.plusDays(1).plusHours(1)));
+        flightSearchIndex.put(flight(5, 1, 2, DAY.plusDays(1).plusHours(3)));
+
+        // Act
+        List<FlightDto> departures = flightSearchIndex.departuresBetween(1, DAY.plusHours(18), DAY.plusDays(1).plusHours(3));
+        List<FlightDto> route = flightSearchIndex.searchBetween(1, 2, DAY.plusHours(8), DAY.plusDays(1).plusHours(2));
+
+        // Assert
+        assertEquals(List.of(1, 4, 5), departures.stream().map(FlightDto::getFlightId).toList());
+        assertEquals(List.of(1), route.stream().map(FlightDto::getFlightId).toList());
+    }
+
+    @Test
+    @DisplayName("TC7: Airport renamed - Indexed flights are replaced by relabeled copies in the same order")
+    void refreshReferenceNames_RelabelsFlights() {
+        // Arrange
+        flightSearchIndex.load();
+        FlightDto before = flightSearchIndex.search(1, 2, DAY).get(0);
+        doAnswer(invocation -> {
+            FlightDto flightDto = invocation.getArgument(0);
+            flightDto.setDepartureAirportName("Airport " + flightDto.getDepartureAirportId());
+            return null;
+        }).when(flightMapper).fillReferenceNames(any(FlightDto.class));
+
+        // Act
+        flightSearchIndex.refreshReferenceNames();
+
+        // Assert
+        List<FlightDto> route = flightSearchIndex.search(1, 2, DAY);
+        assertEquals(List.of(2, 1), route.stream().map(FlightDto::getFlightId).toList());
+        assertEquals("Airport 1", route.get(0).getDepartureAirportName());
+        assertNull(before.getDepartureAirportName());
+        assertSame(route.get(0), flightSearchIndex.departuresBetween(1, DAY, DAY.plusHours(8)).get(0));
+    }
+
+    @Test
+    @DisplayName("TC8: Days in the past - Skipped at load and on put")
+    void load_PastDays_Skipped() {
+        // Arrange
+        List<Flight> flights = List.of(new Flight(), new Flight());
+        when(flightRepository.findAllActive()).thenReturn(flights);
+        when(flightMapper.toDtoList(flights)).thenReturn(List.of(
+                flight(1, 1, 2, DAY.plusHours(8)),
+                flight(2, 1, 2, LocalDate.now().minusDays(1).atTime(8, 0))));
+
+        // Act
+        flightSearchIndex.load();
+        flightSearchIndex.put(flight(1, 1, 2, LocalDate.now().minusDays(2).atTime(8, 0)));
+
+        // Assert
+        assertEquals(0, flightSearchIndex.size());
+        assertTrue(flightSearchIndex.search(1, 2, DAY).isEmpty());
+        assertTrue(flightSearchIndex.covers(LocalDate.now()));
+        assertFalse(flightSearchIndex.covers(LocalDate.now().minusDays(1)));
+    }
+
+    @Test
+    @DisplayName("TC9: Purge - Days before the cutoff are dropped from routes, departures and ids")
+    void purgeDaysBefore_DropsPastDays() {
+        // Arrange
+        flightSearchIndex.load();
+        flightSearchIndex.put(flight(4, 1, 2, DAY.plusDays(1).plusHours(7)));
+
+        // Act
+        flightSearchIndex.purgeDaysBefore(DAY.toLocalDate().plusDays(1));
+
+        // Assert
+        assertTrue(flightSearchIndex.search(1, 2, DAY).isEmpty());
+        assertTrue(flightSearchIndex.departuresBetween(1, DAY, DAY.plusHours(23)).isEmpty());
+        assertEquals(List.of(4), flightSearchIndex.search(1, 2, DAY.plusDays(1)).stream().map(FlightDto::getFlightId).toList());
+        assertEquals(1, flightSearchIndex.size());
+    }
+
+    private static FlightDto flight(Integer flightId, Integer departureAirportId, Integer arrivalAirportId,
+                                    LocalDateTime departureTime) {
+        FlightDto flightDto = new FlightDto();
+        flightDto.setFlightId(flightId);
+        flightDto.setFlightCode("VN" + flightId);
+        flightDto.setDepartureAirportId(departureAirportId);
+        flightDto.setArrivalAirportId(arrivalAirportId);
+        flightDto.setDepartureTime(departureTime);
+        flightDto.setArrivalTime(departureTime.plusHours(2));
+        return flightDto;
+    }
+}
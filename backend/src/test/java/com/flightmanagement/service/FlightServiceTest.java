@@ -14,7 +14,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -43,6 +45,15 @@ public class FlightServiceTest {
     @Mock
     private FlightTicketClassService flightTicketClassService;
 
+    @Mock
+    private SeatInventoryService seatInventoryService;
+
+    @Mock
+    private FlightSearchIndex flightSearchIndex;
+
+    @Mock
+    private FareCalendarService fareCalendarService;
+
     @InjectMocks
     private FlightServiceImpl flightService;
 
@@ -193,7 +204,8 @@ public class FlightServiceTest {
             // Arrange
             criteria = new FlightSearchCriteria(1, 2, departureDate, 2, 1);
 
-            when(flightRepository.findFlightsWithTicketClass(1, 2, departureDate, 1, 2))
+            when(seatInventoryService.isAvailable(anyInt(), eq(1), eq(2))).thenReturn(true);
+            when(flightRepository.findFlightsByRoute(1, 2, departureDate))
                 .thenReturn(flights);
             when(flightMapper.toDtoList(flights)).thenReturn(flightDtos);
 
@@ -204,8 +216,9 @@ public class FlightServiceTest {
             assertNotNull(result);
             assertEquals(2, result.size());
             assertEquals("VN101", result.get(0).getFlightCode());
-            verify(flightRepository).findFlightsWithTicketClass(1, 2, departureDate, 1, 2);
-            verify(flightRepository, never()).findFlightsByRoute(anyInt(), anyInt(), any());
+            verify(flightRepository).findFlightsByRoute(1, 2, departureDate);
+            verify(seatInventoryService).isAvailable(1, 1, 2);
+            verify(seatInventoryService).isAvailable(2, 1, 2);
         }
 
         @Test
@@ -215,7 +228,8 @@ public class FlightServiceTest {
             // Arrange
             criteria = new FlightSearchCriteria(1, 2, departureDate, 1, 3);
 
-            when(flightRepository.findFlightsWithTicketClass(1, 2, departureDate, 3, 1))
+            when(seatInventoryService.isAvailable(anyInt(), eq(3), eq(1))).thenReturn(true);
+            when(flightRepository.findFlightsByRoute(1, 2, departureDate))
                 .thenReturn(Arrays.asList(flights.get(0)));
             when(flightMapper.toDtoList(anyList())).thenReturn(Arrays.asList(flightDtos.get(0)));
 
@@ -225,7 +239,7 @@ public class FlightServiceTest {
             // Assert
             assertNotNull(result);
             assertEquals(1, result.size());
-            verify(flightRepository).findFlightsWithTicketClass(1, 2, departureDate, 3, 1);
+            verify(flightRepository).findFlightsByRoute(1, 2, departureDate);
         }
 
         @Test
@@ -235,7 +249,8 @@ public class FlightServiceTest {
             // Arrange
             criteria = new FlightSearchCriteria(1, 2, departureDate, 5, 2);
 
-            when(flightRepository.findFlightsWithTicketClass(1, 2, departureDate, 2, 5))
+            when(seatInventoryService.isAvailable(anyInt(), eq(2), eq(5))).thenReturn(true);
+            when(flightRepository.findFlightsByRoute(1, 2, departureDate))
                 .thenReturn(flights);
             when(flightMapper.toDtoList(flights)).thenReturn(flightDtos);
 
@@ -245,7 +260,7 @@ public class FlightServiceTest {
             // Assert
             assertNotNull(result);
             assertEquals(2, result.size());
-            verify(flightRepository).findFlightsWithTicketClass(1, 2, departureDate, 2, 5);
+            verify(flightRepository).findFlightsByRoute(1, 2, departureDate);
         }
 
         // ===== NHÓM 3: Empty Results =====
@@ -257,7 +272,8 @@ public class FlightServiceTest {
             // Arrange
             criteria = new FlightSearchCriteria(1, 2, departureDate, 2, 1);
 
-            when(flightRepository.findFlightsWithTicketClass(1, 2, departureDate, 1, 2))
+            when(seatInventoryService.isAvailable(anyInt(), eq(1), eq(2))).thenReturn(true);
+            when(flightRepository.findFlightsByRoute(1, 2, departureDate))
                 .thenReturn(Collections.emptyList());
             when(flightMapper.toDtoList(Collections.emptyList())).thenReturn(Collections.emptyList());
 
@@ -267,7 +283,7 @@ public class FlightServiceTest {
             // Assert
             assertNotNull(result);
             assertTrue(result.isEmpty());
-            verify(flightRepository).findFlightsWithTicketClass(1, 2, departureDate, 1, 2);
+            verify(flightRepository).findFlightsByRoute(1, 2, departureDate);
         }
 
         @Test
@@ -319,7 +335,8 @@ public class FlightServiceTest {
             // Arrange
             criteria = new FlightSearchCriteria(1, 2, departureDate, 100, 1);
 
-            when(flightRepository.findFlightsWithTicketClass(1, 2, departureDate, 1, 100))
+            when(seatInventoryService.isAvailable(anyInt(), eq(1), eq(100))).thenReturn(true);
+            when(flightRepository.findFlightsByRoute(1, 2, departureDate))
                 .thenReturn(flights);
             when(flightMapper.toDtoList(flights)).thenReturn(flightDtos);
 
@@ -329,7 +346,7 @@ public class FlightServiceTest {
             // Assert
             assertNotNull(result);
             assertEquals(2, result.size());
-            verify(flightRepository).findFlightsWithTicketClass(1, 2, departureDate, 1, 100);
+            verify(flightRepository).findFlightsByRoute(1, 2, departureDate);
         }
 
         @Test
@@ -339,7 +356,8 @@ public class FlightServiceTest {
             // Arrange
             criteria = new FlightSearchCriteria(1, 2, departureDate, 2, 1);
 
-            when(flightRepository.findFlightsWithTicketClass(1, 2, departureDate, 1, 2))
+            when(seatInventoryService.isAvailable(anyInt(), eq(1), eq(2))).thenReturn(true);
+            when(flightRepository.findFlightsByRoute(1, 2, departureDate))
                 .thenReturn(Arrays.asList(flights.get(0)));
             when(flightMapper.toDtoList(anyList())).thenReturn(Arrays.asList(flightDtos.get(0)));
 
@@ -381,7 +399,8 @@ public class FlightServiceTest {
             LocalDateTime futureDate = LocalDateTime.of(2026, 12, 31, 23, 59);
             criteria = new FlightSearchCriteria(1, 2, futureDate, 2, 1);
 
-            when(flightRepository.findFlightsWithTicketClass(1, 2, futureDate, 1, 2))
+            when(seatInventoryService.isAvailable(anyInt(), eq(1), eq(2))).thenReturn(true);
+            when(flightRepository.findFlightsByRoute(1, 2, futureDate))
                 .thenReturn(flights);
             when(flightMapper.toDtoList(flights)).thenReturn(flightDtos);
 
@@ -391,7 +410,51 @@ public class FlightServiceTest {
             // Assert
             assertNotNull(result);
             assertEquals(2, result.size());
-            verify(flightRepository).findFlightsWithTicketClass(1, 2, futureDate, 1, 2);
+            verify(flightRepository).findFlightsByRoute(1, 2, futureDate);
+        }
+
+        @Test
+        @Tag("searchFlights")
+        @DisplayName("TC11: Search with ticketClassId - Filters out flights without enough seats")
+        void searchFlights_WithTicketClassId_FiltersSoldOutFlights() {
+            // Arrange
+            criteria = new FlightSearchCriteria(1, 2, departureDate, 2, 1);
+
+            when(flightRepository.findFlightsByRoute(1, 2, departureDate))
+                .thenReturn(flights);
+            when(seatInventoryService.isAvailable(1, 1, 2)).thenReturn(true);
+            when(seatInventoryService.isAvailable(2, 1, 2)).thenReturn(false);
+            when(flightMapper.toDtoList(List.of(flights.get(0)))).thenReturn(List.of(flightDtos.get(0)));
+
+            // Act
+            List<FlightDto> result = flightService.searchFlights(criteria);
+
+            // Assert
+            assertEquals(1, result.size());
+            assertEquals("VN101", result.get(0).getFlightCode());
+            verify(flightRepository, never()).findFlightsWithTicketClass(anyInt(), anyInt(), any(), anyInt(), anyInt());
+        }
+
+        @Test
+        @Tag("searchFlights")
+        @DisplayName("TC12: Search index loaded - Answers from the index without querying")
+        void searchFlights_IndexReady_UsesIndex() {
+            // Arrange
+            criteria = new FlightSearchCriteria(1, 2, departureDate, 2, 1);
+
+            when(flightSearchIndex.covers(departureDate.toLocalDate())).thenReturn(true);
+            when(flightSearchIndex.search(1, 2, departureDate)).thenReturn(flightDtos);
+            when(seatInventoryService.isAvailable(1, 1, 2)).thenReturn(true);
+            when(seatInventoryService.isAvailable(2, 1, 2)).thenReturn(false);
+
+            // Act
+            List<FlightDto> result = flightService.searchFlights(criteria);
+
+            // Assert
+            assertEquals(1, result.size());
+            assertEquals("VN101", result.get(0).getFlightCode());
+            verify(flightRepository, never()).findFlightsByRoute(anyInt(), anyInt(), any());
+            verify(flightMapper, never()).toDtoList(anyList());
         }
     }
 
@@ -856,6 +919,38 @@ public class FlightServiceTest {
             verify(flightRepository).save(mappedFlight);
             verify(flightMapper).toDto(savedFlight);
         }
+
+        @Test
+        @DisplayName("TC6: Unknown plane or airport id - Throws IllegalArgumentException on insert")
+        void createFlight_UnknownReference_ThrowsValidationException() {
+            // Arrange
+            when(flightRepository.existsByFlightCode("VN2024")).thenReturn(false);
+            when(flightMapper.toEntityFromCreateRequest(createRequest)).thenReturn(mappedFlight);
+            when(flightRepository.save(mappedFlight))
+                    .thenThrow(new DataIntegrityViolationException("Cannot add or update a child row: a foreign key constraint fails"));
+
+            // Act & Assert
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> flightService.createFlight(createRequest));
+            assertTrue(ex.getMessage().contains("Plane or airport not found"));
+            verify(flightMapper, never()).toDto(any());
+        }
+
+        @Test
+        @DisplayName("TC7: Duplicate flight code on insert - Rethrows the original violation")
+        void createFlight_DuplicateKey_RethrowsViolation() {
+            // Arrange
+            DataIntegrityViolationException duplicate = new DataIntegrityViolationException("could not execute statement",
+                    new SQLException("Duplicate entry 'VN2024' for key 'flight.flight_code'", "23000", 1062));
+            when(flightRepository.existsByFlightCode("VN2024")).thenReturn(false);
+            when(flightMapper.toEntityFromCreateRequest(createRequest)).thenReturn(mappedFlight);
+            when(flightRepository.save(mappedFlight)).thenThrow(duplicate);
+
+            // Act & Assert
+            DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class,
+                    () -> flightService.createFlight(createRequest));
+            assertSame(duplicate, ex);
+        }
     }
 
 //     // ==================== getFlightsByDateRange Tests - Complete Path Coverage ====================
@@ -44,6 +44,15 @@ public class FlightTicketClassServiceTest {
     @Mock
     private TicketClassRepository ticketClassRepository;
 
+    @Mock
+    private SeatInventoryService seatInventoryService;
+
+    @Mock
+    private SeatMapService seatMapService;
+
+    @Mock
+    private FareCalendarService fareCalendarService;
+
     @InjectMocks
     private FlightTicketClassServiceImpl flightTicketClassService;
 
@@ -0,0 +1,140 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.MessageDto;
+import com.flightmanagement.entity.Account;
+import com.flightmanagement.entity.Message;
+import com.flightmanagement.exception.ResourceNotFoundException;
+import com.flightmanagement.mapper.MessageMapper;
+import com.flightmanagement.repository.AccountRepository;
+import com.flightmanagement.repository.MessageRepository;
+import com.flightmanagement.service.impl.MessageServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("MessageService Tests")
+class MessageServiceTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MessageServiceImpl messageService;
+
+    @BeforeEach
+    void setUp() {
+        messageService = new MessageServiceImpl(messageRepository, new MessageMapper(), accountRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("TC1: Conversation with several employee messages - Employee names loaded in one query")
+    void getMessagesByChatboxId_LoadsEmployeeNamesOnce() {
+        // Arrange
+        when(messageRepository.findByChatboxIdOrderBySendTimeAsc(1)).thenReturn(List.of(
+                message(1, null), message(2, 5), message(3, 5), message(4, 6)));
+        when(accountRepository.findAllById(List.of(5, 6))).thenReturn(List.of(account(5, "Tran Thi B")));
+
+        // Act
+        List<MessageDto> messages = messageService.getMessagesByChatboxId(1);
+
+        // Assert
+        assertEquals(4, messages.size());
+        assertTrue(messages.get(0).getIsFromCustomer());
+        assertNull(messages.get(0).getEmployeeName());
+        assertEquals("Tran Thi B", messages.get(2).getEmployeeName());
+        assertEquals("Employee", messages.get(3).getEmployeeName());
+        verify(accountRepository, times(1)).findAllById(any());
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("TC2: Customer sends a message - Saved with the chatbox's next seq and published")
+    void createCustomerMessage_AssignsSeqAndPublishes() {
+        // Arrange
+        when(messageRepository.incrementLastMessageSeq(1)).thenReturn(1);
+        when(messageRepository.findLastMessageSeq(1)).thenReturn(8);
+        when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> {
+            Message saved = invocation.getArgument(0);
+            saved.setMessageId(42);
+            return saved;
+        });
+        ArgumentCaptor<MessageCreatedEvent> event = ArgumentCaptor.forClass(MessageCreatedEvent.class);
+
+        // Act
+        MessageDto result = messageService.createCustomerMessage(1, "Can I change my seat?");
+
+        // Assert
+        assertEquals(42, result.getMessageId());
+        assertEquals(8, result.getSeq());
+        assertTrue(result.getIsFromCustomer());
+        verify(eventPublisher).publishEvent(event.capture());
+        assertSame(result, event.getValue().message());
+    }
+
+    @Test
+    @DisplayName("TC3: Unknown chatbox - Throws ResourceNotFoundException, nothing saved or published")
+    void createEmployeeMessage_UnknownChatbox_Throws() {
+        // Arrange
+        when(messageRepository.incrementLastMessageSeq(99)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> messageService.createEmployeeMessage(99, 5, "Hello"));
+        verify(messageRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("TC4: Messages since a seq - Only the gap is returned")
+    void getMessagesSince_ReturnsGap() {
+        // Arrange
+        Message ninth = message(9, null);
+        ninth.setSeq(9);
+        when(messageRepository.findByChatboxIdAndSeqAfter(1, 8)).thenReturn(List.of(ninth));
+
+        // Act
+        List<MessageDto> messages = messageService.getMessagesSince(1, 8);
+
+        // Assert
+        assertEquals(1, messages.size());
+        assertEquals(9, messages.get(0).getSeq());
+        verifyNoInteractions(accountRepository);
+    }
+
+    private static Message message(int messageId, Integer employeeId) {
+        Message message = new Message();
+        message.setMessageId(messageId);
+        message.setChatboxId(1);
+        message.setEmployeeId(employeeId);
+        message.setContent("Message " + messageId);
+        message.setSendTime(LocalDateTime.of(2025, 5, 1, 9, messageId));
+        return message;
+    }
+
+    private static Account account(int accountId, String accountName) {
+        Account account = new Account();
+        account.setAccountId(accountId);
+        account.setAccountName(accountName);
+        return account;
+    }
+}
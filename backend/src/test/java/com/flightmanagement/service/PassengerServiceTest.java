@@ -31,6 +31,7 @@ import static org.mockito.Mockito.*;
  * - getPassengerById: Tests for retrieving passenger by ID
  * - getPassengerByCitizenId: Tests for retrieving passenger by citizen ID
  * - createPassenger: Tests for creating new passengers
+ * - getOrCreatePassengers: Tests for resolving a booking's passengers in one pass
  * - updatePassenger: Tests for updating passenger information
  * - deletePassenger: Tests for passenger deletion (soft delete)
  * - getPassengersByEmail: Tests for retrieving passengers by email
@@ -45,6 +46,9 @@ public class PassengerServiceTest {
     @Mock
     private PassengerMapper passengerMapper;
 
+    @Mock
+    private AuditLogService auditLogService;
+
     @InjectMocks
     private PassengerServiceImpl passengerService;
 
@@ -533,6 +537,43 @@ public class PassengerServiceTest {
         ));
     }
 
+    // ================ GET OR CREATE PASSENGERS TESTS ================
+
+    @Test
+    @Tag("getOrCreatePassengers")
+    void testGetOrCreatePassengers_MixedExistingAndNew_OneLookupOneInsert() {
+        // Given
+        PassengerDto newPassengerDto = new PassengerDto();
+        newPassengerDto.setPassengerName("New Passenger");
+        newPassengerDto.setEmail("new@email.com");
+        newPassengerDto.setCitizenId("555666777");
+
+        when(passengerRepository.findByCitizenIdIn(List.of("123456789", "555666777")))
+            .thenReturn(List.of(testPassenger));
+        when(passengerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Passenger> passengers = invocation.getArgument(0);
+            passengers.get(0).setPassengerId(3);
+            return passengers;
+        });
+        when(passengerMapper.toDto(any(Passenger.class))).thenAnswer(invocation -> {
+            Passenger passenger = invocation.getArgument(0);
+            PassengerDto dto = new PassengerDto();
+            dto.setPassengerId(passenger.getPassengerId());
+            dto.setCitizenId(passenger.getCitizenId());
+            return dto;
+        });
+
+        // When
+        List<PassengerDto> result = passengerService.getOrCreatePassengers(
+            List.of(testPassengerDto, newPassengerDto, newPassengerDto));
+
+        // Then
+        assertEquals(List.of(1, 3, 3), result.stream().map(PassengerDto::getPassengerId).toList());
+        verify(passengerRepository).saveAll(argThat((List<Passenger> passengers) -> passengers.size() == 1));
+        verify(passengerRepository, never()).findByCitizenId(anyString());
+        verify(auditLogService).saveAuditLogs(argThat(logs -> logs.size() == 1 && "3".equals(logs.get(0).getEntityId())));
+    }
+
     // ================ UPDATE PASSENGER TESTS ================
 
     @Test
@@ -44,6 +44,12 @@ public class PlaneServiceTest {
     @Mock
     private PlaneMapper planeMapper;
 
+    @Mock
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Mock
+    private FlightSearchIndex flightSearchIndex;
+
     @InjectMocks
     private PlaneServiceImpl planeService;
 
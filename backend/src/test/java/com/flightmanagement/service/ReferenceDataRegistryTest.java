@@ -0,0 +1,139 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.entity.Airport;
+import com.flightmanagement.entity.Plane;
+import com.flightmanagement.entity.TicketClass;
+import com.flightmanagement.repository.AirportRepository;
+import com.flightmanagement.repository.PlaneRepository;
+import com.flightmanagement.repository.TicketClassRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ReferenceDataRegistry Tests")
+class ReferenceDataRegistryTest {
+
+    @Mock
+    private AirportRepository airportRepository;
+
+    @Mock
+    private PlaneRepository planeRepository;
+
+    @Mock
+    private TicketClassRepository ticketClassRepository;
+
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @BeforeEach
+    void setUp() {
+        referenceDataRegistry = new ReferenceDataRegistry(airportRepository, planeRepository, ticketClassRepository);
+
+        when(airportRepository.findAll()).thenReturn(List.of(
+                new Airport(1, "Noi Bai", "Ha Noi", "Vietnam", null),
+                new Airport(3, "Tan Son Nhat", "Ho Chi Minh City", "Vietnam", LocalDateTime.now())));
+        when(planeRepository.findAll()).thenReturn(List.of(new Plane(2, "VN-A321", "Airbus A321", 180, null)));
+        when(ticketClassRepository.findAll()).thenReturn(List.of(new TicketClass(1, "Economy", "#2196F3", null)));
+    }
+
+    @Test
+    @DisplayName("TC1: Loaded on startup - Rows are found by id, soft-deleted ones included")
+    void load_FindsRowsById() {
+        // Act
+        referenceDataRegistry.load();
+
+        // Assert
+        assertEquals("Noi Bai", referenceDataRegistry.findAirport(1).airportName());
+        assertEquals("Ho Chi Minh City", referenceDataRegistry.findAirport(3).cityName());
+        assertEquals("VN-A321", referenceDataRegistry.findPlane(2).planeCode());
+        assertEquals("Economy", referenceDataRegistry.findTicketClass(1).ticketClassName());
+    }
+
+    @Test
+    @DisplayName("TC2: Unknown, negative or null id - Returns null")
+    void find_UnknownId_ReturnsNull() {
+        // Arrange
+        referenceDataRegistry.load();
+
+        // Act & Assert
+        assertNull(referenceDataRegistry.findAirport(2));
+        assertNull(referenceDataRegistry.findAirport(99));
+        assertNull(referenceDataRegistry.findAirport(-1));
+        assertNull(referenceDataRegistry.findPlane(null));
+    }
+
+    @Test
+    @DisplayName("TC3: Airport added and renamed - Lookups see the latest values")
+    void putAirport_AddsAndReplaces() {
+        // Arrange
+        referenceDataRegistry.load();
+
+        // Act
+        referenceDataRegistry.putAirport(new Airport(10, "Da Nang", "Da Nang", "Vietnam", null));
+        referenceDataRegistry.putAirport(new Airport(1, "Noi Bai International", "Ha Noi", "Vietnam", null));
+
+        // Assert
+        assertEquals("Da Nang", referenceDataRegistry.findAirport(10).airportName());
+        assertEquals("Noi Bai International", referenceDataRegistry.findAirport(1).airportName());
+        assertEquals("Tan Son Nhat", referenceDataRegistry.findAirport(3).airportName());
+    }
+
+    @Test
+    @DisplayName("TC4: Airport inserted outside the services - Read through once, then served from memory")
+    void findAirport_UnknownRow_ReadThrough() {
+        // Arrange
+        referenceDataRegistry.load();
+        when(airportRepository.findById(7)).thenReturn(Optional.of(new Airport(7, "Cam Ranh", "Nha Trang", "Vietnam", null)));
+
+        // Act
+        referenceDataRegistry.findAirport(7);
+        String cityName = referenceDataRegistry.findAirport(7).cityName();
+
+        // Assert
+        assertEquals("Nha Trang", cityName);
+        verify(airportRepository, times(1)).findById(7);
+    }
+
+    @Test
+    @DisplayName("TC5: Loading fails - Lookups return null instead of throwing")
+    void load_RepositoryFails_Empty() {
+        // Arrange
+        when(airportRepository.findAll()).thenThrow(new RuntimeException("Database unavailable"));
+
+        // Act
+        referenceDataRegistry.load();
+
+        // Assert
+        assertNull(referenceDataRegistry.findAirport(1));
+        assertNull(referenceDataRegistry.findTicketClass(1));
+    }
+
+    @Test
+    @DisplayName("TC6: Row with a very large id - Stored and found without sizing anything by id")
+    void load_LargeId_Found() {
+        // Arrange
+        when(planeRepository.findAll()).thenReturn(List.of(new Plane(Integer.MAX_VALUE - 1, "VN-B787", "Boeing 787", 300, null)));
+
+        // Act
+        referenceDataRegistry.load();
+        referenceDataRegistry.putAirport(new Airport(2_000_000_000, "Phu Quoc", "Phu Quoc", "Vietnam", null));
+
+        // Assert
+        assertEquals("VN-B787", referenceDataRegistry.findPlane(Integer.MAX_VALUE - 1).planeCode());
+        assertEquals("Phu Quoc", referenceDataRegistry.findAirport(2_000_000_000).airportName());
+        assertEquals("Noi Bai", referenceDataRegistry.findAirport(1).airportName());
+    }
+}
@@ -0,0 +1,160 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.entity.FlightTicketClass;
+import com.flightmanagement.repository.FlightTicketClassRepository;
+import com.flightmanagement.service.impl.SeatInventoryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("SeatInventoryService Tests")
+class SeatInventoryServiceTest {
+
+    @Mock
+    private FlightTicketClassRepository flightTicketClassRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private SeatInventoryServiceImpl seatInventoryService;
+
+    private FlightTicketClass row;
+
+    @BeforeEach
+    void setUp() {
+        row = new FlightTicketClass();
+        row.setFlightId(1);
+        row.setTicketClassId(2);
+        row.setTicketQuantity(10);
+        row.setRemainingTicketQuantity(5);
+        row.setSpecifiedFare(new BigDecimal("150.00"));
+
+        when(flightTicketClassRepository.findByFlightIdAndTicketClassId(1, 2)).thenReturn(Optional.of(row));
+
+        // Run transactional callbacks inline
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("TC1: Counter is loaded once and served from memory afterwards")
+    void findRemaining_LoadsLazilyOnce() {
+        assertEquals(OptionalInt.of(5), seatInventoryService.findRemaining(1, 2));
+        assertEquals(OptionalInt.of(5), seatInventoryService.findRemaining(1, 2));
+
+        verify(flightTicketClassRepository, times(1)).findByFlightIdAndTicketClassId(1, 2);
+    }
+
+    @Test
+    @DisplayName("TC2: Unknown flight ticket class - Not available and reserve fails")
+    void reserve_UnknownRow_ThrowsException() {
+        when(flightTicketClassRepository.findByFlightIdAndTicketClassId(9, 9)).thenReturn(Optional.empty());
+
+        assertFalse(seatInventoryService.isAvailable(9, 9, 1));
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> seatInventoryService.reserve(9, 9, 1));
+        assertTrue(exception.getMessage().contains("FlightTicketClass not found"));
+    }
+
+    @Test
+    @DisplayName("TC3: Reserve beyond remaining - Fails without touching the database")
+    void reserve_NotEnoughTickets_ThrowsException() {
+        seatInventoryService.reserve(1, 2, 3);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> seatInventoryService.reserve(1, 2, 3));
+
+        assertTrue(exception.getMessage().contains("Not enough tickets available"));
+        assertEquals(OptionalInt.of(2), seatInventoryService.findRemaining(1, 2));
+        verify(flightTicketClassRepository, never()).applyRemainingTicketsDelta(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("TC4: Flush writes back one net delta and clears it")
+    void flush_WritesNetDeltaOnce() {
+        seatInventoryService.reserve(1, 2, 3);
+        seatInventoryService.release(1, 2, 1);
+
+        seatInventoryService.flush();
+        seatInventoryService.flush();
+
+        verify(flightTicketClassRepository, times(1)).applyRemainingTicketsDelta(1, 2, -2);
+    }
+
+    @Test
+    @DisplayName("TC5: Failed flush keeps the delta for the next attempt")
+    void flush_Failure_RetriesDelta() {
+        seatInventoryService.reserve(1, 2, 2);
+        when(flightTicketClassRepository.applyRemainingTicketsDelta(1, 2, -2))
+                .thenThrow(new RuntimeException("Database error"))
+                .thenReturn(1);
+
+        seatInventoryService.flush();
+        seatInventoryService.flush();
+
+        verify(flightTicketClassRepository, times(2)).applyRemainingTicketsDelta(1, 2, -2);
+    }
+
+    @Test
+    @DisplayName("TC6: Release never exceeds ticket quantity")
+    void release_CappedAtTicketQuantity() {
+        seatInventoryService.release(1, 2, 20);
+
+        assertEquals(OptionalInt.of(10), seatInventoryService.findRemaining(1, 2));
+    }
+
+    @Test
+    @DisplayName("TC7: Refresh keeps unflushed reservations on top of the reloaded row")
+    void refresh_ReloadsRowAfterWriteBack() {
+        seatInventoryService.reserve(1, 2, 2);
+        row.setRemainingTicketQuantity(8);
+
+        seatInventoryService.refresh(1, 2);
+
+        verify(flightTicketClassRepository).applyRemainingTicketsDelta(1, 2, -2);
+        assertEquals(OptionalInt.of(8), seatInventoryService.findRemaining(1, 2));
+    }
+
+    @Test
+    @DisplayName("TC8: Reconcile repairs the table and rebuilds all counters")
+    void reconcile_RebuildsCounters() {
+        FlightTicketClass other = new FlightTicketClass();
+        other.setFlightId(3);
+        other.setTicketClassId(1);
+        other.setTicketQuantity(50);
+        other.setRemainingTicketQuantity(40);
+        when(flightTicketClassRepository.findAllActive()).thenReturn(List.of(row, other));
+
+        seatInventoryService.reconcile();
+
+        verify(flightTicketClassRepository).reconcileRemainingWithActiveTickets();
+        assertTrue(seatInventoryService.isAvailable(3, 1, 40));
+        assertFalse(seatInventoryService.isAvailable(3, 1, 41));
+        verify(flightTicketClassRepository, never()).findByFlightIdAndTicketClassId(3, 1);
+    }
+}
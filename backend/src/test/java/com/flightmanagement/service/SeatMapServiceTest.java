@@ -0,0 +1,141 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.SeatMapDto;
+import com.flightmanagement.entity.FlightTicketClass;
+import com.flightmanagement.entity.TicketClass;
+import com.flightmanagement.exception.ResourceNotFoundException;
+import com.flightmanagement.repository.FlightTicketClassRepository;
+import com.flightmanagement.repository.TicketRepository;
+import com.flightmanagement.service.impl.SeatMapServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("SeatMapService Tests")
+class SeatMapServiceTest {
+
+    @Mock
+    private FlightTicketClassRepository flightTicketClassRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @InjectMocks
+    private SeatMapServiceImpl seatMapService;
+
+    @BeforeEach
+    void setUp() {
+        TicketClass economy = new TicketClass();
+        economy.setTicketClassId(1);
+        economy.setTicketClassName("Economy");
+
+        FlightTicketClass flightTicketClass = new FlightTicketClass();
+        flightTicketClass.setFlightId(1);
+        flightTicketClass.setTicketClassId(1);
+        flightTicketClass.setTicketClass(economy);
+        flightTicketClass.setTicketQuantity(8);
+        flightTicketClass.setRemainingTicketQuantity(5);
+
+        when(flightTicketClassRepository.findByFlightIdAndTicketClassId(1, 1)).thenReturn(Optional.of(flightTicketClass));
+        when(ticketRepository.findActiveSeatNumbers(1, 1)).thenReturn(List.of("E02", "A4", "12C"));
+    }
+
+    @Test
+    @DisplayName("TC1: Seat map is built once from ticket rows")
+    void getSeatMap_BuiltOnceFromTickets() {
+        SeatMapDto first = seatMapService.getSeatMap(1, 1);
+        seatMapService.getSeatMap(1, 1);
+
+        assertEquals(8, first.getCapacity());
+        assertEquals(3, first.getOccupiedCount());
+        assertEquals(List.of("E02", "E04", "12C"), first.getOccupiedSeats());
+        assertEquals(List.of("E01", "E03", "E05", "E06", "E07", "E08"), first.getAvailableSeats());
+        verify(ticketRepository, times(1)).findActiveSeatNumbers(1, 1);
+    }
+
+    @Test
+    @DisplayName("TC2: Seat checks match on seat number regardless of prefix")
+    void areSeatsAvailable_ChecksBitmap() {
+        assertTrue(seatMapService.areSeatsAvailable(1, 1, List.of("E01", "e03")));
+        assertFalse(seatMapService.areSeatsAvailable(1, 1, List.of("E01", "E04")));
+        assertFalse(seatMapService.areSeatsAvailable(1, 1, List.of("12C")));
+        assertFalse(seatMapService.areSeatsAvailable(1, 1, List.of("E01", "A1")));
+    }
+
+    @Test
+    @DisplayName("TC3: Occupy is all or nothing")
+    void occupySeats_AllOrNothing() {
+        assertFalse(seatMapService.occupySeats(1, 1, List.of("E01", "E02")));
+        assertTrue(seatMapService.areSeatsAvailable(1, 1, List.of("E01")));
+
+        assertTrue(seatMapService.occupySeats(1, 1, List.of("E01", "E03")));
+        assertFalse(seatMapService.areSeatsAvailable(1, 1, List.of("E01")));
+    }
+
+    @Test
+    @DisplayName("TC4: Adjacent search skips blocks that are too short")
+    void findAdjacentFreeSeats_ReturnsFirstLongEnoughBlock() {
+        assertEquals(List.of("E05", "E06", "E07"), seatMapService.findAdjacentFreeSeats(1, 1, 3));
+        assertEquals(List.of(), seatMapService.findAdjacentFreeSeats(1, 1, 5));
+    }
+
+    @Test
+    @DisplayName("TC5: Assign falls back to scattered seats and fails when full")
+    void assignSeats_FallsBackThenFails() {
+        assertEquals(List.of("E05", "E06", "E07", "E08"), seatMapService.assignSeats(1, 1, 4));
+        assertEquals(List.of("E01", "E03"), seatMapService.assignSeats(1, 1, 2));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> seatMapService.assignSeats(1, 1, 1));
+        assertTrue(exception.getMessage().contains("Not enough free seats"));
+    }
+
+    @Test
+    @DisplayName("TC6: Released seats become free again")
+    void releaseSeats_FreesSeats() {
+        seatMapService.getSeatMap(1, 1);
+
+        seatMapService.releaseSeats(1, 1, List.of("E02", "12C"));
+
+        assertTrue(seatMapService.areSeatsAvailable(1, 1, List.of("E02", "12C")));
+    }
+
+    @Test
+    @DisplayName("TC7: Unknown flight ticket class - ResourceNotFoundException")
+    void getSeatMap_UnknownClass_ThrowsException() {
+        when(flightTicketClassRepository.findByFlightIdAndTicketClassId(1, 9)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> seatMapService.getSeatMap(1, 9));
+        assertFalse(seatMapService.occupySeats(1, 9, List.of("E01")));
+    }
+
+    @Test
+    @DisplayName("TC8: Seat map evicted while it was being built - Not kept, next call rebuilds it")
+    void getSeatMap_EvictedDuringBuild_NotKept() {
+        when(ticketRepository.findActiveSeatNumbers(1, 1)).thenAnswer(invocation -> {
+            seatMapService.evict(1, 1);
+            return List.of("E02");
+        });
+        seatMapService.getSeatMap(1, 1);
+
+        when(ticketRepository.findActiveSeatNumbers(1, 1)).thenReturn(List.of("E02", "E03"));
+        SeatMapDto rebuilt = seatMapService.getSeatMap(1, 1);
+
+        assertEquals(List.of("E02", "E03"), rebuilt.getOccupiedSeats());
+        verify(ticketRepository, times(2)).findActiveSeatNumbers(1, 1);
+    }
+}
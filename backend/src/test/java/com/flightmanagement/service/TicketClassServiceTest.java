@@ -29,6 +29,9 @@ public class TicketClassServiceTest {
     @Mock
     private TicketClassMapper ticketClassMapper;
 
+    @Mock
+    private ReferenceDataRegistry referenceDataRegistry;
+
     @InjectMocks
     private TicketClassServiceImpl ticketClassService;
 
@@ -0,0 +1,164 @@
+package com.flightmanagement.service;
+
+import com.flightmanagement.dto.ParameterDto;
+import com.flightmanagement.repository.FlightTicketClassRepository;
+import com.flightmanagement.repository.TicketRepository;
+import com.flightmanagement.service.impl.TicketCleanupServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("TicketCleanupService Tests")
+class TicketCleanupServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private FlightTicketClassRepository flightTicketClassRepository;
+
+    @Mock
+    private ParameterService parameterService;
+
+    @Mock
+    private SeatInventoryService seatInventoryService;
+
+    @Mock
+    private SeatMapService seatMapService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TicketCleanupServiceImpl ticketCleanupService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ticketCleanupService = new TicketCleanupServiceImpl(ticketRepository, flightTicketClassRepository,
+                parameterService, seatInventoryService, seatMapService, transactionTemplate, meterRegistry, CHUNK_SIZE);
+
+        ParameterDto parameters = new ParameterDto();
+        parameters.setMaxBookingHoldDuration(24);
+        when(parameterService.getLatestParameter()).thenReturn(parameters);
+
+        // Run each chunk inline
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(ticketRepository.softDeleteByIds(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<List<Integer>>getArgument(0).size());
+    }
+
+    @Test
+    @DisplayName("TC1: Expired tickets across two chunks - One grouped restore and one bulk delete per chunk")
+    void cleanup_TwoChunks_BulkUpdatesPerChunk() {
+        // Arrange
+        when(ticketRepository.lockExpiredUnpaidTickets(any(), eq(CHUNK_SIZE)))
+                .thenReturn(rows(new Object[]{1, 10, 1, "E01"}, new Object[]{2, 10, 1, "E02"}))
+                .thenReturn(rows(new Object[]{3, 11, 2, "B01"}));
+
+        // Act
+        ticketCleanupService.cleanupExpiredUnpaidTickets();
+
+        // Assert
+        verify(ticketRepository, times(2)).lockExpiredUnpaidTickets(any(), eq(CHUNK_SIZE));
+        verify(flightTicketClassRepository).restoreRemainingForTickets(List.of(1, 2));
+        verify(flightTicketClassRepository).restoreRemainingForTickets(List.of(3));
+        verify(ticketRepository).softDeleteByIds(eq(List.of(1, 2)), any());
+        verify(ticketRepository).softDeleteByIds(eq(List.of(3)), any());
+        verify(ticketRepository, never()).save(any());
+
+        verify(seatMapService).releaseSeats(10, 1, List.of("E01", "E02"));
+        verify(seatMapService).releaseSeats(11, 2, List.of("B01"));
+        verify(seatInventoryService).refresh(10, 1);
+        verify(seatInventoryService).refresh(11, 2);
+
+        assertEquals(3.0, meterRegistry.counter("ticket.cleanup.expired").count());
+        assertEquals(2.0, meterRegistry.counter("ticket.cleanup.chunks").count());
+        assertEquals(1, meterRegistry.timer("ticket.cleanup.duration").count());
+    }
+
+    @Test
+    @DisplayName("TC2: Nothing expired - No updates, run is still timed")
+    void cleanup_NothingExpired_NoUpdates() {
+        // Arrange
+        when(ticketRepository.lockExpiredUnpaidTickets(any(), eq(CHUNK_SIZE))).thenReturn(List.of());
+
+        // Act
+        ticketCleanupService.cleanupExpiredUnpaidTickets();
+
+        // Assert
+        verify(flightTicketClassRepository, never()).restoreRemainingForTickets(anyCollection());
+        verify(ticketRepository, never()).softDeleteByIds(anyCollection(), any());
+        assertEquals(0.0, meterRegistry.counter("ticket.cleanup.expired").count());
+        assertEquals(1, meterRegistry.timer("ticket.cleanup.duration").count());
+    }
+
+    @Test
+    @DisplayName("TC3: Chunk fails - Error is contained and earlier chunks stay counted")
+    void cleanup_ChunkFails_ErrorContained() {
+        // Arrange
+        when(ticketRepository.lockExpiredUnpaidTickets(any(), eq(CHUNK_SIZE)))
+                .thenReturn(rows(new Object[]{1, 10, 1, "E01"}, new Object[]{2, 10, 1, "E02"}))
+                .thenThrow(new RuntimeException("Lock wait timeout exceeded"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> ticketCleanupService.cleanupExpiredUnpaidTickets());
+        assertEquals(2.0, meterRegistry.counter("ticket.cleanup.expired").count());
+        assertEquals(1, meterRegistry.timer("ticket.cleanup.duration").count());
+    }
+
+    @Test
+    @DisplayName("TC4: Hold expires for one booking - Only its unpaid tickets are canceled")
+    void expireBooking_CancelsUnpaidTicketsOfBooking() {
+        // Arrange
+        when(ticketRepository.lockUnpaidTicketsByConfirmationCode("FMS-20251207-TEST"))
+                .thenReturn(rows(new Object[]{7, 10, 1, "E07"}));
+
+        // Act
+        int canceled = ticketCleanupService.expireBooking("FMS-20251207-TEST");
+
+        // Assert
+        assertEquals(1, canceled);
+        verify(flightTicketClassRepository).restoreRemainingForTickets(List.of(7));
+        verify(ticketRepository).softDeleteByIds(eq(List.of(7)), any());
+        verify(seatMapService).releaseSeats(10, 1, List.of("E07"));
+        verify(ticketRepository, never()).lockExpiredUnpaidTickets(any(), anyInt());
+        assertEquals(1.0, meterRegistry.counter("ticket.cleanup.expired").count());
+    }
+
+    @Test
+    @DisplayName("TC5: Booking already paid or canceled - Nothing to do")
+    void expireBooking_NothingUnpaid_ReturnsZero() {
+        // Arrange
+        when(ticketRepository.lockUnpaidTicketsByConfirmationCode("FMS-PAID")).thenReturn(List.of());
+
+        // Act & Assert
+        assertEquals(0, ticketCleanupService.expireBooking("FMS-PAID"));
+        verify(ticketRepository, never()).softDeleteByIds(anyCollection(), any());
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
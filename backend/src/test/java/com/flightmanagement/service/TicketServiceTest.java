@@ -2,6 +2,8 @@ package com.flightmanagement.service;
 
 import com.flightmanagement.dto.*;
 import com.flightmanagement.entity.*;
+import com.flightmanagement.exception.BadRequestException;
+import com.flightmanagement.exception.ConflictException;
 import com.flightmanagement.exception.ResourceNotFoundException;
 import com.flightmanagement.mapper.TicketMapper;
 import com.flightmanagement.repository.*;
@@ -13,9 +15,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -55,11 +61,29 @@ class TicketServiceTest {
     private PassengerService passengerService;
 
     @Mock
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
 
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private SeatMapService seatMapService;
+
+    @Mock
+    private TicketBatchRepository ticketBatchRepository;
+
+    @Mock
+    private BookingHoldService bookingHoldService;
+
+    @Spy
+    private ConfirmationCodeGenerator confirmationCodeGenerator = new ConfirmationCodeGenerator(0);
+
     @InjectMocks
     private TicketServiceImpl ticketService;
 
@@ -337,7 +361,7 @@ class TicketServiceTest {
     // ============================================================
 
     @Nested
-    @DisplayName("BookTickets Tests - Full Path Coverage (12 tests)")
+    @DisplayName("BookTickets Tests - Full Path Coverage (14 tests)")
     class BookTicketsTests {
 
         private BookingDto bookingDto;
@@ -390,6 +414,7 @@ class TicketServiceTest {
             passenger = new Passenger();
             passenger.setPassengerId(1);
             ticket = new Ticket();
+            ticket.setTicketId(1);
         }
 
         // ===== NHÓM 1: Happy Paths - Single Passenger =====
@@ -410,7 +435,7 @@ class TicketServiceTest {
             assertNotNull(result);
             assertEquals(1, result.size());
             verify(flightTicketClassService, atLeastOnce()).getFlightTicketClassById(1, 1);
-            verify(flightTicketClassService).updateRemainingTickets(1, 1, 1);
+            verify(flightTicketClassService).reserveTickets(1, 1, 1);
         }
 
         @Test
@@ -429,7 +454,7 @@ class TicketServiceTest {
             assertNotNull(result);
             assertEquals(1, result.size());
             assertNotNull(result.get(0).getSeatNumber());
-            verify(flightTicketClassService).updateRemainingTickets(1, 1, 1);
+            verify(flightTicketClassService).reserveTickets(1, 1, 1);
         }
 
         @Test
@@ -448,7 +473,7 @@ class TicketServiceTest {
             // Assert
             assertNotNull(result);
             assertEquals(1, result.size());
-            verify(flightTicketClassService).updateRemainingTickets(1, 1, 1);
+            verify(flightTicketClassService).reserveTickets(1, 1, 1);
         }
 
         // ===== NHÓM 2: Happy Paths - Multiple Passengers =====
@@ -474,7 +499,7 @@ class TicketServiceTest {
             // Assert
             assertNotNull(result);
             assertEquals(2, result.size());
-            verify(flightTicketClassService).updateRemainingTickets(1, 1, 2);
+            verify(flightTicketClassService).reserveTickets(1, 1, 2);
         }
 
         // ===== NHÓM 3: Exception Paths =====
@@ -491,7 +516,7 @@ class TicketServiceTest {
             });
 
             verify(flightTicketClassService, never()).getFlightTicketClassById(anyInt(), anyInt());
-            verify(flightTicketClassService, never()).updateRemainingTickets(anyInt(), anyInt(), anyInt());
+            verify(flightTicketClassService, never()).reserveTickets(anyInt(), anyInt(), anyInt());
         }
 
         @Test
@@ -520,7 +545,7 @@ class TicketServiceTest {
             String message = exception.getMessage();
             assertTrue(message.contains("not available") || message.contains("Not enough tickets"));
 
-            verify(flightTicketClassService, never()).updateRemainingTickets(anyInt(), anyInt(), anyInt());
+            verify(flightTicketClassService, never()).reserveTickets(anyInt(), anyInt(), anyInt());
         }
 
         @Test
@@ -539,7 +564,7 @@ class TicketServiceTest {
             });
 
             assertTrue(exception.getMessage().contains("not available"));
-            verify(flightTicketClassService, never()).updateRemainingTickets(anyInt(), anyInt(), anyInt());
+            verify(flightTicketClassService, never()).reserveTickets(anyInt(), anyInt(), anyInt());
         }
 
         // ===== NHÓM 4: Edge Cases =====
@@ -566,7 +591,7 @@ class TicketServiceTest {
             // Assert
             assertNotNull(result);
             assertEquals(2, result.size());
-            verify(flightTicketClassService).updateRemainingTickets(1, 1, 2);
+            verify(flightTicketClassService).reserveTickets(1, 1, 2);
         }
 
 
@@ -598,18 +623,162 @@ class TicketServiceTest {
                     .allMatch(t -> firstCode.equals(t.getConfirmationCode())));
         }
 
+        @Test
+        @DisplayName("TC10: Seats already claimed by a concurrent booking - Fails fast")
+        void bookTickets_ReserveFails_NoTicketsCreated() {
+            // Arrange
+            bookingDto.setPassengers(Collections.singletonList(passengerDto));
+            bookingDto.setSeatNumbers(null);
+
+            mockCreateTicketDependencies();
+            doThrow(new RuntimeException("Not enough tickets available. Requested: 1"))
+                    .when(flightTicketClassService).reserveTickets(1, 1, 1);
+
+            // Act & Assert
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+                ticketService.bookTickets(bookingDto);
+            });
+
+            assertTrue(exception.getMessage().contains("Not enough tickets"));
+            verify(ticketRepository, never()).save(any(Ticket.class));
+            verify(flightTicketClassService, never()).releaseTickets(anyInt(), anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("TC11: Ticket creation fails after claim - Releases claimed seats")
+        void bookTickets_TicketCreationFails_ReleasesClaimedSeats() {
+            // Arrange
+            bookingDto.setPassengers(Collections.singletonList(passengerDto));
+            bookingDto.setSeatNumbers(null);
+
+            mockCreateTicketDependencies();
+            doThrow(new RuntimeException("Database error")).when(ticketBatchRepository).insertTickets(anyList());
+
+            // Act & Assert
+            assertThrows(RuntimeException.class, () -> {
+                ticketService.bookTickets(bookingDto);
+            });
+
+            verify(flightTicketClassService).reserveTickets(1, 1, 1);
+            verify(flightTicketClassService).releaseTickets(1, 1, 1);
+            verify(seatMapService).releaseSeats(1, 1, List.of("E01"));
+            verify(emailOutboxService, never()).enqueueBookingConfirmation(anyString());
+        }
+
+        @Test
+        @DisplayName("TC12: Requested seat already taken in seat map - Fails before claiming")
+        void bookTickets_SeatTaken_ThrowsException() {
+            // Arrange
+            bookingDto.setPassengers(Collections.singletonList(passengerDto));
+            bookingDto.setSeatNumbers(List.of("E05"));
+
+            mockCreateTicketDependencies();
+            when(seatMapService.areSeatsAvailable(1, 1, List.of("E05"))).thenReturn(false);
+
+            // Act & Assert
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+                ticketService.bookTickets(bookingDto);
+            });
+
+            assertTrue(exception.getMessage().contains("already taken"));
+            verify(flightTicketClassService, never()).reserveTickets(anyInt(), anyInt(), anyInt());
+            verify(ticketRepository, never()).findByFlightIdAndSeatNumber(anyInt(), anyString());
+        }
+
+        @Test
+        @DisplayName("TC13: Seat claimed by a concurrent booking - Releases claimed tickets")
+        void bookTickets_SeatClaimFails_ReleasesClaimedTickets() {
+            // Arrange
+            bookingDto.setPassengers(Collections.singletonList(passengerDto));
+            bookingDto.setSeatNumbers(List.of("E05"));
+
+            mockCreateTicketDependencies();
+            when(seatMapService.occupySeats(1, 1, List.of("E05"))).thenReturn(false);
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> {
+                ticketService.bookTickets(bookingDto);
+            });
+
+            verify(flightTicketClassService).releaseTickets(1, 1, 1);
+            verify(seatMapService, never()).releaseSeats(anyInt(), anyInt(), any());
+            verify(ticketBatchRepository, never()).insertTickets(anyList());
+        }
+
+        @Test
+        @DisplayName("TC14: No seats requested - Uses seats assigned by the seat map")
+        void bookTickets_NoSeatList_UsesAssignedSeats() {
+            // Arrange
+            bookingDto.setPassengers(Collections.singletonList(passengerDto));
+            bookingDto.setSeatNumbers(null);
+
+            mockCreateTicketDependencies();
+
+            // Act
+            ticketService.bookTickets(bookingDto);
+
+            // Assert
+            verify(seatMapService).assignSeats(1, 1, 1);
+            verify(ticketBatchRepository).insertTickets(argThat(tickets -> "E01".equals(tickets.get(0).getSeatNumber())));
+        }
+
+        @Test
+        @DisplayName("TC15: Multiple passengers - One passenger lookup, one ticket batch, one audit batch")
+        void bookTickets_MultiplePassengers_PersistsInBatches() {
+            // Arrange
+            PassengerDto passenger2 = new PassengerDto();
+            passenger2.setPassengerName("Jane Smith");
+            passenger2.setEmail("jane@example.com");
+            passenger2.setCitizenId("987654321");
+
+            bookingDto.setPassengers(Arrays.asList(passengerDto, passenger2));
+            bookingDto.setSeatNumbers(null);
+
+            mockCreateTicketDependencies();
+
+            // Act
+            List<TicketDto> result = ticketService.bookTickets(bookingDto);
+
+            // Assert
+            assertEquals(List.of(1, 2), result.stream().map(TicketDto::getPassengerId).toList());
+            assertEquals(List.of(1, 2), result.stream().map(TicketDto::getTicketId).toList());
+            verify(passengerService, times(1)).getOrCreatePassengers(anyList());
+            verify(passengerService, never()).getPassengerByCitizenId(anyString());
+            verify(ticketBatchRepository, times(1)).insertTickets(anyList());
+            verify(ticketRepository, never()).save(any(Ticket.class));
+            verify(auditLogService, times(1)).saveAuditLogs(argThat(logs -> logs.size() == 2));
+            verify(emailOutboxService, times(1)).enqueueBookingConfirmation(result.get(0).getConfirmationCode());
+            verify(bookingHoldService, times(1)).registerHold(result.get(0).getConfirmationCode(), 1);
+        }
+
         // Helper method to mock createTicket dependencies
         private void mockCreateTicketDependencies() {
             // Mock validation: isFlightAvailable calls getFlightTicketClassById
             when(flightTicketClassService.getFlightTicketClassById(anyInt(), anyInt()))
                     .thenReturn(flightTicketClassDto);
 
-            // Mock getOrCreatePassenger -> uses passengerService.getPassengerByCitizenId
-            when(passengerService.getPassengerByCitizenId(anyString())).thenReturn(passengerDto);
+            // Mock passenger lookup: passengers get ids in request order
+            when(passengerService.getOrCreatePassengers(anyList())).thenAnswer(invocation -> {
+                List<PassengerDto> passengers = new ArrayList<>();
+                for (PassengerDto requested : invocation.<List<PassengerDto>>getArgument(0)) {
+                    PassengerDto saved = new PassengerDto();
+                    saved.setPassengerId(passengers.size() + 1);
+                    saved.setCitizenId(requested.getCitizenId());
+                    passengers.add(saved);
+                }
+                return passengers;
+            });
 
-            // Mock seat availability check
-            when(ticketRepository.findByFlightIdAndSeatNumber(anyInt(), anyString()))
-                    .thenReturn(Optional.empty());
+            // Mock seat map checks and seat assignment
+            when(seatMapService.areSeatsAvailable(anyInt(), anyInt(), anyList())).thenReturn(true);
+            when(seatMapService.occupySeats(anyInt(), anyInt(), anyList())).thenReturn(true);
+            when(seatMapService.assignSeats(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+                List<String> seats = new ArrayList<>();
+                for (int i = 1; i <= invocation.<Integer>getArgument(2); i++) {
+                    seats.add(String.format("E%02d", i));
+                }
+                return seats;
+            });
 
             // Mock createTicket dependencies
             when(flightRepository.findById(anyInt())).thenReturn(Optional.of(flight));
@@ -618,6 +787,20 @@ class TicketServiceTest {
             when(passengerRepository.findById(anyInt())).thenReturn(Optional.of(passenger));
             when(ticketRepository.save(any(Ticket.class))).thenReturn(ticket);
             when(ticketMapper.toDto(any(Ticket.class))).thenReturn(ticketDto);
+            when(customerRepository.existsById(anyInt())).thenReturn(true);
+
+            // Batch insert hands out ticket ids in order
+            doAnswer(invocation -> {
+                List<TicketDto> tickets = invocation.getArgument(0);
+                for (int i = 0; i < tickets.size(); i++) {
+                    tickets.get(i).setTicketId(i + 1);
+                }
+                return null;
+            }).when(ticketBatchRepository).insertTickets(anyList());
+
+            // Run the ticket creation callback inline
+            when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                    invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
         }
     }
 
@@ -672,6 +855,64 @@ class TicketServiceTest {
             assertNotNull(result);
             assertTrue(result.isEmpty());
         }
+
+        @Test
+        @DisplayName("Keyset page with more rows - Trims the extra row and returns a cursor after the last ticket")
+        void getAllTicketsAfter_MoreRows_ReturnsNextCursor() {
+            // Arrange
+            List<Ticket> tickets = new ArrayList<>();
+            for (int id = 11; id <= 13; id++) {
+                Ticket ticket = new Ticket();
+                ticket.setTicketId(id);
+                tickets.add(ticket);
+            }
+            when(ticketRepository.findActiveAfter(eq(10), any())).thenReturn(tickets);
+            when(ticketMapper.toDtoList(any())).thenAnswer(invocation -> {
+                List<Ticket> page = invocation.getArgument(0);
+                return page.stream().map(ticket -> {
+                    TicketDto dto = new TicketDto();
+                    dto.setTicketId(ticket.getTicketId());
+                    return dto;
+                }).toList();
+            });
+
+            // Act
+            CursorPage<TicketDto> result = ticketService.getAllTicketsAfter(PageCursor.of(10).encode(), 2, false);
+
+            // Assert
+            assertEquals(List.of(11, 12), result.getContent().stream().map(TicketDto::getTicketId).toList());
+            assertTrue(result.isHasNext());
+            assertEquals(12, PageCursor.decode(result.getNextCursor()).id());
+            assertNull(result.getTotalElements());
+            verify(ticketRepository).findActiveAfter(10, PageRequest.ofSize(3));
+            verify(ticketRepository, never()).countByDeletedAtIsNull();
+        }
+
+        @Test
+        @DisplayName("First keyset page with count - Starts from the beginning and counts active tickets")
+        void getAllTicketsAfter_EmptyCursorWithCount_LastPage() {
+            // Arrange
+            when(ticketRepository.findActiveAfter(eq(0), any())).thenReturn(new ArrayList<>());
+            when(ticketMapper.toDtoList(any())).thenReturn(new ArrayList<>());
+            when(ticketRepository.countByDeletedAtIsNull()).thenReturn(0L);
+
+            // Act
+            CursorPage<TicketDto> result = ticketService.getAllTicketsAfter("", 10, true);
+
+            // Assert
+            assertFalse(result.isHasNext());
+            assertNull(result.getNextCursor());
+            assertEquals(0L, result.getTotalElements());
+        }
+
+        @Test
+        @DisplayName("Malformed cursor - Throws BadRequestException")
+        void getAllTicketsAfter_InvalidCursor_ThrowsBadRequest() {
+            // Act & Assert
+            assertThrows(BadRequestException.class,
+                    () -> ticketService.getAllTicketsAfter("not a cursor!", 10, false));
+            verify(ticketRepository, never()).findActiveAfter(any(), any());
+        }
     }
 
     // ============================================================
@@ -765,6 +1006,58 @@ class TicketServiceTest {
 
             assertEquals("Ticket not found with id: 999", exception.getMessage());
         }
+
+        @Test
+        @DisplayName("New seat already taken in seat map - Throws ConflictException, nothing saved")
+        void updateTicket_SeatTaken_ThrowsConflict() {
+            // Arrange
+            Ticket existingTicket = seatedTicket("E01");
+            TicketDto updateDto = new TicketDto();
+            updateDto.setSeatNumber("E05");
+
+            when(ticketRepository.findActiveById(1)).thenReturn(Optional.of(existingTicket));
+            when(seatMapService.occupySeats(1, 1, List.of("E05"))).thenReturn(false);
+
+            // Act & Assert
+            assertThrows(ConflictException.class, () -> ticketService.updateTicket(1, updateDto));
+            verify(ticketRepository, never()).save(any(Ticket.class));
+            verify(seatMapService, never()).releaseSeats(anyInt(), anyInt(), any());
+            assertEquals("E01", existingTicket.getSeatNumber());
+        }
+
+        @Test
+        @DisplayName("New seat free - Claims the new seat and frees the old one")
+        void updateTicket_SeatFree_MovesSeat() {
+            // Arrange
+            Ticket existingTicket = seatedTicket("E01");
+            TicketDto updateDto = new TicketDto();
+            updateDto.setSeatNumber("E05");
+
+            when(ticketRepository.findActiveById(1)).thenReturn(Optional.of(existingTicket));
+            when(seatMapService.occupySeats(1, 1, List.of("E05"))).thenReturn(true);
+            when(ticketRepository.save(any(Ticket.class))).thenReturn(existingTicket);
+
+            // Act
+            ticketService.updateTicket(1, updateDto);
+
+            // Assert
+            verify(seatMapService).occupySeats(1, 1, List.of("E05"));
+            verify(seatMapService).releaseSeats(1, 1, List.of("E01"));
+            assertEquals("E05", existingTicket.getSeatNumber());
+        }
+
+        private Ticket seatedTicket(String seatNumber) {
+            Flight flight = new Flight();
+            flight.setFlightId(1);
+            TicketClass ticketClass = new TicketClass();
+            ticketClass.setTicketClassId(1);
+            Ticket ticket = new Ticket();
+            ticket.setTicketId(1);
+            ticket.setFlight(flight);
+            ticket.setTicketClass(ticketClass);
+            ticket.setSeatNumber(seatNumber);
+            return ticket;
+        }
     }
 
     // ============================================================
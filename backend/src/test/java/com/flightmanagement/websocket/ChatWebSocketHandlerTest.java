@@ -0,0 +1,316 @@
+package com.flightmanagement.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightmanagement.dto.MessageDto;
+import com.flightmanagement.service.MessageCreatedEvent;
+import com.flightmanagement.service.MessageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ChatWebSocketHandler Tests")
+class ChatWebSocketHandlerTest {
+
+    @Mock
+    private MessageService messageService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ChatWebSocketHandler chatWebSocketHandler;
+
+    private final CountDownLatch releaseSlowClient = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        chatWebSocketHandler = new ChatWebSocketHandler(messageService, new ObjectMapper().findAndRegisterModules(),
+                meterRegistry, 2, 100, 1024, 1000, 6000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlowClient.countDown();
+        chatWebSocketHandler.shutdown();
+    }
+
+    @Test
+    @DisplayName("TC1: Typing in a chatbox - Only the other members of that chatbox are notified")
+    void typingStart_BroadcastsToRoomMembersOnly() throws Exception {
+        // Arrange
+        WebSocketSession sender = connect("s1", "chat-1");
+        WebSocketSession member = connect("s2", "chat-1");
+        WebSocketSession outsider = connect("s3", "chat-2");
+
+        // Act
+        chatWebSocketHandler.handleMessage(sender, typingStart("chat-1"));
+
+        // Assert
+        verify(member, timeout(1000)).sendMessage(any(TextMessage.class));
+        verify(sender, after(200).never()).sendMessage(any());
+        verify(outsider, never()).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("TC2: Member closes the connection - No longer receives broadcasts")
+    void connectionClosed_LeavesRoom() throws Exception {
+        // Arrange
+        WebSocketSession sender = connect("s1", "chat-1");
+        WebSocketSession member = connect("s2", "chat-1");
+        chatWebSocketHandler.afterConnectionClosed(member, CloseStatus.NORMAL);
+
+        // Act
+        chatWebSocketHandler.handleMessage(sender, typingStart("chat-1"));
+
+        // Assert
+        verify(member, after(200).never()).sendMessage(any());
+        assertEquals(1.0, meterRegistry.get("chat.websocket.sessions").gauge().value());
+    }
+
+    @Test
+    @DisplayName("TC3: Slow client past the send time limit - Disconnected while the room keeps receiving")
+    void slowClient_DisconnectedWithoutStallingRoom() throws Exception {
+        // Arrange
+        connect("s1", "1");
+        WebSocketSession fast = connect("s2", "1");
+        WebSocketSession slow = connect("s3", "1");
+        doAnswer(invocation -> {
+            releaseSlowClient.await();
+            return null;
+        }).when(slow).sendMessage(any());
+
+        // Act
+        chatWebSocketHandler.onMessageCreated(new MessageCreatedEvent(message(1)));
+        Thread.sleep(150);
+        for (int seq = 2; seq <= 6; seq++) {
+            chatWebSocketHandler.onMessageCreated(new MessageCreatedEvent(message(seq)));
+        }
+
+        // Assert
+        verify(fast, timeout(1000).times(6)).sendMessage(any(TextMessage.class));
+        verify(slow, timeout(1000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1.0, meterRegistry.get("chat.websocket.dropped").tag("reason", "slow_consumer").counter().count());
+    }
+
+    @Test
+    @DisplayName("TC4: Broadcast to several members - One encoded message shared by all recipients")
+    void typingStart_SharesEncodedMessage() throws Exception {
+        // Arrange
+        WebSocketSession sender = connect("s1", "chat-1");
+        WebSocketSession first = connect("s2", "chat-1");
+        WebSocketSession second = connect("s3", "chat-1");
+        ArgumentCaptor<TextMessage> firstMessage = ArgumentCaptor.forClass(TextMessage.class);
+        ArgumentCaptor<TextMessage> secondMessage = ArgumentCaptor.forClass(TextMessage.class);
+
+        // Act
+        chatWebSocketHandler.handleMessage(sender, new TextMessage("{\"type\":\"typing_start\",\"chatboxId\":\"chat-1\","
+                + "\"userId\":\"s1\",\"userType\":\"customer\",\"userName\":\"Nguyen Van A\",\"clientVersion\":3}"));
+
+        // Assert
+        verify(first, timeout(1000)).sendMessage(firstMessage.capture());
+        verify(second, timeout(1000)).sendMessage(secondMessage.capture());
+        assertSame(firstMessage.getValue(), secondMessage.getValue());
+        assertTrue(firstMessage.getValue().getPayload().startsWith("{\"type\":\"typing_start\",\"userId\":\"s1\","
+                + "\"userType\":\"customer\",\"userName\":\"Nguyen Van A\",\"timestamp\":"));
+    }
+
+    @Test
+    @DisplayName("TC5: Repeated typing_start from one user - Broadcast once")
+    void typingStart_Repeated_BroadcastOnce() throws Exception {
+        // Arrange
+        WebSocketSession sender = connect("s1", "chat-1");
+        WebSocketSession member = connect("s2", "chat-1");
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            chatWebSocketHandler.handleMessage(sender, typingStart("chat-1"));
+        }
+
+        // Assert
+        verify(member, after(300).times(1)).sendMessage(any(TextMessage.class));
+    }
+
+    @Test
+    @DisplayName("TC6: Stop right after a start - Sent at once, then repeated by the next flush")
+    void typingStop_RightAfterStart_SentAtOnce() throws Exception {
+        // Arrange
+        WebSocketSession sender = connect("s1", "chat-1");
+        WebSocketSession member = connect("s2", "chat-1");
+        ArgumentCaptor<TextMessage> messages = ArgumentCaptor.forClass(TextMessage.class);
+
+        // Act
+        chatWebSocketHandler.handleMessage(sender, typingStart("chat-1"));
+        chatWebSocketHandler.handleMessage(sender, typingStop("chat-1"));
+
+        // Assert
+        // Sender threads may deliver the two in either order
+        verify(member, timeout(1000).times(2)).sendMessage(messages.capture());
+        assertTrue(messages.getAllValues().stream().anyMatch(message ->
+                message.getPayload().startsWith("{\"type\":\"typing_start\"")));
+        assertTrue(messages.getAllValues().stream().anyMatch(message ->
+                message.getPayload().startsWith("{\"type\":\"typing_stop\"")));
+
+        chatWebSocketHandler.flushTyping(System.currentTimeMillis());
+        verify(member, timeout(1000).times(3)).sendMessage(messages.capture());
+        assertTrue(messages.getValue().getPayload().startsWith("{\"type\":\"typing_stop\""));
+    }
+
+    @Test
+    @DisplayName("TC7: Typing left idle past the timeout - typing_stop sent once, then forgotten")
+    void typing_Idle_Expires() throws Exception {
+        // Arrange
+        WebSocketSession sender = connect("s1", "chat-1");
+        WebSocketSession member = connect("s2", "chat-1");
+        ArgumentCaptor<TextMessage> messages = ArgumentCaptor.forClass(TextMessage.class);
+        chatWebSocketHandler.handleMessage(sender, typingStart("chat-1"));
+        long later = System.currentTimeMillis() + 10_000;
+
+        // Act
+        chatWebSocketHandler.flushTyping(later);
+        chatWebSocketHandler.flushTyping(later + 2_000);
+
+        // Assert
+        verify(member, after(300).times(2)).sendMessage(messages.capture());
+        assertTrue(messages.getAllValues().stream().anyMatch(message ->
+                message.getPayload().startsWith("{\"type\":\"typing_stop\",\"userId\":\"s1\"")));
+    }
+
+    @Test
+    @DisplayName("TC8: new_message with content - Saved through MessageService as the sender's type")
+    void newMessage_WithContent_Saved() throws Exception {
+        // Arrange
+        WebSocketSession customer = connect("s1", "1", "12", "customer");
+        WebSocketSession employee = connect("s2", "1", "5", "employee");
+
+        // Act
+        chatWebSocketHandler.handleMessage(customer, new TextMessage("{\"type\":\"new_message\",\"chatboxId\":\"1\","
+                + "\"userId\":\"12\",\"userType\":\"customer\",\"content\":\"Can I change my seat?\"}"));
+        chatWebSocketHandler.handleMessage(employee, new TextMessage("{\"type\":\"new_message\",\"chatboxId\":\"1\","
+                + "\"userId\":\"5\",\"userType\":\"employee\",\"content\":\"Yes, which flight?\"}"));
+        chatWebSocketHandler.handleMessage(customer, newMessage("1"));
+
+        // Assert
+        verify(messageService).createCustomerMessage(1, "Can I change my seat?");
+        verify(messageService).createEmployeeMessage(1, 5, "Yes, which flight?");
+        verifyNoMoreInteractions(messageService);
+    }
+
+    @Test
+    @DisplayName("TC11: new_message for another chatbox or user - Rejected, nothing saved")
+    void newMessage_NotJoined_Rejected() throws Exception {
+        // Arrange
+        WebSocketSession customer = connect("s1", "1", "12", "customer");
+
+        // Act
+        chatWebSocketHandler.handleMessage(customer, new TextMessage("{\"type\":\"new_message\",\"chatboxId\":\"2\","
+                + "\"userId\":\"12\",\"userType\":\"customer\",\"content\":\"Hello\"}"));
+        chatWebSocketHandler.handleMessage(customer, new TextMessage("{\"type\":\"new_message\",\"chatboxId\":\"1\","
+                + "\"userId\":\"5\",\"userType\":\"employee\",\"content\":\"Hello\"}"));
+
+        // Assert
+        verifyNoInteractions(messageService);
+    }
+
+    @Test
+    @DisplayName("TC9: Message committed - Full message with its seq pushed to every member, sender included")
+    void messageCreated_PushedToWholeRoom() throws Exception {
+        // Arrange
+        WebSocketSession sender = connect("s1", "1");
+        WebSocketSession member = connect("s2", "1");
+        WebSocketSession outsider = connect("s3", "2");
+        ArgumentCaptor<TextMessage> pushed = ArgumentCaptor.forClass(TextMessage.class);
+
+        // Act
+        chatWebSocketHandler.onMessageCreated(new MessageCreatedEvent(message(7)));
+
+        // Assert
+        verify(sender, timeout(1000)).sendMessage(any(TextMessage.class));
+        verify(member, timeout(1000)).sendMessage(pushed.capture());
+        verify(outsider, after(200).never()).sendMessage(any());
+        String payload = pushed.getValue().getPayload();
+        assertTrue(payload.startsWith("{\"type\":\"new_message\",\"chatboxId\":\"1\",\"message\":{\"messageId\":107,"));
+        assertTrue(payload.contains("\"seq\":7"));
+        assertTrue(payload.contains("\"content\":\"Message 7\""));
+    }
+
+    private static MessageDto message(int seq) {
+        MessageDto message = new MessageDto();
+        message.setMessageId(100 + seq);
+        message.setChatboxId(1);
+        message.setContent("Message " + seq);
+        message.setSendTime(LocalDateTime.of(2025, 5, 1, 9, 30));
+        message.setSeq(seq);
+        message.setIsFromCustomer(true);
+        return message;
+    }
+
+    @Test
+    @DisplayName("TC10: Start again within the debounce window - Held back, then sent by the flush")
+    void typingStart_WithinDebounce_SentByFlush() throws Exception {
+        // Arrange
+        WebSocketSession sender = connect("s1", "chat-1");
+        WebSocketSession member = connect("s2", "chat-1");
+        ArgumentCaptor<TextMessage> messages = ArgumentCaptor.forClass(TextMessage.class);
+        chatWebSocketHandler.handleMessage(sender, typingStart("chat-1"));
+        chatWebSocketHandler.handleMessage(sender, typingStop("chat-1"));
+        verify(member, timeout(1000).times(2)).sendMessage(any(TextMessage.class));
+
+        // Act
+        chatWebSocketHandler.handleMessage(sender, typingStart("chat-1"));
+        verify(member, after(300).times(2)).sendMessage(any(TextMessage.class));
+        chatWebSocketHandler.flushTyping(System.currentTimeMillis());
+
+        // Assert
+        verify(member, timeout(1000).times(3)).sendMessage(messages.capture());
+        assertTrue(messages.getValue().getPayload().startsWith("{\"type\":\"typing_start\",\"userId\":\"s1\""));
+    }
+
+    private WebSocketSession connect(String sessionId, String chatboxId) throws Exception {
+        return connect(sessionId, chatboxId, sessionId, "customer");
+    }
+
+    private WebSocketSession connect(String sessionId, String chatboxId, String userId, String userType) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        when(session.isOpen()).thenReturn(true);
+        chatWebSocketHandler.afterConnectionEstablished(session);
+        chatWebSocketHandler.handleMessage(session, new TextMessage("{\"type\":\"join_chat\",\"chatboxId\":\"" + chatboxId
+                + "\",\"userId\":\"" + userId + "\",\"userType\":\"" + userType + "\"}"));
+        return session;
+    }
+
+    private static WebSocketMessage<?> typingStop(String chatboxId) {
+        return new TextMessage("{\"type\":\"typing_stop\",\"chatboxId\":\"" + chatboxId
+                + "\",\"userId\":\"s1\",\"userType\":\"customer\",\"userName\":\"Nguyen Van A\"}");
+    }
+
+    private static WebSocketMessage<?> newMessage(String chatboxId) {
+        return new TextMessage("{\"type\":\"new_message\",\"chatboxId\":\"" + chatboxId
+                + "\",\"userId\":\"s1\",\"userType\":\"customer\"}");
+    }
+
+    private static WebSocketMessage<?> typingStart(String chatboxId) {
+        return new TextMessage("{\"type\":\"typing_start\",\"chatboxId\":\"" + chatboxId
+                + "\",\"userId\":\"s1\",\"userType\":\"customer\",\"userName\":\"Nguyen Van A\"}");
+    }
+}
@@ -12,6 +12,7 @@ CREATE TABLE IF NOT EXISTS parameter
     max_layover_duration INT NOT NULL, -- mins
     min_booking_in_advance_duration INT NOT NULL,
     max_booking_hold_duration INT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0, -- bumped on every update, checked by the update
     deleted_at DATETIME DEFAULT NULL
 );    
 
@@ -93,7 +94,9 @@ CREATE TABLE IF NOT EXISTS flight
     deleted_at DATETIME DEFAULT NULL,
     FOREIGN KEY (plane_id) REFERENCES plane(plane_id),
     FOREIGN KEY (departure_airport_id) REFERENCES airport(airport_id),
-    FOREIGN KEY (arrival_airport_id) REFERENCES airport(airport_id)
+    FOREIGN KEY (arrival_airport_id) REFERENCES airport(airport_id),
+    INDEX idx_flight_route_departure (departure_airport_id, arrival_airport_id, departure_time, deleted_at),
+    INDEX idx_flight_departure_time (departure_time)
 );
 
 CREATE TABLE IF NOT EXISTS flight_detail
@@ -132,7 +135,7 @@ CREATE TABLE IF NOT EXISTS ticket
     ticket_status TINYINT DEFAULT 0, -- 0: unpaid, 1: paid,
     payment_time DATETIME, -- nullable
     fare DECIMAL(10,2) NOT NULL,
-    confirmation_code varchar(20) not null, -- format : (`FMS-yyyyMMdd` + random 4 alphanumerical digits uppercase)
+    confirmation_code varchar(20) not null, -- format : `FMS-yyyyMMdd-` + node id + 6-digit base-36 daily sequence (older codes: random 4-character suffix)
     order_id varchar(100) DEFAULT NULL, -- format : convert to hex(`hhmmss`+`confirmation_code`)
     deleted_at DATETIME DEFAULT NULL,
     FOREIGN KEY (flight_id) REFERENCES flight(flight_id),
@@ -145,6 +148,7 @@ CREATE TABLE IF NOT EXISTS chatbox
 (
     chatbox_id INT AUTO_INCREMENT PRIMARY KEY,
     customer_id INT NOT NULL,
+    last_message_seq INT NOT NULL DEFAULT 0, -- seq of the latest message, bumped when one is sent
     deleted_at DATETIME DEFAULT NULL,
     FOREIGN KEY (customer_id) REFERENCES customer(customer_id)
 );
@@ -156,7 +160,9 @@ CREATE TABLE IF NOT EXISTS message
     employee_id INT NULL,
     content TEXT NOT NULL,
     send_time DATETIME NOT NULL,
+    seq INT NULL, -- 1, 2, 3... within the chatbox; lets clients spot and fetch gaps
     deleted_at DATETIME DEFAULT NULL,
+    UNIQUE KEY uq_message_chatbox_seq (chatbox_id, seq),
     FOREIGN KEY (chatbox_id) REFERENCES chatbox(chatbox_id),
     FOREIGN KEY (employee_id) REFERENCES employee(employee_id)
 );
@@ -191,6 +197,37 @@ create table audit_log
     user_agent  varchar(500)  null
 );
 
+create index idx_audit_log_changed_at on audit_log (changed_at, audit_id);
+
+create table email_outbox
+(
+    outbox_id         int auto_increment
+        primary key,
+    confirmation_code varchar(20)   not null unique,
+    status            tinyint       not null,
+    attempts          int           not null,
+    next_attempt_at   datetime(6)   not null,
+    locked_at         datetime(6)   null,
+    last_error        varchar(1000) null,
+    created_at        datetime(6)   not null,
+    sent_at           datetime(6)   null
+);
+
+create index idx_email_outbox_due on email_outbox (status, next_attempt_at);
+
+create table booking_request
+(
+    idempotency_key   varchar(64) not null
+        primary key,
+    request_hash      varchar(64) not null,
+    confirmation_code varchar(20) null,
+    created_at        datetime(6) not null,
+    reserved_code     varchar(20) null,
+    claimed_at        datetime(6) null
+);
+
+create index idx_booking_request_created on booking_request (created_at);
+
 -- insert into customer values (3, 0, null);
 -- select * from account;
 -- select * from airport;
@@ -9,9 +9,13 @@ import {
   InputGroup,
 } from "react-bootstrap";
 import { chatService, messageService } from "../../../services";
-import { Chatbox } from "../../../models/Chat";
+import { lastSeq, mergeMessages } from "../../../services/chatService";
+import { Chatbox, Message } from "../../../models/Chat";
 import { useAuth } from "../../../hooks/useAuth";
-import { webSocketService } from "../../../services/websocketService";
+import {
+  webSocketService,
+  NewMessageEvent,
+} from "../../../services/websocketService";
 import { accountChatboxService } from "../../../services/accountChatboxService";
 import "./styles/CustomerSupport.css";
 
@@ -23,8 +27,14 @@ interface FormattedMessage {
   sendTime: string;
   employeeName?: string;
   isFromCustomer: boolean;
+  seq?: number;
 }
 
+const formatMessage = (msg: Message): FormattedMessage => ({
+  ...msg,
+  isFromCustomer: !msg.employeeId,
+});
+
 interface TypingUser {
   userId: string;
   userType: string;
@@ -57,6 +67,11 @@ const CustomerSupport: React.FC = () => {
     typeof setInterval
   > | null>(null);
   const typingTimeoutRef = useRef<ReturnType<typeof setTimeout> | null>(null);
+  const lastSeqRef = useRef(0);
+
+  useEffect(() => {
+    lastSeqRef.current = lastSeq(messages);
+  }, [messages]);
 
   useEffect(() => {
     loadChatboxes();
@@ -205,33 +220,38 @@ const CustomerSupport: React.FC = () => {
   const loadMessages = async (chatboxId: number) => {
     try {
       const data = await messageService.getMessagesByChatboxId(chatboxId);
-      const formattedMessages = data.map((msg) => ({
-        ...msg,
-        isFromCustomer: !msg.employeeId,
-      }));
-      setMessages(formattedMessages);
+      setMessages(data.map(formatMessage));
     } catch (error) {
       console.error("Error loading messages:", error);
       setError("Failed to load messages");
     }
   };
 
+  // Fetches only the messages after the last one shown; true if there were any
+  const loadNewMessages = async (chatboxId: number) => {
+    try {
+      const data = await messageService.getMessagesSince(
+        chatboxId,
+        lastSeqRef.current
+      );
+      if (data.length > 0) {
+        setMessages((prev) => mergeMessages(prev, data.map(formatMessage)));
+      }
+      return data.length > 0;
+    } catch (error) {
+      console.error("Failed to load new messages:", error);
+      return false;
+    }
+  };
+
   const startPolling = () => {
     if (pollingIntervalRef.current) return;
 
     pollingIntervalRef.current = setInterval(async () => {
       if (selectedChatbox?.chatboxId) {
         try {
-          const data = await messageService.getMessagesByChatboxId(
-            selectedChatbox.chatboxId
-          );
-          const formattedMessages = data.map((msg) => ({
-            ...msg,
-            isFromCustomer: !msg.employeeId,
-          }));
           // Only update if there are actually new messages
-          if (JSON.stringify(formattedMessages) !== JSON.stringify(messages)) {
-            setMessages(formattedMessages);
+          if (await loadNewMessages(selectedChatbox.chatboxId)) {
 
             // Update last visit time when new messages arrive in selected chatbox
             if (user?.id) {
@@ -438,7 +458,7 @@ const CustomerSupport: React.FC = () => {
         }
       }
 
-      await messageService.createEmployeeMessage(
+      const savedMessage = await messageService.createEmployeeMessage(
         selectedChatbox.chatboxId!,
         user.id,
         newMessage.trim()
@@ -451,7 +471,7 @@ const CustomerSupport: React.FC = () => {
         "employee"
       );
 
-      await loadMessages(selectedChatbox.chatboxId!);
+      setMessages((prev) => mergeMessages(prev, [formatMessage(savedMessage)]));
       setNewMessage("");
     } catch (error) {
       console.error("Failed to send message:", error);
@@ -500,9 +520,16 @@ const CustomerSupport: React.FC = () => {
         }
       };
 
-      const handleNewMessage = () => {
-        // Reload messages when new message arrives
-        loadMessages(selectedChatbox.chatboxId!);
+      const handleNewMessage = (data: NewMessageEvent) => {
+        if (data.message?.chatboxId !== selectedChatbox.chatboxId) return;
+        const message = formatMessage(data.message);
+        if (message.seq != null && message.seq > lastSeqRef.current + 1) {
+          // A push was missed; fetch the gap rather than the whole conversation
+          loadNewMessages(selectedChatbox.chatboxId!);
+        } else {
+          lastSeqRef.current = Math.max(lastSeqRef.current, message.seq ?? 0);
+          setMessages((prev) => mergeMessages(prev, [message]));
+        }
 
         // Update last visit time immediately for selected chatbox
         if (user?.id && selectedChatbox?.chatboxId) {
@@ -307,11 +307,11 @@ const BookingLookup: React.FC = () => {
                             confirmationCode: e.target.value.toUpperCase(),
                           }))
                         }
-                        placeholder="FMS-YYYYMMDD-XXXX"
+                        placeholder="FMS-YYYYMMDD-XXXXXXX"
                         required
                       />
                       <Form.Text className="text-muted">
-                        Định dạng: FMS-YYYYMMDD-XXXX (ví dụ: FMS-20240527-A1B2)
+                        Định dạng: FMS-YYYYMMDD-XXXXXXX (ví dụ: FMS-20240527-0KX3T9A)
                       </Form.Text>
                     </Form.Group>
                   </Col>
@@ -581,7 +581,7 @@ const BookingLookup: React.FC = () => {
             <Card.Body>
               <ul className="mb-0">
                 <li>Đảm bảo bạn nhập mã xác nhận chính xác như đã hiển thị</li>
-                <li>Định dạng mã xác nhận là: FMS-YYYYMMDD-XXXX</li>
+                <li>Định dạng mã xác nhận là: FMS-YYYYMMDD-XXXXXXX</li>
                 <li>
                   Nếu không tìm thấy đặt chỗ của bạn, hãy liên hệ dịch vụ khách
                   hàng
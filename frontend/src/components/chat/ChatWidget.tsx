@@ -8,10 +8,17 @@ import {
   Tooltip,
 } from "react-bootstrap";
 import { useAuth } from "../../hooks/useAuth";
-import { chatService } from "../../services/chatService";
-import { webSocketService } from "../../services/websocketService";
+import {
+  chatService,
+  lastSeq,
+  mergeMessages,
+} from "../../services/chatService";
+import {
+  webSocketService,
+  NewMessageEvent,
+} from "../../services/websocketService";
 import { accountChatboxService } from "../../services/accountChatboxService";
-import { Chatbox } from "../../models/Chat";
+import { Chatbox, Message as ChatMessage } from "../../models/Chat";
 
 interface Message {
   messageId?: number;
@@ -21,8 +28,19 @@ interface Message {
   sendTime: string;
   employeeName?: string;
   isFromCustomer: boolean;
+  seq?: number;
 }
 
+const formatMessage = (msg: ChatMessage, chatboxId: number): Message => ({
+  messageId: msg.messageId,
+  chatboxId: msg.chatboxId || chatboxId,
+  content: msg.content,
+  sendTime: msg.sendTime || new Date().toISOString(),
+  employeeName: msg.employeeName,
+  isFromCustomer: !msg.employeeId, // If employeeId is null, it's from customer
+  seq: msg.seq,
+});
+
 interface TypingUser {
   userId: string;
   userType: string;
@@ -58,6 +76,11 @@ const ChatWidget: React.FC = () => {
     typeof setInterval
   > | null>(null);
   const typingTimeoutRef = useRef<ReturnType<typeof setTimeout> | null>(null);
+  const lastSeqRef = useRef(0);
+
+  useEffect(() => {
+    lastSeqRef.current = lastSeq(messages);
+  }, [messages]);
 
   useEffect(() => {
     if (isOpen && user && !chatbox) {
@@ -126,10 +149,16 @@ const ChatWidget: React.FC = () => {
         }
       };
 
-      const handleNewMessage = () => {
-        // Reload messages when new message arrives
-        if (chatbox?.chatboxId) {
-          loadMessages(chatbox.chatboxId);
+      const handleNewMessage = (data: NewMessageEvent) => {
+        if (chatbox?.chatboxId && data.message?.chatboxId === chatbox.chatboxId) {
+          const message = formatMessage(data.message, chatbox.chatboxId);
+          if (message.seq != null && message.seq > lastSeqRef.current + 1) {
+            // A push was missed; fetch the gap rather than the whole conversation
+            loadNewMessages(chatbox.chatboxId);
+          } else {
+            lastSeqRef.current = Math.max(lastSeqRef.current, message.seq ?? 0);
+            setMessages((prev) => mergeMessages(prev, [message]));
+          }
 
           // Update last visit time if chat is open, otherwise update unread count
           if (isOpen) {
@@ -192,15 +221,11 @@ const ChatWidget: React.FC = () => {
         const existingMessages = await chatService.getMessagesByChatboxId(
           chatboxData.chatboxId
         );
-        const formattedMessages: Message[] = existingMessages.map((msg) => ({
-          messageId: msg.messageId,
-          chatboxId: msg.chatboxId || chatboxData.chatboxId!,
-          content: msg.content,
-          sendTime: msg.sendTime || new Date().toISOString(),
-          employeeName: msg.employeeName,
-          isFromCustomer: !msg.employeeId, // If employeeId is null, it's from customer
-        }));
-        setMessages(formattedMessages);
+        setMessages(
+          existingMessages.map((msg) =>
+            formatMessage(msg, chatboxData.chatboxId!)
+          )
+        );
 
         // Load unread count
         await loadUnreadCount(chatboxData.chatboxId);
@@ -310,20 +335,25 @@ const ChatWidget: React.FC = () => {
     }
   }, [user, chatbox]);
 
-  const loadMessages = React.useCallback(async (chatboxId: number) => {
+  // Fetches only the messages after the last one shown; true if there were any
+  const loadNewMessages = React.useCallback(async (chatboxId: number) => {
     try {
-      const messages = await chatService.getMessagesByChatboxId(chatboxId);
-      const formattedMessages: Message[] = messages.map((msg) => ({
-        messageId: msg.messageId,
-        chatboxId: msg.chatboxId || chatboxId,
-        content: msg.content,
-        sendTime: msg.sendTime || new Date().toISOString(),
-        employeeName: msg.employeeName,
-        isFromCustomer: !msg.employeeId, // If employeeId is null, it's from customer
-      }));
-      setMessages(formattedMessages);
+      const newMessages = await chatService.getMessagesSince(
+        chatboxId,
+        lastSeqRef.current
+      );
+      if (newMessages.length > 0) {
+        setMessages((prev) =>
+          mergeMessages(
+            prev,
+            newMessages.map((msg) => formatMessage(msg, chatboxId))
+          )
+        );
+      }
+      return newMessages.length > 0;
     } catch {
-      // console.error("Failed to load messages:", error);
+      // console.error("Failed to load new messages:", error);
+      return false;
     }
   }, []);
 
@@ -333,21 +363,8 @@ const ChatWidget: React.FC = () => {
     pollingIntervalRef.current = setInterval(async () => {
       if (chatbox?.chatboxId) {
         try {
-          const messages = await chatService.getMessagesByChatboxId(
-            chatbox.chatboxId
-          );
-          const formattedMessages: Message[] = messages.map((msg) => ({
-            messageId: msg.messageId,
-            chatboxId: msg.chatboxId || chatbox.chatboxId!,
-            content: msg.content,
-            sendTime: msg.sendTime || new Date().toISOString(),
-            employeeName: msg.employeeName,
-            isFromCustomer: !msg.employeeId, // If employeeId is null, it's from customer
-          }));
-
           // Only update if there are actually new messages
-          if (JSON.stringify(formattedMessages) !== JSON.stringify(messages)) {
-            setMessages(formattedMessages);
+          if (await loadNewMessages(chatbox.chatboxId)) {
 
             // Update last visit time when new messages arrive in open chat
             if (isOpen && user?.id) {
@@ -378,7 +395,7 @@ const ChatWidget: React.FC = () => {
         }
       }
     }, 200); // Poll every 0.2 seconds
-  }, [chatbox, isOpen, user, loadUnreadCount]);
+  }, [chatbox, isOpen, user, loadUnreadCount, loadNewMessages]);
 
   const stopPolling = React.useCallback(() => {
     if (pollingIntervalRef.current) {
@@ -459,11 +476,18 @@ const ChatWidget: React.FC = () => {
       setNewMessage("");
       setShouldAutoScroll(true);
 
-      // Send message to API
-      await chatService.createCustomerMessage(
+      // Send message to API, then swap the placeholder for the saved message
+      const savedMessage = await chatService.createCustomerMessage(
         chatbox.chatboxId,
         messageContent
       );
+      const chatboxId = chatbox.chatboxId;
+      setMessages((prev) =>
+        mergeMessages(
+          prev.filter((m) => m !== userMessage),
+          [formatMessage(savedMessage, chatboxId)]
+        )
+      );
 
       // Notify WebSocket about new message
       webSocketService.notifyNewMessage(
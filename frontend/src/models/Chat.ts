@@ -25,6 +25,7 @@ export interface Message {
   sendTime: string;
   isFromCustomer?: boolean;
   deletedAt?: string;
+  seq?: number; // Position in the chatbox; messages sent before seq was added have none
 }
 
 export interface SendMessageRequest {
@@ -42,6 +42,12 @@ export class ChatService {
     return response.data;
   }
 
+  // Messages after the given seq, to fill a gap without reloading the conversation
+  async getMessagesSince(chatboxId: number, seq: number): Promise<Message[]> {
+    const response = await apiClient.get<ApiResponse<Message[]>>(`${this.messageUrl}/chatbox/${chatboxId}/since/${seq}`);
+    return response.data;
+  }
+
   async createCustomerMessage(
     chatboxId: number,
     content: string
@@ -78,3 +84,30 @@ export class ChatService {
 }
 
 export const chatService = new ChatService();
+
+// Highest seq among the messages shown, 0 if none has one
+export function lastSeq(messages: { seq?: number }[]): number {
+  return messages.reduce((max, message) => Math.max(max, message.seq ?? 0), 0);
+}
+
+// Adds the messages not shown yet, placing those with a seq in seq order
+export function mergeMessages<T extends { messageId?: number; seq?: number }>(
+  current: T[],
+  incoming: T[]
+): T[] {
+  let merged = current;
+  for (const message of incoming) {
+    if (merged.some((m) => m.messageId === message.messageId)) continue;
+    if (merged === current) merged = [...current];
+    const at =
+      message.seq == null
+        ? -1
+        : merged.findIndex((m) => m.seq != null && m.seq > message.seq!);
+    if (at === -1) {
+      merged.push(message);
+    } else {
+      merged.splice(at, 0, message);
+    }
+  }
+  return merged;
+}
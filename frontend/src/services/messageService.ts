@@ -97,6 +97,12 @@ export class MessageService {
     return response.data;
   }
 
+  // Messages after the given seq, to fill a gap without reloading the conversation
+  async getMessagesSince(chatboxId: number, seq: number): Promise<Message[]> {
+    const response = await apiClient.get<ApiResponse<Message[]>>(`${this.baseUrl}/chatbox/${chatboxId}/since/${seq}`);
+    return response.data;
+  }
+
   async createMessage(messageData: any): Promise<Message> {
     const response = await apiClient.post<ApiResponse<Message>>(this.baseUrl, messageData);
     return response.data;
@@ -1,3 +1,5 @@
+import type { Message } from "../models/Chat";
+
 interface WebSocketMessage {
   type: string;
   chatboxId?: string;
@@ -13,6 +15,14 @@ interface TypingUser {
   userName: string;
 }
 
+// A committed message, pushed to everyone in its chatbox including the sender
+export interface NewMessageEvent {
+  type: string;
+  chatboxId: string;
+  message: Message;
+  timestamp: number;
+}
+
 class WebSocketService {
   private socket: WebSocket | null = null;
   private reconnectInterval: number = 5000;
@@ -145,7 +155,7 @@ class WebSocketService {
     this.addEventListener('typing_stop', callback);
   }
 
-  onNewMessage(callback: (data: any) => void) {
+  onNewMessage(callback: (data: NewMessageEvent) => void) {
     this.addEventListener('new_message', callback);
   }
 